@@ -0,0 +1,14 @@
+-- Menu Search Indexes Migration
+-- Join indexes used by the cross-restaurant dish search (MenuItemRepository.searchDishesNearby)
+-- Run this script after the main application tables are created by Hibernate
+-- The full-text columns and GIN indexes are created by create_search_vectors.sql
+
+-- Join from nearby restaurants to their menu items, and from menu items to their tags
+CREATE INDEX IF NOT EXISTS idx_menu_items_restaurant_id
+    ON menu_items(restaurant_id);
+
+CREATE INDEX IF NOT EXISTS idx_menu_item_tags_menu_item_id
+    ON menu_item_tags(menu_item_id);
+
+ANALYZE menu_items;
+ANALYZE menu_item_tags;
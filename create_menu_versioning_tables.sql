@@ -0,0 +1,28 @@
+-- Menu Versioning Migration
+-- Per-restaurant menu version, per-item change version and deletion tombstones backing
+-- the menu snapshot ETag and the ?sinceVersion= delta sync endpoint
+-- Hibernate (ddl-auto=update) creates the same tables; this script documents them and adds the indexes
+
+CREATE TABLE IF NOT EXISTS restaurant_menu_versions (
+    restaurant_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+ALTER TABLE menu_items ADD COLUMN IF NOT EXISTS menu_version BIGINT;
+
+CREATE TABLE IF NOT EXISTS menu_item_tombstones (
+    id BIGSERIAL PRIMARY KEY,
+    restaurant_id BIGINT NOT NULL,
+    menu_item_id BIGINT NOT NULL,
+    menu_version BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+-- Delta sync: items changed and items deleted after a given version
+CREATE INDEX IF NOT EXISTS idx_menu_items_restaurant_version
+    ON menu_items (restaurant_id, menu_version);
+
+CREATE INDEX IF NOT EXISTS idx_menu_item_tombstone_restaurant_version
+    ON menu_item_tombstones (restaurant_id, menu_version);
+
+ANALYZE menu_items;
@@ -0,0 +1,18 @@
+-- Restaurant Listing Indexes Migration
+-- Composite indexes backing the keyset (created_at, id) pagination of restaurant listings
+-- Run this script after the main application tables are created by Hibernate
+
+-- Public approved listing (newest first) and admin pending queue (oldest first, scanned backwards)
+CREATE INDEX IF NOT EXISTS idx_restaurants_approval_created_id
+    ON restaurants (approval_status, created_at DESC, id DESC);
+
+-- Admin listing of all restaurants
+CREATE INDEX IF NOT EXISTS idx_restaurants_created_id
+    ON restaurants (created_at DESC, id DESC);
+
+-- Category filter for the category listing
+CREATE INDEX IF NOT EXISTS idx_restaurant_categories_category
+    ON restaurant_categories (category, restaurant_id);
+
+ANALYZE restaurants;
+ANALYZE restaurant_categories;
@@ -0,0 +1,19 @@
+-- Restaurant Spatial Indexes Migration
+-- GiST indexes used by the KNN (<->) and ST_DWithin/ST_Contains restaurant queries
+-- Run this script after the main application tables are created by Hibernate
+
+-- KNN index for nearest-restaurant search, restricted to rows that can be returned to customers
+CREATE INDEX IF NOT EXISTS idx_restaurants_location_approved_gist
+    ON restaurants USING GIST(location)
+    WHERE is_active = true AND approval_status = 'APPROVED';
+
+-- General spatial index for radius and route queries
+CREATE INDEX IF NOT EXISTS idx_restaurants_location_gist
+    ON restaurants USING GIST(location);
+
+-- Spatial index for delivery area lookups
+CREATE INDEX IF NOT EXISTS idx_restaurants_delivery_area_gist
+    ON restaurants USING GIST(delivery_area)
+    WHERE delivery_area IS NOT NULL;
+
+ANALYZE restaurants;
@@ -0,0 +1,145 @@
+-- Search Vectors Migration
+-- Diacritic-insensitive full-text search for menu items and restaurants ("pho" finds "phở", "bun bo" finds "Bún bò")
+-- Adds unaccent-normalized tsvector columns kept up to date by triggers, so every write path
+-- (Hibernate, the JDBC bulk menu import, manual SQL) maintains them
+-- Used by MenuItemRepository.searchMenuItems / searchDishesNearby and RestaurantRepository.searchApprovedRestaurantIds
+-- Run this script after the main application tables are created by Hibernate
+-- It replaces the expression indexes created by earlier versions of create_menu_search_indexes.sql
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() is only STABLE because it looks the dictionary up through search_path;
+-- naming the dictionary explicitly makes the wrapper safe to declare IMMUTABLE
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+-- ===== Menu items: name (A), description (B), tags (C) =====
+
+ALTER TABLE menu_items ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION menu_item_search_vector(p_id bigint, p_name text, p_description text) RETURNS tsvector
+    LANGUAGE sql STABLE
+    AS $$
+        SELECT setweight(to_tsvector('simple', f_unaccent(coalesce(p_name, ''))), 'A')
+            || setweight(to_tsvector('simple', f_unaccent(coalesce(p_description, ''))), 'B')
+            || setweight(to_tsvector('simple', f_unaccent(coalesce(
+                   (SELECT string_agg(tag, ' ') FROM menu_item_tags WHERE menu_item_id = p_id), ''))), 'C')
+    $$;
+
+CREATE OR REPLACE FUNCTION menu_items_search_vector_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := menu_item_search_vector(NEW.id, NEW.name, NEW.description);
+    RETURN NEW;
+END $$;
+
+DROP TRIGGER IF EXISTS menu_items_search_vector_update ON menu_items;
+CREATE TRIGGER menu_items_search_vector_update
+    BEFORE INSERT OR UPDATE OF name, description ON menu_items
+    FOR EACH ROW EXECUTE FUNCTION menu_items_search_vector_trigger();
+
+-- Tags are written after their menu item: refresh the affected items once per statement
+CREATE OR REPLACE FUNCTION menu_item_tags_search_vector_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE menu_items mi SET search_vector = menu_item_search_vector(mi.id, mi.name, mi.description)
+        WHERE mi.id IN (SELECT menu_item_id FROM new_tags);
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE menu_items mi SET search_vector = menu_item_search_vector(mi.id, mi.name, mi.description)
+        WHERE mi.id IN (SELECT menu_item_id FROM old_tags);
+    ELSE
+        UPDATE menu_items mi SET search_vector = menu_item_search_vector(mi.id, mi.name, mi.description)
+        WHERE mi.id IN (SELECT menu_item_id FROM new_tags UNION SELECT menu_item_id FROM old_tags);
+    END IF;
+    RETURN NULL;
+END $$;
+
+DROP TRIGGER IF EXISTS menu_item_tags_search_vector_insert ON menu_item_tags;
+CREATE TRIGGER menu_item_tags_search_vector_insert
+    AFTER INSERT ON menu_item_tags REFERENCING NEW TABLE AS new_tags
+    FOR EACH STATEMENT EXECUTE FUNCTION menu_item_tags_search_vector_trigger();
+
+DROP TRIGGER IF EXISTS menu_item_tags_search_vector_update ON menu_item_tags;
+CREATE TRIGGER menu_item_tags_search_vector_update
+    AFTER UPDATE ON menu_item_tags REFERENCING OLD TABLE AS old_tags NEW TABLE AS new_tags
+    FOR EACH STATEMENT EXECUTE FUNCTION menu_item_tags_search_vector_trigger();
+
+DROP TRIGGER IF EXISTS menu_item_tags_search_vector_delete ON menu_item_tags;
+CREATE TRIGGER menu_item_tags_search_vector_delete
+    AFTER DELETE ON menu_item_tags REFERENCING OLD TABLE AS old_tags
+    FOR EACH STATEMENT EXECUTE FUNCTION menu_item_tags_search_vector_trigger();
+
+UPDATE menu_items SET search_vector = menu_item_search_vector(id, name, description);
+
+CREATE INDEX IF NOT EXISTS idx_menu_items_search_vector
+    ON menu_items USING GIN(search_vector);
+
+-- ===== Restaurants: name (A), categories (B), description (C) =====
+
+ALTER TABLE restaurants ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION restaurant_search_vector(p_id bigint, p_name text, p_description text) RETURNS tsvector
+    LANGUAGE sql STABLE
+    AS $$
+        SELECT setweight(to_tsvector('simple', f_unaccent(coalesce(p_name, ''))), 'A')
+            || setweight(to_tsvector('simple', f_unaccent(coalesce(
+                   (SELECT string_agg(category, ' ') FROM restaurant_categories WHERE restaurant_id = p_id), ''))), 'B')
+            || setweight(to_tsvector('simple', f_unaccent(coalesce(p_description, ''))), 'C')
+    $$;
+
+CREATE OR REPLACE FUNCTION restaurants_search_vector_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := restaurant_search_vector(NEW.id, NEW.name, NEW.description);
+    RETURN NEW;
+END $$;
+
+DROP TRIGGER IF EXISTS restaurants_search_vector_update ON restaurants;
+CREATE TRIGGER restaurants_search_vector_update
+    BEFORE INSERT OR UPDATE OF name, description ON restaurants
+    FOR EACH ROW EXECUTE FUNCTION restaurants_search_vector_trigger();
+
+CREATE OR REPLACE FUNCTION restaurant_categories_search_vector_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE restaurants r SET search_vector = restaurant_search_vector(r.id, r.name, r.description)
+        WHERE r.id IN (SELECT restaurant_id FROM new_categories);
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE restaurants r SET search_vector = restaurant_search_vector(r.id, r.name, r.description)
+        WHERE r.id IN (SELECT restaurant_id FROM old_categories);
+    ELSE
+        UPDATE restaurants r SET search_vector = restaurant_search_vector(r.id, r.name, r.description)
+        WHERE r.id IN (SELECT restaurant_id FROM new_categories UNION SELECT restaurant_id FROM old_categories);
+    END IF;
+    RETURN NULL;
+END $$;
+
+DROP TRIGGER IF EXISTS restaurant_categories_search_vector_insert ON restaurant_categories;
+CREATE TRIGGER restaurant_categories_search_vector_insert
+    AFTER INSERT ON restaurant_categories REFERENCING NEW TABLE AS new_categories
+    FOR EACH STATEMENT EXECUTE FUNCTION restaurant_categories_search_vector_trigger();
+
+DROP TRIGGER IF EXISTS restaurant_categories_search_vector_update ON restaurant_categories;
+CREATE TRIGGER restaurant_categories_search_vector_update
+    AFTER UPDATE ON restaurant_categories REFERENCING OLD TABLE AS old_categories NEW TABLE AS new_categories
+    FOR EACH STATEMENT EXECUTE FUNCTION restaurant_categories_search_vector_trigger();
+
+DROP TRIGGER IF EXISTS restaurant_categories_search_vector_delete ON restaurant_categories;
+CREATE TRIGGER restaurant_categories_search_vector_delete
+    AFTER DELETE ON restaurant_categories REFERENCING OLD TABLE AS old_categories
+    FOR EACH STATEMENT EXECUTE FUNCTION restaurant_categories_search_vector_trigger();
+
+UPDATE restaurants SET search_vector = restaurant_search_vector(id, name, description);
+
+CREATE INDEX IF NOT EXISTS idx_restaurants_search_vector
+    ON restaurants USING GIN(search_vector);
+
+-- Expression indexes of the previous 'simple' (accent-sensitive) search are no longer used
+DROP INDEX IF EXISTS idx_menu_items_search_gin;
+DROP INDEX IF EXISTS idx_menu_item_tags_search_gin;
+
+ANALYZE menu_items;
+ANALYZE restaurants;
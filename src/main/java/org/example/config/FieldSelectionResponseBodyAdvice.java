@@ -0,0 +1,62 @@
+package org.example.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.example.controller.MenuController;
+import org.example.controller.OrderController;
+import org.example.controller.RestaurantController;
+import org.example.util.FieldSelection;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.lang.reflect.Parameter;
+
+/**
+ * Áp dụng tham số ?fields= khi Jackson ghi response của các endpoint restaurant, order và menu,
+ * để chỉ các field được yêu cầu xuất hiện trong JSON
+ */
+@RestControllerAdvice(assignableTypes = {RestaurantController.class, OrderController.class, MenuController.class})
+public class FieldSelectionResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    
+    /**
+     * Chỉ các endpoint khai báo tham số fields mới được lọc
+     */
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        if (!super.supports(returnType, converterType) || returnType.getMethod() == null) {
+            return false;
+        }
+        for (Parameter parameter : returnType.getMethod().getParameters()) {
+            RequestParam requestParam = parameter.getAnnotation(RequestParam.class);
+            if (requestParam != null && FieldSelection.PARAMETER.equals(requestParam.value().isEmpty()
+                    ? parameter.getName() : requestParam.value())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        FieldSelection selection = FieldSelection.parse(
+            servletRequest.getServletRequest().getParameter(FieldSelection.PARAMETER));
+        if (selection.isAll()) {
+            return;
+        }
+        bodyContainer.setFilters(new SimpleFilterProvider()
+            .addFilter(FieldSelection.FILTER_ID, selection.toFilter())
+            .setFailOnUnknownId(false));
+    }
+}
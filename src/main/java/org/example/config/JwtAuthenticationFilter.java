@@ -91,6 +91,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         // ✅ Public restaurant endpoints
         if (requestPath.startsWith("/api/restaurants/public/") ||
+            requestPath.startsWith("/api/restaurants/tiles/") ||
             requestPath.matches("/api/restaurants/\\d+/menu/public") ||
             requestPath.startsWith("/api/restaurants/") && requestPath.contains("/menu/categories") ||
             requestPath.startsWith("/api/restaurants/") && requestPath.contains("/menu/category/") ||
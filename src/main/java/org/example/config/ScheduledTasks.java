@@ -1,5 +1,7 @@
 package org.example.config;
 
+import org.example.service.AutocompleteIndex;
+import org.example.service.OpenRestaurantIndex;
 import org.example.service.OtpPasswordResetService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,6 +9,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+
 @Component
 public class ScheduledTasks {
     
@@ -15,6 +19,12 @@ public class ScheduledTasks {
     
     @Autowired
     private OtpPasswordResetService otpPasswordResetService;
+    
+    @Autowired
+    private OpenRestaurantIndex openRestaurantIndex;
+    
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
 
     // Chạy mỗi 10 phút để dọn dẹp expired OTPs
     @Scheduled(fixedRate = 600000) // 10 minutes = 600000 milliseconds
@@ -23,4 +33,17 @@ public class ScheduledTasks {
         otpPasswordResetService.cleanupExpiredOtps();
         logger.info("Completed cleanup of expired OTPs");
     }
-}
\ No newline at end of file
+    
+    // Chạy mỗi 30 giây để xử lý các restaurant tới giờ mở/đóng cửa
+    @Scheduled(fixedRate = 30000)
+    public void advanceOpenRestaurantIndex() {
+        // Catalog công khai không chứa trạng thái mở cửa nên không phải dựng lại
+        openRestaurantIndex.advance(Instant.now());
+    }
+    
+    // Chạy mỗi 30 phút để nạp lại autocomplete với số đơn đã hoàn thành mới nhất
+    @Scheduled(fixedRate = 1800000, initialDelay = 1800000)
+    public void rebuildAutocompleteIndex() {
+        autocompleteIndex.rebuild();
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.example.entity.MenuItem;
+import org.example.entity.MenuItemAddOn;
+import org.example.entity.Restaurant;
+import org.example.entity.RestaurantStaff;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Configuration class for the Hibernate second-level cache (JCache, Caffeine provider).
+ * Mỗi region được tạo sẵn với giới hạn số phần tử; TTL chỉ để thu hồi dữ liệu bị sửa ngoài Hibernate
+ * (script SQL), các thay đổi qua Hibernate được cập nhật/xóa khỏi cache theo READ_WRITE.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /**
+     * Region query cache cho danh sách category của menu
+     */
+    public static final String MENU_CATEGORIES_REGION = "menuCategories";
+
+    private static final URI CACHE_MANAGER_URI = URI.create("pickme-hibernate");
+
+    private static final Duration ENTITY_TTL = Duration.ofMinutes(30);
+
+    private static final Duration QUERY_TTL = Duration.ofMinutes(10);
+
+    @Bean
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(CACHE_MANAGER_URI, getClass().getClassLoader());
+
+        regions().forEach((region, maximumSize) -> {
+            // Context test có thể dùng lại cache manager của context trước
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, configuration(region, maximumSize));
+            }
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Tên region -> số phần tử tối đa (null = không giới hạn)
+     */
+    private static Map<String, Long> regions() {
+        Map<String, Long> regions = new LinkedHashMap<>();
+        regions.put(MenuItem.class.getName(), 20_000L);
+        regions.put(MenuItem.class.getName() + ".tags", 20_000L);
+        regions.put(MenuItem.class.getName() + ".availableAddOns", 20_000L);
+        regions.put(MenuItemAddOn.class.getName(), 50_000L);
+        regions.put(Restaurant.class.getName(), 5_000L);
+        regions.put(Restaurant.class.getName() + ".weeklyHours", 5_000L);
+        regions.put(Restaurant.class.getName() + ".holidayOverrides", 5_000L);
+        regions.put(Restaurant.class.getName() + ".categories", 5_000L);
+        regions.put(RestaurantStaff.class.getName(), 10_000L);
+        regions.put(MENU_CATEGORIES_REGION, 5_000L);
+        regions.put(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, 1_000L);
+        // Timestamp theo bảng dùng để kiểm tra query cache còn hợp lệ: không được tự hết hạn hay bị thu hồi
+        regions.put(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, null);
+        return regions;
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(String region, Long maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maximumSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            Duration ttl = region.equals(MENU_CATEGORIES_REGION)
+                || region.equals(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME) ? QUERY_TTL : ENTITY_TTL;
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuration;
+    }
+}
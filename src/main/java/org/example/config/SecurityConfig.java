@@ -74,7 +74,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/demo/**").permitAll()
                         // Public endpoints for customers (no authentication required)
                         .requestMatchers("/api/restaurants/public/**").permitAll()
+                        .requestMatchers("/api/restaurants/tiles/**").permitAll()
                         .requestMatchers("/api/restaurants/*/menu/public").permitAll()
+                        .requestMatchers("/api/restaurants/*/menu/public/**").permitAll()
                         .requestMatchers("/api/restaurants/*/menu/categories").permitAll()
                         .requestMatchers("/api/restaurants/*/menu/category/**").permitAll()
                         .requestMatchers("/api/restaurants/*/menu/search").permitAll()
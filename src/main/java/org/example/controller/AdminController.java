@@ -4,10 +4,17 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.example.dto.mapper.RestaurantMapper;
+import org.example.dto.response.CursorPageResponse;
 import org.example.dto.response.RestaurantResponse;
 import org.example.entity.Restaurant;
 import org.example.entity.User;
+import org.example.service.MenuSnapshotService;
+import org.example.service.NearbyRestaurantCache;
+import org.example.service.PublicCatalogSnapshotService;
+import org.example.service.RestaurantReadModelCache;
+import org.example.service.RestaurantTileService;
 import org.example.service.RestaurantService;
+import org.example.service.SecondLevelCacheService;
 import org.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -15,7 +22,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @CrossOrigin(origins = "http://localhost:5173", allowedHeaders = "*", allowCredentials = "true")
@@ -32,6 +41,24 @@ public class AdminController {
     
     @Autowired
     private RestaurantMapper restaurantMapper;
+    
+    @Autowired
+    private NearbyRestaurantCache nearbyRestaurantCache;
+    
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+    
+    @Autowired
+    private SecondLevelCacheService secondLevelCacheService;
+    
+    @Autowired
+    private RestaurantTileService restaurantTileService;
+    
+    @Autowired
+    private RestaurantReadModelCache restaurantReadModelCache;
+    
+    @Autowired
+    private PublicCatalogSnapshotService publicCatalogSnapshotService;
 
     @GetMapping("/restaurants")
     @PreAuthorize("hasRole('ADMIN')")
@@ -43,6 +70,30 @@ public class AdminController {
         return ResponseEntity.ok(responses);
     }
     
+    @GetMapping("/restaurants/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get restaurants page", description = "Get all restaurants, newest first, using cursor pagination (Admin only)")
+    public ResponseEntity<CursorPageResponse<RestaurantResponse>> getRestaurantsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        User currentUser = userService.findByEmail(authentication.getName());
+        CursorPageResponse<Restaurant> page = restaurantService.getAllRestaurantsPage(currentUser, cursor, size);
+        return ResponseEntity.ok(page.map(restaurantMapper::toResponse));
+    }
+    
+    @GetMapping("/restaurants/pending/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get pending restaurants page", description = "Get restaurants waiting for approval, oldest first, using cursor pagination (Admin only)")
+    public ResponseEntity<CursorPageResponse<RestaurantResponse>> getPendingRestaurantsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        User currentUser = userService.findByEmail(authentication.getName());
+        CursorPageResponse<Restaurant> page = restaurantService.getPendingApprovalRestaurantsPage(currentUser, cursor, size);
+        return ResponseEntity.ok(page.map(restaurantMapper::toResponse));
+    }
+    
     @GetMapping("/restaurants/pending")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get pending restaurants", description = "Get all restaurants waiting for approval (Admin only)")
@@ -79,4 +130,18 @@ public class AdminController {
         RestaurantResponse response = restaurantMapper.toResponse(rejectedRestaurant);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/caches")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get cache statistics", description = "Get hit/miss/eviction counters of in-memory caches (Admin only)")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("nearbyRestaurants", nearbyRestaurantCache.getStatistics());
+        statistics.put("restaurantTiles", restaurantTileService.getStatistics());
+        statistics.put("restaurantReadModel", restaurantReadModelCache.getStatistics());
+        statistics.put("publicCatalog", publicCatalogSnapshotService.getStatistics());
+        statistics.put("menuSnapshot", menuSnapshotService.getStatistics());
+        statistics.put("hibernateSecondLevel", secondLevelCacheService.getStatistics());
+        return ResponseEntity.ok(statistics);
+    }
+}
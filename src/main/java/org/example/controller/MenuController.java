@@ -5,22 +5,42 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.example.dto.mapper.MenuItemMapper;
+import org.example.dto.request.BulkAvailabilityRequest;
+import org.example.dto.request.BulkMenuItemRequest;
 import org.example.dto.request.CreateMenuItemRequest;
 import org.example.dto.request.UpdateMenuItemRequest;
+import org.example.dto.response.BulkAvailabilityResponse;
+import org.example.dto.response.BulkMenuImportResponse;
+import org.example.dto.response.MenuDeltaResponse;
 import org.example.dto.response.MenuItemResponse;
 import org.example.dto.response.MenuItemSummaryResponse;
+import org.example.dto.response.MenuSnapshotResponse;
 import org.example.dto.response.MessageResponse;
 import org.example.entity.MenuItem;
 import org.example.entity.User;
+import org.example.service.MenuImportService;
 import org.example.service.MenuItemService;
+import org.example.service.MenuSnapshotService;
 import org.example.service.UserService;
+import org.example.util.FieldSelection;
+import org.example.util.MenuCsvReader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/restaurants/{restaurantId}/menu")
@@ -37,6 +57,12 @@ public class MenuController {
     @Autowired
     private MenuItemMapper menuItemMapper;
     
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+    
+    @Autowired
+    private MenuImportService menuImportService;
+    
     @PostMapping
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('RESTAURANT_STAFF')")
     @Operation(summary = "Create menu item", description = "Add new item to restaurant menu (Owner/Staff only)")
@@ -52,53 +78,122 @@ public class MenuController {
         return ResponseEntity.ok(response);
     }
     
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('RESTAURANT_STAFF')")
+    @Operation(summary = "Bulk import menu items",
+               description = "Create or update (matched by name) up to 2000 menu items with tags and add-ons in one transaction. " +
+                             "Nothing is written if any row is invalid (Owner/Staff only)")
+    public ResponseEntity<BulkMenuImportResponse> bulkImportMenuItems(
+            @PathVariable Long restaurantId,
+            @RequestBody List<BulkMenuItemRequest> requests,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            Authentication authentication) {
+        
+        User currentUser = userService.findByEmail(authentication.getName());
+        BulkMenuImportResponse report = menuImportService.importMenu(restaurantId, requests, Map.of(), dryRun, currentUser);
+        return report.hasErrors() ? ResponseEntity.badRequest().body(report) : ResponseEntity.ok(report);
+    }
+    
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('RESTAURANT_STAFF')")
+    @Operation(summary = "Bulk import menu items from CSV",
+               description = "CSV with header row (name, price required; description, category, imageUrl, isAvailable, " +
+                             "preparationTimeMinutes, tags as a|b, addOns as name:price[:category]|...) (Owner/Staff only)")
+    public ResponseEntity<BulkMenuImportResponse> bulkImportMenuItemsCsv(
+            @PathVariable Long restaurantId,
+            InputStream body,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            Authentication authentication) throws IOException {
+        
+        User currentUser = userService.findByEmail(authentication.getName());
+        MenuCsvReader.Result csv = MenuCsvReader.read(
+            new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), MenuImportService.MAX_ROWS);
+        BulkMenuImportResponse report = menuImportService.importMenu(
+            restaurantId, csv.getRows(), csv.getErrors(), dryRun, currentUser);
+        return report.hasErrors() ? ResponseEntity.badRequest().body(report) : ResponseEntity.ok(report);
+    }
+    
     @GetMapping
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('RESTAURANT_STAFF')")
     @Operation(summary = "Get menu items", description = "Get all menu items for management (Owner/Staff only)")
     public ResponseEntity<List<MenuItemResponse>> getAllMenuItems(
             @PathVariable Long restaurantId,
+            @RequestParam(required = false) String fields,
             Authentication authentication) {
         
+        FieldSelection selection = FieldSelection.parse(fields, MenuItemResponse.class);
         User currentUser = userService.findByEmail(authentication.getName());
         List<MenuItem> menuItems = menuItemService.getAllMenuItems(restaurantId, currentUser);
-        List<MenuItemResponse> responses = menuItemMapper.toResponseList(menuItems);
+        List<MenuItemResponse> responses = menuItemMapper.toResponseList(menuItems, selection);
         return ResponseEntity.ok(responses);
     }
     
     @GetMapping("/public")
     @Operation(summary = "Get available menu items", description = "Get available menu items for customers")
-    public ResponseEntity<List<MenuItemSummaryResponse>> getAvailableMenuItems(@PathVariable Long restaurantId) {
-        List<MenuItem> menuItems = menuItemService.getAvailableMenuItems(restaurantId);
-        List<MenuItemSummaryResponse> responses = menuItemMapper.toSummaryResponseList(menuItems);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<MenuItemSummaryResponse>> getAvailableMenuItems(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) String fields) {
+        // Validate tên field; Jackson filter chỉ ghi các field được chọn từ snapshot
+        FieldSelection.parse(fields, MenuItemSummaryResponse.class);
+        return ResponseEntity.ok(menuSnapshotService.getSnapshot(restaurantId).getItems());
+    }
+    
+    @GetMapping("/public/snapshot")
+    @Operation(summary = "Get menu snapshot", description = "Get the versioned menu (items, categories and add-ons) with ETag support")
+    public ResponseEntity<MenuSnapshotResponse> getMenuSnapshot(
+            @PathVariable Long restaurantId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        
+        MenuSnapshotService.Snapshot snapshot = menuSnapshotService.getSnapshot(restaurantId);
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(snapshot.getEtag())
+            .cacheControl(CacheControl.noCache())
+            .body(snapshot.toResponse());
+    }
+    
+    @GetMapping("/public/delta")
+    @Operation(summary = "Get menu changes", description = "Get menu items changed or removed since a menu version")
+    public ResponseEntity<MenuDeltaResponse> getMenuDelta(
+            @PathVariable Long restaurantId,
+            @RequestParam Long sinceVersion) {
+        return ResponseEntity.ok(menuSnapshotService.getDelta(restaurantId, sinceVersion));
     }
     
     @GetMapping("/categories")
     @Operation(summary = "Get menu categories", description = "Get all menu categories")
     public ResponseEntity<List<String>> getMenuCategories(@PathVariable Long restaurantId) {
-        List<String> categories = menuItemService.getMenuCategories(restaurantId);
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok(menuSnapshotService.getSnapshot(restaurantId).getCategories());
     }
     
     @GetMapping("/category/{category}")
     @Operation(summary = "Get items by category", description = "Get menu items by category")
     public ResponseEntity<List<MenuItemSummaryResponse>> getMenuItemsByCategory(
             @PathVariable Long restaurantId,
-            @PathVariable String category) {
+            @PathVariable String category,
+            @RequestParam(required = false) String fields) {
         
-        List<MenuItem> menuItems = menuItemService.getMenuItemsByCategory(restaurantId, category);
-        List<MenuItemSummaryResponse> responses = menuItemMapper.toSummaryResponseList(menuItems);
-        return ResponseEntity.ok(responses);
+        FieldSelection.parse(fields, MenuItemSummaryResponse.class);
+        return ResponseEntity.ok(menuSnapshotService.getSnapshot(restaurantId).getItemsByCategory(category));
     }
     
     @GetMapping("/search")
-    @Operation(summary = "Search menu items", description = "Search menu items by name or description")
+    @Operation(summary = "Search menu items", description = "Full-text search over name, description and tags; accent-insensitive (\"pho\" finds \"phở\"), prefix matching, best matches first")
     public ResponseEntity<List<MenuItemSummaryResponse>> searchMenuItems(
             @PathVariable Long restaurantId,
-            @RequestParam String q) {
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
         
-        List<MenuItem> menuItems = menuItemService.searchMenuItems(restaurantId, q);
-        List<MenuItemSummaryResponse> responses = menuItemMapper.toSummaryResponseList(menuItems);
+        FieldSelection selection = FieldSelection.parse(fields, MenuItemSummaryResponse.class);
+        List<MenuItem> menuItems = menuItemService.searchMenuItems(restaurantId, q, page, size);
+        List<MenuItemSummaryResponse> responses = menuItemMapper.toSummaryResponseList(menuItems, selection);
         return ResponseEntity.ok(responses);
     }
     
@@ -118,6 +213,20 @@ public class MenuController {
         return ResponseEntity.ok(response);
     }
     
+    @PutMapping("/availability")
+    @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('RESTAURANT_STAFF')")
+    @Operation(summary = "Bulk set availability",
+               description = "Mark several menu items and add-ons available or sold out in one call (Owner/Staff only)")
+    public ResponseEntity<BulkAvailabilityResponse> updateAvailability(
+            @PathVariable Long restaurantId,
+            @Valid @RequestBody BulkAvailabilityRequest request,
+            Authentication authentication) {
+        
+        User currentUser = userService.findByEmail(authentication.getName());
+        BulkAvailabilityResponse response = menuItemService.updateAvailability(restaurantId, request, currentUser);
+        return ResponseEntity.ok(response);
+    }
+    
     @PutMapping("/{menuItemId}/toggle-availability")
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('RESTAURANT_STAFF')")
     @Operation(summary = "Toggle availability", description = "Toggle menu item availability (Owner/Staff only)")
@@ -149,10 +258,12 @@ public class MenuController {
     @Operation(summary = "Get menu item by ID", description = "Get detailed information of a menu item")
     public ResponseEntity<MenuItemResponse> getMenuItemById(
             @PathVariable Long restaurantId,
-            @PathVariable Long menuItemId) {
+            @PathVariable Long menuItemId,
+            @RequestParam(required = false) String fields) {
         
+        FieldSelection selection = FieldSelection.parse(fields, MenuItemResponse.class);
         MenuItem menuItem = menuItemService.getMenuItemById(menuItemId);
-        MenuItemResponse response = menuItemMapper.toResponse(menuItem);
+        MenuItemResponse response = menuItemMapper.toResponse(menuItem, selection);
         return ResponseEntity.ok(response);
     }
     
@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.example.dto.mapper.MenuItemMapper;
 import org.example.dto.request.CreateMenuItemAddOnRequest;
 import org.example.dto.request.UpdateMenuItemAddOnRequest;
 import org.example.dto.response.MenuItemAddOnResponse;
@@ -32,6 +33,9 @@ public class MenuItemAddOnController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private MenuItemMapper menuItemMapper;
+    
     // Public endpoints for customers
     
     @GetMapping
@@ -157,16 +161,6 @@ public class MenuItemAddOnController {
     
     // Helper method
     private MenuItemAddOnResponse toResponse(MenuItemAddOn addOn) {
-        MenuItemAddOnResponse response = new MenuItemAddOnResponse();
-        response.setId(addOn.getId());
-        response.setName(addOn.getName());
-        response.setDescription(addOn.getDescription());
-        response.setPrice(addOn.getPrice());
-        response.setCategory(addOn.getCategory());
-        response.setIsAvailable(addOn.getIsAvailable());
-        response.setDisplayOrder(addOn.getDisplayOrder());
-        response.setMaxQuantity(addOn.getMaxQuantity());
-        response.setIsRequired(addOn.getIsRequired());
-        return response;
+        return menuItemMapper.toAddOnResponse(addOn);
     }
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import org.example.entity.User;
 import org.example.service.CartService;
 import org.example.service.OrderService;
 import org.example.service.UserService;
+import org.example.util.FieldSelection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -55,15 +56,17 @@ public class OrderController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String fields,
             Authentication authentication) {
         
+        FieldSelection selection = FieldSelection.parse(fields, OrderResponse.class);
         User customer = userService.findByEmail(authentication.getName());
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
         Page<Order> orders = orderService.getCustomerOrders(customer.getId(), pageable);
-        Page<OrderResponse> responses = orders.map(orderMapper::toSummaryResponse);
+        Page<OrderResponse> responses = orderMapper.toSummaryResponsePage(orders, selection);
         
         return ResponseEntity.ok(responses);
     }
@@ -71,10 +74,13 @@ public class OrderController {
     @GetMapping("/my-orders/active")
     @PreAuthorize("hasRole('CUSTOMER')")
     @Operation(summary = "Get my active orders", description = "Get customer's active orders")
-    public ResponseEntity<List<OrderResponse>> getMyActiveOrders(Authentication authentication) {
+    public ResponseEntity<List<OrderResponse>> getMyActiveOrders(
+            @RequestParam(required = false) String fields,
+            Authentication authentication) {
+        FieldSelection selection = FieldSelection.parse(fields, OrderResponse.class);
         User customer = userService.findByEmail(authentication.getName());
         List<Order> orders = orderService.getCustomerActiveOrders(customer.getId());
-        List<OrderResponse> responses = orderMapper.toSummaryResponseList(orders);
+        List<OrderResponse> responses = orderMapper.toSummaryResponseList(orders, selection);
         
         return ResponseEntity.ok(responses);
     }
@@ -83,11 +89,13 @@ public class OrderController {
     @Operation(summary = "Get order details", description = "Get detailed order information")
     public ResponseEntity<OrderResponse> getOrderDetails(
             @PathVariable Long orderId,
+            @RequestParam(required = false) String fields,
             Authentication authentication) {
         
+        FieldSelection selection = FieldSelection.parse(fields, OrderResponse.class);
         User user = userService.findByEmail(authentication.getName());
         Order order = orderService.getOrderById(orderId, user);
-        OrderResponse response = orderMapper.toResponse(order);
+        OrderResponse response = orderMapper.toResponse(order, selection);
         
         return ResponseEntity.ok(response);
     }
@@ -96,11 +104,13 @@ public class OrderController {
     @Operation(summary = "Get order by QR code", description = "Get order information by QR code")
     public ResponseEntity<OrderResponse> getOrderByQrCode(
             @PathVariable String qrCode,
+            @RequestParam(required = false) String fields,
             Authentication authentication) {
         
+        FieldSelection selection = FieldSelection.parse(fields, OrderResponse.class);
         User user = userService.findByEmail(authentication.getName());
         Order order = orderService.getOrderByQrCode(qrCode, user);
-        OrderResponse response = orderMapper.toResponse(order);
+        OrderResponse response = orderMapper.toResponse(order, selection);
         
         return ResponseEntity.ok(response);
     }
@@ -161,15 +171,17 @@ public class OrderController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String fields,
             Authentication authentication) {
         
+        FieldSelection selection = FieldSelection.parse(fields, OrderResponse.class);
         User user = userService.findByEmail(authentication.getName());
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
         Page<Order> orders = orderService.getRestaurantOrders(restaurantId, user, pageable);
-        Page<OrderResponse> responses = orders.map(orderMapper::toSummaryResponse);
+        Page<OrderResponse> responses = orderMapper.toSummaryResponsePage(orders, selection);
         
         return ResponseEntity.ok(responses);
     }
@@ -180,11 +192,13 @@ public class OrderController {
     public ResponseEntity<List<OrderResponse>> getRestaurantOrdersByStatus(
             @PathVariable Long restaurantId,
             @PathVariable Order.OrderStatus status,
+            @RequestParam(required = false) String fields,
             Authentication authentication) {
         
+        FieldSelection selection = FieldSelection.parse(fields, OrderResponse.class);
         User user = userService.findByEmail(authentication.getName());
         List<Order> orders = orderService.getRestaurantOrdersByStatus(restaurantId, status, user);
-        List<OrderResponse> responses = orderMapper.toSummaryResponseList(orders);
+        List<OrderResponse> responses = orderMapper.toSummaryResponseList(orders, selection);
         
         return ResponseEntity.ok(responses);
     }
@@ -209,9 +223,11 @@ public class OrderController {
     @GetMapping("/ready-for-pickup")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get orders ready for pickup", description = "Get all orders ready for pickup (Admin only)")
-    public ResponseEntity<List<OrderResponse>> getOrdersReadyForPickup() {
+    public ResponseEntity<List<OrderResponse>> getOrdersReadyForPickup(
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, OrderResponse.class);
         List<Order> orders = orderService.getOrdersReadyForPickup();
-        List<OrderResponse> responses = orderMapper.toSummaryResponseList(orders);
+        List<OrderResponse> responses = orderMapper.toSummaryResponseList(orders, selection);
         
         return ResponseEntity.ok(responses);
     }
@@ -219,9 +235,11 @@ public class OrderController {
     @GetMapping("/overdue")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get overdue orders", description = "Get orders that are overdue (Admin only)")
-    public ResponseEntity<List<OrderResponse>> getOverdueOrders() {
+    public ResponseEntity<List<OrderResponse>> getOverdueOrders(
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, OrderResponse.class);
         List<Order> orders = orderService.getOverdueOrders();
-        List<OrderResponse> responses = orderMapper.toSummaryResponseList(orders);
+        List<OrderResponse> responses = orderMapper.toSummaryResponseList(orders, selection);
         
         return ResponseEntity.ok(responses);
     }
@@ -4,9 +4,17 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.example.dto.mapper.MenuItemMapper;
 import org.example.dto.mapper.RestaurantMapper;
 import org.example.dto.request.CreateRestaurantRequest;
 import org.example.dto.request.CreateStaffAccountRequest;
+import org.example.dto.request.DistanceMatrixRequest;
+import org.example.dto.request.RouteRecommendationRequest;
+import org.example.dto.response.AutocompleteSuggestionResponse;
+import org.example.dto.response.CursorPageResponse;
+import org.example.dto.response.DishSearchResultResponse;
+import org.example.dto.response.RestaurantClusterResponse;
+import org.example.dto.response.RestaurantDistanceResponse;
 import org.example.dto.response.RestaurantResponse;
 import org.example.dto.response.RestaurantStatusResponse;
 import org.example.entity.Restaurant;
@@ -14,18 +22,30 @@ import org.example.dto.response.RestaurantStaffResponse;
 import org.example.entity.Role;
 import org.example.entity.User;
 import org.example.exception.AccessDeniedException;
+import org.example.service.AutocompleteIndex;
+import org.example.service.LocationService;
+import org.example.service.PublicCatalogSnapshotService;
+import org.example.service.RestaurantListQueryService;
 import org.example.service.RestaurantService;
+import org.example.service.RestaurantTileService;
 import org.example.service.UserService;
+import org.example.util.FieldSelection;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -49,6 +69,21 @@ public class RestaurantController {
     @Autowired
     private RestaurantMapper restaurantMapper;
     
+    @Autowired
+    private LocationService locationService;
+    
+    @Autowired
+    private RestaurantTileService restaurantTileService;
+    
+    @Autowired
+    private MenuItemMapper menuItemMapper;
+    
+    @Autowired
+    private PublicCatalogSnapshotService publicCatalogSnapshotService;
+    
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+    
     @PostMapping
     @PreAuthorize("hasRole('RESTAURANT_OWNER')")
     @Operation(summary = "Create a new restaurant", description = "Create a new restaurant (Owner only)")
@@ -68,6 +103,13 @@ public class RestaurantController {
         restaurant.setImageUrl(request.getImageUrl());
         restaurant.setOpeningTime(request.getOpeningTime());
         restaurant.setClosingTime(request.getClosingTime());
+        restaurant.setTimezone(request.getTimezone());
+        if (request.getWeeklyHours() != null) {
+            restaurant.setWeeklyHours(new ArrayList<>(request.getWeeklyHours()));
+        }
+        if (request.getHolidayOverrides() != null) {
+            restaurant.setHolidayOverrides(new ArrayList<>(request.getHolidayOverrides()));
+        }
         restaurant.setCategories(request.getCategories());
         
         // Set location
@@ -82,20 +124,26 @@ public class RestaurantController {
     @GetMapping("/my-restaurants")
     @PreAuthorize("hasRole('RESTAURANT_OWNER')")
     @Operation(summary = "Get my restaurants", description = "Get all restaurants owned by current user")
-    public ResponseEntity<List<RestaurantResponse>> getMyRestaurants(Authentication authentication) {
+    public ResponseEntity<List<RestaurantResponse>> getMyRestaurants(
+            @RequestParam(required = false) String fields,
+            Authentication authentication) {
+        FieldSelection selection = FieldSelection.parse(fields, RestaurantResponse.class);
         User currentUser = userService.findByEmail(authentication.getName());
         List<Restaurant> restaurants = restaurantService.getRestaurantsByOwner(currentUser.getId());
-        List<RestaurantResponse> responses = restaurantMapper.toResponseList(restaurants);
+        List<RestaurantResponse> responses = restaurantMapper.toResponseList(restaurants, selection);
         return ResponseEntity.ok(responses);
     }
     
     @GetMapping("/my-restaurants/approved")
     @PreAuthorize("hasRole('RESTAURANT_OWNER')")
     @Operation(summary = "Get my approved restaurants", description = "Get approved restaurants owned by current user")
-    public ResponseEntity<List<RestaurantResponse>> getMyApprovedRestaurants(Authentication authentication) {
+    public ResponseEntity<List<RestaurantResponse>> getMyApprovedRestaurants(
+            @RequestParam(required = false) String fields,
+            Authentication authentication) {
+        FieldSelection selection = FieldSelection.parse(fields, RestaurantResponse.class);
         User currentUser = userService.findByEmail(authentication.getName());
         List<Restaurant> restaurants = restaurantService.getApprovedRestaurantsByOwner(currentUser.getId());
-        List<RestaurantResponse> responses = restaurantMapper.toResponseList(restaurants);
+        List<RestaurantResponse> responses = restaurantMapper.toResponseList(restaurants, selection);
         return ResponseEntity.ok(responses);
     }
     
@@ -118,6 +166,13 @@ public class RestaurantController {
         updatedRestaurant.setImageUrl(request.getImageUrl());
         updatedRestaurant.setOpeningTime(request.getOpeningTime());
         updatedRestaurant.setClosingTime(request.getClosingTime());
+        updatedRestaurant.setTimezone(request.getTimezone());
+        if (request.getWeeklyHours() != null) {
+            updatedRestaurant.setWeeklyHours(new ArrayList<>(request.getWeeklyHours()));
+        }
+        if (request.getHolidayOverrides() != null) {
+            updatedRestaurant.setHolidayOverrides(new ArrayList<>(request.getHolidayOverrides()));
+        }
         updatedRestaurant.setCategories(request.getCategories());
         
         if (request.getLatitude() != null && request.getLongitude() != null) {
@@ -189,33 +244,203 @@ public class RestaurantController {
 
     // Public endpoints for customers (no authentication required)
     @GetMapping("/public")
-    @Operation(summary = "Get approved restaurants", description = "Get all approved restaurants for public viewing")
-    public ResponseEntity<List<RestaurantResponse>> getApprovedRestaurants() {
-        List<Restaurant> approvedRestaurants = restaurantService.getApprovedRestaurants();
-        List<RestaurantResponse> responses = restaurantMapper.toPublicResponseList(approvedRestaurants);
-        return ResponseEntity.ok(responses);
+    @Operation(summary = "Get approved restaurants", description = "Get all approved restaurants for public viewing; supports ETag / If-None-Match and gzip. The full catalog leaves isOpen null: compute it from the opening hours or use /public/open-ids")
+    public ResponseEntity<?> getApprovedRestaurants(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, RestaurantResponse.class);
+        Optional<PublicCatalogSnapshotService.Snapshot> snapshotOpt = publicCatalogSnapshotService.getSnapshot();
+        // Snapshot chỉ chứa bản đầy đủ; chưa dựng xong (ngay sau khi khởi động) hoặc có ?fields= thì dựng trực tiếp
+        if (!selection.isAll()) {
+            List<Restaurant> approvedRestaurants = restaurantService.getApprovedRestaurants();
+            List<RestaurantResponse> responses = restaurantMapper.toPublicResponseList(approvedRestaurants, selection);
+            return ResponseEntity.ok(responses);
+        }
+        if (snapshotOpt.isEmpty()) {
+            return ResponseEntity.ok(publicCatalogSnapshotService.buildCatalog());
+        }
+        
+        PublicCatalogSnapshotService.Snapshot snapshot = snapshotOpt.get();
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String etag = gzip ? snapshot.getGzipEtag() : snapshot.getEtag();
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip());
+        }
+        return builder.body(snapshot.getJson());
+    }
+
+    @GetMapping("/public/open-ids")
+    @Operation(summary = "Get open restaurant ids", description = "IDs of approved restaurants that are open right now, to combine with the cached public catalog")
+    public ResponseEntity<List<Long>> getOpenRestaurantIds() {
+        return ResponseEntity.ok(restaurantService.getOpenRestaurantIds());
+    }
+
+    @GetMapping("/public/page")
+    @Operation(summary = "Get approved restaurants page", description = "Get approved restaurants, newest first, using cursor pagination")
+    public ResponseEntity<CursorPageResponse<RestaurantResponse>> getApprovedRestaurantsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, RestaurantResponse.class);
+        CursorPageResponse<Restaurant> page = restaurantService.getApprovedRestaurantsPage(cursor, size);
+        return ResponseEntity.ok(page.map(restaurant -> restaurantMapper.toPublicResponse(restaurant, selection)));
+    }
+    
+    @GetMapping("/public/category/{category}")
+    @Operation(summary = "Get restaurants by category", description = "Get active approved restaurants in a category, newest first, using cursor pagination")
+    public ResponseEntity<CursorPageResponse<RestaurantResponse>> getRestaurantsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, RestaurantResponse.class);
+        CursorPageResponse<Restaurant> page = restaurantService.getApprovedRestaurantsByCategoryPage(category, cursor, size);
+        return ResponseEntity.ok(page.map(restaurant -> restaurantMapper.toPublicResponse(restaurant, selection)));
+    }
+
+    @GetMapping("/public/by-categories")
+    @Operation(summary = "Filter restaurants by categories", description = "Get approved restaurants matching any/all of the given categories, optionally only those open now, ordered by rating")
+    public ResponseEntity<List<RestaurantResponse>> getRestaurantsByCategories(
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(defaultValue = "false") boolean openNow,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, RestaurantResponse.class);
+        List<Restaurant> restaurants = restaurantService.findRestaurantsByCategories(
+            any, all, openNow, RestaurantListQueryService.capPageSize(limit));
+        return ResponseEntity.ok(restaurantMapper.toPublicResponseList(restaurants, selection));
     }
 
     @GetMapping("/public/{restaurantId}")
     @Operation(summary = "Get restaurant details", description = "Get restaurant details for public viewing")
-    public ResponseEntity<RestaurantResponse> getRestaurantDetails(@PathVariable Long restaurantId) {
+    public ResponseEntity<RestaurantResponse> getRestaurantDetails(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, RestaurantResponse.class);
         Optional<Restaurant> restaurantOpt = restaurantService.getApprovedRestaurantById(restaurantId);
         if (restaurantOpt.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        RestaurantResponse response = restaurantMapper.toPublicResponse(restaurantOpt.get());
+        RestaurantResponse response = restaurantMapper.toPublicResponse(restaurantOpt.get(), selection);
         return ResponseEntity.ok(response);
     }
     
     @GetMapping("/public/nearby")
-    @Operation(summary = "Find nearby restaurants", description = "Find restaurants near a location")
+    @Operation(summary = "Find nearby restaurants", description = "Find restaurants near a location within a radius (at most 20 km)")
     public ResponseEntity<List<RestaurantResponse>> getNearbyRestaurants(
             @RequestParam double latitude,
             @RequestParam double longitude,
-            @RequestParam(defaultValue = "5000") double radius) {
-        // This would use LocationService to find nearby restaurants
-        // For now, we'll return empty list - this should be implemented properly
-        List<RestaurantResponse> responses = restaurantMapper.toPublicResponseList(List.of());
+            @RequestParam(defaultValue = "5000") double radius,
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, RestaurantResponse.class);
+        List<Restaurant> nearbyRestaurants = locationService.findRestaurantsNearby(latitude, longitude, radius);
+        List<RestaurantResponse> responses = restaurantMapper.toPublicResponseList(nearbyRestaurants, selection);
+        return ResponseEntity.ok(responses);
+    }
+    
+    @GetMapping("/public/search")
+    @Operation(summary = "Search restaurants", description = "Full-text search of approved restaurants by name, categories and description; accent-insensitive, prefix matching, best matches first")
+    public ResponseEntity<List<RestaurantResponse>> searchRestaurants(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, RestaurantResponse.class);
+        List<Restaurant> restaurants = restaurantService.searchApprovedRestaurants(q, page, size);
+        return ResponseEntity.ok(restaurantMapper.toPublicResponseList(restaurants, selection));
+    }
+    
+    @GetMapping("/public/autocomplete")
+    @Operation(summary = "Autocomplete", description = "Prefix suggestions for restaurant names, dishes and categories from an in-memory index; accent-insensitive, matches the start of any word, most ordered first")
+    public ResponseEntity<List<AutocompleteSuggestionResponse>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        List<AutocompleteSuggestionResponse> responses = autocompleteIndex.complete(q, limit).stream()
+            .map(match -> new AutocompleteSuggestionResponse(
+                match.getSuggestion().getType().name(),
+                match.getSuggestion().getText(),
+                match.getSuggestion().getRestaurantId(),
+                match.getScore()))
+            .toList();
+        return ResponseEntity.ok(responses);
+    }
+    
+    @GetMapping("/public/dish-search")
+    @Operation(summary = "Search dishes nearby", description = "Search menu items by keyword across all restaurants within a radius (at most 20 km), grouped by restaurant and ranked by relevance and distance")
+    public ResponseEntity<List<DishSearchResultResponse>> searchDishesNearby(
+            @RequestParam String q,
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "2000") double radius,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<DishSearchResultResponse> responses = locationService.searchDishesNearby(q, latitude, longitude, radius, Math.min(limit, 100)).stream()
+            .map(result -> new DishSearchResultResponse(
+                restaurantMapper.toPublicResponse(result.getRestaurant()),
+                result.getDistanceMeters(),
+                menuItemMapper.toSummaryResponseList(result.getMenuItems())))
+            .toList();
+        return ResponseEntity.ok(responses);
+    }
+    
+    @GetMapping("/public/clusters")
+    @Operation(summary = "Map marker clusters", description = "Get restaurants inside a bounding box aggregated into clusters for the given zoom level; individual restaurants are returned from zoom " + LocationService.CLUSTER_MAX_ZOOM + " when the bounding box spans at most a screen of tiles; wider boxes are clustered at a lower zoom")
+    public ResponseEntity<List<RestaurantClusterResponse>> getRestaurantClusters(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam int zoom) {
+        List<RestaurantClusterResponse> clusters = locationService.findRestaurantClusters(minLat, minLng, maxLat, maxLng, zoom);
+        return ResponseEntity.ok(clusters);
+    }
+    
+    @GetMapping("/tiles/{z}/{x}/{y}.mvt")
+    @Operation(summary = "Restaurant vector tile", description = "Get approved restaurants inside tile z/x/y as a Mapbox Vector Tile (layer 'restaurants' with name, rating and open attributes)")
+    public ResponseEntity<byte[]> getRestaurantTile(
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y) {
+        byte[] tile = restaurantTileService.getTile(z, x, y);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/vnd.mapbox-vector-tile"))
+            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic())
+            .body(tile);
+    }
+    
+    @PostMapping("/public/distances")
+    @Operation(summary = "Batch distance matrix", description = "Get distances and pickup ETAs from one location to many restaurants in a single request")
+    public ResponseEntity<List<RestaurantDistanceResponse>> getRestaurantDistances(
+            @Valid @RequestBody DistanceMatrixRequest request) {
+        List<RestaurantDistanceResponse> responses = locationService.calculateDistancesToRestaurants(
+            request.getLatitude(), request.getLongitude(),
+            request.getRestaurantIds(), request.getAverageSpeedKmh());
+        return ResponseEntity.ok(responses);
+    }
+    
+    @PostMapping("/public/route-recommendations")
+    @Operation(summary = "Find restaurants along a route", description = "Find restaurants within a detour distance of a route given as an encoded polyline, ranked by detour, rating, opening hours at arrival and preferred categories")
+    public ResponseEntity<List<RestaurantResponse>> getRouteRecommendations(
+            @Valid @RequestBody RouteRecommendationRequest request) {
+        List<Restaurant> restaurants = locationService.getRouteBasedRecommendations(
+            request.getEncodedPolyline(), request.getMaxDetourMeters(), request.getPreferredCategories(),
+            request.getAverageSpeedKmh(),
+            request.getLimit() != null ? request.getLimit() : LocationService.DEFAULT_ROUTE_RECOMMENDATION_LIMIT);
+        List<RestaurantResponse> responses = restaurantMapper.toPublicResponseList(restaurants);
         return ResponseEntity.ok(responses);
     }
     
@@ -240,7 +465,7 @@ public class RestaurantController {
     }
     
     @GetMapping("/status/nearby-open")
-    @Operation(summary = "Get nearby open restaurants", description = "Get currently open restaurants near a location")
+    @Operation(summary = "Get nearby open restaurants", description = "Get currently open restaurants near a location (radius at most 20 km)")
     public ResponseEntity<List<RestaurantStatusResponse>> getNearbyOpenRestaurants(
             @RequestParam double latitude,
             @RequestParam double longitude,
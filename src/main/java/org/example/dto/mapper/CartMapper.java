@@ -2,19 +2,34 @@ package org.example.dto.mapper;
 
 import org.example.dto.response.*;
 import org.example.entity.*;
+import org.example.service.CollectionBatchLoader;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
 public class CartMapper {
     
+    @Autowired
+    private CollectionBatchLoader collectionBatchLoader;
+    
     public CartResponse toResponse(Cart cart) {
         if (cart == null) {
             return null;
         }
         
+        List<Cart> carts = List.of(cart);
+        Map<Long, List<CartItem>> cartItems = loadCartItems(carts);
+        return toResponse(cart, cartItems, loadCartItemAddOns(cartItems));
+    }
+    
+    private CartResponse toResponse(Cart cart, Map<Long, List<CartItem>> cartItems,
+                                    Map<Long, List<CartItemAddOn>> addOns) {
+        
         CartResponse response = new CartResponse();
         response.setId(cart.getId());
         
@@ -40,9 +55,10 @@ public class CartMapper {
         }
         
         // Cart items
-        if (cart.getCartItems() != null) {
-            List<CartItemResponse> cartItemResponses = cart.getCartItems().stream()
-                .map(this::toCartItemResponse)
+        List<CartItem> items = childrenOf(cart.getId(), cartItems, cart.getCartItems());
+        if (items != null) {
+            List<CartItemResponse> cartItemResponses = items.stream()
+                .map(cartItem -> toCartItemResponse(cartItem, addOns))
                 .collect(Collectors.toList());
             response.setCartItems(cartItemResponses);
         }
@@ -61,6 +77,10 @@ public class CartMapper {
     }
     
     public CartItemResponse toCartItemResponse(CartItem cartItem) {
+        return toCartItemResponse(cartItem, Map.of());
+    }
+    
+    private CartItemResponse toCartItemResponse(CartItem cartItem, Map<Long, List<CartItemAddOn>> addOns) {
         if (cartItem == null) {
             return null;
         }
@@ -83,8 +103,9 @@ public class CartMapper {
         response.setSpecialInstructions(cartItem.getSpecialInstructions());
         
         // Add-ons
-        if (cartItem.getAddOns() != null) {
-            List<CartItemAddOnResponse> addOnResponses = cartItem.getAddOns().stream()
+        List<CartItemAddOn> itemAddOns = childrenOf(cartItem.getId(), addOns, cartItem.getAddOns());
+        if (itemAddOns != null) {
+            List<CartItemAddOnResponse> addOnResponses = itemAddOns.stream()
                 .map(this::toCartItemAddOnResponse)
                 .collect(Collectors.toList());
             response.setAddOns(addOnResponses);
@@ -114,8 +135,11 @@ public class CartMapper {
             return null;
         }
         
+        // Cart items và add-ons của cả danh sách: mỗi tầng một truy vấn
+        Map<Long, List<CartItem>> cartItems = loadCartItems(carts);
+        Map<Long, List<CartItemAddOn>> addOns = loadCartItemAddOns(cartItems);
         return carts.stream()
-            .map(this::toResponse)
+            .map(cart -> toResponse(cart, cartItems, addOns))
             .collect(Collectors.toList());
     }
     
@@ -157,4 +181,23 @@ public class CartMapper {
             .map(this::toSummaryResponse)
             .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+    
+    // Mapper tạo thủ công (không qua Spring) thì đọc trực tiếp collection của entity
+    private Map<Long, List<CartItem>> loadCartItems(List<Cart> carts) {
+        return collectionBatchLoader != null ? collectionBatchLoader.loadCartItems(carts) : Map.of();
+    }
+    
+    private Map<Long, List<CartItemAddOn>> loadCartItemAddOns(Map<Long, List<CartItem>> cartItems) {
+        if (collectionBatchLoader == null) {
+            return Map.of();
+        }
+        List<CartItem> items = new ArrayList<>();
+        cartItems.values().forEach(items::addAll);
+        return collectionBatchLoader.loadCartItemAddOns(items);
+    }
+    
+    private static <T> List<T> childrenOf(Long parentId, Map<Long, List<T>> loaded, List<T> collection) {
+        List<T> children = parentId != null ? loaded.get(parentId) : null;
+        return children != null ? children : collection;
+    }
+}
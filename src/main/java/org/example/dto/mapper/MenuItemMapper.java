@@ -2,13 +2,19 @@ package org.example.dto.mapper;
 
 import org.example.dto.request.CreateMenuItemRequest;
 import org.example.dto.request.UpdateMenuItemRequest;
+import org.example.dto.response.MenuItemAddOnResponse;
 import org.example.dto.response.MenuItemResponse;
 import org.example.dto.response.MenuItemSummaryResponse;
 import org.example.entity.MenuItem;
+import org.example.entity.MenuItemAddOn;
 import org.example.entity.Restaurant;
+import org.example.service.CollectionBatchLoader;
+import org.example.util.FieldSelection;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -17,31 +23,70 @@ import java.util.stream.Collectors;
 @Component
 public class MenuItemMapper {
     
+    @Autowired
+    private CollectionBatchLoader collectionBatchLoader;
+    
     /**
      * Chuyển đổi từ MenuItem Entity sang MenuItemResponse
      */
     public MenuItemResponse toResponse(MenuItem menuItem) {
+        return toResponse(menuItem, FieldSelection.ALL);
+    }
+    
+    /**
+     * Chuyển đổi sang MenuItemResponse, chỉ tính các field được yêu cầu
+     * (tags và tên restaurant là quan hệ lazy, không được chọn thì không bị load)
+     */
+    public MenuItemResponse toResponse(MenuItem menuItem, FieldSelection fields) {
+        return toResponse(menuItem, fields, Map.of());
+    }
+    
+    private MenuItemResponse toResponse(MenuItem menuItem, FieldSelection fields, Map<Long, List<String>> tags) {
         if (menuItem == null) {
             return null;
         }
         
         MenuItemResponse response = new MenuItemResponse();
         response.setId(menuItem.getId());
-        response.setName(menuItem.getName());
-        response.setDescription(menuItem.getDescription());
-        response.setPrice(menuItem.getPrice());
-        response.setCategory(menuItem.getCategory());
-        response.setImageUrl(menuItem.getImageUrl());
-        response.setIsAvailable(menuItem.getIsAvailable());
-        response.setPreparationTimeMinutes(menuItem.getPreparationTimeMinutes());
-        response.setTags(menuItem.getTags());
-        response.setCreatedAt(menuItem.getCreatedAt());
-        response.setUpdatedAt(menuItem.getUpdatedAt());
+        if (fields.includes("name")) {
+            response.setName(menuItem.getName());
+        }
+        if (fields.includes("description")) {
+            response.setDescription(menuItem.getDescription());
+        }
+        if (fields.includes("price")) {
+            response.setPrice(menuItem.getPrice());
+        }
+        if (fields.includes("category")) {
+            response.setCategory(menuItem.getCategory());
+        }
+        if (fields.includes("imageUrl")) {
+            response.setImageUrl(menuItem.getImageUrl());
+        }
+        if (fields.includes("isAvailable")) {
+            response.setIsAvailable(menuItem.getIsAvailable());
+        }
+        if (fields.includes("preparationTimeMinutes")) {
+            response.setPreparationTimeMinutes(menuItem.getPreparationTimeMinutes());
+        }
+        if (fields.includes("tags")) {
+            response.setTags(tagsOf(menuItem, tags));
+        }
+        if (fields.includes("createdAt")) {
+            response.setCreatedAt(menuItem.getCreatedAt());
+        }
+        if (fields.includes("updatedAt")) {
+            response.setUpdatedAt(menuItem.getUpdatedAt());
+        }
         
         // Set restaurant info if available
-        if (menuItem.getRestaurant() != null) {
-            response.setRestaurantId(menuItem.getRestaurant().getId());
-            response.setRestaurantName(menuItem.getRestaurant().getName());
+        if ((fields.includes("restaurantId") || fields.includes("restaurantName")) && menuItem.getRestaurant() != null) {
+            if (fields.includes("restaurantId")) {
+                response.setRestaurantId(menuItem.getRestaurant().getId());
+            }
+            if (fields.includes("restaurantName")) {
+                response.setRestaurantName(menuItem.getRestaurant().getName());
+            }
         }
         
         return response;
@@ -51,24 +96,73 @@ public class MenuItemMapper {
      * Chuyển đổi từ MenuItem Entity sang MenuItemSummaryResponse
      */
     public MenuItemSummaryResponse toSummaryResponse(MenuItem menuItem) {
+        return toSummaryResponse(menuItem, FieldSelection.ALL);
+    }
+    
+    /**
+     * Chuyển đổi sang MenuItemSummaryResponse, chỉ tính các field được yêu cầu
+     */
+    public MenuItemSummaryResponse toSummaryResponse(MenuItem menuItem, FieldSelection fields) {
+        return toSummaryResponse(menuItem, fields, Map.of());
+    }
+    
+    private MenuItemSummaryResponse toSummaryResponse(MenuItem menuItem, FieldSelection fields,
+                                                      Map<Long, List<String>> tags) {
         if (menuItem == null) {
             return null;
         }
         
         MenuItemSummaryResponse response = new MenuItemSummaryResponse();
         response.setId(menuItem.getId());
-        response.setName(menuItem.getName());
-        response.setDescription(menuItem.getDescription());
-        response.setPrice(menuItem.getPrice());
-        response.setCategory(menuItem.getCategory());
-        response.setImageUrl(menuItem.getImageUrl());
-        response.setIsAvailable(menuItem.getIsAvailable());
-        response.setPreparationTimeMinutes(menuItem.getPreparationTimeMinutes());
-        response.setTags(menuItem.getTags());
+        if (fields.includes("name")) {
+            response.setName(menuItem.getName());
+        }
+        if (fields.includes("description")) {
+            response.setDescription(menuItem.getDescription());
+        }
+        if (fields.includes("price")) {
+            response.setPrice(menuItem.getPrice());
+        }
+        if (fields.includes("category")) {
+            response.setCategory(menuItem.getCategory());
+        }
+        if (fields.includes("imageUrl")) {
+            response.setImageUrl(menuItem.getImageUrl());
+        }
+        if (fields.includes("isAvailable")) {
+            response.setIsAvailable(menuItem.getIsAvailable());
+        }
+        if (fields.includes("preparationTimeMinutes")) {
+            response.setPreparationTimeMinutes(menuItem.getPreparationTimeMinutes());
+        }
+        if (fields.includes("tags")) {
+            response.setTags(tagsOf(menuItem, tags));
+        }
         
         return response;
     }
     
+    /**
+     * Chuyển đổi từ MenuItemAddOn Entity sang MenuItemAddOnResponse
+     */
+    public MenuItemAddOnResponse toAddOnResponse(MenuItemAddOn addOn) {
+        if (addOn == null) {
+            return null;
+        }
+        
+        MenuItemAddOnResponse response = new MenuItemAddOnResponse();
+        response.setId(addOn.getId());
+        response.setName(addOn.getName());
+        response.setDescription(addOn.getDescription());
+        response.setPrice(addOn.getPrice());
+        response.setCategory(addOn.getCategory());
+        response.setIsAvailable(addOn.getIsAvailable());
+        response.setDisplayOrder(addOn.getDisplayOrder());
+        response.setMaxQuantity(addOn.getMaxQuantity());
+        response.setIsRequired(addOn.getIsRequired());
+        return response;
+    }
+    
     /**
      * Chuyển đổi từ CreateMenuItemRequest sang MenuItem Entity
      */
@@ -137,12 +231,17 @@ public class MenuItemMapper {
      * Chuyển đổi List<MenuItem> sang List<MenuItemResponse>
      */
     public List<MenuItemResponse> toResponseList(List<MenuItem> menuItems) {
+        return toResponseList(menuItems, FieldSelection.ALL);
+    }
+    
+    public List<MenuItemResponse> toResponseList(List<MenuItem> menuItems, FieldSelection fields) {
         if (menuItems == null) {
             return null;
         }
         
+        Map<Long, List<String>> tags = loadTags(menuItems, fields);
         return menuItems.stream()
-                .map(this::toResponse)
+                .map(menuItem -> toResponse(menuItem, fields, tags))
                 .collect(Collectors.toList());
     }
     
@@ -150,12 +249,33 @@ public class MenuItemMapper {
      * Chuyển đổi List<MenuItem> sang List<MenuItemSummaryResponse>
      */
     public List<MenuItemSummaryResponse> toSummaryResponseList(List<MenuItem> menuItems) {
+        return toSummaryResponseList(menuItems, FieldSelection.ALL);
+    }
+    
+    public List<MenuItemSummaryResponse> toSummaryResponseList(List<MenuItem> menuItems, FieldSelection fields) {
         if (menuItems == null) {
             return null;
         }
         
+        Map<Long, List<String>> tags = loadTags(menuItems, fields);
         return menuItems.stream()
-                .map(this::toSummaryResponse)
+                .map(menuItem -> toSummaryResponse(menuItem, fields, tags))
                 .collect(Collectors.toList());
     }
+    
+    /**
+     * Tags của cả danh sách trong một truy vấn thay vì một truy vấn cho mỗi menu item
+     */
+    private Map<Long, List<String>> loadTags(List<MenuItem> menuItems, FieldSelection fields) {
+        // Mapper tạo thủ công (không qua Spring) thì đọc trực tiếp collection của entity
+        if (collectionBatchLoader == null || !fields.includes("tags")) {
+            return Map.of();
+        }
+        return collectionBatchLoader.loadTags(menuItems);
+    }
+    
+    private static List<String> tagsOf(MenuItem menuItem, Map<Long, List<String>> tags) {
+        List<String> loaded = menuItem.getId() != null ? tags.get(menuItem.getId()) : null;
+        return loaded != null ? loaded : menuItem.getTags();
+    }
 }
\ No newline at end of file
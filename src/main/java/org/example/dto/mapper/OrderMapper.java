@@ -2,99 +2,207 @@ package org.example.dto.mapper;
 
 import org.example.dto.response.*;
 import org.example.entity.*;
+import org.example.service.CollectionBatchLoader;
+import org.example.util.FieldSelection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
 public class OrderMapper {
     
+    @Autowired
+    private CollectionBatchLoader collectionBatchLoader;
+    
     public OrderResponse toResponse(Order order) {
+        return toResponse(order, FieldSelection.ALL);
+    }
+    
+    /**
+     * Chỉ tính các field được yêu cầu: customer, restaurant và cây orderItems/addOns là quan hệ lazy,
+     * không được chọn thì không bị load
+     */
+    public OrderResponse toResponse(Order order, FieldSelection fields) {
+        if (order == null) {
+            return null;
+        }
+        return mapOrders(List.of(order), fields, false).get(0);
+    }
+    
+    private OrderResponse toResponse(Order order, FieldSelection fields, Map<Long, List<OrderItem>> orderItems,
+                                     Map<Long, List<OrderAddOn>> addOns) {
         if (order == null) {
             return null;
         }
         
         OrderResponse response = new OrderResponse();
         response.setId(order.getId());
-        response.setQrCode(order.getQrCode());
+        if (fields.includes("qrCode")) {
+            response.setQrCode(order.getQrCode());
+        }
         
         // Customer info
-        if (order.getCustomer() != null) {
+        if (fields.includes("customer") && order.getCustomer() != null) {
+            FieldSelection customerFields = fields.nested("customer");
             UserResponse customerResponse = new UserResponse();
             customerResponse.setId(order.getCustomer().getId());
-            customerResponse.setEmail(order.getCustomer().getEmail());
-            customerResponse.setFullName(order.getCustomer().getFullName());
-            customerResponse.setPhoneNumber(order.getCustomer().getPhoneNumber());
+            if (customerFields.includes("email")) {
+                customerResponse.setEmail(order.getCustomer().getEmail());
+            }
+            if (customerFields.includes("fullName")) {
+                customerResponse.setFullName(order.getCustomer().getFullName());
+            }
+            if (customerFields.includes("phoneNumber")) {
+                customerResponse.setPhoneNumber(order.getCustomer().getPhoneNumber());
+            }
             response.setCustomer(customerResponse);
         }
         
         // Restaurant info
-        if (order.getRestaurant() != null) {
+        if (fields.includes("restaurant") && order.getRestaurant() != null) {
+            FieldSelection restaurantFields = fields.nested("restaurant");
+            Restaurant restaurant = order.getRestaurant();
             RestaurantSummaryResponse restaurantResponse = new RestaurantSummaryResponse();
-            restaurantResponse.setId(order.getRestaurant().getId());
-            restaurantResponse.setName(order.getRestaurant().getName());
-            restaurantResponse.setAddress(order.getRestaurant().getAddress());
-            restaurantResponse.setImageUrl(order.getRestaurant().getImageUrl());
-            restaurantResponse.setOpeningTime(order.getRestaurant().getOpeningTime());
-            restaurantResponse.setClosingTime(order.getRestaurant().getClosingTime());
-            restaurantResponse.setRating(order.getRestaurant().getRating());
-            restaurantResponse.setIsOpen(order.getRestaurant().isOpen());
+            restaurantResponse.setId(restaurant.getId());
+            if (restaurantFields.includes("name")) {
+                restaurantResponse.setName(restaurant.getName());
+            }
+            if (restaurantFields.includes("address")) {
+                restaurantResponse.setAddress(restaurant.getAddress());
+            }
+            if (restaurantFields.includes("imageUrl")) {
+                restaurantResponse.setImageUrl(restaurant.getImageUrl());
+            }
+            if (restaurantFields.includes("openingTime")) {
+                restaurantResponse.setOpeningTime(restaurant.getOpeningTime());
+            }
+            if (restaurantFields.includes("closingTime")) {
+                restaurantResponse.setClosingTime(restaurant.getClosingTime());
+            }
+            if (restaurantFields.includes("rating")) {
+                restaurantResponse.setRating(restaurant.getRating());
+            }
+            if (restaurantFields.includes("isOpen")) {
+                restaurantResponse.setIsOpen(restaurant.isOpen());
+            }
             
             // Location
-            if (order.getRestaurant().getLocation() != null) {
-                restaurantResponse.setLatitude(order.getRestaurant().getLocation().getY());
-                restaurantResponse.setLongitude(order.getRestaurant().getLocation().getX());
+            if (restaurant.getLocation() != null) {
+                if (restaurantFields.includes("latitude")) {
+                    restaurantResponse.setLatitude(restaurant.getLocation().getY());
+                }
+                if (restaurantFields.includes("longitude")) {
+                    restaurantResponse.setLongitude(restaurant.getLocation().getX());
+                }
             }
             
             response.setRestaurant(restaurantResponse);
         }
         
         // Location info
-        response.setDeliveryAddress(order.getDeliveryAddress());
+        if (fields.includes("deliveryAddress")) {
+            response.setDeliveryAddress(order.getDeliveryAddress());
+        }
         if (order.getPickupLocation() != null) {
-            response.setPickupLatitude(order.getPickupLocation().getY());
-            response.setPickupLongitude(order.getPickupLocation().getX());
+            if (fields.includes("pickupLatitude")) {
+                response.setPickupLatitude(order.getPickupLocation().getY());
+            }
+            if (fields.includes("pickupLongitude")) {
+                response.setPickupLongitude(order.getPickupLocation().getX());
+            }
         }
         if (order.getCurrentLocation() != null) {
-            response.setCurrentLatitude(order.getCurrentLocation().getY());
-            response.setCurrentLongitude(order.getCurrentLocation().getX());
+            if (fields.includes("currentLatitude")) {
+                response.setCurrentLatitude(order.getCurrentLocation().getY());
+            }
+            if (fields.includes("currentLongitude")) {
+                response.setCurrentLongitude(order.getCurrentLocation().getX());
+            }
         }
         
         // Time info
-        response.setPreferredPickupTime(order.getPreferredPickupTime());
-        response.setEstimatedReadyTime(order.getEstimatedReadyTime());
-        response.setActualReadyTime(order.getActualReadyTime());
-        response.setPickupTime(order.getPickupTime());
+        if (fields.includes("preferredPickupTime")) {
+            response.setPreferredPickupTime(order.getPreferredPickupTime());
+        }
+        if (fields.includes("estimatedReadyTime")) {
+            response.setEstimatedReadyTime(order.getEstimatedReadyTime());
+        }
+        if (fields.includes("actualReadyTime")) {
+            response.setActualReadyTime(order.getActualReadyTime());
+        }
+        if (fields.includes("pickupTime")) {
+            response.setPickupTime(order.getPickupTime());
+        }
         
         // Pricing info
-        response.setSubtotal(order.getSubtotal());
-        response.setDeliveryFee(order.getDeliveryFee());
-        response.setServiceFee(order.getServiceFee());
-        response.setDiscountAmount(order.getDiscountAmount());
-        response.setTotalAmount(order.getTotalAmount());
+        if (fields.includes("subtotal")) {
+            response.setSubtotal(order.getSubtotal());
+        }
+        if (fields.includes("deliveryFee")) {
+            response.setDeliveryFee(order.getDeliveryFee());
+        }
+        if (fields.includes("serviceFee")) {
+            response.setServiceFee(order.getServiceFee());
+        }
+        if (fields.includes("discountAmount")) {
+            response.setDiscountAmount(order.getDiscountAmount());
+        }
+        if (fields.includes("totalAmount")) {
+            response.setTotalAmount(order.getTotalAmount());
+        }
         
         // Status info
-        response.setStatus(order.getStatus());
-        response.setPaymentStatus(order.getPaymentStatus());
-        response.setSpecialInstructions(order.getSpecialInstructions());
+        if (fields.includes("status")) {
+            response.setStatus(order.getStatus());
+        }
+        if (fields.includes("paymentStatus")) {
+            response.setPaymentStatus(order.getPaymentStatus());
+        }
+        if (fields.includes("specialInstructions")) {
+            response.setSpecialInstructions(order.getSpecialInstructions());
+        }
         
         // Order items
-        if (order.getOrderItems() != null) {
-            List<OrderItemResponse> orderItemResponses = order.getOrderItems().stream()
-                .map(this::toOrderItemResponse)
+        List<OrderItem> items = fields.includes("orderItems")
+            ? childrenOf(order.getId(), orderItems, order.getOrderItems()) : null;
+        if (items != null) {
+            FieldSelection itemFields = fields.nested("orderItems");
+            List<OrderItemResponse> orderItemResponses = items.stream()
+                .map(orderItem -> toOrderItemResponse(orderItem, itemFields, addOns))
                 .collect(Collectors.toList());
             response.setOrderItems(orderItemResponses);
         }
         
-        response.setTotalItems(order.getTotalItems());
-        response.setCreatedAt(order.getCreatedAt());
-        response.setUpdatedAt(order.getUpdatedAt());
+        // totalItems được tính từ orderItems
+        if (fields.includes("totalItems")) {
+            response.setTotalItems(totalItems(order, orderItems));
+        }
+        if (fields.includes("createdAt")) {
+            response.setCreatedAt(order.getCreatedAt());
+        }
+        if (fields.includes("updatedAt")) {
+            response.setUpdatedAt(order.getUpdatedAt());
+        }
         
         return response;
     }
     
     public OrderItemResponse toOrderItemResponse(OrderItem orderItem) {
+        return toOrderItemResponse(orderItem, FieldSelection.ALL);
+    }
+    
+    public OrderItemResponse toOrderItemResponse(OrderItem orderItem, FieldSelection fields) {
+        return toOrderItemResponse(orderItem, fields, Map.of());
+    }
+    
+    private OrderItemResponse toOrderItemResponse(OrderItem orderItem, FieldSelection fields,
+                                                  Map<Long, List<OrderAddOn>> addOns) {
         if (orderItem == null) {
             return null;
         }
@@ -103,28 +211,52 @@ public class OrderMapper {
         response.setId(orderItem.getId());
         
         // Menu item info (from snapshot)
-        response.setMenuItemId(orderItem.getMenuItem() != null ? orderItem.getMenuItem().getId() : null);
-        response.setMenuItemName(orderItem.getMenuItemName());
-        response.setMenuItemDescription(orderItem.getMenuItemDescription());
-        response.setMenuItemCategory(orderItem.getMenuItemCategory());
-        response.setMenuItemImageUrl(orderItem.getMenuItemImageUrl());
+        if (fields.includes("menuItemId")) {
+            response.setMenuItemId(orderItem.getMenuItem() != null ? orderItem.getMenuItem().getId() : null);
+        }
+        if (fields.includes("menuItemName")) {
+            response.setMenuItemName(orderItem.getMenuItemName());
+        }
+        if (fields.includes("menuItemDescription")) {
+            response.setMenuItemDescription(orderItem.getMenuItemDescription());
+        }
+        if (fields.includes("menuItemCategory")) {
+            response.setMenuItemCategory(orderItem.getMenuItemCategory());
+        }
+        if (fields.includes("menuItemImageUrl")) {
+            response.setMenuItemImageUrl(orderItem.getMenuItemImageUrl());
+        }
         
         // Order item details
-        response.setQuantity(orderItem.getQuantity());
-        response.setUnitPrice(orderItem.getUnitPrice());
-        response.setSubtotal(orderItem.getSubtotal());
-        response.setTotalPrice(orderItem.getTotalPrice());
-        response.setSpecialInstructions(orderItem.getSpecialInstructions());
+        if (fields.includes("quantity")) {
+            response.setQuantity(orderItem.getQuantity());
+        }
+        if (fields.includes("unitPrice")) {
+            response.setUnitPrice(orderItem.getUnitPrice());
+        }
+        if (fields.includes("subtotal")) {
+            response.setSubtotal(orderItem.getSubtotal());
+        }
+        if (fields.includes("totalPrice")) {
+            response.setTotalPrice(orderItem.getTotalPrice());
+        }
+        if (fields.includes("specialInstructions")) {
+            response.setSpecialInstructions(orderItem.getSpecialInstructions());
+        }
         
         // Add-ons
-        if (orderItem.getAddOns() != null) {
-            List<OrderAddOnResponse> addOnResponses = orderItem.getAddOns().stream()
+        List<OrderAddOn> itemAddOns = fields.includes("addOns")
+            ? childrenOf(orderItem.getId(), addOns, orderItem.getAddOns()) : null;
+        if (itemAddOns != null) {
+            List<OrderAddOnResponse> addOnResponses = itemAddOns.stream()
                 .map(this::toOrderAddOnResponse)
                 .collect(Collectors.toList());
             response.setAddOns(addOnResponses);
         }
         
-        response.setCreatedAt(orderItem.getCreatedAt());
+        if (fields.includes("createdAt")) {
+            response.setCreatedAt(orderItem.getCreatedAt());
+        }
         
         return response;
     }
@@ -148,9 +280,7 @@ public class OrderMapper {
             return null;
         }
         
-        return orders.stream()
-            .map(this::toResponse)
-            .collect(Collectors.toList());
+        return mapOrders(orders, FieldSelection.ALL, false);
     }
     
     // Summary response for lists (lighter version)
@@ -158,6 +288,13 @@ public class OrderMapper {
         if (order == null) {
             return null;
         }
+        return mapOrders(List.of(order), FieldSelection.ALL, true).get(0);
+    }
+    
+    private OrderResponse toSummaryResponse(Order order, Map<Long, List<OrderItem>> orderItems) {
+        if (order == null) {
+            return null;
+        }
         
         OrderResponse response = new OrderResponse();
         response.setId(order.getId());
@@ -178,19 +315,84 @@ public class OrderMapper {
         response.setStatus(order.getStatus());
         response.setPaymentStatus(order.getPaymentStatus());
         response.setTotalAmount(order.getTotalAmount());
-        response.setTotalItems(order.getTotalItems());
+        response.setTotalItems(totalItems(order, orderItems));
         response.setCreatedAt(order.getCreatedAt());
         
         return response;
     }
     
+    /**
+     * Danh sách dùng bản rút gọn khi không có ?fields=; có thì tính đúng các field được chọn
+     * (cho phép chọn cả field chỉ có ở bản chi tiết, ví dụ orderItems)
+     */
+    public OrderResponse toSummaryResponse(Order order, FieldSelection fields) {
+        return fields.isAll() ? toSummaryResponse(order) : toResponse(order, fields);
+    }
+    
+    /**
+     * Trang đơn hàng; order items và add-ons của cả trang được nạp trong một truy vấn cho mỗi tầng
+     */
+    public Page<OrderResponse> toSummaryResponsePage(Page<Order> orders, FieldSelection fields) {
+        List<OrderResponse> content = toSummaryResponseList(orders.getContent(), fields);
+        return new PageImpl<>(content, orders.getPageable(), orders.getTotalElements());
+    }
+    
     public List<OrderResponse> toSummaryResponseList(List<Order> orders) {
+        return toSummaryResponseList(orders, FieldSelection.ALL);
+    }
+    
+    public List<OrderResponse> toSummaryResponseList(List<Order> orders, FieldSelection fields) {
         if (orders == null) {
             return null;
         }
         
+        return mapOrders(orders, fields, true);
+    }
+    
+    /**
+     * Map danh sách đơn hàng, nạp trước order items (cần cho cả totalItems) và add-ons khi được chọn
+     */
+    private List<OrderResponse> mapOrders(List<Order> orders, FieldSelection fields, boolean summary) {
+        // Bản rút gọn chỉ khi không có ?fields=; có thì tính đúng các field được chọn
+        boolean summaryOnly = summary && fields.isAll();
+        Map<Long, List<OrderItem>> orderItems = fields.includes("orderItems") || fields.includes("totalItems")
+            ? loadOrderItems(orders) : Map.of();
+        Map<Long, List<OrderAddOn>> addOns = !summaryOnly && fields.includes("orderItems")
+            && fields.nested("orderItems").includes("addOns")
+            ? loadOrderAddOns(orderItems) : Map.of();
         return orders.stream()
-            .map(this::toSummaryResponse)
+            .map(order -> summaryOnly
+                ? toSummaryResponse(order, orderItems)
+                : toResponse(order, fields, orderItems, addOns))
             .collect(Collectors.toList());
     }
+    
+    // Mapper tạo thủ công (không qua Spring) thì đọc trực tiếp collection của entity
+    private Map<Long, List<OrderItem>> loadOrderItems(List<Order> orders) {
+        return collectionBatchLoader != null ? collectionBatchLoader.loadOrderItems(orders) : Map.of();
+    }
+    
+    private Map<Long, List<OrderAddOn>> loadOrderAddOns(Map<Long, List<OrderItem>> orderItems) {
+        if (collectionBatchLoader == null) {
+            return Map.of();
+        }
+        List<OrderItem> items = new ArrayList<>();
+        orderItems.values().forEach(items::addAll);
+        return collectionBatchLoader.loadOrderAddOns(items);
+    }
+    
+    private static int totalItems(Order order, Map<Long, List<OrderItem>> orderItems) {
+        List<OrderItem> items = childrenOf(order.getId(), orderItems, null);
+        if (items == null) {
+            return order.getTotalItems();
+        }
+        return items.stream()
+            .mapToInt(OrderItem::getQuantity)
+            .sum();
+    }
+    
+    private static <T> List<T> childrenOf(Long parentId, Map<Long, List<T>> loaded, List<T> collection) {
+        List<T> children = parentId != null ? loaded.get(parentId) : null;
+        return children != null ? children : collection;
+    }
 }
\ No newline at end of file
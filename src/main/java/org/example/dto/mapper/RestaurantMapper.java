@@ -2,6 +2,7 @@ package org.example.dto.mapper;
 
 import org.example.dto.response.RestaurantResponse;
 import org.example.entity.Restaurant;
+import org.example.util.FieldSelection;
 import org.locationtech.jts.geom.Point;
 import org.springframework.stereotype.Component;
 
@@ -17,6 +18,17 @@ public class RestaurantMapper {
      * @return RestaurantResponse DTO
      */
     public RestaurantResponse toResponse(Restaurant restaurant) {
+        return toResponse(restaurant, FieldSelection.ALL);
+    }
+    
+    /**
+     * Convert Restaurant entity to RestaurantResponse DTO, chỉ tính các field được yêu cầu
+     * (owner, người duyệt, categories và giờ mở cửa là quan hệ lazy, không được chọn thì không bị load)
+     * @param restaurant Restaurant entity
+     * @param fields Sparse fieldset từ tham số ?fields=
+     * @return RestaurantResponse DTO
+     */
+    public RestaurantResponse toResponse(Restaurant restaurant, FieldSelection fields) {
         if (restaurant == null) {
             return null;
         }
@@ -25,54 +37,105 @@ public class RestaurantMapper {
         
         // Basic information
         response.setId(restaurant.getId());
-        response.setName(restaurant.getName());
-        response.setDescription(restaurant.getDescription());
-        response.setAddress(restaurant.getAddress());
-        response.setPhoneNumber(restaurant.getPhoneNumber());
-        response.setEmail(restaurant.getEmail());
-        response.setImageUrl(restaurant.getImageUrl());
+        if (fields.includes("name")) {
+            response.setName(restaurant.getName());
+        }
+        if (fields.includes("description")) {
+            response.setDescription(restaurant.getDescription());
+        }
+        if (fields.includes("address")) {
+            response.setAddress(restaurant.getAddress());
+        }
+        if (fields.includes("phoneNumber")) {
+            response.setPhoneNumber(restaurant.getPhoneNumber());
+        }
+        if (fields.includes("email")) {
+            response.setEmail(restaurant.getEmail());
+        }
+        if (fields.includes("imageUrl")) {
+            response.setImageUrl(restaurant.getImageUrl());
+        }
         
         // Location information
-        if (restaurant.getLocation() != null) {
-            Point location = restaurant.getLocation();
-            response.setLatitude(location.getY()); // Y = Latitude
-            response.setLongitude(location.getX()); // X = Longitude
-        }
+        setLocation(response, restaurant, fields);
         
         // Business hours
-        response.setOpeningTime(restaurant.getOpeningTime());
-        response.setClosingTime(restaurant.getClosingTime());
+        if (fields.includes("openingTime")) {
+            response.setOpeningTime(restaurant.getOpeningTime());
+        }
+        if (fields.includes("closingTime")) {
+            response.setClosingTime(restaurant.getClosingTime());
+        }
+        if (fields.includes("timezone")) {
+            response.setTimezone(restaurant.getZoneId().getId());
+        }
+        if (fields.includes("weeklyHours")) {
+            response.setWeeklyHours(restaurant.getWeeklyHours());
+        }
+        if (fields.includes("holidayOverrides")) {
+            response.setHolidayOverrides(restaurant.getHolidayOverrides());
+        }
         
         // Status and rating
-        response.setIsActive(restaurant.getIsActive());
-        response.setRating(restaurant.getRating());
-        response.setTotalReviews(restaurant.getTotalReviews());
+        if (fields.includes("isActive")) {
+            response.setIsActive(restaurant.getIsActive());
+        }
+        if (fields.includes("rating")) {
+            response.setRating(restaurant.getRating());
+        }
+        if (fields.includes("totalReviews")) {
+            response.setTotalReviews(restaurant.getTotalReviews());
+        }
         
         // Owner information (basic info for security)
-        if (restaurant.getOwner() != null) {
-            response.setOwnerId(restaurant.getOwner().getId());
-            response.setOwnerName(restaurant.getOwner().getFullName());
+        if ((fields.includes("ownerId") || fields.includes("ownerName")) && restaurant.getOwner() != null) {
+            if (fields.includes("ownerId")) {
+                response.setOwnerId(restaurant.getOwner().getId());
+            }
+            if (fields.includes("ownerName")) {
+                response.setOwnerName(restaurant.getOwner().getFullName());
+            }
         }
         
         // Approval information
-        response.setApprovalStatus(restaurant.getApprovalStatus());
-        if (restaurant.getApprovedBy() != null) {
-            response.setApprovedBy(restaurant.getApprovedBy().getId());
-            response.setApprovedByName(restaurant.getApprovedBy().getFullName());
+        if (fields.includes("approvalStatus")) {
+            response.setApprovalStatus(restaurant.getApprovalStatus());
+        }
+        if ((fields.includes("approvedBy") || fields.includes("approvedByName")) && restaurant.getApprovedBy() != null) {
+            if (fields.includes("approvedBy")) {
+                response.setApprovedBy(restaurant.getApprovedBy().getId());
+            }
+            if (fields.includes("approvedByName")) {
+                response.setApprovedByName(restaurant.getApprovedBy().getFullName());
+            }
+        }
+        if (fields.includes("approvedAt")) {
+            response.setApprovedAt(restaurant.getApprovedAt());
+        }
+        if (fields.includes("rejectionReason")) {
+            response.setRejectionReason(restaurant.getRejectionReason());
         }
-        response.setApprovedAt(restaurant.getApprovedAt());
-        response.setRejectionReason(restaurant.getRejectionReason());
         
         // Categories
-        response.setCategories(restaurant.getCategories());
+        if (fields.includes("categories")) {
+            response.setCategories(restaurant.getCategories());
+        }
         
         // Timestamps
-        response.setCreatedAt(restaurant.getCreatedAt());
-        response.setUpdatedAt(restaurant.getUpdatedAt());
+        if (fields.includes("createdAt")) {
+            response.setCreatedAt(restaurant.getCreatedAt());
+        }
+        if (fields.includes("updatedAt")) {
+            response.setUpdatedAt(restaurant.getUpdatedAt());
+        }
         
         // Computed fields
-        response.setIsOpen(restaurant.isOpen());
-        response.setIsApproved(restaurant.isApproved());
+        if (fields.includes("isOpen")) {
+            response.setIsOpen(restaurant.isOpen());
+        }
+        if (fields.includes("isApproved")) {
+            response.setIsApproved(restaurant.isApproved());
+        }
         
         return response;
     }
@@ -83,12 +146,16 @@ public class RestaurantMapper {
      * @return List of RestaurantResponse DTOs
      */
     public List<RestaurantResponse> toResponseList(List<Restaurant> restaurants) {
+        return toResponseList(restaurants, FieldSelection.ALL);
+    }
+    
+    public List<RestaurantResponse> toResponseList(List<Restaurant> restaurants, FieldSelection fields) {
         if (restaurants == null) {
             return null;
         }
         
         return restaurants.stream()
-                .map(this::toResponse)
+                .map(restaurant -> toResponse(restaurant, fields))
                 .collect(Collectors.toList());
     }
     
@@ -98,6 +165,16 @@ public class RestaurantMapper {
      * @return RestaurantResponse DTO with limited information
      */
     public RestaurantResponse toPublicResponse(Restaurant restaurant) {
+        return toPublicResponse(restaurant, FieldSelection.ALL);
+    }
+    
+    /**
+     * Convert Restaurant entity to public RestaurantResponse, chỉ tính các field được yêu cầu
+     * @param restaurant Restaurant entity
+     * @param fields Sparse fieldset từ tham số ?fields=
+     * @return RestaurantResponse DTO with limited information
+     */
+    public RestaurantResponse toPublicResponse(Restaurant restaurant, FieldSelection fields) {
         if (restaurant == null) {
             return null;
         }
@@ -106,33 +183,53 @@ public class RestaurantMapper {
         
         // Basic public information only
         response.setId(restaurant.getId());
-        response.setName(restaurant.getName());
-        response.setDescription(restaurant.getDescription());
-        response.setAddress(restaurant.getAddress());
-        response.setPhoneNumber(restaurant.getPhoneNumber());
-        response.setImageUrl(restaurant.getImageUrl());
+        if (fields.includes("name")) {
+            response.setName(restaurant.getName());
+        }
+        if (fields.includes("description")) {
+            response.setDescription(restaurant.getDescription());
+        }
+        if (fields.includes("address")) {
+            response.setAddress(restaurant.getAddress());
+        }
+        if (fields.includes("phoneNumber")) {
+            response.setPhoneNumber(restaurant.getPhoneNumber());
+        }
+        if (fields.includes("imageUrl")) {
+            response.setImageUrl(restaurant.getImageUrl());
+        }
         
         // Location information
-        if (restaurant.getLocation() != null) {
-            Point location = restaurant.getLocation();
-            response.setLatitude(location.getY());
-            response.setLongitude(location.getX());
-        }
+        setLocation(response, restaurant, fields);
         
         // Business hours
-        response.setOpeningTime(restaurant.getOpeningTime());
-        response.setClosingTime(restaurant.getClosingTime());
+        if (fields.includes("openingTime")) {
+            response.setOpeningTime(restaurant.getOpeningTime());
+        }
+        if (fields.includes("closingTime")) {
+            response.setClosingTime(restaurant.getClosingTime());
+        }
         
         // Public status and rating
-        response.setRating(restaurant.getRating());
-        response.setTotalReviews(restaurant.getTotalReviews());
+        if (fields.includes("rating")) {
+            response.setRating(restaurant.getRating());
+        }
+        if (fields.includes("totalReviews")) {
+            response.setTotalReviews(restaurant.getTotalReviews());
+        }
         
         // Categories
-        response.setCategories(restaurant.getCategories());
+        if (fields.includes("categories")) {
+            response.setCategories(restaurant.getCategories());
+        }
         
         // Computed fields
-        response.setIsOpen(restaurant.isOpen());
-        response.setIsApproved(restaurant.isApproved());
+        if (fields.includes("isOpen")) {
+            response.setIsOpen(restaurant.isOpen());
+        }
+        if (fields.includes("isApproved")) {
+            response.setIsApproved(restaurant.isApproved());
+        }
         
         // Hide sensitive information for public access
         // - Owner details
@@ -149,12 +246,16 @@ public class RestaurantMapper {
      * @return List of public RestaurantResponse DTOs
      */
     public List<RestaurantResponse> toPublicResponseList(List<Restaurant> restaurants) {
+        return toPublicResponseList(restaurants, FieldSelection.ALL);
+    }
+    
+    public List<RestaurantResponse> toPublicResponseList(List<Restaurant> restaurants, FieldSelection fields) {
         if (restaurants == null) {
             return null;
         }
         
         return restaurants.stream()
-                .map(this::toPublicResponse)
+                .map(restaurant -> toPublicResponse(restaurant, fields))
                 .collect(Collectors.toList());
     }
     
@@ -177,4 +278,16 @@ public class RestaurantMapper {
         
         return response;
     }
+    
+    private void setLocation(RestaurantResponse response, Restaurant restaurant, FieldSelection fields) {
+        if (restaurant.getLocation() != null) {
+            Point location = restaurant.getLocation();
+            if (fields.includes("latitude")) {
+                response.setLatitude(location.getY()); // Y = Latitude
+            }
+            if (fields.includes("longitude")) {
+                response.setLongitude(location.getX()); // X = Longitude
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package org.example.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bật/tắt trạng thái còn bán cho nhiều menu item và add-on của cùng một restaurant trong một lần gọi
+ */
+public class BulkAvailabilityRequest {
+    
+    @Size(max = 500, message = "At most 500 menu items per request")
+    private List<Long> menuItemIds = new ArrayList<>();
+    
+    @Size(max = 500, message = "At most 500 add-ons per request")
+    private List<Long> addOnIds = new ArrayList<>();
+    
+    @NotNull(message = "Target availability is required")
+    private Boolean isAvailable;
+    
+    // Constructors
+    public BulkAvailabilityRequest() {}
+    
+    // Getters and Setters
+    public List<Long> getMenuItemIds() {
+        return menuItemIds;
+    }
+    
+    public void setMenuItemIds(List<Long> menuItemIds) {
+        this.menuItemIds = menuItemIds;
+    }
+    
+    public List<Long> getAddOnIds() {
+        return addOnIds;
+    }
+    
+    public void setAddOnIds(List<Long> addOnIds) {
+        this.addOnIds = addOnIds;
+    }
+    
+    public Boolean getIsAvailable() {
+        return isAvailable;
+    }
+    
+    public void setIsAvailable(Boolean isAvailable) {
+        this.isAvailable = isAvailable;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.dto.request;
+
+import jakarta.validation.Valid;
+
+import java.util.List;
+
+/**
+ * Một dòng trong bulk import menu: thông tin món như CreateMenuItemRequest kèm add-ons.
+ * addOns = null nghĩa là giữ nguyên add-ons của món đã có; danh sách rỗng nghĩa là xóa hết.
+ */
+public class BulkMenuItemRequest extends CreateMenuItemRequest {
+    
+    @Valid
+    private List<CreateMenuItemAddOnRequest> addOns;
+    
+    // Constructors
+    public BulkMenuItemRequest() {
+        // Không mặc định là đang bán: import lại không được mở bán lại món đang tạm hết
+        setIsAvailable(null);
+    }
+    
+    // Getters and Setters
+    public List<CreateMenuItemAddOnRequest> getAddOns() {
+        return addOns;
+    }
+    
+    public void setAddOns(List<CreateMenuItemAddOnRequest> addOns) {
+        this.addOns = addOns;
+    }
+}
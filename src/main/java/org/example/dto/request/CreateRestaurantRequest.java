@@ -2,6 +2,9 @@ package org.example.dto.request;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
+import org.example.entity.HolidayOverride;
+import org.example.entity.OpeningHours;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -41,6 +44,15 @@ public class CreateRestaurantRequest {
     @Schema(type = "string", example = "22:00:00", description = "Closing time in HH:mm:ss format")
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm:ss")
     private LocalTime closingTime;
+
+    @Schema(example = "Asia/Ho_Chi_Minh", description = "IANA timezone of the restaurant")
+    private String timezone;
+
+    @Schema(description = "Per-weekday opening hours; when empty, openingTime/closingTime apply to every day")
+    private List<@Valid OpeningHours> weeklyHours;
+
+    @Schema(description = "Opening hours for specific dates (holidays), replacing the weekly hours of that date")
+    private List<@Valid HolidayOverride> holidayOverrides;
     
     private List<String> categories;
     
@@ -128,6 +140,30 @@ public class CreateRestaurantRequest {
         this.closingTime = closingTime;
     }
     
+    public String getTimezone() {
+        return timezone;
+    }
+    
+    public void setTimezone(String timezone) {
+        this.timezone = timezone;
+    }
+    
+    public List<OpeningHours> getWeeklyHours() {
+        return weeklyHours;
+    }
+    
+    public void setWeeklyHours(List<OpeningHours> weeklyHours) {
+        this.weeklyHours = weeklyHours;
+    }
+    
+    public List<HolidayOverride> getHolidayOverrides() {
+        return holidayOverrides;
+    }
+    
+    public void setHolidayOverrides(List<HolidayOverride> holidayOverrides) {
+        this.holidayOverrides = holidayOverrides;
+    }
+    
     public List<String> getCategories() {
         return categories;
     }
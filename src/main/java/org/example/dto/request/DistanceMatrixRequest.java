@@ -0,0 +1,63 @@
+package org.example.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class DistanceMatrixRequest {
+    
+    @NotNull(message = "Latitude is required")
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+    
+    @NotNull(message = "Longitude is required")
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+    
+    @NotEmpty(message = "Restaurant IDs are required")
+    @Size(max = 200, message = "At most 200 restaurant IDs per request")
+    private List<Long> restaurantIds;
+    
+    @Positive(message = "Average speed must be positive")
+    private Double averageSpeedKmh;
+    
+    // Getters and Setters
+    public Double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public Double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public List<Long> getRestaurantIds() {
+        return restaurantIds;
+    }
+    
+    public void setRestaurantIds(List<Long> restaurantIds) {
+        this.restaurantIds = restaurantIds;
+    }
+    
+    public Double getAverageSpeedKmh() {
+        return averageSpeedKmh;
+    }
+    
+    public void setAverageSpeedKmh(Double averageSpeedKmh) {
+        this.averageSpeedKmh = averageSpeedKmh;
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class RouteRecommendationRequest {
+    
+    @NotBlank(message = "Encoded polyline is required")
+    @Size(max = 20000, message = "Encoded polyline is too long")
+    private String encodedPolyline;
+    
+    @NotNull(message = "Max detour is required")
+    @Positive(message = "Max detour must be positive")
+    @Max(value = 5000, message = "Max detour must not exceed 5000 meters")
+    private Double maxDetourMeters = 500.0;
+    
+    private List<String> preferredCategories;
+    
+    @Positive(message = "Average speed must be positive")
+    private Double averageSpeedKmh;
+    
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit must not exceed 100")
+    private Integer limit = 20;
+    
+    // Getters and Setters
+    public String getEncodedPolyline() {
+        return encodedPolyline;
+    }
+    
+    public void setEncodedPolyline(String encodedPolyline) {
+        this.encodedPolyline = encodedPolyline;
+    }
+    
+    public Double getMaxDetourMeters() {
+        return maxDetourMeters;
+    }
+    
+    public void setMaxDetourMeters(Double maxDetourMeters) {
+        this.maxDetourMeters = maxDetourMeters;
+    }
+    
+    public List<String> getPreferredCategories() {
+        return preferredCategories;
+    }
+    
+    public void setPreferredCategories(List<String> preferredCategories) {
+        this.preferredCategories = preferredCategories;
+    }
+    
+    public Double getAverageSpeedKmh() {
+        return averageSpeedKmh;
+    }
+    
+    public void setAverageSpeedKmh(Double averageSpeedKmh) {
+        this.averageSpeedKmh = averageSpeedKmh;
+    }
+    
+    public Integer getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.dto.response;
+
+/**
+ * Một gợi ý autocomplete: type là RESTAURANT, DISH hoặc CATEGORY;
+ * restaurantId chỉ có với RESTAURANT; score là độ phổ biến theo số đơn đã hoàn thành
+ */
+public class AutocompleteSuggestionResponse {
+    
+    private String type;
+    private String text;
+    private Long restaurantId;
+    private Long score;
+    
+    // Constructors
+    public AutocompleteSuggestionResponse() {}
+    
+    public AutocompleteSuggestionResponse(String type, String text, Long restaurantId, Long score) {
+        this.type = type;
+        this.text = text;
+        this.restaurantId = restaurantId;
+        this.score = score;
+    }
+    
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    public void setText(String text) {
+        this.text = text;
+    }
+    
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+    
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+    
+    public Long getScore() {
+        return score;
+    }
+    
+    public void setScore(Long score) {
+        this.score = score;
+    }
+}
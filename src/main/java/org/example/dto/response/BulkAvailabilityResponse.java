@@ -0,0 +1,56 @@
+package org.example.dto.response;
+
+/**
+ * Kết quả bật/tắt hàng loạt: số menu item/add-on thực sự đổi trạng thái
+ * (ID không thuộc restaurant hoặc đã ở trạng thái đích không được tính) và version menu mới
+ */
+public class BulkAvailabilityResponse {
+    
+    private Boolean isAvailable;
+    private Integer menuItemsUpdated;
+    private Integer addOnsUpdated;
+    private Long menuVersion;
+    
+    // Constructors
+    public BulkAvailabilityResponse() {}
+    
+    public BulkAvailabilityResponse(Boolean isAvailable, Integer menuItemsUpdated, Integer addOnsUpdated, Long menuVersion) {
+        this.isAvailable = isAvailable;
+        this.menuItemsUpdated = menuItemsUpdated;
+        this.addOnsUpdated = addOnsUpdated;
+        this.menuVersion = menuVersion;
+    }
+    
+    // Getters and Setters
+    public Boolean getIsAvailable() {
+        return isAvailable;
+    }
+    
+    public void setIsAvailable(Boolean isAvailable) {
+        this.isAvailable = isAvailable;
+    }
+    
+    public Integer getMenuItemsUpdated() {
+        return menuItemsUpdated;
+    }
+    
+    public void setMenuItemsUpdated(Integer menuItemsUpdated) {
+        this.menuItemsUpdated = menuItemsUpdated;
+    }
+    
+    public Integer getAddOnsUpdated() {
+        return addOnsUpdated;
+    }
+    
+    public void setAddOnsUpdated(Integer addOnsUpdated) {
+        this.addOnsUpdated = addOnsUpdated;
+    }
+    
+    public Long getMenuVersion() {
+        return menuVersion;
+    }
+    
+    public void setMenuVersion(Long menuVersion) {
+        this.menuVersion = menuVersion;
+    }
+}
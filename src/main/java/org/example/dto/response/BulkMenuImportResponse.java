@@ -0,0 +1,124 @@
+package org.example.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kết quả bulk import menu; có lỗi ở bất kỳ dòng nào thì không dòng nào được ghi
+ */
+public class BulkMenuImportResponse {
+    
+    private Integer totalRows;
+    private Integer created;
+    private Integer updated;
+    private Integer failed;
+    private Boolean dryRun;
+    private Long menuVersion;
+    private List<RowError> errors = new ArrayList<>();
+    
+    // Constructors
+    public BulkMenuImportResponse() {}
+    
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+    
+    // Getters and Setters
+    public Integer getTotalRows() {
+        return totalRows;
+    }
+    
+    public void setTotalRows(Integer totalRows) {
+        this.totalRows = totalRows;
+    }
+    
+    public Integer getCreated() {
+        return created;
+    }
+    
+    public void setCreated(Integer created) {
+        this.created = created;
+    }
+    
+    public Integer getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(Integer updated) {
+        this.updated = updated;
+    }
+    
+    public Integer getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+    
+    public Boolean getDryRun() {
+        return dryRun;
+    }
+    
+    public void setDryRun(Boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+    
+    public Long getMenuVersion() {
+        return menuVersion;
+    }
+    
+    public void setMenuVersion(Long menuVersion) {
+        this.menuVersion = menuVersion;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+    
+    /**
+     * Lỗi của một dòng (đánh số từ 1 theo thứ tự trong file/mảng, không tính dòng header)
+     */
+    public static class RowError {
+        
+        private Integer row;
+        private String name;
+        private List<String> messages;
+        
+        public RowError() {}
+        
+        public RowError(Integer row, String name, List<String> messages) {
+            this.row = row;
+            this.name = name;
+            this.messages = messages;
+        }
+        
+        public Integer getRow() {
+            return row;
+        }
+        
+        public void setRow(Integer row) {
+            this.row = row;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public List<String> getMessages() {
+            return messages;
+        }
+        
+        public void setMessages(List<String> messages) {
+            this.messages = messages;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.dto.response;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Một trang kết quả phân trang keyset; nextCursor = null khi đã hết dữ liệu
+ */
+public class CursorPageResponse<T> {
+    
+    private List<T> items;
+    private String nextCursor;
+    private Boolean hasMore;
+    private Integer size;
+    
+    // Constructors
+    public CursorPageResponse() {}
+    
+    public CursorPageResponse(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+        this.size = items.size();
+    }
+    
+    /**
+     * Chuyển đổi phần tử, giữ nguyên con trỏ
+     */
+    public <R> CursorPageResponse<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = items.stream().<R>map(mapper).toList();
+        return new CursorPageResponse<>(mapped, nextCursor);
+    }
+    
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public Integer getSize() {
+        return size;
+    }
+    
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+}
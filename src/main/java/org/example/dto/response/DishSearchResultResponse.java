@@ -0,0 +1,47 @@
+package org.example.dto.response;
+
+import java.util.List;
+
+/**
+ * Kết quả tìm món theo khoảng cách: một restaurant cùng các món khớp từ khóa
+ */
+public class DishSearchResultResponse {
+    
+    private RestaurantResponse restaurant;
+    private Double distanceMeters;
+    private List<MenuItemSummaryResponse> menuItems;
+    
+    // Constructors
+    public DishSearchResultResponse() {}
+    
+    public DishSearchResultResponse(RestaurantResponse restaurant, Double distanceMeters, List<MenuItemSummaryResponse> menuItems) {
+        this.restaurant = restaurant;
+        this.distanceMeters = distanceMeters;
+        this.menuItems = menuItems;
+    }
+    
+    // Getters and Setters
+    public RestaurantResponse getRestaurant() {
+        return restaurant;
+    }
+    
+    public void setRestaurant(RestaurantResponse restaurant) {
+        this.restaurant = restaurant;
+    }
+    
+    public Double getDistanceMeters() {
+        return distanceMeters;
+    }
+    
+    public void setDistanceMeters(Double distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+    
+    public List<MenuItemSummaryResponse> getMenuItems() {
+        return menuItems;
+    }
+    
+    public void setMenuItems(List<MenuItemSummaryResponse> menuItems) {
+        this.menuItems = menuItems;
+    }
+}
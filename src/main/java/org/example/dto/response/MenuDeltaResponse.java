@@ -0,0 +1,88 @@
+package org.example.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thay đổi của menu kể từ sinceVersion: món mới/đã sửa (kèm add-ons) và ID các món đã xóa hoặc ngừng bán.
+ * fullResync = true khi sinceVersion không hợp lệ với server, lúc đó items là toàn bộ menu.
+ */
+public class MenuDeltaResponse {
+    
+    private Long restaurantId;
+    private Long sinceVersion;
+    private Long version;
+    private Boolean fullResync;
+    private List<String> categories;
+    private List<MenuItemSummaryResponse> items;
+    private Map<Long, Map<String, List<MenuItemAddOnResponse>>> addOns;
+    private List<Long> removedItemIds;
+    
+    // Constructors
+    public MenuDeltaResponse() {}
+    
+    // Getters and Setters
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+    
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+    
+    public Long getSinceVersion() {
+        return sinceVersion;
+    }
+    
+    public void setSinceVersion(Long sinceVersion) {
+        this.sinceVersion = sinceVersion;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public Boolean getFullResync() {
+        return fullResync;
+    }
+    
+    public void setFullResync(Boolean fullResync) {
+        this.fullResync = fullResync;
+    }
+    
+    public List<String> getCategories() {
+        return categories;
+    }
+    
+    public void setCategories(List<String> categories) {
+        this.categories = categories;
+    }
+    
+    public List<MenuItemSummaryResponse> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<MenuItemSummaryResponse> items) {
+        this.items = items;
+    }
+    
+    public Map<Long, Map<String, List<MenuItemAddOnResponse>>> getAddOns() {
+        return addOns;
+    }
+    
+    public void setAddOns(Map<Long, Map<String, List<MenuItemAddOnResponse>>> addOns) {
+        this.addOns = addOns;
+    }
+    
+    public List<Long> getRemovedItemIds() {
+        return removedItemIds;
+    }
+    
+    public void setRemovedItemIds(List<Long> removedItemIds) {
+        this.removedItemIds = removedItemIds;
+    }
+}
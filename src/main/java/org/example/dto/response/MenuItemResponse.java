@@ -1,5 +1,8 @@
 package org.example.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import org.example.util.FieldSelection;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -7,6 +10,7 @@ import java.util.List;
 /**
  * DTO Response cho MenuItem - bao gồm tất cả thông tin chi tiết
  */
+@JsonFilter(FieldSelection.FILTER_ID)
 public class MenuItemResponse {
     
     private Long id;
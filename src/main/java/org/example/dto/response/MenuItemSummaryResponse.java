@@ -1,11 +1,15 @@
 package org.example.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import org.example.util.FieldSelection;
+
 import java.math.BigDecimal;
 import java.util.List;
 
 /**
  * DTO Response rút gọn cho MenuItem - dùng trong danh sách hoặc tìm kiếm
  */
+@JsonFilter(FieldSelection.FILTER_ID)
 public class MenuItemSummaryResponse {
     
     private Long id;
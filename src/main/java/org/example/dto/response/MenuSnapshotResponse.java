@@ -0,0 +1,71 @@
+package org.example.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Toàn bộ menu công khai của restaurant tại một version: món đang bán, categories
+ * và add-ons đã nhóm sẵn theo món -> category
+ */
+public class MenuSnapshotResponse {
+    
+    private Long restaurantId;
+    private Long version;
+    private List<String> categories;
+    private List<MenuItemSummaryResponse> items;
+    private Map<Long, Map<String, List<MenuItemAddOnResponse>>> addOns;
+    
+    // Constructors
+    public MenuSnapshotResponse() {}
+    
+    public MenuSnapshotResponse(Long restaurantId, Long version, List<String> categories,
+                                List<MenuItemSummaryResponse> items,
+                                Map<Long, Map<String, List<MenuItemAddOnResponse>>> addOns) {
+        this.restaurantId = restaurantId;
+        this.version = version;
+        this.categories = categories;
+        this.items = items;
+        this.addOns = addOns;
+    }
+    
+    // Getters and Setters
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+    
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public List<String> getCategories() {
+        return categories;
+    }
+    
+    public void setCategories(List<String> categories) {
+        this.categories = categories;
+    }
+    
+    public List<MenuItemSummaryResponse> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<MenuItemSummaryResponse> items) {
+        this.items = items;
+    }
+    
+    public Map<Long, Map<String, List<MenuItemAddOnResponse>>> getAddOns() {
+        return addOns;
+    }
+    
+    public void setAddOns(Map<Long, Map<String, List<MenuItemAddOnResponse>>> addOns) {
+        this.addOns = addOns;
+    }
+}
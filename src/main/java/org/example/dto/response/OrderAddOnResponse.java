@@ -1,7 +1,11 @@
 package org.example.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import org.example.util.FieldSelection;
+
 import java.math.BigDecimal;
 
+@JsonFilter(FieldSelection.FILTER_ID)
 public class OrderAddOnResponse {
     
     private Long id;
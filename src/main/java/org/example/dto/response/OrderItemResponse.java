@@ -1,9 +1,13 @@
 package org.example.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import org.example.util.FieldSelection;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+@JsonFilter(FieldSelection.FILTER_ID)
 public class OrderItemResponse {
     
     private Long id;
@@ -1,11 +1,14 @@
 package org.example.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import org.example.entity.Order;
+import org.example.util.FieldSelection;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+@JsonFilter(FieldSelection.FILTER_ID)
 public class OrderResponse {
     
     private Long id;
@@ -0,0 +1,84 @@
+package org.example.dto.response;
+
+/**
+ * Một marker trên bản đồ: cluster gồm nhiều restaurant hoặc một restaurant riêng lẻ (count = 1)
+ */
+public class RestaurantClusterResponse {
+    
+    private Double latitude;
+    private Double longitude;
+    private Integer count;
+    private Long topRatedRestaurantId;
+    
+    // Chỉ có giá trị khi marker là một restaurant riêng lẻ
+    private Long restaurantId;
+    private String name;
+    private Double rating;
+    
+    // Constructors
+    public RestaurantClusterResponse() {}
+    
+    public RestaurantClusterResponse(Double latitude, Double longitude, Integer count, Long topRatedRestaurantId) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.count = count;
+        this.topRatedRestaurantId = topRatedRestaurantId;
+    }
+    
+    // Getters and Setters
+    public Double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public Double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public Integer getCount() {
+        return count;
+    }
+    
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+    
+    public Long getTopRatedRestaurantId() {
+        return topRatedRestaurantId;
+    }
+    
+    public void setTopRatedRestaurantId(Long topRatedRestaurantId) {
+        this.topRatedRestaurantId = topRatedRestaurantId;
+    }
+    
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+    
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public Double getRating() {
+        return rating;
+    }
+    
+    public void setRating(Double rating) {
+        this.rating = rating;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.dto.response;
+
+/**
+ * Khoảng cách và thời gian di chuyển ước tính từ điểm gốc đến một restaurant
+ */
+public class RestaurantDistanceResponse {
+    
+    private Long restaurantId;
+    private Double distanceMeters;
+    private Integer estimatedPickupMinutes;
+    
+    // Constructors
+    public RestaurantDistanceResponse() {}
+    
+    public RestaurantDistanceResponse(Long restaurantId, Double distanceMeters, Integer estimatedPickupMinutes) {
+        this.restaurantId = restaurantId;
+        this.distanceMeters = distanceMeters;
+        this.estimatedPickupMinutes = estimatedPickupMinutes;
+    }
+    
+    // Getters and Setters
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+    
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+    
+    public Double getDistanceMeters() {
+        return distanceMeters;
+    }
+    
+    public void setDistanceMeters(Double distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+    
+    public Integer getEstimatedPickupMinutes() {
+        return estimatedPickupMinutes;
+    }
+    
+    public void setEstimatedPickupMinutes(Integer estimatedPickupMinutes) {
+        this.estimatedPickupMinutes = estimatedPickupMinutes;
+    }
+}
@@ -1,13 +1,18 @@
 package org.example.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.example.entity.ApprovalStatus;
+import org.example.entity.HolidayOverride;
+import org.example.entity.OpeningHours;
+import org.example.util.FieldSelection;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 
+@JsonFilter(FieldSelection.FILTER_ID)
 public class RestaurantResponse {
     
     private Long id;
@@ -38,6 +43,12 @@ public class RestaurantResponse {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm:ss")
     private LocalTime closingTime;
     
+    private String timezone;
+    
+    private List<OpeningHours> weeklyHours;
+    
+    private List<HolidayOverride> holidayOverrides;
+    
     private Boolean isActive;
     
     private Double rating;
@@ -176,6 +187,30 @@ public class RestaurantResponse {
         this.closingTime = closingTime;
     }
     
+    public String getTimezone() {
+        return timezone;
+    }
+    
+    public void setTimezone(String timezone) {
+        this.timezone = timezone;
+    }
+    
+    public List<OpeningHours> getWeeklyHours() {
+        return weeklyHours;
+    }
+    
+    public void setWeeklyHours(List<OpeningHours> weeklyHours) {
+        this.weeklyHours = weeklyHours;
+    }
+    
+    public List<HolidayOverride> getHolidayOverrides() {
+        return holidayOverrides;
+    }
+    
+    public void setHolidayOverrides(List<HolidayOverride> holidayOverrides) {
+        this.holidayOverrides = holidayOverrides;
+    }
+    
     public Boolean getIsActive() {
         return isActive;
     }
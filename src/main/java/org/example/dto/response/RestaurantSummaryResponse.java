@@ -1,7 +1,11 @@
 package org.example.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import org.example.util.FieldSelection;
+
 import java.time.LocalTime;
 
+@JsonFilter(FieldSelection.FILTER_ID)
 public class RestaurantSummaryResponse {
     
     private Long id;
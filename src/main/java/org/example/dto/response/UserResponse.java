@@ -1,9 +1,12 @@
 package org.example.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import org.example.entity.Role;
+import org.example.util.FieldSelection;
 
 import java.time.LocalDateTime;
 
+@JsonFilter(FieldSelection.FILTER_ID)
 public class UserResponse {
     
     private Long id;
@@ -0,0 +1,91 @@
+package org.example.entity;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Giờ mở cửa đặc biệt cho một ngày cụ thể (ngày lễ, Tết...).
+ * Thay thế toàn bộ giờ mở cửa theo tuần của ngày đó; closed = true hoặc không có giờ nghĩa là nghỉ cả ngày.
+ */
+@Embeddable
+public class HolidayOverride {
+
+    @NotNull(message = "Date is required")
+    @Schema(type = "string", example = "2026-02-17", description = "Date in yyyy-MM-dd format")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    @Column(name = "override_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "is_closed", nullable = false)
+    private Boolean closed = true;
+
+    @Schema(type = "string", example = "10:00:00", description = "Opening time in HH:mm:ss format")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm:ss")
+    @Column(name = "opening_time")
+    private LocalTime openingTime;
+
+    @Schema(type = "string", example = "14:00:00", description = "Closing time in HH:mm:ss format")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm:ss")
+    @Column(name = "closing_time")
+    private LocalTime closingTime;
+
+    public HolidayOverride() {}
+
+    public HolidayOverride(LocalDate date, LocalTime openingTime, LocalTime closingTime) {
+        this.date = date;
+        this.closed = false;
+        this.openingTime = openingTime;
+        this.closingTime = closingTime;
+    }
+
+    /**
+     * Nghỉ cả ngày
+     */
+    public static HolidayOverride closedOn(LocalDate date) {
+        HolidayOverride override = new HolidayOverride();
+        override.setDate(date);
+        return override;
+    }
+
+    public boolean isClosedAllDay() {
+        return Boolean.TRUE.equals(closed) || openingTime == null || closingTime == null;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Boolean getClosed() {
+        return closed;
+    }
+
+    public void setClosed(Boolean closed) {
+        this.closed = closed;
+    }
+
+    public LocalTime getOpeningTime() {
+        return openingTime;
+    }
+
+    public void setOpeningTime(LocalTime openingTime) {
+        this.openingTime = openingTime;
+    }
+
+    public LocalTime getClosingTime() {
+        return closingTime;
+    }
+
+    public void setClosingTime(LocalTime closingTime) {
+        this.closingTime = closingTime;
+    }
+}
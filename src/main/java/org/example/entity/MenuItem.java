@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -11,6 +13,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "menu_items")
 public class MenuItem {
     
@@ -57,11 +61,13 @@ public class MenuItem {
     @ElementCollection
     @CollectionTable(name = "menu_item_tags", joinColumns = @JoinColumn(name = "menu_item_id"))
     @Column(name = "tag")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<String> tags; // "Spicy", "Vegetarian", "Gluten-Free", etc.
     
     // Available add-ons for this menu item
     @OneToMany(mappedBy = "menuItem", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @OrderBy("category ASC, displayOrder ASC, name ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<MenuItemAddOn> availableAddOns = new ArrayList<>();
     
     @Column(name = "created_at", nullable = false)
@@ -70,6 +76,10 @@ public class MenuItem {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Version menu của restaurant tại lần thay đổi gần nhất của item hoặc add-on của nó
+    @Column(name = "menu_version")
+    private Long menuVersion;
+    
     // Constructors
     public MenuItem() {
         this.createdAt = LocalDateTime.now();
@@ -235,6 +245,14 @@ public class MenuItem {
         this.updatedAt = updatedAt;
     }
     
+    public Long getMenuVersion() {
+        return menuVersion;
+    }
+    
+    public void setMenuVersion(Long menuVersion) {
+        this.menuVersion = menuVersion;
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
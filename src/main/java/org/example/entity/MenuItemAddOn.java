@@ -4,11 +4,15 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "menu_item_add_ons", indexes = {
     @Index(name = "idx_menu_item_addon_menu_item_id", columnList = "menu_item_id"),
     @Index(name = "idx_menu_item_addon_category", columnList = "category"),
@@ -0,0 +1,83 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dấu vết menu item đã bị xóa, để client đồng bộ delta biết cần bỏ item nào
+ */
+@Entity
+@Table(name = "menu_item_tombstones", indexes = {
+    @Index(name = "idx_menu_item_tombstone_restaurant_version", columnList = "restaurant_id, menu_version")
+})
+public class MenuItemTombstone {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+    
+    @Column(name = "menu_item_id", nullable = false)
+    private Long menuItemId;
+    
+    // Version menu tại thời điểm xóa
+    @Column(name = "menu_version", nullable = false)
+    private Long menuVersion;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    public MenuItemTombstone() {
+        this.deletedAt = LocalDateTime.now();
+    }
+    
+    public MenuItemTombstone(Long restaurantId, Long menuItemId, Long menuVersion) {
+        this();
+        this.restaurantId = restaurantId;
+        this.menuItemId = menuItemId;
+        this.menuVersion = menuVersion;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+    
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+    
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+    
+    public void setMenuItemId(Long menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+    
+    public Long getMenuVersion() {
+        return menuVersion;
+    }
+    
+    public void setMenuVersion(Long menuVersion) {
+        this.menuVersion = menuVersion;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
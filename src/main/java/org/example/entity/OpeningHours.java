@@ -0,0 +1,68 @@
+package org.example.entity;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Một ca mở cửa trong tuần. Ca qua đêm (closingTime <= openingTime) thuộc về ngày bắt đầu ca.
+ */
+@Embeddable
+public class OpeningHours {
+
+    @NotNull(message = "Day of week is required")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false)
+    private DayOfWeek dayOfWeek;
+
+    @NotNull(message = "Opening time is required")
+    @Schema(type = "string", example = "08:00:00", description = "Opening time in HH:mm:ss format")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm:ss")
+    @Column(name = "opening_time", nullable = false)
+    private LocalTime openingTime;
+
+    @NotNull(message = "Closing time is required")
+    @Schema(type = "string", example = "22:00:00", description = "Closing time in HH:mm:ss format")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm:ss")
+    @Column(name = "closing_time", nullable = false)
+    private LocalTime closingTime;
+
+    public OpeningHours() {}
+
+    public OpeningHours(DayOfWeek dayOfWeek, LocalTime openingTime, LocalTime closingTime) {
+        this.dayOfWeek = dayOfWeek;
+        this.openingTime = openingTime;
+        this.closingTime = closingTime;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public void setDayOfWeek(DayOfWeek dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public LocalTime getOpeningTime() {
+        return openingTime;
+    }
+
+    public void setOpeningTime(LocalTime openingTime) {
+        this.openingTime = openingTime;
+    }
+
+    public LocalTime getClosingTime() {
+        return closingTime;
+    }
+
+    public void setClosingTime(LocalTime closingTime) {
+        this.closingTime = closingTime;
+    }
+}
@@ -0,0 +1,295 @@
+package org.example.entity;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Lịch mở cửa đã biên dịch của một restaurant (bất biến).
+ * Giờ mở cửa theo tuần được chuyển thành mảng khoảng [start, end) đã sắp xếp và gộp,
+ * tính bằng nano giây kể từ 00:00 thứ Hai theo giờ địa phương của restaurant,
+ * nên kiểm tra mở cửa và tìm thời điểm chuyển trạng thái kế tiếp là tìm kiếm nhị phân.
+ * Ngày có holiday override (và ngày ngay sau nó, do ca qua đêm) được tính theo từng ca cụ thể.
+ * Giờ đóng cửa vẫn tính là đang mở, giống quy tắc cũ của Restaurant.isOpenAt.
+ */
+public final class OpeningSchedule {
+
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+    private static final long NANOS_PER_WEEK = 7 * NANOS_PER_DAY;
+    private static final long[] NO_SESSIONS = new long[0];
+
+    private final ZoneId zoneId;
+
+    // Các khoảng mở cửa trong tuần, đã sắp xếp và gộp
+    private final long[] starts;
+    private final long[] ends;
+
+    // Các ca theo từng thứ (MONDAY = 0), dạng phẳng {start0, end0, start1, end1...} tính từ 00:00 của ngày bắt đầu ca
+    private final long[][] dailySessions;
+
+    // Ngày có override, đã sắp xếp, cùng các ca tương ứng
+    private final LocalDate[] overrideDates;
+    private final long[][] overrideSessions;
+
+    private OpeningSchedule(ZoneId zoneId, long[][] dailySessions, TreeMap<LocalDate, long[]> overrides) {
+        this.zoneId = zoneId;
+        this.dailySessions = dailySessions;
+        this.overrideDates = overrides.keySet().toArray(new LocalDate[0]);
+        this.overrideSessions = overrides.values().toArray(new long[0][]);
+
+        List<long[]> intervals = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            long dayStart = day * NANOS_PER_DAY;
+            long[] sessions = dailySessions[day];
+            for (int i = 0; i < sessions.length; i += 2) {
+                long start = dayStart + sessions[i];
+                long end = dayStart + sessions[i + 1];
+                if (end > NANOS_PER_WEEK) {
+                    // Ca qua đêm Chủ nhật -> thứ Hai được tách làm hai khoảng
+                    intervals.add(new long[]{start, NANOS_PER_WEEK});
+                    intervals.add(new long[]{0, end - NANOS_PER_WEEK});
+                } else {
+                    intervals.add(new long[]{start, end});
+                }
+            }
+        }
+        intervals.sort(Comparator.comparingLong(interval -> interval[0]));
+
+        List<long[]> merged = new ArrayList<>();
+        for (long[] interval : intervals) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && interval[0] <= last[1]) {
+                last[1] = Math.max(last[1], interval[1]);
+            } else {
+                merged.add(interval.clone());
+            }
+        }
+        this.starts = merged.stream().mapToLong(interval -> interval[0]).toArray();
+        this.ends = merged.stream().mapToLong(interval -> interval[1]).toArray();
+    }
+
+    /**
+     * Biên dịch lịch mở cửa. Nếu có giờ mở cửa theo tuần thì dùng giờ theo tuần,
+     * ngược lại dùng cặp openingTime/closingTime cũ cho mọi ngày trong tuần.
+     */
+    public static OpeningSchedule compile(ZoneId zoneId,
+                                          LocalTime openingTime, LocalTime closingTime,
+                                          Collection<OpeningHours> weeklyHours,
+                                          Collection<HolidayOverride> holidayOverrides) {
+        List<List<Long>> days = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            days.add(new ArrayList<>());
+        }
+
+        if (weeklyHours != null && !weeklyHours.isEmpty()) {
+            for (OpeningHours hours : weeklyHours) {
+                if (hours.getDayOfWeek() != null && hours.getOpeningTime() != null && hours.getClosingTime() != null) {
+                    addSession(days.get(hours.getDayOfWeek().getValue() - 1), hours.getOpeningTime(), hours.getClosingTime());
+                }
+            }
+        } else if (openingTime != null && closingTime != null) {
+            for (List<Long> sessions : days) {
+                addSession(sessions, openingTime, closingTime);
+            }
+        }
+
+        long[][] dailySessions = new long[7][];
+        for (int day = 0; day < 7; day++) {
+            dailySessions[day] = days.get(day).stream().mapToLong(Long::longValue).toArray();
+        }
+
+        TreeMap<LocalDate, long[]> overrides = new TreeMap<>();
+        if (holidayOverrides != null) {
+            for (HolidayOverride override : holidayOverrides) {
+                if (override.getDate() == null) {
+                    continue;
+                }
+                if (override.isClosedAllDay()) {
+                    overrides.put(override.getDate(), NO_SESSIONS);
+                } else {
+                    // Nhiều override cùng ngày: gộp các ca, trừ khi đã có override nghỉ cả ngày
+                    long[] existing = overrides.get(override.getDate());
+                    if (existing != NO_SESSIONS) {
+                        List<Long> sessions = new ArrayList<>();
+                        if (existing != null) {
+                            Arrays.stream(existing).forEach(sessions::add);
+                        }
+                        addSession(sessions, override.getOpeningTime(), override.getClosingTime());
+                        overrides.put(override.getDate(), sessions.stream().mapToLong(Long::longValue).toArray());
+                    }
+                }
+            }
+        }
+
+        return new OpeningSchedule(zoneId, dailySessions, overrides);
+    }
+
+    private static void addSession(List<Long> sessions, LocalTime openingTime, LocalTime closingTime) {
+        long start = openingTime.toNanoOfDay();
+        // Giờ đóng cửa vẫn tính là mở
+        long end = closingTime.toNanoOfDay() + 1;
+        if (!closingTime.isAfter(openingTime)) {
+            // Ca qua đêm; openingTime == closingTime nghĩa là mở 24 giờ
+            end += NANOS_PER_DAY;
+        }
+        sessions.add(start);
+        sessions.add(end);
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * Không có ca mở cửa nào (kể cả trong các ngày override)
+     */
+    public boolean isEmpty() {
+        return starts.length == 0 && Arrays.stream(overrideSessions).allMatch(sessions -> sessions.length == 0);
+    }
+
+    /**
+     * Mở cửa tại thời điểm cho trước hay không
+     */
+    public boolean isOpenAt(Instant instant) {
+        return isOpenAt(LocalDateTime.ofInstant(instant, zoneId));
+    }
+
+    /**
+     * Mở cửa tại thời điểm cho trước (giờ địa phương của restaurant) hay không
+     */
+    public boolean isOpenAt(LocalDateTime localDateTime) {
+        LocalDate date = localDateTime.toLocalDate();
+        if (!hasOverride(date) && !hasOverride(date.minusDays(1))) {
+            return isOpenInWeek(nanoOfWeek(localDateTime));
+        }
+
+        long nanoOfDay = localDateTime.toLocalTime().toNanoOfDay();
+        return contains(sessionsOf(date), nanoOfDay)
+            || contains(sessionsOf(date.minusDays(1)), nanoOfDay + NANOS_PER_DAY);
+    }
+
+    /**
+     * Thời điểm chuyển trạng thái (mở -> đóng hoặc đóng -> mở) kế tiếp sau instant,
+     * hoặc null nếu trạng thái không bao giờ thay đổi (mở 24/7 hoặc không bao giờ mở)
+     */
+    public Instant nextTransition(Instant instant) {
+        LocalDateTime next = nextTransition(LocalDateTime.ofInstant(instant, zoneId));
+        return next != null ? next.atZone(zoneId).toInstant() : null;
+    }
+
+    /**
+     * Thời điểm chuyển trạng thái kế tiếp sau from (giờ địa phương của restaurant), hoặc null
+     */
+    public LocalDateTime nextTransition(LocalDateTime from) {
+        LocalDateTime weekly = nextWeeklyTransition(from);
+
+        // Override của ngày D chỉ ảnh hưởng từ 00:00 ngày D; override ngày D-1 ảnh hưởng tới ngày D qua ca đêm
+        int first = ceilingOverrideIndex(from.toLocalDate().minusDays(1));
+        if (first == overrideDates.length) {
+            return weekly;
+        }
+        if (weekly != null && weekly.isBefore(overrideDates[first].atStartOfDay())) {
+            return weekly;
+        }
+        return nextTransitionByDay(from);
+    }
+
+    private boolean isOpenInWeek(long nanoOfWeek) {
+        int index = floorIndex(nanoOfWeek);
+        return index >= 0 && nanoOfWeek < ends[index];
+    }
+
+    private LocalDateTime nextWeeklyTransition(LocalDateTime from) {
+        if (starts.length == 0 || (starts[0] == 0 && ends[0] == NANOS_PER_WEEK)) {
+            return null;
+        }
+
+        long nanoOfWeek = nanoOfWeek(from);
+        int index = floorIndex(nanoOfWeek);
+        long next;
+        if (index >= 0 && nanoOfWeek < ends[index]) {
+            next = ends[index];
+            // Khoảng cuối tuần nối tiếp khoảng đầu tuần
+            if (next == NANOS_PER_WEEK && starts[0] == 0) {
+                next += ends[0];
+            }
+        } else {
+            next = index + 1 < starts.length ? starts[index + 1] : NANOS_PER_WEEK + starts[0];
+        }
+        return from.plusNanos(next - nanoOfWeek);
+    }
+
+    /**
+     * Duyệt từng ngày cụ thể khi có override nằm trong khoảng cần xét.
+     * Sau override cuối cùng lịch lặp lại theo tuần, nên chỉ cần xét thêm 8 ngày.
+     */
+    private LocalDateTime nextTransitionByDay(LocalDateTime from) {
+        boolean open = isOpenAt(from);
+        LocalDate lastOverride = overrideDates[overrideDates.length - 1];
+        LocalDate lastDay = (lastOverride.isAfter(from.toLocalDate()) ? lastOverride : from.toLocalDate()).plusDays(8);
+
+        TreeSet<LocalDateTime> candidates = new TreeSet<>();
+        for (LocalDate day = from.toLocalDate().minusDays(1); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            LocalDateTime dayStart = day.atStartOfDay();
+            for (long boundary : sessionsOf(day)) {
+                LocalDateTime candidate = dayStart.plusNanos(boundary);
+                if (candidate.isAfter(from)) {
+                    candidates.add(candidate);
+                }
+            }
+
+            // Ca của các ngày sau luôn bắt đầu từ ngày kế tiếp, nên các mốc trước đó đã đầy đủ
+            LocalDateTime settled = dayStart.plusDays(1);
+            while (!candidates.isEmpty() && candidates.first().isBefore(settled)) {
+                LocalDateTime candidate = candidates.pollFirst();
+                if (isOpenAt(candidate) != open) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private long[] sessionsOf(LocalDate date) {
+        int index = overrideDates.length > 0 ? Arrays.binarySearch(overrideDates, date) : -1;
+        return index >= 0 ? overrideSessions[index] : dailySessions[date.getDayOfWeek().getValue() - 1];
+    }
+
+    private boolean hasOverride(LocalDate date) {
+        return overrideDates.length > 0 && Arrays.binarySearch(overrideDates, date) >= 0;
+    }
+
+    // Vị trí override đầu tiên có ngày >= date
+    private int ceilingOverrideIndex(LocalDate date) {
+        int index = Arrays.binarySearch(overrideDates, date);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // Vị trí khoảng cuối cùng có start <= nanoOfWeek, hoặc -1
+    private int floorIndex(long nanoOfWeek) {
+        int index = Arrays.binarySearch(starts, nanoOfWeek);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private static boolean contains(long[] sessions, long nanoOfDay) {
+        for (int i = 0; i < sessions.length; i += 2) {
+            if (nanoOfDay >= sessions[i] && nanoOfDay < sessions[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long nanoOfWeek(LocalDateTime localDateTime) {
+        return (localDateTime.getDayOfWeek().getValue() - 1) * NANOS_PER_DAY + localDateTime.toLocalTime().toNanoOfDay();
+    }
+}
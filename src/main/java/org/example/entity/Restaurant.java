@@ -3,16 +3,33 @@ package org.example.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
 
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "restaurants")
 public class Restaurant {
+
+    /**
+     * Múi giờ mặc định khi restaurant chưa khai báo timezone
+     */
+    public static final ZoneId DEFAULT_ZONE_ID = ZoneId.of("Asia/Ho_Chi_Minh");
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -50,6 +67,26 @@ public class Restaurant {
     
     @Column(name = "closing_time")
     private LocalTime closingTime;
+
+    @Column(name = "timezone")
+    private String timezone; // IANA zone id, ví dụ Asia/Ho_Chi_Minh
+
+    // Giờ mở cửa theo từng thứ; nếu rỗng thì dùng openingTime/closingTime cho mọi ngày
+    @ElementCollection
+    @CollectionTable(name = "restaurant_opening_hours", joinColumns = @JoinColumn(name = "restaurant_id"))
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    private List<OpeningHours> weeklyHours = new ArrayList<>();
+
+    @ElementCollection
+    @CollectionTable(name = "restaurant_holiday_overrides", joinColumns = @JoinColumn(name = "restaurant_id"))
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    private List<HolidayOverride> holidayOverrides = new ArrayList<>();
+
+    // Lịch mở cửa đã biên dịch, tạo lại khi giờ mở cửa hoặc timezone thay đổi qua setter
+    @Transient
+    private OpeningSchedule openingSchedule;
     
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
@@ -81,6 +118,7 @@ public class Restaurant {
     @ElementCollection
     @CollectionTable(name = "restaurant_categories", joinColumns = @JoinColumn(name = "restaurant_id"))
     @Column(name = "category")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<String> categories;
     
     @Column(name = "created_at", nullable = false)
@@ -179,6 +217,7 @@ public class Restaurant {
     
     public void setOpeningTime(LocalTime openingTime) {
         this.openingTime = openingTime;
+        this.openingSchedule = null;
     }
     
     public LocalTime getClosingTime() {
@@ -187,6 +226,68 @@ public class Restaurant {
     
     public void setClosingTime(LocalTime closingTime) {
         this.closingTime = closingTime;
+        this.openingSchedule = null;
+    }
+
+    public String getTimezone() {
+        return timezone;
+    }
+
+    public void setTimezone(String timezone) {
+        this.timezone = timezone;
+        this.openingSchedule = null;
+    }
+
+    public List<OpeningHours> getWeeklyHours() {
+        return weeklyHours;
+    }
+
+    public void setWeeklyHours(List<OpeningHours> weeklyHours) {
+        this.weeklyHours = weeklyHours;
+        this.openingSchedule = null;
+    }
+
+    public List<HolidayOverride> getHolidayOverrides() {
+        return holidayOverrides;
+    }
+
+    public void setHolidayOverrides(List<HolidayOverride> holidayOverrides) {
+        this.holidayOverrides = holidayOverrides;
+        this.openingSchedule = null;
+    }
+
+    /**
+     * Múi giờ của restaurant (mặc định Asia/Ho_Chi_Minh)
+     */
+    public ZoneId getZoneId() {
+        if (timezone == null || timezone.isBlank()) {
+            return DEFAULT_ZONE_ID;
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            return DEFAULT_ZONE_ID;
+        }
+    }
+
+    /**
+     * Có khai báo giờ mở cửa (theo tuần hoặc cặp openingTime/closingTime) hay không
+     */
+    public boolean hasOpeningHours() {
+        return (weeklyHours != null && !weeklyHours.isEmpty())
+            || (openingTime != null && closingTime != null);
+    }
+
+    /**
+     * Lịch mở cửa đã biên dịch (được cache cho tới khi giờ mở cửa thay đổi qua setter)
+     */
+    public OpeningSchedule getOpeningSchedule() {
+        OpeningSchedule schedule = openingSchedule;
+        if (schedule == null) {
+            schedule = OpeningSchedule.compile(getZoneId(), openingTime, closingTime, weeklyHours, holidayOverrides);
+            openingSchedule = schedule;
+        }
+        return schedule;
     }
     
     public Boolean getIsActive() {
@@ -283,51 +384,32 @@ public class Restaurant {
     }
 
     public boolean isOpen() {
-        // Must be active and approved
-        if (!isActive || !isApproved()) {
+        return isOpenAt(Instant.now());
+    }
+
+    public boolean isOpenAt(Instant instant) {
+        // Must be active and approved, with opening hours set
+        if (!isActive || !isApproved() || !hasOpeningHours()) {
             return false;
         }
-        
-        // Must have opening hours set
-        if (openingTime == null || closingTime == null) {
+        return getOpeningSchedule().isOpenAt(instant);
+    }
+
+    /**
+     * Kiểm tra mở cửa tại thời điểm cho trước, tính theo giờ địa phương của restaurant
+     */
+    public boolean isOpenAt(LocalDateTime localDateTime) {
+        if (!isActive || !isApproved() || !hasOpeningHours()) {
             return false;
         }
-        
-        LocalTime now = LocalTime.now();
-        
-        // Handle normal hours (e.g., 08:00 - 22:00)
-        if (closingTime.isAfter(openingTime)) {
-            return (now.isAfter(openingTime) || now.equals(openingTime)) && 
-                   (now.isBefore(closingTime) || now.equals(closingTime));
-        } 
-        // Handle overnight hours (e.g., 22:00 - 06:00)
-        else {
-            return (now.isAfter(openingTime) || now.equals(openingTime)) || 
-                   (now.isBefore(closingTime) || now.equals(closingTime));
-        }
+        return getOpeningSchedule().isOpenAt(localDateTime);
     }
-    
+
+    /**
+     * Kiểm tra mở cửa tại giờ cho trước của ngày hôm nay (giờ địa phương của restaurant)
+     */
     public boolean isOpenAt(LocalTime time) {
-        // Must be active and approved
-        if (!isActive || !isApproved()) {
-            return false;
-        }
-        
-        // Must have opening hours set
-        if (openingTime == null || closingTime == null) {
-            return false;
-        }
-        
-        // Handle normal hours (e.g., 08:00 - 22:00)
-        if (closingTime.isAfter(openingTime)) {
-            return (time.isAfter(openingTime) || time.equals(openingTime)) && 
-                   (time.isBefore(closingTime) || time.equals(closingTime));
-        } 
-        // Handle overnight hours (e.g., 22:00 - 06:00)
-        else {
-            return (time.isAfter(openingTime) || time.equals(openingTime)) || 
-                   (time.isBefore(closingTime) || time.equals(closingTime));
-        }
+        return isOpenAt(LocalDate.now(getZoneId()).atTime(time));
     }
     
     public String getOpenStatus() {
@@ -337,54 +419,23 @@ public class Restaurant {
         if (!isApproved()) {
             return "PENDING_APPROVAL";
         }
-        if (openingTime == null || closingTime == null) {
+        if (!hasOpeningHours()) {
             return "NO_HOURS_SET";
         }
         return isOpen() ? "OPEN" : "CLOSED";
     }
     
     public long getMinutesUntilStatusChange() {
-        if (!isActive || !isApproved() || openingTime == null || closingTime == null) {
+        if (!isActive || !isApproved() || !hasOpeningHours()) {
             return -1; // Unknown
         }
-        
-        LocalTime now = LocalTime.now();
-        
-        if (isOpen()) {
-            // Calculate minutes until closing
-            if (closingTime.isAfter(openingTime)) {
-                // Normal hours
-                return java.time.Duration.between(now, closingTime).toMinutes();
-            } else {
-                // Overnight hours - if we're past midnight, calculate to closing time
-                if (now.isBefore(closingTime)) {
-                    return java.time.Duration.between(now, closingTime).toMinutes();
-                } else {
-                    // We're before midnight, calculate until next day closing
-                    return java.time.Duration.between(now, LocalTime.of(23, 59, 59)).toMinutes() + 
-                           java.time.Duration.between(LocalTime.MIDNIGHT, closingTime).toMinutes() + 1;
-                }
-            }
-        } else {
-            // Calculate minutes until opening
-            if (closingTime.isAfter(openingTime)) {
-                // Normal hours
-                if (now.isBefore(openingTime)) {
-                    return java.time.Duration.between(now, openingTime).toMinutes();
-                } else {
-                    // After closing, calculate to next day opening
-                    return java.time.Duration.between(now, LocalTime.of(23, 59, 59)).toMinutes() + 
-                           java.time.Duration.between(LocalTime.MIDNIGHT, openingTime).toMinutes() + 1;
-                }
-            } else {
-                // Overnight hours
-                if (now.isAfter(closingTime) && now.isBefore(openingTime)) {
-                    return java.time.Duration.between(now, openingTime).toMinutes();
-                } else {
-                    return -1; // Should be open
-                }
-            }
+
+        ZonedDateTime now = ZonedDateTime.now(getZoneId());
+        LocalDateTime next = getOpeningSchedule().nextTransition(now.toLocalDateTime());
+        if (next == null) {
+            return -1; // Open 24/7 or never opens
         }
+        return Duration.between(now, next.atZone(getZoneId())).toMinutes();
     }
     
     public boolean isApproved() {
@@ -0,0 +1,37 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Version menu của restaurant, tăng mỗi khi menu item hoặc add-on thay đổi.
+ * Tách khỏi bảng restaurants để việc lưu Restaurant không ghi đè version bằng giá trị cũ.
+ */
+@Entity
+@Table(name = "restaurant_menu_versions")
+public class RestaurantMenuVersion {
+    
+    @Id
+    @Column(name = "restaurant_id")
+    private Long restaurantId;
+    
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+    
+    public RestaurantMenuVersion() {}
+    
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+    
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -1,12 +1,15 @@
 package org.example.repository;
 
 import org.example.entity.Cart;
+import org.example.entity.CartItem;
+import org.example.entity.CartItemAddOn;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,6 +52,14 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("DELETE FROM Cart c WHERE c.status = 'EXPIRED'")
     void deleteExpiredCarts();
     
+    // Cart items của nhiều cart trong một truy vấn
+    @Query("SELECT ci FROM CartItem ci WHERE ci.cart.id IN :cartIds ORDER BY ci.id")
+    List<CartItem> findCartItemsByCartIdIn(@Param("cartIds") Collection<Long> cartIds);
+    
+    // Add-ons của nhiều cart item trong một truy vấn
+    @Query("SELECT a FROM CartItemAddOn a WHERE a.cartItem.id IN :cartItemIds ORDER BY a.id")
+    List<CartItemAddOn> findCartItemAddOnsByCartItemIdIn(@Param("cartItemIds") Collection<Long> cartItemIds);
+    
     // Find carts with items count
     @Query("SELECT c, SIZE(c.cartItems) FROM Cart c WHERE c.customer.id = :customerId AND c.status = 'ACTIVE'")
     List<Object[]> findCartsWithItemCount(@Param("customerId") Long customerId);
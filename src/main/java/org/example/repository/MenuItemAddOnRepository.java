@@ -2,10 +2,13 @@ package org.example.repository;
 
 import org.example.entity.MenuItemAddOn;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -31,6 +34,10 @@ public interface MenuItemAddOnRepository extends JpaRepository<MenuItemAddOn, Lo
     @Query("SELECT ma FROM MenuItemAddOn ma WHERE ma.menuItem.restaurant.id = :restaurantId ORDER BY ma.menuItem.name ASC, ma.category ASC, ma.displayOrder ASC")
     List<MenuItemAddOn> findByRestaurantId(@Param("restaurantId") Long restaurantId);
     
+    // Find available add-ons of all menu items of a restaurant
+    @Query("SELECT ma FROM MenuItemAddOn ma WHERE ma.menuItem.restaurant.id = :restaurantId AND ma.isAvailable = true ORDER BY ma.category ASC, ma.displayOrder ASC, ma.name ASC")
+    List<MenuItemAddOn> findAvailableByRestaurantId(@Param("restaurantId") Long restaurantId);
+    
     // Find all categories for a menu item
     @Query("SELECT DISTINCT ma.category FROM MenuItemAddOn ma WHERE ma.menuItem.id = :menuItemId AND ma.isAvailable = true ORDER BY ma.category ASC")
     List<String> findCategoriesByMenuItemId(@Param("menuItemId") Long menuItemId);
@@ -39,6 +46,14 @@ public interface MenuItemAddOnRepository extends JpaRepository<MenuItemAddOn, Lo
     @Query("SELECT COUNT(ma) > 0 FROM MenuItemAddOn ma WHERE ma.id = :addOnId AND ma.menuItem.id = :menuItemId")
     boolean existsByIdAndMenuItemId(@Param("addOnId") Long addOnId, @Param("menuItemId") Long menuItemId);
     
+    // Set availability of add-ons belonging to a restaurant in one statement
+    @Modifying
+    @Query("UPDATE MenuItemAddOn ma SET ma.isAvailable = :available, ma.updatedAt = :now " +
+           "WHERE ma.id IN :ids AND ma.isAvailable <> :available " +
+           "AND ma.menuItem.id IN (SELECT mi.id FROM MenuItem mi WHERE mi.restaurant.id = :restaurantId)")
+    int updateAvailability(@Param("restaurantId") Long restaurantId, @Param("ids") Collection<Long> ids,
+                           @Param("available") Boolean available, @Param("now") LocalDateTime now);
+    
     // Find add-ons by name (for search)
     @Query("SELECT ma FROM MenuItemAddOn ma WHERE ma.menuItem.restaurant.id = :restaurantId AND LOWER(ma.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY ma.name ASC")
     List<MenuItemAddOn> findByRestaurantIdAndNameContaining(@Param("restaurantId") Long restaurantId, @Param("name") String name);
@@ -1,13 +1,20 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.config.SecondLevelCacheConfig;
 import org.example.entity.MenuItem;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -28,16 +35,134 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     List<MenuItem> findByRestaurantIdAndTag(@Param("restaurantId") Long restaurantId, 
                                            @Param("tag") String tag);
     
-    // Search menu items by name or description
-    @Query("SELECT mi FROM MenuItem mi WHERE mi.restaurant.id = :restaurantId " +
-           "AND (LOWER(mi.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(mi.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-           "AND mi.isAvailable = true")
-    List<MenuItem> searchMenuItems(@Param("restaurantId") Long restaurantId, 
-                                  @Param("searchTerm") String searchTerm);
+    // Full-text search in one restaurant's menu over name, description and tags, diacritic-insensitive
+    // (search_vector and f_unaccent from create_search_vectors.sql); best matches first
+    @Query(value = "SELECT mi.* FROM menu_items mi " +
+                   "CROSS JOIN to_tsquery('simple', f_unaccent(:tsquery)) AS q(query) " +
+                   "WHERE mi.restaurant_id = :restaurantId " +
+                   "AND mi.is_available = true " +
+                   "AND mi.search_vector @@ q.query " +
+                   "ORDER BY ts_rank(mi.search_vector, q.query) DESC, mi.id " +
+                   "LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<MenuItem> searchMenuItems(@Param("restaurantId") Long restaurantId,
+                                   @Param("tsquery") String tsquery,
+                                   @Param("limit") int limit,
+                                   @Param("offset") int offset);
     
-    // Find distinct categories for a restaurant
+    // Find distinct categories for a restaurant (query cache, invalidated on any menu_items write)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.MENU_CATEGORIES_REGION)
+    })
     @Query("SELECT DISTINCT mi.category FROM MenuItem mi WHERE mi.restaurant.id = :restaurantId " +
            "AND mi.isAvailable = true ORDER BY mi.category")
     List<String> findDistinctCategoriesByRestaurantId(@Param("restaurantId") Long restaurantId);
-}
\ No newline at end of file
+    
+    // Tags của nhiều menu item trong một truy vấn (thay cho lazy load từng item)
+    @Query("SELECT mi.id AS menuItemId, t AS tag FROM MenuItem mi JOIN mi.tags t WHERE mi.id IN :menuItemIds")
+    List<MenuItemTagRow> findTagsByMenuItemIdIn(@Param("menuItemIds") Collection<Long> menuItemIds);
+    
+    // Toàn bộ menu (kể cả món tạm hết) kèm tags trong một truy vấn, dùng để dựng menu snapshot
+    @Query("SELECT DISTINCT mi FROM MenuItem mi LEFT JOIN FETCH mi.tags WHERE mi.restaurant.id = :restaurantId ORDER BY mi.id")
+    List<MenuItem> findAllWithTagsByRestaurantId(@Param("restaurantId") Long restaurantId);
+    
+    // Load menu items together with their tags in one query
+    @Query("SELECT DISTINCT mi FROM MenuItem mi LEFT JOIN FETCH mi.tags WHERE mi.id IN :ids")
+    List<MenuItem> findAllWithTagsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Full-text dish search across all approved restaurants near a point.
+    // The bounding box lets the planner use the GiST index on restaurants.location, the text match
+    // uses the GIN index on menu_items.search_vector (create_search_vectors.sql); at most
+    // :itemsPerRestaurant best matching items are returned per restaurant
+    @Query(value = "WITH nearby AS (" +
+                   "    SELECT id, ST_DistanceSphere(location, ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)) AS distance " +
+                   "    FROM restaurants " +
+                   "    WHERE is_active = true " +
+                   "    AND approval_status = 'APPROVED' " +
+                   "    AND location && ST_MakeEnvelope(:minLng, :minLat, :maxLng, :maxLat, 4326) " +
+                   "), matches AS (" +
+                   "    SELECT mi.id AS menu_item_id, mi.restaurant_id, n.distance, ts_rank(mi.search_vector, q.query) AS rank " +
+                   "    FROM menu_items mi " +
+                   "    JOIN nearby n ON n.id = mi.restaurant_id " +
+                   "    CROSS JOIN to_tsquery('simple', f_unaccent(:tsquery)) AS q(query) " +
+                   "    WHERE mi.is_available = true " +
+                   "    AND n.distance <= :radiusMeters " +
+                   "    AND mi.search_vector @@ q.query" +
+                   "), ranked AS (" +
+                   "    SELECT m.*, ROW_NUMBER() OVER (PARTITION BY m.restaurant_id ORDER BY m.rank DESC, m.menu_item_id) AS item_position " +
+                   "    FROM matches m" +
+                   ") " +
+                   "SELECT menu_item_id AS \"menuItemId\", restaurant_id AS \"restaurantId\", distance AS distance, rank AS rank " +
+                   "FROM ranked " +
+                   "WHERE item_position <= :itemsPerRestaurant",
+           nativeQuery = true)
+    List<DishMatch> searchDishesNearby(
+        @Param("tsquery") String tsquery,
+        @Param("latitude") double latitude,
+        @Param("longitude") double longitude,
+        @Param("radiusMeters") double radiusMeters,
+        @Param("minLat") double minLat,
+        @Param("minLng") double minLng,
+        @Param("maxLat") double maxLat,
+        @Param("maxLng") double maxLng,
+        @Param("itemsPerRestaurant") int itemsPerRestaurant
+    );
+    
+    /**
+     * Đổi trạng thái còn bán của các món thuộc restaurant; món đã ở trạng thái đích không bị ghi lại
+     */
+    @Modifying
+    @Query("UPDATE MenuItem mi SET mi.isAvailable = :available, mi.menuVersion = :version, mi.updatedAt = :now " +
+           "WHERE mi.id IN :ids AND mi.restaurant.id = :restaurantId AND mi.isAvailable <> :available")
+    int updateAvailability(@Param("restaurantId") Long restaurantId, @Param("ids") Collection<Long> ids,
+                           @Param("available") Boolean available, @Param("version") Long version,
+                           @Param("now") LocalDateTime now);
+    
+    /**
+     * Gán version mới cho các món có add-on sắp đổi trạng thái, để client đồng bộ delta tải lại add-ons của món đó
+     */
+    @Modifying
+    @Query("UPDATE MenuItem mi SET mi.menuVersion = :version " +
+           "WHERE mi.restaurant.id = :restaurantId AND mi.id IN (" +
+           "    SELECT ma.menuItem.id FROM MenuItemAddOn ma WHERE ma.id IN :addOnIds AND ma.isAvailable <> :available)")
+    int markAddOnParentsChanged(@Param("restaurantId") Long restaurantId, @Param("addOnIds") Collection<Long> addOnIds,
+                                @Param("available") Boolean available, @Param("version") Long version);
+    
+    // Tên các món đang bán của restaurant đang hoạt động và đã duyệt (autocomplete)
+    @Query("SELECT mi.id AS menuItemId, mi.restaurant.id AS restaurantId, mi.name AS name FROM MenuItem mi " +
+           "WHERE mi.isAvailable = true AND mi.restaurant.isActive = true " +
+           "AND mi.restaurant.approvalStatus = org.example.entity.ApprovalStatus.APPROVED")
+    List<MenuItemNameRow> findAvailableNamesOfApprovedRestaurants();
+    
+    @Query("SELECT mi.id AS menuItemId, mi.restaurant.id AS restaurantId, mi.name AS name FROM MenuItem mi " +
+           "WHERE mi.restaurant.id = :restaurantId AND mi.isAvailable = true")
+    List<MenuItemNameRow> findAvailableNamesByRestaurantId(@Param("restaurantId") Long restaurantId);
+    
+    /**
+     * Projection cho kết quả tìm món theo khoảng cách
+     */
+    interface DishMatch {
+        Long getMenuItemId();
+        
+        Long getRestaurantId();
+        
+        Double getDistance();
+        
+        Double getRank();
+    }
+    
+    interface MenuItemTagRow {
+        Long getMenuItemId();
+        
+        String getTag();
+    }
+    
+    interface MenuItemNameRow {
+        Long getMenuItemId();
+        
+        Long getRestaurantId();
+        
+        String getName();
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.repository;
+
+import org.example.entity.MenuItemTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MenuItemTombstoneRepository extends JpaRepository<MenuItemTombstone, Long> {
+    
+    // Menu item bị xóa sau một version (cho delta sync)
+    List<MenuItemTombstone> findByRestaurantIdAndMenuVersionGreaterThan(Long restaurantId, Long menuVersion);
+}
@@ -1,11 +1,13 @@
 package org.example.repository;
 
+import org.example.entity.OrderAddOn;
 import org.example.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,6 +17,14 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     @Query("SELECT oi FROM OrderItem oi WHERE oi.order.id = :orderId ORDER BY oi.createdAt ASC")
     List<OrderItem> findByOrderId(@Param("orderId") Long orderId);
     
+    // Find order items of several orders in one query
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.order.id IN :orderIds ORDER BY oi.createdAt ASC, oi.id ASC")
+    List<OrderItem> findByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+    
+    // Find add-ons of several order items in one query
+    @Query("SELECT a FROM OrderAddOn a WHERE a.orderItem.id IN :orderItemIds ORDER BY a.id")
+    List<OrderAddOn> findAddOnsByOrderItemIdIn(@Param("orderItemIds") Collection<Long> orderItemIds);
+    
     // Find order items by menu item ID (for analytics)
     @Query("SELECT oi FROM OrderItem oi WHERE oi.menuItem.id = :menuItemId ORDER BY oi.createdAt DESC")
     List<OrderItem> findByMenuItemId(@Param("menuItemId") Long menuItemId);
@@ -23,6 +33,11 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     @Query("SELECT SUM(oi.quantity) FROM OrderItem oi WHERE oi.menuItem.id = :menuItemId AND oi.order.status IN ('COMPLETED', 'PICKED_UP')")
     Long getTotalQuantitySoldByMenuItem(@Param("menuItemId") Long menuItemId);
     
+    // Total quantity sold per menu item (autocomplete popularity)
+    @Query("SELECT oi.menuItem.id AS id, SUM(oi.quantity) AS total FROM OrderItem oi " +
+           "WHERE oi.order.status IN ('COMPLETED', 'PICKED_UP') GROUP BY oi.menuItem.id")
+    List<OrderRepository.IdCount> sumQuantitySoldByMenuItem();
+    
     // Get best selling menu items by restaurant
     @Query("SELECT oi.menuItem.id, oi.menuItem.name, SUM(oi.quantity) as totalSold " +
            "FROM OrderItem oi " +
@@ -101,4 +101,18 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Find orders containing specific menu item (for review validation)
     @Query("SELECT DISTINCT o FROM Order o JOIN o.orderItems oi WHERE o.customer.id = :userId AND oi.menuItem.id = :menuItemId AND o.status = :status ORDER BY o.createdAt DESC")
     List<Order> findOrdersWithMenuItem(@Param("userId") Long userId, @Param("menuItemId") Long menuItemId, @Param("status") Order.OrderStatus status);
-}
\ No newline at end of file
+    
+    // Count completed orders per restaurant (autocomplete popularity)
+    @Query("SELECT o.restaurant.id AS id, COUNT(o) AS total FROM Order o " +
+           "WHERE o.status IN ('COMPLETED', 'PICKED_UP') GROUP BY o.restaurant.id")
+    List<IdCount> countCompletedOrdersByRestaurant();
+    
+    /**
+     * Projection cho các truy vấn đếm theo ID
+     */
+    interface IdCount {
+        Long getId();
+        
+        Long getTotal();
+    }
+}
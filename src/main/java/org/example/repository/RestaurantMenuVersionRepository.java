@@ -0,0 +1,26 @@
+package org.example.repository;
+
+import org.example.entity.RestaurantMenuVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface RestaurantMenuVersionRepository extends JpaRepository<RestaurantMenuVersion, Long> {
+    
+    // Tăng version menu (tạo dòng nếu chưa có) và trả về version mới trong một câu lệnh;
+    // khóa dòng đến hết transaction nên các thay đổi menu đồng thời của cùng restaurant được tuần tự hóa
+    @Query(value = "INSERT INTO restaurant_menu_versions (restaurant_id, version) VALUES (:restaurantId, 1) " +
+                   "ON CONFLICT (restaurant_id) DO UPDATE SET version = restaurant_menu_versions.version + 1 " +
+                   "RETURNING version",
+           nativeQuery = true)
+    @Transactional
+    Long incrementVersion(@Param("restaurantId") Long restaurantId);
+    
+    @Query("SELECT v.version FROM RestaurantMenuVersion v WHERE v.restaurantId = :restaurantId")
+    Optional<Long> findVersionByRestaurantId(@Param("restaurantId") Long restaurantId);
+}
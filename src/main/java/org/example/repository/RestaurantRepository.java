@@ -3,11 +3,17 @@ package org.example.repository;
 import org.example.entity.ApprovalStatus;
 import org.example.entity.Restaurant;
 import org.locationtech.jts.geom.Point;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +37,17 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
            "ORDER BY r.name ASC")
     List<Restaurant> findAllActiveAndApproved();
     
+    // Find all active and approved restaurants with categories fetched in one query
+    @Query("SELECT DISTINCT r FROM Restaurant r LEFT JOIN FETCH r.categories WHERE r.isActive = true " +
+           "AND r.approvalStatus = org.example.entity.ApprovalStatus.APPROVED")
+    List<Restaurant> findAllActiveAndApprovedWithCategories();
+    
+    // Find active and approved restaurants that define a delivery area
+    @Query("SELECT r FROM Restaurant r WHERE r.isActive = true " +
+           "AND r.approvalStatus = org.example.entity.ApprovalStatus.APPROVED " +
+           "AND r.deliveryArea IS NOT NULL")
+    List<Restaurant> findActiveApprovedWithDeliveryArea();
+    
     // Admin functions - find restaurants by approval status
     @Query("SELECT r FROM Restaurant r WHERE r.approvalStatus = :status ORDER BY r.createdAt DESC")
     List<Restaurant> findByApprovalStatus(@Param("status") ApprovalStatus status);
@@ -46,12 +63,27 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     @Query("SELECT r FROM Restaurant r JOIN r.categories c WHERE c = :category AND r.isActive = true")
     List<Restaurant> findByCategory(@Param("category") String category);
     
+    // Full-text search of active approved restaurants over name, categories and description,
+    // diacritic-insensitive (search_vector and f_unaccent from create_search_vectors.sql); best matches first
+    @Query(value = "SELECT r.id FROM restaurants r " +
+                   "CROSS JOIN to_tsquery('simple', f_unaccent(:tsquery)) AS q(query) " +
+                   "WHERE r.is_active = true " +
+                   "AND r.approval_status = 'APPROVED' " +
+                   "AND r.search_vector @@ q.query " +
+                   "ORDER BY ts_rank(r.search_vector, q.query) DESC, r.id " +
+                   "LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<Long> searchApprovedRestaurantIds(@Param("tsquery") String tsquery,
+                                           @Param("limit") int limit,
+                                           @Param("offset") int offset);
+    
     // Spatial Queries using PostGIS functions
     
-    // Find restaurants within a certain distance (meters) from a point
+    // Find active approved restaurants within a certain distance (meters) from a point
     @Query(value = "SELECT *, ST_Distance_Sphere(location, ST_MakePoint(:longitude, :latitude)) as distance " +
                    "FROM restaurants " +
                    "WHERE is_active = true " +
+                   "AND approval_status = 'APPROVED' " +
                    "AND ST_DWithin(location::geography, ST_MakePoint(:longitude, :latitude)::geography, :radiusMeters) " +
                    "ORDER BY distance", 
            nativeQuery = true)
@@ -81,17 +113,44 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
         @Param("maxDetourMeters") double maxDetourMeters
     );
     
-    // Find nearest restaurants (top N closest)
-    @Query(value = "SELECT *, ST_Distance_Sphere(location, ST_MakePoint(:longitude, :latitude)) as distance " +
-                   "FROM restaurants " +
+    // Find active approved restaurants within distance from a route polyline (WKT LineString, SRID 4326)
+    @Query(value = "SELECT * FROM restaurants " +
                    "WHERE is_active = true " +
-                   "ORDER BY distance " +
-                   "LIMIT :limit", 
+                   "AND approval_status = 'APPROVED' " +
+                   "AND ST_DWithin(location::geography, ST_GeomFromText(:route, 4326)::geography, :maxDetourMeters)",
            nativeQuery = true)
-    List<Restaurant> findNearestRestaurants(
+    List<Restaurant> findApprovedRestaurantsAlongRoute(
+        @Param("route") String route,
+        @Param("maxDetourMeters") double maxDetourMeters
+    );
+    
+    // Find nearest open restaurants (KNN via GiST index on location)
+    // The inner query walks the GiST index in planar (<->) order; the outer query
+    // re-ranks those candidates by exact spherical distance.
+    // Only the legacy single opening/closing pair can be checked in SQL; restaurants with weekly
+    // hours or their own timezone are kept as candidates and checked against their schedule by the caller,
+    // so all candidates are returned and the caller applies the final limit after that check
+    @Query(value = "SELECT c.id AS id, " +
+                   "ST_DistanceSphere(c.location, ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)) AS distance " +
+                   "FROM (" +
+                   "    SELECT id, location FROM restaurants " +
+                   "    WHERE is_active = true " +
+                   "    AND approval_status = 'APPROVED' " +
+                   "    AND (EXISTS (SELECT 1 FROM restaurant_opening_hours h WHERE h.restaurant_id = restaurants.id) " +
+                   "      OR (timezone IS NOT NULL AND opening_time IS NOT NULL AND closing_time IS NOT NULL) " +
+                   "      OR (opening_time IS NOT NULL AND closing_time IS NOT NULL " +
+                   "        AND ((closing_time > opening_time AND CAST(:now AS time) BETWEEN opening_time AND closing_time) " +
+                   "          OR (closing_time <= opening_time AND (CAST(:now AS time) >= opening_time OR CAST(:now AS time) <= closing_time))))) " +
+                   "    ORDER BY location <-> ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326) " +
+                   "    LIMIT :candidateLimit" +
+                   ") c " +
+                   "ORDER BY distance",
+           nativeQuery = true)
+    List<RestaurantDistance> findNearestOpenRestaurants(
         @Param("latitude") double latitude,
         @Param("longitude") double longitude,
-        @Param("limit") int limit
+        @Param("now") LocalTime now,
+        @Param("candidateLimit") int candidateLimit
     );
     
     // Calculate distance to a specific restaurant
@@ -105,6 +164,18 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
         @Param("longitude") double longitude
     );
     
+    // Calculate distances to many restaurants in a single round trip
+    @Query(value = "SELECT id AS id, " +
+                   "ST_DistanceSphere(location, ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)) AS distance " +
+                   "FROM restaurants " +
+                   "WHERE id IN (:restaurantIds)",
+           nativeQuery = true)
+    List<RestaurantDistance> calculateDistancesToRestaurants(
+        @Param("restaurantIds") Collection<Long> restaurantIds,
+        @Param("latitude") double latitude,
+        @Param("longitude") double longitude
+    );
+    
     // Find restaurants within delivery area (if polygon is defined)
     @Query(value = "SELECT * FROM restaurants " +
                    "WHERE is_active = true " +
@@ -115,4 +186,234 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
         @Param("latitude") double latitude,
         @Param("longitude") double longitude
     );
-}
\ No newline at end of file
+    
+    // Aggregate approved restaurants inside a bounding box into grid cells (map marker clustering)
+    @Query(value = "SELECT COUNT(*) AS count, " +
+                   "AVG(ST_Y(location)) AS latitude, " +
+                   "AVG(ST_X(location)) AS longitude, " +
+                   "(ARRAY_AGG(id ORDER BY rating DESC NULLS LAST, total_reviews DESC NULLS LAST, id))[1] AS \"topRatedId\" " +
+                   "FROM restaurants " +
+                   "WHERE is_active = true " +
+                   "AND approval_status = 'APPROVED' " +
+                   "AND location && ST_MakeEnvelope(:minLng, :minLat, :maxLng, :maxLat, 4326) " +
+                   "GROUP BY ST_X(ST_SnapToGrid(location, :cellSize)), ST_Y(ST_SnapToGrid(location, :cellSize))",
+           nativeQuery = true)
+    List<RestaurantCluster> clusterRestaurantsInBoundingBox(
+        @Param("minLat") double minLat,
+        @Param("minLng") double minLng,
+        @Param("maxLat") double maxLat,
+        @Param("maxLng") double maxLng,
+        @Param("cellSize") double cellSize
+    );
+    
+    // Approved restaurant markers inside a bounding box (vector tile fallback while the spatial index loads);
+    // the tile itself is encoded in Java so both paths produce the same attributes
+    @Query(value = "SELECT id AS id, name AS name, COALESCE(rating, 0) AS rating, " +
+                   "ST_Y(location) AS latitude, ST_X(location) AS longitude " +
+                   "FROM restaurants " +
+                   "WHERE is_active = true " +
+                   "AND approval_status = 'APPROVED' " +
+                   "AND location && ST_MakeEnvelope(:minLng, :minLat, :maxLng, :maxLat, 4326)",
+           nativeQuery = true)
+    List<RestaurantMarker> findMarkersInBoundingBox(
+        @Param("minLat") double minLat,
+        @Param("minLng") double minLng,
+        @Param("maxLat") double maxLat,
+        @Param("maxLng") double maxLng
+    );
+    
+    // Các câu truy vấn danh sách: chọn cột phẳng kèm tên owner / người duyệt bằng join,
+    // collection (categories, giờ mở cửa) được nạp riêng theo lô danh sách ID
+    String LIST_ROW_SELECT = "SELECT r.id AS id, r.name AS name, r.description AS description, " +
+           "r.address AS address, r.phoneNumber AS phoneNumber, r.email AS email, r.imageUrl AS imageUrl, " +
+           "r.location AS location, r.openingTime AS openingTime, r.closingTime AS closingTime, " +
+           "r.timezone AS timezone, r.isActive AS isActive, r.rating AS rating, r.totalReviews AS totalReviews, " +
+           "o.id AS ownerId, o.fullName AS ownerName, r.approvalStatus AS approvalStatus, " +
+           "a.id AS approvedById, a.fullName AS approvedByName, r.approvedAt AS approvedAt, " +
+           "r.rejectionReason AS rejectionReason, r.createdAt AS createdAt, r.updatedAt AS updatedAt " +
+           "FROM Restaurant r JOIN r.owner o LEFT JOIN r.approvedBy a ";
+    
+    @Query(LIST_ROW_SELECT + "WHERE r.approvalStatus = :status ORDER BY r.createdAt DESC")
+    List<RestaurantListRow> findListRowsByApprovalStatus(@Param("status") ApprovalStatus status);
+    
+    @Query(LIST_ROW_SELECT + "ORDER BY r.id ASC")
+    List<RestaurantListRow> findAllListRows();
+    
+    @Query(LIST_ROW_SELECT + "WHERE r.approvalStatus = org.example.entity.ApprovalStatus.PENDING " +
+           "ORDER BY r.createdAt ASC")
+    List<RestaurantListRow> findPendingApprovalListRows();
+    
+    @Query(LIST_ROW_SELECT + "WHERE o.id = :ownerId AND r.isActive = true")
+    List<RestaurantListRow> findActiveListRowsByOwnerId(@Param("ownerId") Long ownerId);
+    
+    @Query(LIST_ROW_SELECT + "WHERE o.id = :ownerId AND r.isActive = true " +
+           "AND r.approvalStatus = org.example.entity.ApprovalStatus.APPROVED")
+    List<RestaurantListRow> findApprovedListRowsByOwnerId(@Param("ownerId") Long ownerId);
+    
+    @Query(LIST_ROW_SELECT + "WHERE r.id IN :restaurantIds")
+    List<RestaurantListRow> findListRowsByIdIn(@Param("restaurantIds") Collection<Long> restaurantIds);
+    
+    // Phân trang keyset theo (created_at, id): so sánh bộ giá trị để dùng được index nhiều cột,
+    // chi phí trang sâu bằng trang đầu
+    @Query(LIST_ROW_SELECT + "WHERE r.approvalStatus = :status AND (r.createdAt, r.id) < (:createdAt, :id) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RestaurantListRow> findListRowsByApprovalStatusBefore(
+        @Param("status") ApprovalStatus status,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+    
+    @Query(LIST_ROW_SELECT + "WHERE (r.createdAt, r.id) < (:createdAt, :id) ORDER BY r.createdAt DESC, r.id DESC")
+    List<RestaurantListRow> findListRowsBefore(
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+    
+    @Query(LIST_ROW_SELECT + "WHERE r.approvalStatus = org.example.entity.ApprovalStatus.PENDING " +
+           "AND (r.createdAt, r.id) > (:createdAt, :id) ORDER BY r.createdAt ASC, r.id ASC")
+    List<RestaurantListRow> findPendingApprovalListRowsAfter(
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+    
+    @Query(LIST_ROW_SELECT + "WHERE r.isActive = true " +
+           "AND r.approvalStatus = org.example.entity.ApprovalStatus.APPROVED " +
+           "AND :category MEMBER OF r.categories AND (r.createdAt, r.id) < (:createdAt, :id) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RestaurantListRow> findApprovedListRowsByCategoryBefore(
+        @Param("category") String category,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+    
+    @Query("SELECT r.id AS restaurantId, c AS category FROM Restaurant r JOIN r.categories c " +
+           "WHERE r.id IN :restaurantIds")
+    List<RestaurantCategoryRow> findCategoriesByRestaurantIdIn(@Param("restaurantIds") Collection<Long> restaurantIds);
+    
+    @Query("SELECT r.id AS restaurantId, h.dayOfWeek AS dayOfWeek, h.openingTime AS openingTime, " +
+           "h.closingTime AS closingTime FROM Restaurant r JOIN r.weeklyHours h " +
+           "WHERE r.id IN :restaurantIds")
+    List<OpeningHoursRow> findWeeklyHoursByRestaurantIdIn(@Param("restaurantIds") Collection<Long> restaurantIds);
+    
+    @Query("SELECT r.id AS restaurantId, h.date AS date, h.closed AS closed, h.openingTime AS openingTime, " +
+           "h.closingTime AS closingTime FROM Restaurant r JOIN r.holidayOverrides h " +
+           "WHERE r.id IN :restaurantIds")
+    List<HolidayOverrideRow> findHolidayOverridesByRestaurantIdIn(@Param("restaurantIds") Collection<Long> restaurantIds);
+    
+    /**
+     * Projection cho kết quả truy vấn khoảng cách (meters)
+     */
+    interface RestaurantDistance {
+        Long getId();
+        
+        Double getDistance();
+    }
+    
+    /**
+     * Projection cho kết quả gom nhóm theo ô lưới
+     */
+    interface RestaurantMarker {
+        Long getId();
+        
+        String getName();
+        
+        Double getRating();
+        
+        Double getLatitude();
+        
+        Double getLongitude();
+    }
+    
+    interface RestaurantCluster {
+        Long getCount();
+        
+        Double getLatitude();
+        
+        Double getLongitude();
+        
+        Long getTopRatedId();
+    }
+    
+    /**
+     * Projection một dòng của danh sách restaurant (không gồm collection)
+     */
+    interface RestaurantListRow {
+        Long getId();
+        
+        String getName();
+        
+        String getDescription();
+        
+        String getAddress();
+        
+        String getPhoneNumber();
+        
+        String getEmail();
+        
+        String getImageUrl();
+        
+        Point getLocation();
+        
+        LocalTime getOpeningTime();
+        
+        LocalTime getClosingTime();
+        
+        String getTimezone();
+        
+        Boolean getIsActive();
+        
+        Double getRating();
+        
+        Integer getTotalReviews();
+        
+        Long getOwnerId();
+        
+        String getOwnerName();
+        
+        ApprovalStatus getApprovalStatus();
+        
+        Long getApprovedById();
+        
+        String getApprovedByName();
+        
+        LocalDateTime getApprovedAt();
+        
+        String getRejectionReason();
+        
+        LocalDateTime getCreatedAt();
+        
+        LocalDateTime getUpdatedAt();
+    }
+    
+    interface RestaurantCategoryRow {
+        Long getRestaurantId();
+        
+        String getCategory();
+    }
+    
+    interface OpeningHoursRow {
+        Long getRestaurantId();
+        
+        DayOfWeek getDayOfWeek();
+        
+        LocalTime getOpeningTime();
+        
+        LocalTime getClosingTime();
+    }
+    
+    interface HolidayOverrideRow {
+        Long getRestaurantId();
+        
+        LocalDate getDate();
+        
+        Boolean getClosed();
+        
+        LocalTime getOpeningTime();
+        
+        LocalTime getClosingTime();
+    }
+}
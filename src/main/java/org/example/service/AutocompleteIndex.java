@@ -0,0 +1,547 @@
+package org.example.service;
+
+import org.example.entity.Restaurant;
+import org.example.repository.MenuItemRepository;
+import org.example.repository.OrderItemRepository;
+import org.example.repository.OrderRepository;
+import org.example.repository.RestaurantRepository;
+import org.example.util.AutocompleteTrie;
+import org.example.util.SearchUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Gợi ý tự động hoàn thành (autocomplete) cho tên restaurant, tên món và category, giữ trong bộ nhớ bằng radix trie.
+ * Key là chuỗi đã bỏ dấu (SearchUtils.normalize) của toàn bộ tên và của phần bắt đầu từ mỗi từ tiếp theo,
+ * nên "pho", "bo" hay "ph" đều gợi ý được "Phở Bò".
+ * Trọng số: restaurant = 1 + số đơn đã hoàn thành; món (gộp theo tên trên mọi restaurant) = tổng (1 + số phần đã bán);
+ * category = tổng trọng số các restaurant có category đó.
+ * Menu và restaurant được cập nhật từng phần khi thay đổi; số đơn được nạp lại theo lịch (ScheduledTasks).
+ */
+@Service
+public class AutocompleteIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteIndex.class);
+
+    public static final int DEFAULT_LIMIT = 8;
+
+    public static final int MAX_LIMIT = 20;
+
+    // Số key tối đa cho một tên: toàn bộ tên + phần bắt đầu từ từ thứ 2, 3, 4
+    private static final int MAX_WORD_KEYS = 4;
+
+    public enum Type {
+        RESTAURANT, DISH, CATEGORY
+    }
+
+    /**
+     * Một gợi ý; restaurantId chỉ có với loại RESTAURANT
+     */
+    public static final class Suggestion {
+        private final Type type;
+        private final String text;
+        private final String key;
+        private final Long restaurantId;
+
+        private Suggestion(Type type, String text, String key, Long restaurantId) {
+            this.type = type;
+            this.text = text;
+            this.key = key;
+            this.restaurantId = restaurantId;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public Long getRestaurantId() {
+            return restaurantId;
+        }
+    }
+
+    /**
+     * Gợi ý kèm trọng số, kết quả của complete()
+     */
+    public static final class Match {
+        private final Suggestion suggestion;
+        private final long score;
+
+        private Match(Suggestion suggestion, long score) {
+            this.suggestion = suggestion;
+            this.score = score;
+        }
+
+        public Suggestion getSuggestion() {
+            return suggestion;
+        }
+
+        public long getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * Món đang bán của một restaurant, dữ liệu nạp vào index
+     */
+    public static final class Dish {
+        private final Long menuItemId;
+        private final Long restaurantId;
+        private final String name;
+
+        public Dish(Long menuItemId, Long restaurantId, String name) {
+            this.menuItemId = menuItemId;
+            this.restaurantId = restaurantId;
+            this.name = name;
+        }
+    }
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private State state = new State(Map.of(), Map.of());
+
+    private volatile boolean ready = false;
+
+    // Restaurant thay đổi trong lúc rebuild đọc DB: được nạp lại sau khi thay index mới
+    private volatile boolean rebuilding = false;
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Nạp lại toàn bộ index (kèm số đơn mới nhất) khi ứng dụng khởi động và theo lịch
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        changedDuringRebuild.clear();
+        rebuilding = true;
+        try {
+            List<Restaurant> restaurants = restaurantRepository.findAllActiveAndApprovedWithCategories();
+            Map<Long, Long> restaurantOrderCounts = toMap(orderRepository.countCompletedOrdersByRestaurant());
+            Map<Long, Long> menuItemSoldCounts = toMap(orderItemRepository.sumQuantitySoldByMenuItem());
+            List<Dish> dishes = toDishes(menuItemRepository.findAvailableNamesOfApprovedRestaurants());
+            load(restaurants, restaurantOrderCounts, dishes, menuItemSoldCounts);
+        } finally {
+            rebuilding = false;
+        }
+        for (Long restaurantId : List.copyOf(changedDuringRebuild)) {
+            changedDuringRebuild.remove(restaurantId);
+            reloadRestaurant(restaurantId);
+        }
+        logger.info("Autocomplete index rebuilt with {} keys", size());
+    }
+
+    /**
+     * Thay toàn bộ nội dung index; số đơn theo restaurant và số phần đã bán theo menu item dùng làm trọng số
+     */
+    public void load(Collection<Restaurant> restaurants, Map<Long, Long> restaurantOrderCounts,
+                     Collection<Dish> dishes, Map<Long, Long> menuItemSoldCounts) {
+        State next = new State(restaurantOrderCounts, menuItemSoldCounts);
+        for (Restaurant restaurant : restaurants) {
+            if (isIndexable(restaurant)) {
+                next.putRestaurant(restaurant.getId(), restaurant.getName(), restaurant.getCategories());
+            }
+        }
+        Map<Long, List<Dish>> dishesByRestaurant = new HashMap<>();
+        for (Dish dish : dishes) {
+            dishesByRestaurant.computeIfAbsent(dish.restaurantId, id -> new ArrayList<>()).add(dish);
+        }
+        dishesByRestaurant.forEach(next::replaceMenu);
+
+        lock.writeLock().lock();
+        try {
+            state = next;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cập nhật tên/categories/menu của một restaurant sau khi nó được tạo/sửa/duyệt/từ chối.
+     * Trong transaction thì đọc dữ liệu ngay trước commit và chỉ áp vào index sau commit
+     */
+    public void refreshRestaurant(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getId() == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            RestaurantReload reload = new RestaurantReload(restaurant);
+            reload.beforeCommit(false);
+            reload.afterCommit();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new RestaurantReload(restaurant));
+    }
+
+    /**
+     * Nạp lại các món đang bán của restaurant sau khi menu thay đổi. Trong transaction thì đọc ngay trước commit
+     * (thấy thay đổi của chính transaction) và chỉ áp vào index sau commit; mỗi restaurant một lần cho mỗi transaction
+     */
+    public void refreshMenu(Long restaurantId) {
+        if (restaurantId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyMenu(restaurantId, loadMenu(restaurantId));
+            return;
+        }
+        boolean registered = TransactionSynchronizationManager.getSynchronizations().stream()
+            .anyMatch(synchronization -> synchronization instanceof MenuReload reload && reload.restaurantId.equals(restaurantId));
+        if (!registered) {
+            TransactionSynchronizationManager.registerSynchronization(new MenuReload(restaurantId));
+        }
+    }
+
+    /**
+     * Tối đa limit gợi ý có tên (đã bỏ dấu) chứa một từ bắt đầu bằng query, trọng số giảm dần
+     */
+    public List<Match> complete(String query, int limit) {
+        String prefix = SearchUtils.normalize(query);
+        if (prefix.isEmpty() || !ready) {
+            return List.of();
+        }
+        int capped = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        lock.readLock().lock();
+        try {
+            List<Match> result = new ArrayList<>(capped);
+            for (AutocompleteTrie.Completion<Suggestion> completion : state.trie.top(prefix, capped)) {
+                result.add(new Match(completion.value(), completion.weight()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Số cặp (key, gợi ý) trong trie
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return state.trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private final class RestaurantReload implements TransactionSynchronization {
+        private final Restaurant restaurant;
+        private Long restaurantId;
+        private String name;
+        private List<String> categories;
+        // null nếu restaurant không còn được index
+        private List<Dish> dishes;
+
+        private RestaurantReload(Restaurant restaurant) {
+            this.restaurant = restaurant;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            restaurantId = restaurant.getId();
+            if (isIndexable(restaurant)) {
+                name = restaurant.getName();
+                categories = restaurant.getCategories() != null ? List.copyOf(restaurant.getCategories()) : List.of();
+                dishes = loadMenu(restaurantId);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            if (restaurantId != null) {
+                applyRestaurant(restaurantId, name, categories, dishes);
+            }
+        }
+    }
+
+    private final class MenuReload implements TransactionSynchronization {
+        private final Long restaurantId;
+        private List<Dish> dishes;
+
+        private MenuReload(Long restaurantId) {
+            this.restaurantId = restaurantId;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            dishes = loadMenu(restaurantId);
+        }
+
+        @Override
+        public void afterCommit() {
+            if (dishes != null) {
+                applyMenu(restaurantId, dishes);
+            }
+        }
+    }
+
+    private List<Dish> loadMenu(Long restaurantId) {
+        return toDishes(menuItemRepository.findAvailableNamesByRestaurantId(restaurantId));
+    }
+
+    private void applyMenu(Long restaurantId, List<Dish> dishes) {
+        markChanged(restaurantId);
+        lock.writeLock().lock();
+        try {
+            state.replaceMenu(restaurantId, dishes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // dishes null: restaurant bị loại khỏi index
+    private void applyRestaurant(Long restaurantId, String name, List<String> categories, List<Dish> dishes) {
+        markChanged(restaurantId);
+        lock.writeLock().lock();
+        try {
+            if (dishes != null) {
+                state.putRestaurant(restaurantId, name, categories);
+                state.replaceMenu(restaurantId, dishes);
+            } else {
+                state.removeRestaurant(restaurantId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Đọc lại restaurant và menu của nó trong transaction hiện tại (dùng sau rebuild)
+    private void reloadRestaurant(Long restaurantId) {
+        Restaurant restaurant = restaurantRepository.findById(restaurantId).orElse(null);
+        if (restaurant != null && isIndexable(restaurant)) {
+            applyRestaurant(restaurantId, restaurant.getName(), restaurant.getCategories(), loadMenu(restaurantId));
+        } else {
+            applyRestaurant(restaurantId, null, null, null);
+        }
+    }
+
+    private void markChanged(Long restaurantId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(restaurantId);
+        }
+    }
+
+    private static boolean isIndexable(Restaurant restaurant) {
+        return Boolean.TRUE.equals(restaurant.getIsActive()) && restaurant.isApproved();
+    }
+
+    private static Map<Long, Long> toMap(List<OrderRepository.IdCount> rows) {
+        Map<Long, Long> result = new HashMap<>(rows.size() * 2);
+        for (OrderRepository.IdCount row : rows) {
+            if (row.getId() != null && row.getTotal() != null) {
+                result.put(row.getId(), row.getTotal());
+            }
+        }
+        return result;
+    }
+
+    private static List<Dish> toDishes(List<MenuItemRepository.MenuItemNameRow> rows) {
+        List<Dish> dishes = new ArrayList<>(rows.size());
+        for (MenuItemRepository.MenuItemNameRow row : rows) {
+            dishes.add(new Dish(row.getMenuItemId(), row.getRestaurantId(), row.getName()));
+        }
+        return dishes;
+    }
+
+    /**
+     * Toàn bộ dữ liệu của index; rebuild dựng State mới rồi thay trong write lock, cập nhật từng phần sửa State hiện tại
+     */
+    private static final class State {
+
+        private final AutocompleteTrie<Suggestion> trie = new AutocompleteTrie<>();
+
+        private final Map<Long, Long> restaurantOrderCounts;
+        private final Map<Long, Long> menuItemSoldCounts;
+
+        private final Map<Long, RestaurantEntry> restaurants = new HashMap<>();
+        private final Map<String, Aggregate> dishes = new HashMap<>();
+        private final Map<String, Aggregate> categories = new HashMap<>();
+
+        private State(Map<Long, Long> restaurantOrderCounts, Map<Long, Long> menuItemSoldCounts) {
+            this.restaurantOrderCounts = restaurantOrderCounts;
+            this.menuItemSoldCounts = menuItemSoldCounts;
+        }
+
+        /**
+         * Thêm hoặc cập nhật tên/categories, giữ nguyên các món đã nạp
+         */
+        private void putRestaurant(Long restaurantId, String name, List<String> restaurantCategories) {
+            RestaurantEntry previous = restaurants.get(restaurantId);
+            if (previous != null) {
+                unindex(previous.suggestion);
+                previous.categoryKeys.forEach(key -> subtract(categories, key, previous.weight));
+            }
+
+            RestaurantEntry entry = new RestaurantEntry(
+                1 + restaurantOrderCounts.getOrDefault(restaurantId, 0L),
+                previous != null ? previous.dishKeys : new HashMap<>());
+            String key = SearchUtils.normalize(name);
+            if (!key.isEmpty()) {
+                entry.suggestion = new Suggestion(Type.RESTAURANT, name.trim(), key, restaurantId);
+                index(entry.suggestion, entry.weight);
+            }
+            if (restaurantCategories != null) {
+                for (String category : restaurantCategories) {
+                    String categoryKey = SearchUtils.normalize(category);
+                    if (!categoryKey.isEmpty() && entry.categoryKeys.add(categoryKey)) {
+                        add(categories, Type.CATEGORY, categoryKey, category.trim(), entry.weight);
+                    }
+                }
+            }
+            restaurants.put(restaurantId, entry);
+        }
+
+        private void removeRestaurant(Long restaurantId) {
+            RestaurantEntry entry = restaurants.remove(restaurantId);
+            if (entry == null) {
+                return;
+            }
+            unindex(entry.suggestion);
+            entry.categoryKeys.forEach(key -> subtract(categories, key, entry.weight));
+            entry.dishKeys.forEach((menuItemId, key) -> subtract(dishes, key, dishWeight(menuItemId)));
+        }
+
+        // Thay toàn bộ món của restaurant; bỏ qua nếu restaurant không có trong index
+        private void replaceMenu(Long restaurantId, List<Dish> menu) {
+            RestaurantEntry entry = restaurants.get(restaurantId);
+            if (entry == null) {
+                return;
+            }
+            Map<Long, String> next = new HashMap<>();
+            for (Dish dish : menu) {
+                String key = SearchUtils.normalize(dish.name);
+                if (!key.isEmpty()) {
+                    next.put(dish.menuItemId, key);
+                }
+            }
+            // Món không đổi tên được giữ nguyên để không phải cập nhật trie
+            for (Map.Entry<Long, String> dish : entry.dishKeys.entrySet()) {
+                if (!dish.getValue().equals(next.get(dish.getKey()))) {
+                    subtract(dishes, dish.getValue(), dishWeight(dish.getKey()));
+                }
+            }
+            for (Dish dish : menu) {
+                String key = next.get(dish.menuItemId);
+                if (key != null && !key.equals(entry.dishKeys.get(dish.menuItemId))) {
+                    add(dishes, Type.DISH, key, dish.name.trim(), dishWeight(dish.menuItemId));
+                }
+            }
+            entry.dishKeys = next;
+        }
+
+        private long dishWeight(Long menuItemId) {
+            return 1 + menuItemSoldCounts.getOrDefault(menuItemId, 0L);
+        }
+
+        private void add(Map<String, Aggregate> aggregates, Type type, String key, String text, long weight) {
+            Aggregate aggregate = aggregates.computeIfAbsent(key, k -> new Aggregate(new Suggestion(type, text, k, null)));
+            aggregate.weight += weight;
+            aggregate.count++;
+            index(aggregate.suggestion, aggregate.weight);
+        }
+
+        private void subtract(Map<String, Aggregate> aggregates, String key, long weight) {
+            Aggregate aggregate = aggregates.get(key);
+            if (aggregate == null) {
+                return;
+            }
+            aggregate.weight -= weight;
+            aggregate.count--;
+            if (aggregate.count <= 0) {
+                aggregates.remove(key);
+                unindex(aggregate.suggestion);
+            } else {
+                index(aggregate.suggestion, aggregate.weight);
+            }
+        }
+
+        private void index(Suggestion suggestion, long weight) {
+            for (String key : keys(suggestion.key)) {
+                trie.put(key, suggestion, weight);
+            }
+        }
+
+        private void unindex(Suggestion suggestion) {
+            if (suggestion == null) {
+                return;
+            }
+            for (String key : keys(suggestion.key)) {
+                trie.remove(key, suggestion);
+            }
+        }
+
+        // "com ga xoi mo" -> "com ga xoi mo", "ga xoi mo", "xoi mo", "mo"
+        private static Set<String> keys(String normalized) {
+            Set<String> keys = new LinkedHashSet<>();
+            keys.add(normalized);
+            int start = normalized.indexOf(' ');
+            while (start >= 0 && keys.size() < MAX_WORD_KEYS) {
+                keys.add(normalized.substring(start + 1));
+                start = normalized.indexOf(' ', start + 1);
+            }
+            return keys;
+        }
+    }
+
+    private static final class RestaurantEntry {
+        private final long weight;
+        private Suggestion suggestion;
+        private final Set<String> categoryKeys = new LinkedHashSet<>();
+        // menuItemId -> tên đã bỏ dấu
+        private Map<Long, String> dishKeys;
+
+        private RestaurantEntry(long weight, Map<Long, String> dishKeys) {
+            this.weight = weight;
+            this.dishKeys = dishKeys;
+        }
+    }
+
+    // Gợi ý gộp từ nhiều nguồn (món cùng tên, category của nhiều restaurant)
+    private static final class Aggregate {
+        private final Suggestion suggestion;
+        private long weight;
+        private int count;
+
+        private Aggregate(Suggestion suggestion) {
+            this.suggestion = suggestion;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.service;
+
+import org.example.entity.Cart;
+import org.example.entity.CartItem;
+import org.example.entity.CartItemAddOn;
+import org.example.entity.MenuItem;
+import org.example.entity.Order;
+import org.example.entity.OrderAddOn;
+import org.example.entity.OrderItem;
+import org.example.repository.CartRepository;
+import org.example.repository.MenuItemRepository;
+import org.example.repository.OrderItemRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Nạp các collection lazy mà mapper cần (tags của menu item, cart items, order items và add-ons của chúng)
+ * cho cả một danh sách bằng một truy vấn IN theo ID cha, thay vì một truy vấn cho mỗi phần tử.
+ * Collection đã được khởi tạo (fetch join, entity vừa tạo) được dùng lại, không truy vấn thêm.
+ * Kết quả là map ID cha -> danh sách con; collection của entity không bị thay đổi.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CollectionBatchLoader {
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    public Map<Long, List<String>> loadTags(Collection<MenuItem> menuItems) {
+        return load(menuItems, MenuItem::getId, MenuItem::getTags,
+            menuItemRepository::findTagsByMenuItemIdIn,
+            MenuItemRepository.MenuItemTagRow::getMenuItemId, MenuItemRepository.MenuItemTagRow::getTag);
+    }
+
+    public Map<Long, List<CartItem>> loadCartItems(Collection<Cart> carts) {
+        return load(carts, Cart::getId, Cart::getCartItems,
+            cartRepository::findCartItemsByCartIdIn,
+            cartItem -> cartItem.getCart().getId(), Function.identity());
+    }
+
+    public Map<Long, List<CartItemAddOn>> loadCartItemAddOns(Collection<CartItem> cartItems) {
+        return load(cartItems, CartItem::getId, CartItem::getAddOns,
+            cartRepository::findCartItemAddOnsByCartItemIdIn,
+            addOn -> addOn.getCartItem().getId(), Function.identity());
+    }
+
+    public Map<Long, List<OrderItem>> loadOrderItems(Collection<Order> orders) {
+        return load(orders, Order::getId, Order::getOrderItems,
+            orderItemRepository::findByOrderIdIn,
+            orderItem -> orderItem.getOrder().getId(), Function.identity());
+    }
+
+    public Map<Long, List<OrderAddOn>> loadOrderAddOns(Collection<OrderItem> orderItems) {
+        return load(orderItems, OrderItem::getId, OrderItem::getAddOns,
+            orderItemRepository::findAddOnsByOrderItemIdIn,
+            addOn -> addOn.getOrderItem().getId(), Function.identity());
+    }
+
+    /**
+     * @param parents     Danh sách phần tử cha
+     * @param idOf        ID của phần tử cha (phần tử chưa có ID bị bỏ qua, mapper đọc trực tiếp collection)
+     * @param collectionOf Collection lazy trên entity cha
+     * @param query       Truy vấn IN theo các ID cha chưa được khởi tạo
+     * @param parentIdOf  ID cha của một dòng kết quả
+     * @param valueOf     Giá trị con của một dòng kết quả
+     */
+    private <P, R, C> Map<Long, List<C>> load(Collection<P> parents, Function<P, Long> idOf,
+                                              Function<P, ? extends Collection<C>> collectionOf,
+                                              Function<Collection<Long>, List<R>> query,
+                                              Function<R, Long> parentIdOf, Function<R, C> valueOf) {
+        Map<Long, List<C>> result = new HashMap<>();
+        List<Long> uninitialized = new ArrayList<>();
+        for (P parent : parents) {
+            Long id = idOf.apply(parent);
+            if (id == null || result.containsKey(id)) {
+                continue;
+            }
+            Collection<C> collection = collectionOf.apply(parent);
+            if (collection == null) {
+                result.put(id, List.of());
+            } else if (Hibernate.isInitialized(collection)) {
+                result.put(id, new ArrayList<>(collection));
+            } else {
+                result.put(id, new ArrayList<>());
+                uninitialized.add(id);
+            }
+        }
+        if (!uninitialized.isEmpty()) {
+            for (R row : query.apply(uninitialized)) {
+                List<C> children = result.get(parentIdOf.apply(row));
+                if (children != null) {
+                    children.add(valueOf.apply(row));
+                }
+            }
+        }
+        return result;
+    }
+}
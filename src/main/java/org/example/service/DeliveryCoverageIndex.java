@@ -0,0 +1,170 @@
+package org.example.service;
+
+import org.example.config.PostGISConfig;
+import org.example.entity.Restaurant;
+import org.example.repository.RestaurantRepository;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index khu vực giao hàng (delivery_area) của các restaurant đang active và đã được duyệt.
+ * Mỗi polygon được giữ dưới dạng PreparedGeometry trong STRtree theo envelope,
+ * nên câu hỏi "quán nào giao đến điểm này" không cần truy cập Postgres.
+ */
+@Service
+public class DeliveryCoverageIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryCoverageIndex.class);
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), PostGISConfig.WGS84_SRID);
+
+    // Snapshot bất biến, thay thế nguyên khối khi có thay đổi (copy-on-write)
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private volatile boolean ready = false;
+
+    /**
+     * Nạp lại toàn bộ index từ database khi ứng dụng khởi động
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        load(restaurantRepository.findActiveApprovedWithDeliveryArea());
+        ready = true;
+        logger.info("Delivery coverage index rebuilt with {} delivery areas", snapshot.areas.size());
+    }
+
+    /**
+     * Thay toàn bộ nội dung index bằng danh sách restaurant cho trước
+     */
+    public synchronized void load(Collection<Restaurant> restaurants) {
+        Map<Long, PreparedGeometry> areas = new HashMap<>();
+        for (Restaurant restaurant : restaurants) {
+            if (isCoverable(restaurant)) {
+                areas.put(restaurant.getId(), PreparedGeometryFactory.prepare(restaurant.getDeliveryArea()));
+            }
+        }
+        snapshot = Snapshot.of(areas);
+    }
+
+    /**
+     * Cập nhật khu vực giao hàng của một restaurant sau khi nó được tạo/sửa/duyệt/từ chối.
+     * Chỉ polygon của restaurant này được chuẩn bị lại; các polygon khác được dùng lại.
+     */
+    public synchronized void refresh(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getId() == null) {
+            return;
+        }
+
+        Map<Long, PreparedGeometry> areas = new HashMap<>(snapshot.areas);
+        PreparedGeometry previous = areas.get(restaurant.getId());
+        if (isCoverable(restaurant)) {
+            Polygon deliveryArea = restaurant.getDeliveryArea();
+            if (previous != null && previous.getGeometry().equalsExact(deliveryArea)) {
+                return;
+            }
+            areas.put(restaurant.getId(), PreparedGeometryFactory.prepare(deliveryArea));
+        } else if (areas.remove(restaurant.getId()) == null) {
+            return;
+        }
+        snapshot = Snapshot.of(areas);
+    }
+
+    /**
+     * Xóa khu vực giao hàng của một restaurant khỏi index
+     */
+    public synchronized void remove(Long restaurantId) {
+        if (!snapshot.areas.containsKey(restaurantId)) {
+            return;
+        }
+        Map<Long, PreparedGeometry> areas = new HashMap<>(snapshot.areas);
+        areas.remove(restaurantId);
+        snapshot = Snapshot.of(areas);
+    }
+
+    /**
+     * Index đã được nạp từ database hay chưa
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Tìm ID các restaurant có khu vực giao hàng chứa điểm cho trước
+     */
+    public List<Long> findRestaurantIdsDeliveringTo(double latitude, double longitude) {
+        Snapshot current = snapshot;
+        Point point = geometryFactory.createPoint(new Coordinate(longitude, latitude));
+
+        List<Long> result = new ArrayList<>();
+        for (Object item : current.tree.query(new Envelope(point.getCoordinate()))) {
+            CoverageArea area = (CoverageArea) item;
+            if (area.geometry.contains(point)) {
+                result.add(area.restaurantId);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isCoverable(Restaurant restaurant) {
+        return restaurant.getDeliveryArea() != null
+            && !restaurant.getDeliveryArea().isEmpty()
+            && Boolean.TRUE.equals(restaurant.getIsActive())
+            && restaurant.isApproved();
+    }
+
+    private static final class CoverageArea {
+
+        private final Long restaurantId;
+        private final PreparedGeometry geometry;
+
+        private CoverageArea(Long restaurantId, PreparedGeometry geometry) {
+            this.restaurantId = restaurantId;
+            this.geometry = geometry;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = of(Map.of());
+
+        private final Map<Long, PreparedGeometry> areas;
+        private final STRtree tree;
+
+        private Snapshot(Map<Long, PreparedGeometry> areas, STRtree tree) {
+            this.areas = areas;
+            this.tree = tree;
+        }
+
+        private static Snapshot of(Map<Long, PreparedGeometry> areas) {
+            STRtree tree = new STRtree();
+            areas.forEach((restaurantId, geometry) ->
+                tree.insert(geometry.getGeometry().getEnvelopeInternal(), new CoverageArea(restaurantId, geometry)));
+            tree.build();
+            return new Snapshot(Map.copyOf(areas), tree);
+        }
+    }
+}
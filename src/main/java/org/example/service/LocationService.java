@@ -1,14 +1,31 @@
 package org.example.service;
 
+import org.example.dto.response.RestaurantClusterResponse;
+import org.example.dto.response.RestaurantDistanceResponse;
+import org.example.entity.MenuItem;
 import org.example.entity.Restaurant;
+import org.example.repository.MenuItemRepository;
 import org.example.repository.RestaurantRepository;
+import org.example.util.GeoUtils;
+import org.example.util.SearchUtils;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class LocationService {
@@ -16,13 +33,108 @@ public class LocationService {
     @Autowired
     private RestaurantRepository restaurantRepository;
     
+    @Autowired
+    private RestaurantSpatialIndex restaurantSpatialIndex;
+    
+    @Autowired
+    private DeliveryCoverageIndex deliveryCoverageIndex;
+    
+    @Autowired
+    private NearbyRestaurantCache nearbyRestaurantCache;
+    
+    @Autowired
+    private OpenRestaurantIndex openRestaurantIndex;
+    
+    @Autowired
+    private RestaurantCategoryIndex restaurantCategoryIndex;
+    
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    
     private final GeometryFactory geometryFactory = new GeometryFactory();
     
+    // Hệ số lấy dư ứng viên cho truy vấn KNN trước khi xếp hạng lại
+    private static final int KNN_CANDIDATE_FACTOR = 3;
+    
+    private static final int KNN_MIN_EXTRA_CANDIDATES = 10;
+    
+    // Số ứng viên tối đa khi nới rộng tập KNN để tìm đủ quán đang mở
+    private static final int KNN_MAX_CANDIDATES = 2_000;
+    
+    // Tốc độ di chuyển mặc định trong thành phố (km/h)
+    public static final double DEFAULT_AVERAGE_SPEED_KMH = 25.0;
+    
+    // Số quán gợi ý mặc định dọc tuyến đường
+    public static final int DEFAULT_ROUTE_RECOMMENDATION_LIMIT = 20;
+    
+    // Từ mức zoom này trở lên trả về từng quán riêng lẻ thay vì cluster
+    public static final int CLUSTER_MAX_ZOOM = 16;
+    
+    // Kích thước ô lưới cluster tính theo pixel trên tile 256px
+    private static final int CLUSTER_CELL_PIXELS = 64;
+    
+    private static final int TILE_SIZE_PIXELS = 256;
+    
+    private static final int MAX_ZOOM = 22;
+    
+    // Bounding box rộng hơn chừng này tile (mỗi chiều) ở mức zoom yêu cầu thì hạ zoom xuống,
+    // để zoom cao với bbox cả nước không trả về toàn bộ quán dưới dạng marker riêng
+    private static final int CLUSTER_MAX_VIEWPORT_TILES = 16;
+    
+    // Số món khớp tối đa trả về cho mỗi quán khi tìm món theo khoảng cách
+    private static final int DISH_SEARCH_ITEMS_PER_RESTAURANT = 5;
+    
+    // Quán ở mép bán kính bị giảm tối đa chừng này phần điểm liên quan
+    private static final double DISH_SEARCH_DISTANCE_WEIGHT = 0.5;
+    
+    /**
+     * Bán kính tối đa khi tìm món theo khoảng cách (meters); bán kính lớn hơn được giảm về giá trị này
+     */
+    public static final double DISH_SEARCH_MAX_RADIUS_METERS = 20_000d;
+    
+    /**
+     * Bán kính tối đa khi tìm quán gần đây (meters); bán kính lớn hơn được giảm về giá trị này
+     */
+    public static final double NEARBY_MAX_RADIUS_METERS = 20_000d;
+    
     /**
-     * Tìm quán ăn trong bán kính xác định
+     * Tìm quán ăn trong bán kính xác định (tối đa NEARBY_MAX_RADIUS_METERS)
      */
-    public List<Restaurant> findRestaurantsNearby(double latitude, double longitude, double radiusMeters) {
-        return restaurantRepository.findRestaurantsWithinRadius(latitude, longitude, radiusMeters);
+    public List<Restaurant> findRestaurantsNearby(double latitude, double longitude, double requestedRadiusMeters) {
+        double radiusMeters = Math.min(requestedRadiusMeters, NEARBY_MAX_RADIUS_METERS);
+        if (!restaurantSpatialIndex.isReady()) {
+            return restaurantRepository.findRestaurantsWithinRadius(latitude, longitude, radiusMeters);
+        }
+        
+        List<Long> restaurantIds = nearbyRestaurantCache.findWithinRadius(latitude, longitude, radiusMeters).stream()
+            .map(RestaurantSpatialIndex.Neighbor::getRestaurantId)
+            .toList();
+        return findAllByIdInOrder(restaurantIds);
+    }
+    
+    /**
+     * Tìm quán ăn đang mở cửa trong bán kính xác định (tối đa NEARBY_MAX_RADIUS_METERS)
+     */
+    public List<Restaurant> findOpenRestaurantsNearby(double latitude, double longitude, double requestedRadiusMeters) {
+        double radiusMeters = Math.min(requestedRadiusMeters, NEARBY_MAX_RADIUS_METERS);
+        if (!restaurantSpatialIndex.isReady()) {
+            return restaurantRepository.findRestaurantsWithinRadius(latitude, longitude, radiusMeters).stream()
+                .filter(Restaurant::isOpen)
+                .toList();
+        }
+        
+        // Lọc giờ mở cửa trước khi load, chỉ load các quán đang mở
+        Set<Long> openIds = openRestaurantIndex.isReady() ? openRestaurantIndex.getOpenRestaurantIds() : null;
+        Instant now = Instant.now();
+        List<Long> restaurantIds = nearbyRestaurantCache.findWithinRadius(latitude, longitude, radiusMeters).stream()
+            .filter(neighbor -> openIds != null
+                ? openIds.contains(neighbor.getRestaurantId())
+                : neighbor.getEntry().isOpenAt(now))
+            .map(RestaurantSpatialIndex.Neighbor::getRestaurantId)
+            .toList();
+        return findAllByIdInOrder(restaurantIds).stream()
+            .filter(Restaurant::isOpen)
+            .toList();
     }
     
     /**
@@ -45,10 +157,44 @@ public class LocationService {
     }
     
     /**
-     * Tìm N quán ăn gần nhất
+     * Tìm N quán ăn gần nhất (đã duyệt và đang mở cửa), kèm khoảng cách (meters)
      */
-    public List<Restaurant> findNearestRestaurants(double latitude, double longitude, int limit) {
-        return restaurantRepository.findNearestRestaurants(latitude, longitude, limit);
+    public List<NearbyRestaurant> findNearestRestaurants(double latitude, double longitude, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        
+        // Lấy dư ứng viên theo thứ tự KNN phẳng (<->) rồi xếp lại theo khoảng cách cầu chính xác.
+        // SQL chỉ lọc được giờ mở cửa cũ; lịch theo tuần, ngày lễ và timezone được kiểm tra tại đây,
+        // nếu chưa đủ quán đang mở thì nới rộng tập ứng viên
+        int candidateLimit = Math.max(limit * KNN_CANDIDATE_FACTOR, limit + KNN_MIN_EXTRA_CANDIDATES);
+        LocalTime now = LocalTime.now(Restaurant.DEFAULT_ZONE_ID);
+        Map<Long, Restaurant> restaurantsById = new HashMap<>();
+        while (true) {
+            List<RestaurantRepository.RestaurantDistance> distances = restaurantRepository.findNearestOpenRestaurants(
+                latitude, longitude, now, candidateLimit);
+            
+            List<Long> missingIds = distances.stream()
+                .map(RestaurantRepository.RestaurantDistance::getId)
+                .filter(id -> !restaurantsById.containsKey(id))
+                .toList();
+            if (!missingIds.isEmpty()) {
+                restaurantRepository.findAllById(missingIds)
+                    .forEach(restaurant -> restaurantsById.put(restaurant.getId(), restaurant));
+            }
+            List<NearbyRestaurant> result = distances.stream()
+                .filter(distance -> restaurantsById.containsKey(distance.getId()))
+                .filter(distance -> restaurantsById.get(distance.getId()).isOpen())
+                .limit(limit)
+                .map(distance -> new NearbyRestaurant(restaurantsById.get(distance.getId()), distance.getDistance()))
+                .toList();
+            
+            // Đủ kết quả, đã hết ứng viên, hoặc đã tới giới hạn ứng viên
+            if (result.size() >= limit || distances.size() < candidateLimit || candidateLimit >= KNN_MAX_CANDIDATES) {
+                return result;
+            }
+            candidateLimit = Math.min(candidateLimit * 2, KNN_MAX_CANDIDATES);
+        }
     }
     
     /**
@@ -58,11 +204,256 @@ public class LocationService {
         return restaurantRepository.calculateDistanceToRestaurant(restaurantId, latitude, longitude);
     }
     
+    /**
+     * Tính khoảng cách và thời gian ước tính đến nhiều quán ăn cùng lúc.
+     * Tọa độ lấy từ spatial index trong bộ nhớ; các quán không có trong index
+     * (chưa duyệt/không active) được tính bằng một query duy nhất.
+     * @return Kết quả theo thứ tự của restaurantIds, bỏ qua các ID không tồn tại
+     */
+    public List<RestaurantDistanceResponse> calculateDistancesToRestaurants(
+            double latitude, double longitude,
+            List<Long> restaurantIds,
+            Double averageSpeedKmh) {
+        
+        double speedKmh = averageSpeedKmh != null ? averageSpeedKmh : DEFAULT_AVERAGE_SPEED_KMH;
+        List<Long> uniqueIds = restaurantIds.stream().filter(Objects::nonNull).distinct().toList();
+        
+        // Bước 1: Gom tọa độ các quán có trong index vào mảng nguyên thủy
+        int count = 0;
+        long[] ids = new long[uniqueIds.size()];
+        double[] lats = new double[uniqueIds.size()];
+        double[] lngs = new double[uniqueIds.size()];
+        List<Long> missingIds = new ArrayList<>();
+        for (Long restaurantId : uniqueIds) {
+            Optional<RestaurantSpatialIndex.Entry> entry = restaurantSpatialIndex.get(restaurantId);
+            if (entry.isPresent()) {
+                ids[count] = restaurantId;
+                lats[count] = entry.get().getLatitude();
+                lngs[count] = entry.get().getLongitude();
+                count++;
+            } else {
+                missingIds.add(restaurantId);
+            }
+        }
+        
+        // Bước 2: Tính khoảng cách hàng loạt trong bộ nhớ
+        double[] distances = new double[count];
+        GeoUtils.haversineMeters(latitude, longitude, lats, lngs, distances, count);
+        
+        Map<Long, Double> distancesById = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            distancesById.put(ids[i], distances[i]);
+        }
+        
+        // Bước 3: Một query cho các quán còn lại
+        if (!missingIds.isEmpty()) {
+            for (RestaurantRepository.RestaurantDistance distance :
+                    restaurantRepository.calculateDistancesToRestaurants(missingIds, latitude, longitude)) {
+                if (distance.getDistance() != null) {
+                    distancesById.put(distance.getId(), distance.getDistance());
+                }
+            }
+        }
+        
+        return uniqueIds.stream()
+            .filter(distancesById::containsKey)
+            .map(restaurantId -> {
+                double distanceMeters = distancesById.get(restaurantId);
+                return new RestaurantDistanceResponse(
+                    restaurantId, distanceMeters, estimatePickupMinutes(distanceMeters, speedKmh));
+            })
+            .toList();
+    }
+    
     /**
      * Tìm quán ăn có thể giao hàng đến điểm cụ thể
      */
     public List<Restaurant> findRestaurantsWithDelivery(double latitude, double longitude) {
-        return restaurantRepository.findRestaurantsWithDeliveryToPoint(latitude, longitude);
+        if (!deliveryCoverageIndex.isReady()) {
+            return restaurantRepository.findRestaurantsWithDeliveryToPoint(latitude, longitude);
+        }
+        return findAllByIdInOrder(deliveryCoverageIndex.findRestaurantIdsDeliveringTo(latitude, longitude));
+    }
+    
+    /**
+     * Tìm món ăn theo từ khóa trên tất cả quán trong bán kính (ví dụ "phở" trong 2 km).
+     * Một query full-text kết hợp lọc không gian trả về các món khớp nhất của từng quán;
+     * các nhóm (quán, món, khoảng cách) được xếp theo độ liên quan, giảm dần theo khoảng cách.
+     */
+    public List<DishSearchResult> searchDishesNearby(String query, double latitude, double longitude,
+                                                     double requestedRadiusMeters, int limit) {
+        String tsquery = SearchUtils.toPrefixTsQuery(query);
+        double radiusMeters = Math.min(requestedRadiusMeters, DISH_SEARCH_MAX_RADIUS_METERS);
+        if (tsquery.isEmpty() || radiusMeters <= 0 || limit <= 0) {
+            return List.of();
+        }
+        
+        double latDelta = GeoUtils.metersToLatDegrees(radiusMeters);
+        double lngDelta = GeoUtils.metersToLngDegrees(radiusMeters, latitude);
+        List<MenuItemRepository.DishMatch> matches = menuItemRepository.searchDishesNearby(
+            tsquery, latitude, longitude, radiusMeters,
+            latitude - latDelta, longitude - lngDelta, latitude + latDelta, longitude + lngDelta,
+            DISH_SEARCH_ITEMS_PER_RESTAURANT);
+        
+        // Gom theo quán (giữ thứ tự món theo rank) và chấm điểm từng nhóm
+        Map<Long, List<MenuItemRepository.DishMatch>> matchesByRestaurant = new HashMap<>();
+        for (MenuItemRepository.DishMatch match : matches) {
+            matchesByRestaurant.computeIfAbsent(match.getRestaurantId(), id -> new ArrayList<>()).add(match);
+        }
+        Map<Long, Double> scores = new HashMap<>();
+        matchesByRestaurant.forEach((restaurantId, group) -> {
+            group.sort(Comparator.comparing(MenuItemRepository.DishMatch::getRank).reversed());
+            double proximity = 1 - DISH_SEARCH_DISTANCE_WEIGHT * Math.min(group.get(0).getDistance() / radiusMeters, 1);
+            scores.put(restaurantId, group.get(0).getRank() * proximity);
+        });
+        List<Long> restaurantIds = scores.entrySet().stream()
+            .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(entry -> matchesByRestaurant.get(entry.getKey()).get(0).getDistance()))
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .toList();
+        
+        // Hai query để load quán và món (kèm tags) cho các nhóm được chọn
+        Map<Long, MenuItem> menuItemsById = menuItemRepository.findAllWithTagsByIdIn(restaurantIds.stream()
+                .flatMap(restaurantId -> matchesByRestaurant.get(restaurantId).stream())
+                .map(MenuItemRepository.DishMatch::getMenuItemId)
+                .toList()).stream()
+            .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+        
+        List<DishSearchResult> results = new ArrayList<>();
+        for (Restaurant restaurant : findAllByIdInOrder(restaurantIds)) {
+            List<MenuItemRepository.DishMatch> group = matchesByRestaurant.get(restaurant.getId());
+            List<MenuItem> menuItems = group.stream()
+                .map(match -> menuItemsById.get(match.getMenuItemId()))
+                .filter(Objects::nonNull)
+                .toList();
+            results.add(new DishSearchResult(restaurant, menuItems, group.get(0).getDistance(), scores.get(restaurant.getId())));
+        }
+        return results;
+    }
+    
+    /**
+     * Gom nhóm quán ăn trong bounding box thành cluster theo ô lưới (độ) phụ thuộc mức zoom.
+     * Mỗi cluster gồm số lượng, tâm (trung bình tọa độ) và quán có rating cao nhất;
+     * từ CLUSTER_MAX_ZOOM trở lên mỗi quán là một marker riêng. Mức zoom được hạ xuống sao cho bounding box
+     * không rộng quá CLUSTER_MAX_VIEWPORT_TILES tile, nên số marker trả về luôn tương đương một màn hình.
+     */
+    public List<RestaurantClusterResponse> findRestaurantClusters(
+            double minLat, double minLng, double maxLat, double maxLng, int zoom) {
+        if (minLat > maxLat || minLng > maxLng) {
+            throw new IllegalArgumentException("Invalid bounding box");
+        }
+        int clampedZoom = Math.max(0, Math.min(zoom, Math.min(MAX_ZOOM, maxZoomForSpan(minLat, minLng, maxLat, maxLng))));
+        boolean individual = clampedZoom >= CLUSTER_MAX_ZOOM;
+        double cellSize = 360d / (1L << clampedZoom) * CLUSTER_CELL_PIXELS / TILE_SIZE_PIXELS;
+        
+        if (!restaurantSpatialIndex.isReady()) {
+            return findRestaurantClustersFromDatabase(minLat, minLng, maxLat, maxLng, individual ? 1e-7 : cellSize);
+        }
+        
+        List<RestaurantSpatialIndex.Entry> entries = restaurantSpatialIndex.findWithinBoundingBox(minLat, minLng, maxLat, maxLng);
+        if (individual) {
+            return entries.stream().map(this::toSingleCluster).toList();
+        }
+        
+        // Cùng cách chia ô với ST_SnapToGrid: làm tròn tọa độ theo kích thước ô
+        Map<Long, List<RestaurantSpatialIndex.Entry>> cells = new HashMap<>();
+        for (RestaurantSpatialIndex.Entry entry : entries) {
+            long cellX = Math.round(entry.getLongitude() / cellSize);
+            long cellY = Math.round(entry.getLatitude() / cellSize);
+            cells.computeIfAbsent((cellX << 32) ^ (cellY & 0xffffffffL), key -> new ArrayList<>()).add(entry);
+        }
+        
+        Comparator<RestaurantSpatialIndex.Entry> byRating = Comparator
+            .comparingDouble(RestaurantSpatialIndex.Entry::getRating)
+            .thenComparingInt(RestaurantSpatialIndex.Entry::getTotalReviews)
+            .reversed()
+            .thenComparing(RestaurantSpatialIndex.Entry::getId);
+        List<RestaurantClusterResponse> clusters = new ArrayList<>(cells.size());
+        for (List<RestaurantSpatialIndex.Entry> cell : cells.values()) {
+            if (cell.size() == 1) {
+                clusters.add(toSingleCluster(cell.get(0)));
+                continue;
+            }
+            double sumLat = 0;
+            double sumLng = 0;
+            for (RestaurantSpatialIndex.Entry entry : cell) {
+                sumLat += entry.getLatitude();
+                sumLng += entry.getLongitude();
+            }
+            clusters.add(new RestaurantClusterResponse(
+                sumLat / cell.size(), sumLng / cell.size(), cell.size(),
+                cell.stream().min(byRating).get().getId()));
+        }
+        clusters.sort(Comparator.comparing(RestaurantClusterResponse::getCount).reversed());
+        return clusters;
+    }
+    
+    // Mức zoom cao nhất mà bounding box còn nằm trong CLUSTER_MAX_VIEWPORT_TILES tile mỗi chiều
+    private static int maxZoomForSpan(double minLat, double minLng, double maxLat, double maxLng) {
+        double spanDegrees = Math.max(maxLat - minLat, maxLng - minLng);
+        if (spanDegrees <= 0) {
+            return MAX_ZOOM;
+        }
+        double tiles = 360d * CLUSTER_MAX_VIEWPORT_TILES / spanDegrees;
+        return (int) Math.floor(Math.log(tiles) / Math.log(2));
+    }
+    
+    /**
+     * Gom nhóm bằng một query ST_SnapToGrid khi spatial index chưa sẵn sàng
+     */
+    private List<RestaurantClusterResponse> findRestaurantClustersFromDatabase(
+            double minLat, double minLng, double maxLat, double maxLng, double cellSize) {
+        List<RestaurantRepository.RestaurantCluster> rows = restaurantRepository.clusterRestaurantsInBoundingBox(
+            minLat, minLng, maxLat, maxLng, cellSize);
+        
+        // Load thêm tên/rating cho các marker chỉ có một quán
+        List<Long> singleIds = rows.stream()
+            .filter(row -> row.getCount() == 1)
+            .map(RestaurantRepository.RestaurantCluster::getTopRatedId)
+            .toList();
+        Map<Long, Restaurant> singlesById = findAllByIdInOrder(singleIds).stream()
+            .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        
+        return rows.stream()
+            .map(row -> {
+                RestaurantClusterResponse cluster = new RestaurantClusterResponse(
+                    row.getLatitude(), row.getLongitude(), row.getCount().intValue(), row.getTopRatedId());
+                Restaurant restaurant = singlesById.get(row.getTopRatedId());
+                if (row.getCount() == 1 && restaurant != null) {
+                    cluster.setRestaurantId(restaurant.getId());
+                    cluster.setName(restaurant.getName());
+                    cluster.setRating(restaurant.getRating());
+                }
+                return cluster;
+            })
+            .sorted(Comparator.comparing(RestaurantClusterResponse::getCount).reversed())
+            .toList();
+    }
+    
+    private RestaurantClusterResponse toSingleCluster(RestaurantSpatialIndex.Entry entry) {
+        RestaurantClusterResponse cluster = new RestaurantClusterResponse(
+            entry.getLatitude(), entry.getLongitude(), 1, entry.getId());
+        cluster.setRestaurantId(entry.getId());
+        cluster.setName(entry.getName());
+        cluster.setRating(entry.getRating());
+        return cluster;
+    }
+    
+    /**
+     * Load restaurants theo danh sách ID, giữ nguyên thứ tự của danh sách
+     */
+    private List<Restaurant> findAllByIdInOrder(List<Long> restaurantIds) {
+        if (restaurantIds.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, Restaurant> restaurantsById = restaurantRepository.findAllById(restaurantIds).stream()
+            .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        return restaurantIds.stream()
+            .map(restaurantsById::get)
+            .filter(Objects::nonNull)
+            .toList();
     }
     
     /**
@@ -80,7 +471,7 @@ public class LocationService {
      * @param destinationLng Kinh độ đích đến
      * @param maxDetourMeters Khoảng cách lệch tối đa
      * @param preferredCategories Danh mục món ăn ưa thích
-     * @return Danh sách quán ăn được gợi ý
+     * @return Danh sách quán ăn được gợi ý, xếp hạng theo điểm giảm dần
      */
     public List<Restaurant> getRouteBasedRecommendations(
             double currentLat, double currentLng,
@@ -88,23 +479,108 @@ public class LocationService {
             double maxDetourMeters,
             List<String> preferredCategories) {
         
-        // Bước 1: Tìm quán ăn trên tuyến đường
-        List<Restaurant> restaurantsOnRoute = findRestaurantsOnRoute(
-            currentLat, currentLng, 
-            destinationLat, destinationLng, 
-            maxDetourMeters
+        List<Coordinate> route = List.of(
+            new Coordinate(currentLng, currentLat),
+            new Coordinate(destinationLng, destinationLat)
         );
+        return getRouteBasedRecommendations(
+            route, maxDetourMeters, preferredCategories, DEFAULT_AVERAGE_SPEED_KMH, DEFAULT_ROUTE_RECOMMENDATION_LIMIT);
+    }
+    
+    /**
+     * Gợi ý quán ăn dọc theo tuyến đường nhiều điểm (encoded polyline)
+     * @param encodedPolyline Tuyến đường dạng encoded polyline (precision 5)
+     * @param maxDetourMeters Khoảng cách lệch tối đa
+     * @param preferredCategories Danh mục món ăn ưa thích
+     * @param averageSpeedKmh Tốc độ di chuyển trung bình, null thì dùng mặc định
+     * @param limit Số quán tối đa
+     * @return Danh sách quán ăn xếp hạng theo điểm giảm dần
+     */
+    public List<Restaurant> getRouteBasedRecommendations(
+            String encodedPolyline,
+            double maxDetourMeters,
+            List<String> preferredCategories,
+            Double averageSpeedKmh,
+            int limit) {
         
-        // Bước 2: Filter theo categories nếu có
-        if (preferredCategories != null && !preferredCategories.isEmpty()) {
-            return restaurantsOnRoute.stream()
-                .filter(restaurant -> restaurant.getCategories() != null && 
-                       restaurant.getCategories().stream()
-                           .anyMatch(preferredCategories::contains))
-                .toList();
+        double speedKmh = averageSpeedKmh != null ? averageSpeedKmh : DEFAULT_AVERAGE_SPEED_KMH;
+        return getRouteBasedRecommendations(
+            GeoUtils.decodePolyline(encodedPolyline), maxDetourMeters, preferredCategories, speedKmh, limit);
+    }
+    
+    private List<Restaurant> getRouteBasedRecommendations(
+            List<Coordinate> route,
+            double maxDetourMeters,
+            List<String> preferredCategories,
+            double averageSpeedKmh,
+            int limit) {
+        
+        if (route.isEmpty()) {
+            return List.of();
+        }
+        RestaurantSpatialIndex.validateRoute(route);
+        
+        if (!restaurantSpatialIndex.isReady()) {
+            return findRestaurantsOnRouteFromDatabase(route, maxDetourMeters, preferredCategories, averageSpeedKmh, limit);
         }
         
-        return restaurantsOnRoute;
+        // Danh mục ưa thích chỉ cộng điểm, không loại quán khỏi hành lang tuyến đường
+        List<RestaurantSpatialIndex.Neighbor> candidates = restaurantSpatialIndex.findAlongRoute(route, maxDetourMeters, null);
+        List<Long> restaurantIds = routeRanker(limit, maxDetourMeters, averageSpeedKmh, preferredCategories)
+            .rank(candidates).stream()
+            .map(RestaurantSpatialIndex.Neighbor::getRestaurantId)
+            .toList();
+        return findAllByIdInOrder(restaurantIds);
+    }
+    
+    private RouteRecommendationRanker routeRanker(int limit, double maxDetourMeters, double averageSpeedKmh,
+                                                  List<String> preferredCategories) {
+        return hasCategories(preferredCategories) && restaurantCategoryIndex.isReady()
+            ? new RouteRecommendationRanker(limit, maxDetourMeters, Instant.now(), averageSpeedKmh,
+                restaurantCategoryIndex.matcher(preferredCategories))
+            : new RouteRecommendationRanker(limit, maxDetourMeters, Instant.now(), averageSpeedKmh, preferredCategories);
+    }
+    
+    /**
+     * Dự phòng khi spatial index chưa sẵn sàng: truy vấn PostGIS theo toàn bộ polyline của tuyến,
+     * sau đó lọc độ lệch, chấm điểm và xếp hạng giống hệt đường đi qua index
+     */
+    private List<Restaurant> findRestaurantsOnRouteFromDatabase(
+            List<Coordinate> route,
+            double maxDetourMeters,
+            List<String> preferredCategories,
+            double averageSpeedKmh,
+            int limit) {
+        
+        // LineString cần ít nhất hai điểm: tuyến một điểm thành đoạn suy biến
+        Coordinate[] vertices = route.size() == 1
+            ? new Coordinate[]{route.get(0), route.get(0)}
+            : route.toArray(new Coordinate[0]);
+        List<Restaurant> restaurantsOnRoute = restaurantRepository.findApprovedRestaurantsAlongRoute(
+            geometryFactory.createLineString(vertices).toText(), maxDetourMeters);
+        
+        // ST_DWithin trên geography và phép chiếu phẳng của index lệch nhau một chút ở mép hành lang,
+        // nên lọc lại theo độ lệch tính như index
+        Map<Long, Restaurant> restaurantsById = new HashMap<>();
+        List<RestaurantSpatialIndex.Neighbor> candidates = new ArrayList<>();
+        for (Restaurant restaurant : restaurantsOnRoute) {
+            RestaurantSpatialIndex.Entry entry = RestaurantSpatialIndex.Entry.from(restaurant);
+            if (entry == null) {
+                continue;
+            }
+            RestaurantSpatialIndex.Neighbor neighbor = RestaurantSpatialIndex.projectOntoRoute(entry, route);
+            if (neighbor.getDistanceMeters() <= maxDetourMeters) {
+                restaurantsById.put(restaurant.getId(), restaurant);
+                candidates.add(neighbor);
+            }
+        }
+        return routeRanker(limit, maxDetourMeters, averageSpeedKmh, preferredCategories).rank(candidates).stream()
+            .map(neighbor -> restaurantsById.get(neighbor.getRestaurantId()))
+            .toList();
+    }
+    
+    private static boolean hasCategories(List<String> categories) {
+        return categories != null && !categories.isEmpty();
     }
     
     /**
@@ -127,8 +603,14 @@ public class LocationService {
             pickupLat, pickupLng
         );
         
-        // Convert distance to time
-        double timeHours = distance / averageSpeedKmh;
+        return estimatePickupMinutes(distance * 1000, averageSpeedKmh);
+    }
+    
+    /**
+     * Đổi khoảng cách (meters) sang thời gian di chuyển ước tính (phút)
+     */
+    static int estimatePickupMinutes(double distanceMeters, double averageSpeedKmh) {
+        double timeHours = (distanceMeters / 1000) / averageSpeedKmh;
         return (int) Math.ceil(timeHours * 60); // Convert to minutes
     }
     
@@ -136,17 +618,62 @@ public class LocationService {
      * Tính khoảng cách Haversine giữa 2 điểm (km)
      */
     private double calculateHaversineDistance(double lat1, double lng1, double lat2, double lng2) {
-        final double R = 6371; // Earth's radius in km
+        return GeoUtils.haversineMeters(lat1, lng1, lat2, lng2) / 1000;
+    }
+    
+    /**
+     * Restaurant kèm khoảng cách (meters) đến điểm gốc
+     */
+    public static final class NearbyRestaurant {
+        
+        private final Restaurant restaurant;
+        private final double distanceMeters;
         
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lngDistance = Math.toRadians(lng2 - lng1);
+        public NearbyRestaurant(Restaurant restaurant, double distanceMeters) {
+            this.restaurant = restaurant;
+            this.distanceMeters = distanceMeters;
+        }
+        
+        public Restaurant getRestaurant() {
+            return restaurant;
+        }
         
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lngDistance / 2) * Math.sin(lngDistance / 2);
+        public double getDistanceMeters() {
+            return distanceMeters;
+        }
+    }
+    
+    /**
+     * Kết quả tìm món: quán, các món khớp (theo thứ tự liên quan), khoảng cách (meters) và điểm xếp hạng
+     */
+    public static final class DishSearchResult {
         
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        private final Restaurant restaurant;
+        private final List<MenuItem> menuItems;
+        private final double distanceMeters;
+        private final double score;
         
-        return R * c;
+        public DishSearchResult(Restaurant restaurant, List<MenuItem> menuItems, double distanceMeters, double score) {
+            this.restaurant = restaurant;
+            this.menuItems = menuItems;
+            this.distanceMeters = distanceMeters;
+            this.score = score;
+        }
+        
+        public Restaurant getRestaurant() {
+            return restaurant;
+        }
+        
+        public List<MenuItem> getMenuItems() {
+            return menuItems;
+        }
+        
+        public double getDistanceMeters() {
+            return distanceMeters;
+        }
+        
+        public double getScore() {
+            return score;
+        }
     }
-}
\ No newline at end of file
+}
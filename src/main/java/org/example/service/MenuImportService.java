@@ -0,0 +1,345 @@
+package org.example.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.dto.request.BulkMenuItemRequest;
+import org.example.dto.request.CreateMenuItemAddOnRequest;
+import org.example.dto.response.BulkMenuImportResponse;
+import org.example.entity.User;
+import org.example.exception.AccessDeniedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Import/cập nhật hàng loạt menu item (kèm tags, add-ons) cho một restaurant.
+ * Toàn bộ dữ liệu được kiểm tra trước khi ghi; có lỗi ở bất kỳ dòng nào thì không ghi gì và trả về lỗi theo dòng.
+ * Dòng trùng tên (không phân biệt hoa thường) với món đã có thì cập nhật món đó, ngược lại tạo món mới.
+ * Ghi bằng JDBC batch trong một transaction: menu_items dùng IDENTITY nên Hibernate không gom batch INSERT được.
+ */
+@Service
+public class MenuImportService {
+
+    public static final int MAX_ROWS = 2000;
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final String INSERT_MENU_ITEM =
+        "INSERT INTO menu_items (restaurant_id, name, description, price, category, image_url, is_available, " +
+        "preparation_time_minutes, average_rating, total_reviews, created_at, menu_version) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, 0, ?, ?)";
+
+    // Cột không có trong dòng import giữ nguyên giá trị cũ
+    private static final String UPDATE_MENU_ITEM =
+        "UPDATE menu_items SET name = ?, price = ?, description = COALESCE(?, description), " +
+        "category = COALESCE(?, category), image_url = COALESCE(?, image_url), " +
+        "is_available = COALESCE(?, is_available), " +
+        "preparation_time_minutes = COALESCE(?, preparation_time_minutes), " +
+        "menu_version = ?, updated_at = ? WHERE id = ?";
+
+    private static final String INSERT_TAG = "INSERT INTO menu_item_tags (menu_item_id, tag) VALUES (?, ?)";
+
+    private static final String INSERT_ADD_ON =
+        "INSERT INTO menu_item_add_ons (menu_item_id, name, description, price, category, is_available, " +
+        "display_order, max_quantity, is_required, created_at) VALUES (?, ?, ?, ?, ?, TRUE, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private RestaurantReadModelCache restaurantReadModelCache;
+
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Autowired
+    private SecondLevelCacheService secondLevelCacheService;
+
+    /**
+     * Import các dòng menu cho restaurant
+     * @param parseErrors Lỗi chuyển đổi khi đọc CSV theo số dòng (đánh số từ 1), rỗng với JSON
+     * @param dryRun Chỉ kiểm tra và đếm số món sẽ tạo/cập nhật, không ghi
+     */
+    @Transactional
+    public BulkMenuImportResponse importMenu(Long restaurantId, List<BulkMenuItemRequest> rows,
+                                             Map<Integer, List<String>> parseErrors, boolean dryRun, User user) {
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("Import contains no menu items");
+        }
+        if (rows.size() > MAX_ROWS) {
+            throw new IllegalArgumentException("Import is limited to " + MAX_ROWS + " menu items");
+        }
+        restaurantReadModelCache.get(restaurantId)
+            .orElseThrow(() -> new RuntimeException("Restaurant not found"));
+        if (!restaurantService.hasRestaurantAccess(user, restaurantId)) {
+            throw new AccessDeniedException("You don't have access to manage this restaurant's menu");
+        }
+
+        BulkMenuImportResponse report = validate(rows, parseErrors);
+        report.setDryRun(dryRun);
+        if (report.hasErrors()) {
+            return report;
+        }
+
+        Map<String, Long> existingIds = findExistingIds(restaurantId);
+        List<BulkMenuItemRequest> inserts = new ArrayList<>();
+        List<BulkMenuItemRequest> updates = new ArrayList<>();
+        List<Long> updateIds = new ArrayList<>();
+        for (BulkMenuItemRequest row : rows) {
+            Long id = existingIds.get(key(row.getName()));
+            if (id == null) {
+                inserts.add(row);
+            } else {
+                updates.add(row);
+                updateIds.add(id);
+            }
+        }
+        report.setCreated(inserts.size());
+        report.setUpdated(updates.size());
+        if (dryRun) {
+            return report;
+        }
+
+        // Một version cho cả lần import: client đồng bộ delta nhận tất cả thay đổi cùng lúc
+        long version = menuSnapshotService.bumpVersion(restaurantId);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Long> insertedIds = insertMenuItems(restaurantId, inserts, version, now);
+        updateMenuItems(updates, updateIds, version, now);
+
+        // Tags/add-ons của món cập nhật chỉ bị thay thế khi dòng import có khai báo
+        Map<Long, BulkMenuItemRequest> rowsById = new LinkedHashMap<>();
+        for (int i = 0; i < inserts.size(); i++) {
+            rowsById.put(insertedIds.get(i), inserts.get(i));
+        }
+        List<Long> replacedTags = new ArrayList<>();
+        List<Long> replacedAddOns = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            rowsById.put(updateIds.get(i), updates.get(i));
+            if (updates.get(i).getTags() != null) {
+                replacedTags.add(updateIds.get(i));
+            }
+            if (updates.get(i).getAddOns() != null) {
+                replacedAddOns.add(updateIds.get(i));
+            }
+        }
+        deleteChildren("DELETE FROM menu_item_tags WHERE menu_item_id = ?", replacedTags);
+        deleteChildren("DELETE FROM menu_item_add_ons WHERE menu_item_id = ?", replacedAddOns);
+        insertTags(rowsById);
+        insertAddOns(rowsById, now);
+        // Ghi bằng JDBC nên Hibernate không biết để cập nhật second-level cache
+        secondLevelCacheService.evictMenuItems(updateIds);
+
+        report.setMenuVersion(version);
+        return report;
+    }
+
+    /**
+     * Kiểm tra toàn bộ các dòng trước khi ghi: bean validation, độ dài cột, tên trùng trong cùng file
+     */
+    public BulkMenuImportResponse validate(List<BulkMenuItemRequest> rows, Map<Integer, List<String>> parseErrors) {
+        BulkMenuImportResponse report = new BulkMenuImportResponse();
+        report.setTotalRows(rows.size());
+
+        Map<String, Integer> firstRowByName = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            int rowNumber = i + 1;
+            BulkMenuItemRequest row = rows.get(i);
+            List<String> messages = new ArrayList<>(parseErrors.getOrDefault(rowNumber, List.of()));
+
+            for (ConstraintViolation<BulkMenuItemRequest> violation : validator.validate(row)) {
+                messages.add(violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+            checkLength(messages, "name", row.getName());
+            checkLength(messages, "category", row.getCategory());
+            checkLength(messages, "imageUrl", row.getImageUrl());
+            if (row.getTags() != null) {
+                for (String tag : row.getTags()) {
+                    if (tag == null || tag.isBlank()) {
+                        messages.add("tags: tag must not be blank");
+                    } else {
+                        checkLength(messages, "tags", tag);
+                    }
+                }
+            }
+            if (row.getAddOns() != null) {
+                for (int j = 0; j < row.getAddOns().size(); j++) {
+                    CreateMenuItemAddOnRequest addOn = row.getAddOns().get(j);
+                    if (addOn == null) {
+                        messages.add("addOns[" + j + "]: add-on must not be null");
+                        continue;
+                    }
+                    checkLength(messages, "addOns[" + j + "].name", addOn.getName());
+                    checkLength(messages, "addOns[" + j + "].category", addOn.getCategory());
+                }
+            }
+            if (row.getName() != null && !row.getName().isBlank()) {
+                Integer firstRow = firstRowByName.putIfAbsent(key(row.getName()), rowNumber);
+                if (firstRow != null) {
+                    messages.add("name: duplicates row " + firstRow);
+                }
+            }
+
+            if (!messages.isEmpty()) {
+                report.getErrors().add(new BulkMenuImportResponse.RowError(rowNumber, row.getName(), messages));
+            }
+        }
+        report.setFailed(report.getErrors().size());
+        return report;
+    }
+
+    private void checkLength(List<String> messages, String field, String value) {
+        if (value != null && value.length() > MAX_TEXT_LENGTH) {
+            messages.add(field + ": must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+    }
+
+    // Tên món -> ID; nếu dữ liệu cũ đã có tên trùng thì cập nhật món có ID nhỏ nhất
+    private Map<String, Long> findExistingIds(Long restaurantId) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM menu_items WHERE restaurant_id = ? ORDER BY id",
+            rs -> {
+                ids.putIfAbsent(key(rs.getString("name")), rs.getLong("id"));
+            }, restaurantId);
+        return ids;
+    }
+
+    private List<Long> insertMenuItems(Long restaurantId, List<BulkMenuItemRequest> rows, long version, Timestamp now) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_MENU_ITEM, new String[]{"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    BulkMenuItemRequest row = rows.get(i);
+                    ps.setLong(1, restaurantId);
+                    ps.setString(2, row.getName().trim());
+                    ps.setObject(3, row.getDescription(), Types.VARCHAR);
+                    ps.setBigDecimal(4, row.getPrice());
+                    ps.setObject(5, row.getCategory(), Types.VARCHAR);
+                    ps.setObject(6, row.getImageUrl(), Types.VARCHAR);
+                    ps.setBoolean(7, row.getIsAvailable() == null || row.getIsAvailable());
+                    ps.setObject(8, row.getPreparationTimeMinutes(), Types.INTEGER);
+                    ps.setTimestamp(9, now);
+                    ps.setLong(10, version);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            },
+            keyHolder);
+
+        List<Long> ids = new ArrayList<>();
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.get("id")).longValue());
+        }
+        return ids;
+    }
+
+    private void updateMenuItems(List<BulkMenuItemRequest> rows, List<Long> ids, long version, Timestamp now) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_MENU_ITEM, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                BulkMenuItemRequest row = rows.get(i);
+                ps.setString(1, row.getName().trim());
+                ps.setBigDecimal(2, row.getPrice());
+                ps.setObject(3, row.getDescription(), Types.VARCHAR);
+                ps.setObject(4, row.getCategory(), Types.VARCHAR);
+                ps.setObject(5, row.getImageUrl(), Types.VARCHAR);
+                ps.setObject(6, row.getIsAvailable(), Types.BOOLEAN);
+                ps.setObject(7, row.getPreparationTimeMinutes(), Types.INTEGER);
+                ps.setLong(8, version);
+                ps.setTimestamp(9, now);
+                ps.setLong(10, ids.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    private void deleteChildren(String sql, List<Long> menuItemIds) {
+        if (!menuItemIds.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, menuItemIds, menuItemIds.size(),
+                (ps, menuItemId) -> ps.setLong(1, menuItemId));
+        }
+    }
+
+    private void insertTags(Map<Long, BulkMenuItemRequest> rowsById) {
+        List<Object[]> tags = new ArrayList<>();
+        rowsById.forEach((menuItemId, row) -> {
+            if (row.getTags() != null) {
+                row.getTags().stream()
+                    .map(String::trim)
+                    .distinct()
+                    .forEach(tag -> tags.add(new Object[]{menuItemId, tag}));
+            }
+        });
+        if (!tags.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TAG, tags, tags.size(), (ps, tag) -> {
+                ps.setLong(1, (Long) tag[0]);
+                ps.setString(2, (String) tag[1]);
+            });
+        }
+    }
+
+    private void insertAddOns(Map<Long, BulkMenuItemRequest> rowsById, Timestamp now) {
+        List<Map.Entry<Long, CreateMenuItemAddOnRequest>> addOns = new ArrayList<>();
+        rowsById.forEach((menuItemId, row) -> {
+            if (row.getAddOns() != null) {
+                row.getAddOns().forEach(addOn -> addOns.add(Map.entry(menuItemId, addOn)));
+            }
+        });
+        if (addOns.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ADD_ON, addOns, addOns.size(), (ps, entry) -> {
+            CreateMenuItemAddOnRequest addOn = entry.getValue();
+            ps.setLong(1, entry.getKey());
+            ps.setString(2, addOn.getName().trim());
+            ps.setObject(3, addOn.getDescription(), Types.VARCHAR);
+            ps.setBigDecimal(4, addOn.getPrice());
+            ps.setObject(5, addOn.getCategory(), Types.VARCHAR);
+            ps.setInt(6, addOn.getDisplayOrder() != null ? addOn.getDisplayOrder() : 0);
+            ps.setObject(7, addOn.getMaxQuantity(), Types.INTEGER);
+            ps.setBoolean(8, addOn.getIsRequired() != null && addOn.getIsRequired());
+            ps.setTimestamp(9, now);
+        });
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -23,6 +23,9 @@ public class MenuItemAddOnService {
     @Autowired
     private MenuItemRepository menuItemRepository;
     
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+    
     /**
      * Create new add-on for menu item
      */
@@ -36,6 +39,7 @@ public class MenuItemAddOnService {
         
         MenuItemAddOn addOn = new MenuItemAddOn(menuItem, name, price, category);
         addOn.setDescription(description);
+        menuSnapshotService.markChanged(menuItem);
         
         return menuItemAddOnRepository.save(addOn);
     }
@@ -56,6 +60,7 @@ public class MenuItemAddOnService {
         if (price != null) addOn.updatePrice(price);
         if (category != null) addOn.setCategory(category);
         if (isAvailable != null) addOn.setIsAvailable(isAvailable);
+        menuSnapshotService.markChanged(addOn.getMenuItem());
         
         return menuItemAddOnRepository.save(addOn);
     }
@@ -69,6 +74,7 @@ public class MenuItemAddOnService {
         
         validateRestaurantOwnership(addOn.getMenuItem(), user);
         
+        menuSnapshotService.markChanged(addOn.getMenuItem());
         menuItemAddOnRepository.delete(addOn);
     }
     
@@ -103,6 +109,7 @@ public class MenuItemAddOnService {
         validateRestaurantOwnership(addOn.getMenuItem(), user);
         
         addOn.toggleAvailability();
+        menuSnapshotService.markChanged(addOn.getMenuItem());
         return menuItemAddOnRepository.save(addOn);
     }
     
@@ -116,6 +123,7 @@ public class MenuItemAddOnService {
         validateRestaurantOwnership(addOn.getMenuItem(), user);
         
         addOn.setDisplayOrder(displayOrder);
+        menuSnapshotService.markChanged(addOn.getMenuItem());
         return menuItemAddOnRepository.save(addOn);
     }
     
@@ -137,6 +145,7 @@ public class MenuItemAddOnService {
             addOn.setMenuItem(menuItem);
             menuItemAddOnRepository.save(addOn);
         }
+        menuSnapshotService.markChanged(menuItem);
     }
     
     /**
@@ -1,20 +1,26 @@
 package org.example.service;
 
 import org.example.dto.mapper.MenuItemMapper;
+import org.example.dto.request.BulkAvailabilityRequest;
 import org.example.dto.request.CreateMenuItemRequest;
 import org.example.dto.request.UpdateMenuItemRequest;
+import org.example.dto.response.BulkAvailabilityResponse;
 import org.example.entity.MenuItem;
 import org.example.entity.Restaurant;
 import org.example.entity.User;
 import org.example.exception.AccessDeniedException;
+import org.example.repository.MenuItemAddOnRepository;
 import org.example.repository.MenuItemRepository;
 import org.example.repository.RestaurantRepository;
+import org.example.util.SearchUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -23,15 +29,24 @@ public class MenuItemService {
     @Autowired
     private MenuItemRepository menuItemRepository;
     
+    @Autowired
+    private MenuItemAddOnRepository menuItemAddOnRepository;
+    
     @Autowired
     private RestaurantRepository restaurantRepository;
     
     @Autowired
     private RestaurantService restaurantService;
     
+    @Autowired
+    private RestaurantReadModelCache restaurantReadModelCache;
+    
     @Autowired
     private MenuItemMapper menuItemMapper;
     
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+    
     /**
      * Tạo menu item mới
      */
@@ -43,6 +58,7 @@ public class MenuItemService {
         
         menuItem.setRestaurant(restaurant);
         menuItem.setCreatedAt(LocalDateTime.now());
+        menuSnapshotService.markChanged(menuItem);
         
         return menuItemRepository.save(menuItem);
     }
@@ -58,6 +74,7 @@ public class MenuItemService {
         
         MenuItem menuItem = menuItemMapper.toEntity(request, restaurant);
         menuItem.setCreatedAt(LocalDateTime.now());
+        menuSnapshotService.markChanged(menuItem);
         
         return menuItemRepository.save(menuItem);
     }
@@ -73,10 +90,10 @@ public class MenuItemService {
      * Lấy tất cả menu items của restaurant (bao gồm unavailable) - for management
      */
     public List<MenuItem> getAllMenuItems(Long restaurantId, User user) {
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+        restaurantReadModelCache.get(restaurantId)
             .orElseThrow(() -> new RuntimeException("Restaurant not found"));
         
-        validateMenuAccess(user, restaurant);
+        validateMenuAccess(user, restaurantId);
         
         return menuItemRepository.findByRestaurantId(restaurantId);
     }
@@ -96,10 +113,15 @@ public class MenuItemService {
     }
     
     /**
-     * Tìm kiếm menu items
+     * Tìm kiếm menu items (full-text, không phân biệt dấu, khớp tiền tố), món khớp nhất trước
      */
-    public List<MenuItem> searchMenuItems(Long restaurantId, String searchTerm) {
-        return menuItemRepository.searchMenuItems(restaurantId, searchTerm);
+    public List<MenuItem> searchMenuItems(Long restaurantId, String searchTerm, int page, Integer size) {
+        String tsquery = SearchUtils.toPrefixTsQuery(searchTerm);
+        if (tsquery.isEmpty()) {
+            return List.of();
+        }
+        int pageSize = RestaurantListQueryService.capPageSize(size);
+        return menuItemRepository.searchMenuItems(restaurantId, tsquery, pageSize, Math.max(page, 0) * pageSize);
     }
     
     /**
@@ -128,6 +150,7 @@ public class MenuItemService {
         menuItem.setPreparationTimeMinutes(updatedMenuItem.getPreparationTimeMinutes());
         menuItem.setTags(updatedMenuItem.getTags());
         menuItem.setUpdatedAt(LocalDateTime.now());
+        menuSnapshotService.markChanged(menuItem);
         
         return menuItemRepository.save(menuItem);
     }
@@ -143,10 +166,55 @@ public class MenuItemService {
         
         menuItem.setIsAvailable(!menuItem.getIsAvailable());
         menuItem.setUpdatedAt(LocalDateTime.now());
+        menuSnapshotService.markChanged(menuItem);
         
         return menuItemRepository.save(menuItem);
     }
     
+    /**
+     * Bật/tắt còn bán cho nhiều menu item và add-on của restaurant bằng các câu UPDATE theo tập ID;
+     * ID không thuộc restaurant bị bỏ qua. Menu version chỉ tăng một lần cho cả lô.
+     */
+    public BulkAvailabilityResponse updateAvailability(Long restaurantId, BulkAvailabilityRequest request, User user) {
+        Set<Long> menuItemIds = distinctIds(request.getMenuItemIds());
+        Set<Long> addOnIds = distinctIds(request.getAddOnIds());
+        if (menuItemIds.isEmpty() && addOnIds.isEmpty()) {
+            throw new IllegalArgumentException("No menu items or add-ons to update");
+        }
+        
+        restaurantReadModelCache.get(restaurantId)
+            .orElseThrow(() -> new RuntimeException("Restaurant not found"));
+        
+        validateMenuAccess(user, restaurantId);
+        
+        Boolean available = request.getIsAvailable();
+        long version = menuSnapshotService.bumpVersion(restaurantId);
+        LocalDateTime now = LocalDateTime.now();
+        
+        int addOnsUpdated = 0;
+        if (!addOnIds.isEmpty()) {
+            // Đánh dấu món cha trước khi đổi add-on vì câu lệnh lọc theo trạng thái cũ của add-on
+            menuItemRepository.markAddOnParentsChanged(restaurantId, addOnIds, available, version);
+            addOnsUpdated = menuItemAddOnRepository.updateAvailability(restaurantId, addOnIds, available, now);
+        }
+        int menuItemsUpdated = menuItemIds.isEmpty() ? 0
+            : menuItemRepository.updateAvailability(restaurantId, menuItemIds, available, version, now);
+        
+        return new BulkAvailabilityResponse(available, menuItemsUpdated, addOnsUpdated, version);
+    }
+    
+    private Set<Long> distinctIds(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null) {
+                    distinct.add(id);
+                }
+            }
+        }
+        return distinct;
+    }
+    
     /**
      * Xóa menu item
      */
@@ -156,6 +224,7 @@ public class MenuItemService {
         
         validateMenuAccess(user, menuItem.getRestaurant());
         
+        menuSnapshotService.markDeleted(menuItem);
         menuItemRepository.delete(menuItem);
     }
     
@@ -171,6 +240,7 @@ public class MenuItemService {
         // Use mapper to update only non-null fields
         menuItemMapper.updateEntity(menuItem, request);
         menuItem.setUpdatedAt(LocalDateTime.now());
+        menuSnapshotService.markChanged(menuItem);
         
         return menuItemRepository.save(menuItem);
     }
@@ -189,7 +259,11 @@ public class MenuItemService {
      * Kiểm tra user có quyền quản lý menu không
      */
     private void validateMenuAccess(User user, Restaurant restaurant) {
-        if (!restaurantService.hasRestaurantAccess(user, restaurant.getId())) {
+        validateMenuAccess(user, restaurant.getId());
+    }
+    
+    private void validateMenuAccess(User user, Long restaurantId) {
+        if (!restaurantService.hasRestaurantAccess(user, restaurantId)) {
             throw new AccessDeniedException("You don't have access to manage this restaurant's menu");
         }
     }
@@ -0,0 +1,349 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.example.dto.mapper.MenuItemMapper;
+import org.example.dto.response.MenuDeltaResponse;
+import org.example.dto.response.MenuItemAddOnResponse;
+import org.example.dto.response.MenuItemSummaryResponse;
+import org.example.dto.response.MenuSnapshotResponse;
+import org.example.entity.MenuItem;
+import org.example.entity.MenuItemAddOn;
+import org.example.entity.MenuItemTombstone;
+import org.example.repository.MenuItemAddOnRepository;
+import org.example.repository.MenuItemRepository;
+import org.example.repository.MenuItemTombstoneRepository;
+import org.example.repository.RestaurantMenuVersionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Menu công khai theo version của từng restaurant.
+ * Mọi thay đổi menu item / add-on tăng version của restaurant và ghi version đó lên menu item;
+ * snapshot bất biến (món đang bán, categories, add-ons đã nhóm) được cache theo restaurant
+ * và dùng cho ETag cũng như đồng bộ delta ?sinceVersion=.
+ */
+@Service
+public class MenuSnapshotService {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private static final long MAX_RESTAURANTS = 5_000;
+
+    // Add-on không có category được gom vào nhóm này
+    private static final String DEFAULT_ADD_ON_CATEGORY = "Other";
+
+    @Autowired
+    private RestaurantMenuVersionRepository restaurantMenuVersionRepository;
+
+    @Autowired
+    private MenuItemTombstoneRepository menuItemTombstoneRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemAddOnRepository menuItemAddOnRepository;
+
+    @Autowired
+    private MenuItemMapper menuItemMapper;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    private final Cache<Long, Snapshot> cache = Caffeine.newBuilder()
+        .maximumSize(MAX_RESTAURANTS)
+        .expireAfterWrite(TTL)
+        .recordStats()
+        .build();
+
+    /**
+     * Tăng version menu của restaurant, xóa snapshot đang cache (thêm một lần sau commit) và cập nhật autocomplete
+     * @return version mới
+     */
+    @Transactional
+    public long bumpVersion(Long restaurantId) {
+        long version = restaurantMenuVersionRepository.incrementVersion(restaurantId);
+        invalidate(restaurantId);
+        autocompleteIndex.refreshMenu(restaurantId);
+        return version;
+    }
+
+    /**
+     * Đánh dấu menu item vừa được tạo/sửa (hoặc add-on của nó thay đổi); caller lưu menu item
+     */
+    @Transactional
+    public void markChanged(MenuItem menuItem) {
+        menuItem.setMenuVersion(bumpVersion(menuItem.getRestaurant().getId()));
+    }
+
+    /**
+     * Ghi tombstone cho menu item sắp bị xóa để client đồng bộ delta biết bỏ item đó
+     */
+    @Transactional
+    public void markDeleted(MenuItem menuItem) {
+        Long restaurantId = menuItem.getRestaurant().getId();
+        long version = bumpVersion(restaurantId);
+        menuItemTombstoneRepository.save(new MenuItemTombstone(restaurantId, menuItem.getId(), version));
+    }
+
+    /**
+     * Snapshot menu hiện tại, dựng từ DB nếu chưa có trong cache
+     */
+    @Transactional(readOnly = true)
+    public Snapshot getSnapshot(Long restaurantId) {
+        return cache.get(restaurantId, this::load);
+    }
+
+    /**
+     * Thay đổi của menu kể từ sinceVersion
+     */
+    @Transactional(readOnly = true)
+    public MenuDeltaResponse getDelta(Long restaurantId, Long sinceVersion) {
+        if (sinceVersion == null || sinceVersion < 0) {
+            throw new IllegalArgumentException("sinceVersion must be zero or positive");
+        }
+        Snapshot snapshot = getSnapshot(restaurantId);
+        List<Long> deletedItemIds = sinceVersion < snapshot.getVersion()
+            ? menuItemTombstoneRepository.findByRestaurantIdAndMenuVersionGreaterThan(restaurantId, sinceVersion)
+                .stream()
+                .map(MenuItemTombstone::getMenuItemId)
+                .toList()
+            : List.of();
+        return snapshot.toDelta(sinceVersion, deletedItemIds);
+    }
+
+    public void invalidate(Long restaurantId) {
+        cache.invalidate(restaurantId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(restaurantId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Thống kê hit/miss/eviction của cache
+     */
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+
+    private Snapshot load(Long restaurantId) {
+        // Đọc version trước: thay đổi commit xen giữa chỉ làm snapshot mới hơn version của nó,
+        // client gửi lại version này sẽ nhận trùng item chứ không bị thiếu
+        long version = restaurantMenuVersionRepository.findVersionByRestaurantId(restaurantId).orElse(0L);
+        return Snapshot.build(restaurantId, version,
+            menuItemRepository.findAllWithTagsByRestaurantId(restaurantId),
+            menuItemAddOnRepository.findAvailableByRestaurantId(restaurantId),
+            menuItemMapper);
+    }
+
+    /**
+     * Menu bất biến của một restaurant tại một version
+     */
+    public static final class Snapshot {
+
+        private final Long restaurantId;
+        private final long version;
+        private final String etag;
+        private final List<String> categories;
+        private final List<MenuItemSummaryResponse> items;
+        private final Map<Long, Map<String, List<MenuItemAddOnResponse>>> addOns;
+        // Version thay đổi gần nhất của từng món đang bán / đang tạm ngừng bán
+        private final Map<Long, Long> itemVersions;
+        private final Map<Long, Long> unavailableItemVersions;
+
+        private Snapshot(Long restaurantId, long version, List<String> categories, List<MenuItemSummaryResponse> items,
+                         Map<Long, Map<String, List<MenuItemAddOnResponse>>> addOns,
+                         Map<Long, Long> itemVersions, Map<Long, Long> unavailableItemVersions) {
+            this.restaurantId = restaurantId;
+            this.version = version;
+            this.etag = "\"menu-" + restaurantId + "-" + version + "\"";
+            this.categories = categories;
+            this.items = items;
+            this.addOns = addOns;
+            this.itemVersions = itemVersions;
+            this.unavailableItemVersions = unavailableItemVersions;
+        }
+
+        /**
+         * Dựng snapshot từ toàn bộ menu item (kể cả món tạm hết) và add-on đang bán của restaurant
+         */
+        public static Snapshot build(Long restaurantId, long version, List<MenuItem> menuItems,
+                                     List<MenuItemAddOn> availableAddOns, MenuItemMapper menuItemMapper) {
+            List<MenuItemSummaryResponse> items = new ArrayList<>();
+            TreeSet<String> categories = new TreeSet<>();
+            Map<Long, Long> itemVersions = new HashMap<>();
+            Map<Long, Long> unavailableItemVersions = new HashMap<>();
+            for (MenuItem menuItem : menuItems) {
+                long itemVersion = menuItem.getMenuVersion() != null ? menuItem.getMenuVersion() : 0L;
+                if (!Boolean.TRUE.equals(menuItem.getIsAvailable())) {
+                    unavailableItemVersions.put(menuItem.getId(), itemVersion);
+                    continue;
+                }
+                MenuItemSummaryResponse response = menuItemMapper.toSummaryResponse(menuItem);
+                // Không giữ collection của Hibernate trong cache
+                response.setTags(menuItem.getTags() != null ? List.copyOf(menuItem.getTags()) : null);
+                items.add(response);
+                itemVersions.put(menuItem.getId(), itemVersion);
+                if (menuItem.getCategory() != null) {
+                    categories.add(menuItem.getCategory());
+                }
+            }
+
+            // Add-on đã được sắp theo category, displayOrder nên chỉ cần gom theo thứ tự
+            Map<Long, Map<String, List<MenuItemAddOnResponse>>> grouped = new LinkedHashMap<>();
+            for (MenuItemAddOn addOn : availableAddOns) {
+                Long menuItemId = addOn.getMenuItem().getId();
+                if (!itemVersions.containsKey(menuItemId)) {
+                    continue;
+                }
+                String category = addOn.getCategory() != null ? addOn.getCategory() : DEFAULT_ADD_ON_CATEGORY;
+                grouped.computeIfAbsent(menuItemId, id -> new LinkedHashMap<>())
+                    .computeIfAbsent(category, key -> new ArrayList<>())
+                    .add(menuItemMapper.toAddOnResponse(addOn));
+            }
+            Map<Long, Map<String, List<MenuItemAddOnResponse>>> addOns = new LinkedHashMap<>();
+            grouped.forEach((menuItemId, byCategory) -> {
+                Map<String, List<MenuItemAddOnResponse>> frozen = new LinkedHashMap<>();
+                byCategory.forEach((category, list) -> frozen.put(category, List.copyOf(list)));
+                addOns.put(menuItemId, Collections.unmodifiableMap(frozen));
+            });
+
+            return new Snapshot(restaurantId, version, List.copyOf(categories), List.copyOf(items),
+                Collections.unmodifiableMap(addOns), Map.copyOf(itemVersions), Map.copyOf(unavailableItemVersions));
+        }
+
+        /**
+         * Header If-None-Match có khớp version này không
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public MenuSnapshotResponse toResponse() {
+            return new MenuSnapshotResponse(restaurantId, version, categories, items, addOns);
+        }
+
+        /**
+         * Các món thay đổi sau sinceVersion và ID các món đã bị xóa hoặc ngừng bán
+         * @param deletedItemIds ID từ tombstone có version lớn hơn sinceVersion
+         */
+        public MenuDeltaResponse toDelta(long sinceVersion, Collection<Long> deletedItemIds) {
+            MenuDeltaResponse delta = new MenuDeltaResponse();
+            delta.setRestaurantId(restaurantId);
+            delta.setSinceVersion(sinceVersion);
+            delta.setVersion(version);
+            delta.setCategories(categories);
+
+            // Client giữ version mà server chưa từng cấp (ví dụ dữ liệu bị khôi phục): gửi lại toàn bộ
+            if (sinceVersion > version) {
+                delta.setFullResync(true);
+                delta.setItems(items);
+                delta.setAddOns(addOns);
+                delta.setRemovedItemIds(List.of());
+                return delta;
+            }
+
+            List<MenuItemSummaryResponse> changedItems = new ArrayList<>();
+            Map<Long, Map<String, List<MenuItemAddOnResponse>>> changedAddOns = new LinkedHashMap<>();
+            for (MenuItemSummaryResponse item : items) {
+                if (itemVersions.get(item.getId()) > sinceVersion) {
+                    changedItems.add(item);
+                    Map<String, List<MenuItemAddOnResponse>> itemAddOns = addOns.get(item.getId());
+                    if (itemAddOns != null) {
+                        changedAddOns.put(item.getId(), itemAddOns);
+                    }
+                }
+            }
+
+            TreeSet<Long> removedItemIds = new TreeSet<>();
+            unavailableItemVersions.forEach((menuItemId, itemVersion) -> {
+                if (itemVersion > sinceVersion) {
+                    removedItemIds.add(menuItemId);
+                }
+            });
+            deletedItemIds.stream()
+                .filter(Objects::nonNull)
+                .filter(menuItemId -> !itemVersions.containsKey(menuItemId))
+                .forEach(removedItemIds::add);
+
+            delta.setFullResync(false);
+            delta.setItems(changedItems);
+            delta.setAddOns(changedAddOns);
+            delta.setRemovedItemIds(List.copyOf(removedItemIds));
+            return delta;
+        }
+
+        /**
+         * Món đang bán thuộc một category
+         */
+        public List<MenuItemSummaryResponse> getItemsByCategory(String category) {
+            return items.stream()
+                .filter(item -> Objects.equals(item.getCategory(), category))
+                .toList();
+        }
+
+        public Long getRestaurantId() {
+            return restaurantId;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public List<String> getCategories() {
+            return categories;
+        }
+
+        public List<MenuItemSummaryResponse> getItems() {
+            return items;
+        }
+
+        public Map<Long, Map<String, List<MenuItemAddOnResponse>>> getAddOns() {
+            return addOns;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.example.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache ứng viên cho truy vấn quán ăn gần đây, theo ô geohash.
+ * Điểm gốc được làm tròn về ô geohash (độ phân giải chọn theo bán kính); mỗi ô lưu
+ * tập ứng viên đủ rộng cho mọi điểm gốc trong ô. Lọc khoảng cách chính xác (và lọc
+ * giờ mở cửa ở phía gọi) vẫn được tính riêng cho từng request trên tập ứng viên đã cache.
+ */
+@Service
+public class NearbyRestaurantCache {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private static final long MAX_CELLS = 10_000;
+
+    private static final int MIN_PRECISION = 4;
+
+    private static final int MAX_PRECISION = 8;
+
+    // Đường chéo ô geohash tối đa so với bán kính tìm kiếm
+    private static final double MAX_CELL_DIAGONAL_RATIO = 0.25;
+
+    // Bán kính được làm tròn lên theo bước này để các request gần giống nhau dùng chung cache
+    private static final double RADIUS_BUCKET_METERS = 250;
+
+    @Autowired
+    private RestaurantSpatialIndex restaurantSpatialIndex;
+
+    private final Cache<String, List<RestaurantSpatialIndex.Entry>> cache = Caffeine.newBuilder()
+        .maximumSize(MAX_CELLS)
+        .expireAfterWrite(TTL)
+        .recordStats()
+        .build();
+
+    /**
+     * Tìm restaurant trong bán kính (meters), sắp xếp theo khoảng cách tăng dần
+     */
+    public List<RestaurantSpatialIndex.Neighbor> findWithinRadius(double latitude, double longitude, double radiusMeters) {
+        List<RestaurantSpatialIndex.Neighbor> result = new ArrayList<>();
+        if (radiusMeters <= 0) {
+            return result;
+        }
+
+        for (RestaurantSpatialIndex.Entry entry : getCandidates(latitude, longitude, radiusMeters)) {
+            double distance = GeoUtils.haversineMeters(latitude, longitude, entry.getLatitude(), entry.getLongitude());
+            if (distance <= radiusMeters) {
+                result.add(new RestaurantSpatialIndex.Neighbor(entry, distance));
+            }
+        }
+        result.sort(Comparator.comparingDouble(RestaurantSpatialIndex.Neighbor::getDistanceMeters));
+        return result;
+    }
+
+    /**
+     * Thống kê hit/miss/eviction của cache
+     */
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+
+    private List<RestaurantSpatialIndex.Entry> getCandidates(double latitude, double longitude, double radiusMeters) {
+        int precision = precisionForRadius(latitude, radiusMeters);
+        String cell = GeoUtils.geohash(latitude, longitude, precision);
+        double bucketRadius = Math.ceil(radiusMeters / RADIUS_BUCKET_METERS) * RADIUS_BUCKET_METERS;
+
+        // Version của index nằm trong key: khi index thay đổi, các ô cũ không còn được đọc và tự hết hạn
+        String key = cell + ":" + (long) bucketRadius + ":" + restaurantSpatialIndex.getVersion();
+        return cache.get(key, k -> loadCandidates(cell, bucketRadius));
+    }
+
+    private List<RestaurantSpatialIndex.Entry> loadCandidates(String cell, double bucketRadius) {
+        double[] bounds = GeoUtils.geohashBounds(cell);
+        double centerLat = (bounds[0] + bounds[2]) / 2;
+        double centerLng = (bounds[1] + bounds[3]) / 2;
+        double halfDiagonal = GeoUtils.haversineMeters(centerLat, centerLng, bounds[2], bounds[3]);
+
+        // Bán kính quanh tâm ô đủ phủ vòng tròn bán kính bucketRadius của mọi điểm trong ô
+        return restaurantSpatialIndex.findWithinRadius(centerLat, centerLng, bucketRadius + halfDiagonal).stream()
+            .map(RestaurantSpatialIndex.Neighbor::getEntry)
+            .toList();
+    }
+
+    private static int precisionForRadius(double latitude, double radiusMeters) {
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        for (int precision = MIN_PRECISION; precision <= MAX_PRECISION; precision++) {
+            int lngBits = (5 * precision + 1) / 2;
+            int latBits = (5 * precision) / 2;
+            double heightMeters = 180d / (1L << latBits) * GeoUtils.METERS_PER_DEGREE_LAT;
+            double widthMeters = 360d / (1L << lngBits) * GeoUtils.METERS_PER_DEGREE_LAT * cosLat;
+            if (Math.hypot(heightMeters, widthMeters) <= radiusMeters * MAX_CELL_DIAGONAL_RATIO) {
+                return precision;
+            }
+        }
+        return MAX_PRECISION;
+    }
+}
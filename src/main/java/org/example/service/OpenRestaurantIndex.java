@@ -0,0 +1,212 @@
+package org.example.service;
+
+import org.example.entity.OpeningSchedule;
+import org.example.entity.Restaurant;
+import org.example.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Tập ID các restaurant đang mở cửa, được duy trì bằng hàng đợi ưu tiên
+ * theo thời điểm mở/đóng cửa kế tiếp của từng restaurant.
+ * Trạng thái chỉ được tính lại khi tới thời điểm chuyển trạng thái,
+ * thay vì gọi Restaurant.isOpen() trên toàn bộ bảng mỗi request.
+ * Các thời điểm được tính theo Instant vì mỗi restaurant có timezone riêng.
+ */
+@Service
+public class OpenRestaurantIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenRestaurantIndex.class);
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    private final Map<Long, OpeningSchedule> schedulesById = new HashMap<>();
+
+    private final PriorityQueue<Transition> transitions = new PriorityQueue<>();
+
+    // Snapshot bất biến để đọc không cần khóa
+    private volatile Set<Long> openIds = Set.of();
+
+    // Thời điểm transition sớm nhất, cho phép kiểm tra không cần khóa
+    private volatile Instant nextTransitionAt;
+
+    private volatile boolean ready = false;
+
+    /**
+     * Nạp lại toàn bộ index từ database khi ứng dụng khởi động
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        load(restaurantRepository.findAllActiveAndApproved(), Instant.now());
+        ready = true;
+        logger.info("Open restaurant index rebuilt: {} of {} restaurants open", openIds.size(), schedulesById.size());
+    }
+
+    /**
+     * Thay toàn bộ nội dung index bằng danh sách restaurant cho trước
+     */
+    public synchronized void load(Collection<Restaurant> restaurants, Instant now) {
+        schedulesById.clear();
+        transitions.clear();
+        Set<Long> open = new HashSet<>();
+        for (Restaurant restaurant : restaurants) {
+            if (isSchedulable(restaurant)) {
+                OpeningSchedule schedule = restaurant.getOpeningSchedule();
+                schedulesById.put(restaurant.getId(), schedule);
+                if (schedule(restaurant.getId(), schedule, now)) {
+                    open.add(restaurant.getId());
+                }
+            }
+        }
+        publish(open);
+    }
+
+    /**
+     * Cập nhật giờ mở cửa của một restaurant sau khi nó được tạo/sửa/duyệt/từ chối
+     */
+    public void refresh(Restaurant restaurant) {
+        refresh(restaurant, Instant.now());
+    }
+
+    public synchronized void refresh(Restaurant restaurant, Instant now) {
+        if (restaurant == null || restaurant.getId() == null) {
+            return;
+        }
+
+        // Các transition cũ của restaurant này bị bỏ qua nhờ so sánh identity của OpeningSchedule
+        Long restaurantId = restaurant.getId();
+        Set<Long> open = new HashSet<>(openIds);
+        open.remove(restaurantId);
+        if (isSchedulable(restaurant)) {
+            OpeningSchedule schedule = restaurant.getOpeningSchedule();
+            schedulesById.put(restaurantId, schedule);
+            if (schedule(restaurantId, schedule, now)) {
+                open.add(restaurantId);
+            }
+        } else {
+            schedulesById.remove(restaurantId);
+        }
+        publish(open);
+    }
+
+    /**
+     * Xử lý các transition đã tới hạn, cập nhật tập restaurant đang mở
+     * @return true nếu có restaurant chuyển trạng thái mở/đóng
+     */
+    public synchronized boolean advance(Instant now) {
+        Transition next = transitions.peek();
+        if (next == null || next.at.isAfter(now)) {
+            return false;
+        }
+
+        Set<Long> open = new HashSet<>(openIds);
+        while ((next = transitions.peek()) != null && !next.at.isAfter(now)) {
+            transitions.poll();
+            if (schedulesById.get(next.restaurantId) != next.schedule) {
+                continue; // Transition của giờ mở cửa cũ
+            }
+            if (schedule(next.restaurantId, next.schedule, now)) {
+                open.add(next.restaurantId);
+            } else {
+                open.remove(next.restaurantId);
+            }
+        }
+        boolean changed = !open.equals(openIds);
+        publish(open);
+        return changed;
+    }
+
+    /**
+     * Index đã được nạp từ database hay chưa
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * ID các restaurant đang mở cửa tại thời điểm hiện tại
+     */
+    public Set<Long> getOpenRestaurantIds() {
+        return getOpenRestaurantIdsAt(Instant.now());
+    }
+
+    /**
+     * ID các restaurant đang mở cửa tại thời điểm cho trước (không lùi về trước các transition đã xử lý)
+     */
+    public Set<Long> getOpenRestaurantIdsAt(Instant now) {
+        advanceIfDue(now);
+        return openIds;
+    }
+
+    /**
+     * Restaurant có đang mở cửa tại thời điểm hiện tại không
+     */
+    public boolean isOpen(Long restaurantId) {
+        return getOpenRestaurantIds().contains(restaurantId);
+    }
+
+    private void advanceIfDue(Instant now) {
+        // Đọc nhanh không khóa; chỉ vào vùng synchronized khi có transition tới hạn
+        Instant due = nextTransitionAt;
+        if (due != null && !due.isAfter(now)) {
+            advance(now);
+        }
+    }
+
+    /**
+     * Tính trạng thái hiện tại và đưa transition kế tiếp vào hàng đợi
+     * @return true nếu restaurant đang mở cửa tại thời điểm now
+     */
+    private boolean schedule(Long restaurantId, OpeningSchedule schedule, Instant now) {
+        Instant at = schedule.nextTransition(now);
+        if (at != null) {
+            transitions.add(new Transition(at, restaurantId, schedule));
+        }
+        return schedule.isOpenAt(now);
+    }
+
+    private void publish(Set<Long> open) {
+        Transition head = transitions.peek();
+        nextTransitionAt = head != null ? head.at : null;
+        openIds = Set.copyOf(open);
+    }
+
+    private static boolean isSchedulable(Restaurant restaurant) {
+        return Boolean.TRUE.equals(restaurant.getIsActive())
+            && restaurant.isApproved()
+            && restaurant.hasOpeningHours();
+    }
+
+    private static final class Transition implements Comparable<Transition> {
+
+        private final Instant at;
+        private final Long restaurantId;
+        private final OpeningSchedule schedule;
+
+        private Transition(Instant at, Long restaurantId, OpeningSchedule schedule) {
+            this.at = at;
+            this.restaurantId = restaurantId;
+            this.schedule = schedule;
+        }
+
+        @Override
+        public int compareTo(Transition other) {
+            return at.compareTo(other.at);
+        }
+    }
+}
@@ -3,7 +3,6 @@ package org.example.service;
 import org.example.entity.*;
 import org.example.exception.AccessDeniedException;
 import org.example.repository.OrderRepository;
-import org.example.repository.RestaurantRepository;
 import org.example.repository.RestaurantStaffRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -23,7 +22,7 @@ public class OrderService {
     private OrderRepository orderRepository;
     
     @Autowired
-    private RestaurantRepository restaurantRepository;
+    private RestaurantReadModelCache restaurantReadModelCache;
     
     @Autowired
     private RestaurantStaffRepository restaurantStaffRepository;
@@ -234,16 +233,18 @@ public class OrderService {
      * Validate pickup time
      */
     private void validatePickupTime(LocalDateTime pickupTime, Restaurant restaurant) {
-        LocalDateTime now = LocalDateTime.now();
+        // Pickup time là giờ địa phương của restaurant nên "bây giờ" cũng lấy theo múi giờ đó, không theo JVM
+        LocalDateTime now = LocalDateTime.now(restaurant.getZoneId());
         
         // Must be in future (at least 30 minutes from now)
         if (pickupTime.isBefore(now.plusMinutes(30))) {
             throw new IllegalArgumentException("Pickup time must be at least 30 minutes from now");
         }
         
-        // Must be within restaurant opening hours
-        if (restaurant.getOpeningTime() != null && restaurant.getClosingTime() != null) {
-            if (!restaurant.isOpenAt(pickupTime.toLocalTime())) {
+        // Must be within restaurant opening hours (pickup time is the restaurant's local time,
+        // checked against the weekly schedule and holiday overrides)
+        if (restaurant.hasOpeningHours()) {
+            if (!restaurant.isOpenAt(pickupTime)) {
                 throw new IllegalArgumentException("Pickup time must be within restaurant opening hours");
             }
         }
@@ -298,10 +299,10 @@ public class OrderService {
         }
         
         if (user.getRole() == Role.RESTAURANT_OWNER) {
-            Restaurant restaurant = restaurantRepository.findById(restaurantId)
+            RestaurantReadModelCache.Snapshot restaurant = restaurantReadModelCache.get(restaurantId)
                 .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
             
-            if (!restaurant.getOwner().getId().equals(user.getId())) {
+            if (!restaurant.isOwnedBy(user.getId())) {
                 throw new AccessDeniedException("You don't have access to this restaurant");
             }
         } else if (user.getRole() == Role.RESTAURANT_STAFF) {
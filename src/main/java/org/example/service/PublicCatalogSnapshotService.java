@@ -0,0 +1,225 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.example.dto.mapper.RestaurantMapper;
+import org.example.dto.response.RestaurantResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot đã serialize sẵn (JSON và gzip) của danh sách restaurant công khai.
+ * Mỗi lần catalog thay đổi (duyệt, cập nhật, ngừng hoạt động) version được tăng
+ * và snapshot được dựng lại trên một thread nền; request luôn đọc snapshot gần nhất đã dựng xong.
+ * Trạng thái mở/đóng cửa thay đổi liên tục nên không nằm trong snapshot (isOpen luôn null), để ETag
+ * chỉ đổi khi dữ liệu catalog đổi; client tự tính từ giờ mở cửa hoặc lấy qua danh sách ID đang mở.
+ */
+@Service
+public class PublicCatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicCatalogSnapshotService.class);
+
+    @Autowired
+    private RestaurantListQueryService restaurantListQueryService;
+
+    @Autowired
+    private RestaurantMapper restaurantMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "public-catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Snapshot current;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        invalidate();
+    }
+
+    /**
+     * Snapshot gần nhất, rỗng nếu chưa dựng xong lần nào
+     */
+    public Optional<Snapshot> getSnapshot() {
+        return Optional.ofNullable(current);
+    }
+
+    /**
+     * Đánh dấu catalog đã thay đổi. Nếu đang trong transaction thì chỉ dựng lại sau khi commit,
+     * để thread nền đọc được dữ liệu mới.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleRebuild();
+                }
+            });
+        } else {
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * Nội dung catalog như trong snapshot (không có isOpen), dùng khi snapshot chưa dựng xong
+     */
+    public List<RestaurantResponse> buildCatalog() {
+        List<RestaurantResponse> responses = restaurantMapper.toPublicResponseList(restaurantListQueryService.findApproved());
+        responses.forEach(response -> response.setIsOpen(null));
+        return responses;
+    }
+
+    /**
+     * Thông tin version và kích thước snapshot hiện tại
+     */
+    public Map<String, Object> getStatistics() {
+        Snapshot snapshot = current;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("version", version.get());
+        result.put("snapshotVersion", snapshot != null ? snapshot.getVersion() : null);
+        result.put("builtAt", snapshot != null ? snapshot.getBuiltAt() : null);
+        result.put("jsonBytes", snapshot != null ? snapshot.getJson().length : 0);
+        result.put("gzipBytes", snapshot != null ? snapshot.getGzip().length : 0);
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Gộp nhiều lần invalidate liên tiếp thành một lần dựng lại
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        // Reset cờ trước khi đọc version: invalidate xảy ra trong lúc dựng sẽ lên lịch thêm một lần nữa
+        rebuildScheduled.set(false);
+        long targetVersion = version.get();
+        try {
+            List<RestaurantResponse> responses = buildCatalog();
+            current = Snapshot.of(targetVersion, objectMapper.writeValueAsBytes(responses));
+            logger.debug("Built public catalog snapshot version {} with {} restaurants", targetVersion, responses.size());
+        } catch (Exception e) {
+            logger.error("Failed to build public catalog snapshot version {}", targetVersion, e);
+        }
+    }
+
+    /**
+     * Snapshot bất biến: JSON, bản gzip và strong ETag tính từ nội dung
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+        private final String gzipEtag;
+        private final Instant builtAt;
+
+        private Snapshot(long version, byte[] json, byte[] gzip, String etag, Instant builtAt) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = "\"" + etag + "\"";
+            // Mỗi content-encoding là một representation riêng nên cần ETag riêng
+            this.gzipEtag = "\"" + etag + "-gzip\"";
+            this.builtAt = builtAt;
+        }
+
+        static Snapshot of(long version, byte[] json) throws IOException {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new Snapshot(version, json, compressed.toByteArray(), contentHash(json), Instant.now());
+        }
+
+        private static String contentHash(byte[] content) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+                return HexFormat.of().formatHex(digest, 0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        /**
+         * Header If-None-Match có khớp snapshot này không (so sánh yếu theo RFC 9110)
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getGzipEtag() {
+            return gzipEtag;
+        }
+
+        public Instant getBuiltAt() {
+            return builtAt;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package org.example.service;
+
+import org.example.entity.Restaurant;
+import org.example.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index category -> BitSet theo số thứ tự (ordinal) của restaurant đang active và đã duyệt.
+ * Lọc nhiều category (OR / AND) và giao với tập đang mở cửa được thực hiện bằng phép toán trên bitset.
+ * Ordinal của restaurant bị loại khỏi index được dùng lại để bitset luôn dày đặc.
+ */
+@Service
+public class RestaurantCategoryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantCategoryIndex.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    private long[] restaurantIds = new long[INITIAL_CAPACITY];
+
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    private int nextOrdinal = 0;
+
+    private final Map<String, BitSet> categories = new HashMap<>();
+
+    private final BitSet present = new BitSet();
+
+    private volatile boolean ready = false;
+
+    // Tăng mỗi khi ordinal thay đổi; bitset của một tập ID chỉ được dùng lại khi version khớp
+    private long version = 0;
+
+    private Collection<Long> cachedIdSet;
+    private long cachedIdSetVersion = -1;
+    private BitSet cachedIdSetBits;
+
+    /**
+     * Nạp lại toàn bộ index từ database khi ứng dụng khởi động
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        load(restaurantRepository.findAllActiveAndApprovedWithCategories());
+        logger.info("Restaurant category index rebuilt with {} restaurants and {} categories", size(), categoryCount());
+    }
+
+    /**
+     * Thay toàn bộ nội dung index bằng danh sách restaurant cho trước
+     */
+    public void load(Collection<Restaurant> restaurants) {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            restaurantIds = new long[Math.max(INITIAL_CAPACITY, restaurants.size())];
+            freeOrdinals.clear();
+            nextOrdinal = 0;
+            categories.clear();
+            present.clear();
+            for (Restaurant restaurant : restaurants) {
+                if (isIndexable(restaurant)) {
+                    add(restaurant);
+                }
+            }
+            version++;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cập nhật categories của một restaurant sau khi nó được tạo/sửa/duyệt/từ chối
+     */
+    public void refresh(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeInternal(restaurant.getId());
+            if (isIndexable(restaurant)) {
+                add(restaurant);
+            }
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(restaurantId);
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Restaurant có ít nhất một trong các category (OR); rỗng hoặc null nghĩa là không lọc
+     */
+    public BitSet matchAny(Collection<String> anyOf) {
+        lock.readLock().lock();
+        try {
+            return matchAnyLocked(anyOf);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Restaurant có đủ tất cả các category (AND); rỗng hoặc null nghĩa là không lọc
+     */
+    public BitSet matchAll(Collection<String> allOf) {
+        lock.readLock().lock();
+        try {
+            return matchAllLocked(allOf);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Chuyển một tập ID restaurant (ví dụ tập đang mở cửa) sang bitset theo ordinal.
+     * Tập bất biến được publish lại mỗi khi thay đổi (như OpenRestaurantIndex) được cache theo identity.
+     */
+    public BitSet toBitSet(Collection<Long> restaurantIdSet) {
+        lock.readLock().lock();
+        try {
+            return toBitSetLocked(restaurantIdSet);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lọc theo category OR / AND và (tùy chọn) giới hạn trong một tập ID.
+     * Cả chuỗi phép toán chạy trong một lần giữ read lock để ordinal không bị dùng lại giữa chừng.
+     * @param restrictTo Tập ID được phép (ví dụ đang mở cửa), null nghĩa là không giới hạn
+     */
+    public List<Long> findRestaurantIds(Collection<String> anyOf, Collection<String> allOf, Set<Long> restrictTo) {
+        lock.readLock().lock();
+        try {
+            BitSet result = matchAnyLocked(anyOf);
+            if (allOf != null && !allOf.isEmpty()) {
+                result.and(matchAllLocked(allOf));
+            }
+            if (restrictTo != null) {
+                result.and(toBitSetLocked(restrictTo));
+            }
+            return toRestaurantIdsLocked(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> toRestaurantIds(BitSet bits) {
+        lock.readLock().lock();
+        try {
+            return toRestaurantIdsLocked(bits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bộ kiểm tra category theo restaurant ID, dựng một lần rồi dùng cho nhiều ứng viên.
+     * Chụp lại tập ID khớp (không giữ ordinal) nên không bị ảnh hưởng khi index thay đổi sau đó.
+     */
+    public Matcher matcher(Collection<String> anyOf) {
+        lock.readLock().lock();
+        try {
+            return new Matcher(new HashSet<>(toRestaurantIdsLocked(matchAnyLocked(anyOf))));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return present.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int categoryCount() {
+        lock.readLock().lock();
+        try {
+            return categories.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Các phương thức *Locked yêu cầu caller đang giữ read lock hoặc write lock
+
+    private BitSet matchAnyLocked(Collection<String> anyOf) {
+        if (anyOf == null || anyOf.isEmpty()) {
+            return (BitSet) present.clone();
+        }
+        BitSet result = new BitSet();
+        for (String category : anyOf) {
+            BitSet bits = categories.get(category);
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    private BitSet matchAllLocked(Collection<String> allOf) {
+        BitSet result = (BitSet) present.clone();
+        if (allOf == null) {
+            return result;
+        }
+        for (String category : allOf) {
+            BitSet bits = categories.get(category);
+            if (bits == null) {
+                return new BitSet();
+            }
+            result.and(bits);
+        }
+        return result;
+    }
+
+    private BitSet toBitSetLocked(Collection<Long> restaurantIdSet) {
+        synchronized (this) {
+            if (restaurantIdSet == cachedIdSet && cachedIdSetVersion == version) {
+                return (BitSet) cachedIdSetBits.clone();
+            }
+        }
+        BitSet bits = new BitSet(nextOrdinal);
+        for (Long restaurantId : restaurantIdSet) {
+            Integer ordinal = ordinals.get(restaurantId);
+            if (ordinal != null) {
+                bits.set(ordinal);
+            }
+        }
+        synchronized (this) {
+            cachedIdSet = restaurantIdSet;
+            cachedIdSetVersion = version;
+            cachedIdSetBits = bits;
+        }
+        return (BitSet) bits.clone();
+    }
+
+    private List<Long> toRestaurantIdsLocked(BitSet bits) {
+        List<Long> result = new ArrayList<>(bits.cardinality());
+        for (int ordinal = bits.nextSetBit(0); ordinal >= 0; ordinal = bits.nextSetBit(ordinal + 1)) {
+            if (present.get(ordinal)) {
+                result.add(restaurantIds[ordinal]);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isIndexable(Restaurant restaurant) {
+        return Boolean.TRUE.equals(restaurant.getIsActive()) && restaurant.isApproved();
+    }
+
+    private void add(Restaurant restaurant) {
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+        if (ordinal >= restaurantIds.length) {
+            restaurantIds = Arrays.copyOf(restaurantIds, restaurantIds.length * 2);
+        }
+        restaurantIds[ordinal] = restaurant.getId();
+        ordinals.put(restaurant.getId(), ordinal);
+        present.set(ordinal);
+        if (restaurant.getCategories() != null) {
+            for (String category : restaurant.getCategories()) {
+                categories.computeIfAbsent(category, key -> new BitSet()).set(ordinal);
+            }
+        }
+    }
+
+    private void removeInternal(Long restaurantId) {
+        Integer ordinal = ordinals.remove(restaurantId);
+        if (ordinal == null) {
+            return;
+        }
+        present.clear(ordinal);
+        categories.values().removeIf(bits -> {
+            bits.clear(ordinal);
+            return bits.isEmpty();
+        });
+        freeOrdinals.push(ordinal);
+    }
+
+    /**
+     * Kết quả lọc category đã chụp lại, kiểm tra từng restaurant bằng một lần tra hash
+     */
+    public static final class Matcher {
+
+        private final Set<Long> restaurantIds;
+
+        private Matcher(Set<Long> restaurantIds) {
+            this.restaurantIds = restaurantIds;
+        }
+
+        public boolean matches(Long restaurantId) {
+            return restaurantIds.contains(restaurantId);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.service;
+
+import org.example.dto.response.CursorPageResponse;
+import org.example.entity.ApprovalStatus;
+import org.example.entity.HolidayOverride;
+import org.example.entity.OpeningHours;
+import org.example.entity.Restaurant;
+import org.example.entity.User;
+import org.example.repository.RestaurantRepository;
+import org.example.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nạp danh sách restaurant cho các endpoint liệt kê với số câu SQL cố định:
+ * một truy vấn projection (kèm tên owner và người duyệt) và một truy vấn cho mỗi collection
+ * (categories, giờ mở cửa theo tuần, ngày nghỉ lễ), bất kể danh sách dài bao nhiêu.
+ * Kết quả là các Restaurant tách rời (không được quản lý bởi persistence context), chỉ dùng để đọc.
+ * Các biến thể *Page phân trang keyset theo (created_at, id) với kích thước trang bị giới hạn.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RestaurantListQueryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    public List<Restaurant> findApproved() {
+        return assemble(restaurantRepository.findListRowsByApprovalStatus(ApprovalStatus.APPROVED));
+    }
+
+    public List<Restaurant> findAll() {
+        return assemble(restaurantRepository.findAllListRows());
+    }
+
+    public List<Restaurant> findPendingApproval() {
+        return assemble(restaurantRepository.findPendingApprovalListRows());
+    }
+
+    public List<Restaurant> findActiveByOwner(Long ownerId) {
+        return assemble(restaurantRepository.findActiveListRowsByOwnerId(ownerId));
+    }
+
+    public List<Restaurant> findApprovedByOwner(Long ownerId) {
+        return assemble(restaurantRepository.findApprovedListRowsByOwnerId(ownerId));
+    }
+
+    /**
+     * Restaurant theo danh sách ID, giữ thứ tự của danh sách (ID không tồn tại bị bỏ qua)
+     */
+    public List<Restaurant> findByIdsInOrder(List<Long> restaurantIds) {
+        if (restaurantIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Restaurant> restaurantsById = new HashMap<>();
+        for (Restaurant restaurant : assemble(restaurantRepository.findListRowsByIdIn(restaurantIds))) {
+            restaurantsById.put(restaurant.getId(), restaurant);
+        }
+        List<Restaurant> restaurants = new ArrayList<>(restaurantIds.size());
+        for (Long id : restaurantIds) {
+            Restaurant restaurant = restaurantsById.get(id);
+            if (restaurant != null) {
+                restaurants.add(restaurant);
+            }
+        }
+        return restaurants;
+    }
+
+    /**
+     * Trang restaurant đã duyệt, mới nhất trước
+     */
+    public CursorPageResponse<Restaurant> findApprovedPage(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor, true);
+        return page(restaurantRepository.findListRowsByApprovalStatusBefore(
+            ApprovalStatus.APPROVED, after.getCreatedAt(), after.getId(), limitOf(size)), size);
+    }
+
+    /**
+     * Trang tất cả restaurant (admin), mới nhất trước
+     */
+    public CursorPageResponse<Restaurant> findAllPage(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor, true);
+        return page(restaurantRepository.findListRowsBefore(after.getCreatedAt(), after.getId(), limitOf(size)), size);
+    }
+
+    /**
+     * Trang restaurant chờ duyệt, cũ nhất trước
+     */
+    public CursorPageResponse<Restaurant> findPendingApprovalPage(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor, false);
+        return page(restaurantRepository.findPendingApprovalListRowsAfter(
+            after.getCreatedAt(), after.getId(), limitOf(size)), size);
+    }
+
+    /**
+     * Trang restaurant đã duyệt theo category, mới nhất trước
+     */
+    public CursorPageResponse<Restaurant> findApprovedByCategoryPage(String category, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor, true);
+        return page(restaurantRepository.findApprovedListRowsByCategoryBefore(
+            category, after.getCreatedAt(), after.getId(), limitOf(size)), size);
+    }
+
+    /**
+     * Giới hạn kích thước trang về khoảng [1, MAX_PAGE_SIZE]
+     */
+    public static int capPageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // Lấy dư một dòng để biết còn trang sau hay không
+    private static Pageable limitOf(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    private CursorPageResponse<Restaurant> page(List<RestaurantRepository.RestaurantListRow> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<Restaurant> restaurants = assemble(hasMore ? rows.subList(0, size) : rows);
+        String nextCursor = null;
+        if (hasMore) {
+            Restaurant last = restaurants.get(restaurants.size() - 1);
+            nextCursor = KeysetCursor.of(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageResponse<>(restaurants, nextCursor);
+    }
+
+    private List<Restaurant> assemble(List<RestaurantRepository.RestaurantListRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Restaurant> restaurantsById = new HashMap<>();
+        List<Restaurant> restaurants = new ArrayList<>(rows.size());
+        for (RestaurantRepository.RestaurantListRow row : rows) {
+            Restaurant restaurant = toRestaurant(row);
+            restaurantsById.put(restaurant.getId(), restaurant);
+            restaurants.add(restaurant);
+        }
+
+        for (RestaurantRepository.RestaurantCategoryRow row
+                : restaurantRepository.findCategoriesByRestaurantIdIn(restaurantsById.keySet())) {
+            restaurantsById.get(row.getRestaurantId()).getCategories().add(row.getCategory());
+        }
+
+        // Gom giờ mở cửa theo restaurant trước rồi mới set, vì setter xóa lịch đã biên dịch
+        Map<Long, List<OpeningHours>> weeklyHoursById = new HashMap<>();
+        for (RestaurantRepository.OpeningHoursRow row
+                : restaurantRepository.findWeeklyHoursByRestaurantIdIn(restaurantsById.keySet())) {
+            weeklyHoursById.computeIfAbsent(row.getRestaurantId(), id -> new ArrayList<>())
+                .add(new OpeningHours(row.getDayOfWeek(), row.getOpeningTime(), row.getClosingTime()));
+        }
+        Map<Long, List<HolidayOverride>> overridesById = new HashMap<>();
+        for (RestaurantRepository.HolidayOverrideRow row
+                : restaurantRepository.findHolidayOverridesByRestaurantIdIn(restaurantsById.keySet())) {
+            HolidayOverride override = new HolidayOverride(row.getDate(), row.getOpeningTime(), row.getClosingTime());
+            override.setClosed(row.getClosed());
+            overridesById.computeIfAbsent(row.getRestaurantId(), id -> new ArrayList<>()).add(override);
+        }
+        weeklyHoursById.forEach((id, hours) -> restaurantsById.get(id).setWeeklyHours(hours));
+        overridesById.forEach((id, overrides) -> restaurantsById.get(id).setHolidayOverrides(overrides));
+
+        return restaurants;
+    }
+
+    private Restaurant toRestaurant(RestaurantRepository.RestaurantListRow row) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(row.getId());
+        restaurant.setName(row.getName());
+        restaurant.setDescription(row.getDescription());
+        restaurant.setAddress(row.getAddress());
+        restaurant.setPhoneNumber(row.getPhoneNumber());
+        restaurant.setEmail(row.getEmail());
+        restaurant.setImageUrl(row.getImageUrl());
+        restaurant.setLocation(row.getLocation());
+        restaurant.setOpeningTime(row.getOpeningTime());
+        restaurant.setClosingTime(row.getClosingTime());
+        restaurant.setTimezone(row.getTimezone());
+        restaurant.setIsActive(row.getIsActive());
+        restaurant.setRating(row.getRating());
+        restaurant.setTotalReviews(row.getTotalReviews());
+        restaurant.setOwner(toUser(row.getOwnerId(), row.getOwnerName()));
+        restaurant.setApprovalStatus(row.getApprovalStatus());
+        restaurant.setApprovedBy(toUser(row.getApprovedById(), row.getApprovedByName()));
+        restaurant.setApprovedAt(row.getApprovedAt());
+        restaurant.setRejectionReason(row.getRejectionReason());
+        restaurant.setCategories(new ArrayList<>());
+        restaurant.setCreatedAt(row.getCreatedAt());
+        restaurant.setUpdatedAt(row.getUpdatedAt());
+        return restaurant;
+    }
+
+    private static User toUser(Long id, String fullName) {
+        if (id == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(id);
+        user.setFullName(fullName);
+        return user;
+    }
+}
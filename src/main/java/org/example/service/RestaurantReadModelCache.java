@@ -0,0 +1,189 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.example.entity.ApprovalStatus;
+import org.example.entity.OpeningSchedule;
+import org.example.entity.Restaurant;
+import org.example.repository.RestaurantRepository;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache read-model của restaurant cho các đường kiểm tra quyền truy cập và trạng thái.
+ * Mỗi phần tử là snapshot bất biến (owner, trạng thái duyệt, active, giờ mở cửa, vị trí, categories),
+ * không giữ managed entity nên đọc từ cache không kéo theo lazy loading.
+ */
+@Service
+public class RestaurantReadModelCache {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private static final long MAX_RESTAURANTS = 20_000;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    private final Cache<Long, Snapshot> cache = Caffeine.newBuilder()
+        .maximumSize(MAX_RESTAURANTS)
+        .expireAfterWrite(TTL)
+        .recordStats()
+        .build();
+
+    /**
+     * Lấy snapshot của restaurant, load từ DB nếu chưa có trong cache
+     */
+    @Transactional(readOnly = true)
+    public Optional<Snapshot> get(Long restaurantId) {
+        if (restaurantId == null) {
+            return Optional.empty();
+        }
+        // Restaurant không tồn tại thì loader trả về null và không được cache
+        return Optional.ofNullable(cache.get(restaurantId, id -> restaurantRepository.findById(id)
+            .map(Snapshot::from)
+            .orElse(null)));
+    }
+
+    /**
+     * Snapshot đang có trong cache, không truy cập DB khi chưa có
+     */
+    public Optional<Snapshot> getIfPresent(Long restaurantId) {
+        if (restaurantId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(restaurantId));
+    }
+
+    /**
+     * Xóa snapshot sau khi restaurant thay đổi. Nếu đang trong transaction thì xóa thêm một lần
+     * sau commit, tránh request song song nạp lại dữ liệu cũ trước khi commit.
+     */
+    public void invalidate(Long restaurantId) {
+        if (restaurantId == null) {
+            return;
+        }
+        cache.invalidate(restaurantId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(restaurantId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Thống kê hit/miss/eviction của cache
+     */
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+
+    /**
+     * Snapshot bất biến của các thuộc tính restaurant hay được đọc
+     */
+    public static final class Snapshot {
+
+        private final Long id;
+        private final Long ownerId;
+        private final ApprovalStatus approvalStatus;
+        private final boolean active;
+        private final OpeningSchedule openingSchedule;
+        private final Double latitude;
+        private final Double longitude;
+        private final List<String> categories;
+
+        private Snapshot(Long id, Long ownerId, ApprovalStatus approvalStatus, boolean active,
+                         OpeningSchedule openingSchedule, Double latitude, Double longitude, List<String> categories) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.approvalStatus = approvalStatus;
+            this.active = active;
+            this.openingSchedule = openingSchedule;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.categories = categories;
+        }
+
+        public static Snapshot from(Restaurant restaurant) {
+            Point location = restaurant.getLocation();
+            return new Snapshot(
+                restaurant.getId(),
+                // getId() trên proxy của owner không khởi tạo proxy
+                restaurant.getOwner() != null ? restaurant.getOwner().getId() : null,
+                restaurant.getApprovalStatus(),
+                Boolean.TRUE.equals(restaurant.getIsActive()),
+                restaurant.hasOpeningHours() ? restaurant.getOpeningSchedule() : null,
+                location != null ? location.getY() : null, // Y = Latitude
+                location != null ? location.getX() : null, // X = Longitude
+                restaurant.getCategories() != null ? List.copyOf(restaurant.getCategories()) : List.of()
+            );
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Long getOwnerId() {
+            return ownerId;
+        }
+
+        public ApprovalStatus getApprovalStatus() {
+            return approvalStatus;
+        }
+
+        public boolean isApproved() {
+            return approvalStatus == ApprovalStatus.APPROVED;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public boolean isOwnedBy(Long userId) {
+            return ownerId != null && ownerId.equals(userId);
+        }
+
+        /**
+         * Lịch mở cửa đã biên dịch, null nếu restaurant chưa khai báo giờ mở cửa
+         */
+        public OpeningSchedule getOpeningSchedule() {
+            return openingSchedule;
+        }
+
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        public List<String> getCategories() {
+            return categories;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.service;
 
 import org.example.dto.mapper.RestaurantStaffMapper;
+import org.example.dto.response.CursorPageResponse;
 import org.example.dto.response.RestaurantStaffResponse;
 import org.example.dto.response.RestaurantStatusResponse;
 import org.example.entity.ApprovalStatus;
@@ -9,18 +10,29 @@ import org.example.entity.RestaurantStaff;
 import org.example.entity.Role;
 import org.example.entity.User;
 import org.example.exception.AccessDeniedException;
+import org.example.exception.BusinessException;
 import org.example.repository.RestaurantRepository;
 import org.example.repository.RestaurantStaffRepository;
+import org.example.util.SearchUtils;
+import org.hibernate.Hibernate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Coordinate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.DateTimeException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -38,34 +50,71 @@ public class RestaurantService {
     @Autowired
     private GeometryFactory geometryFactory;
     
+    @Autowired
+    private RestaurantSpatialIndex restaurantSpatialIndex;
+    
+    @Autowired
+    private LocationService locationService;
+    
+    @Autowired
+    private DeliveryCoverageIndex deliveryCoverageIndex;
+    
+    @Autowired
+    private OpenRestaurantIndex openRestaurantIndex;
+    
+    @Autowired
+    private RestaurantTileService restaurantTileService;
+    
+    @Autowired
+    private RestaurantReadModelCache restaurantReadModelCache;
+    
+    @Autowired
+    private RestaurantListQueryService restaurantListQueryService;
+    
+    @Autowired
+    private PublicCatalogSnapshotService publicCatalogSnapshotService;
+    
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+    
+    @Autowired
+    private RestaurantCategoryIndex restaurantCategoryIndex;
+    
     // SRID 4326 là WGS84 (World Geodetic System 1984) - standard cho GPS coordinates
     private static final int SRID = 4326;
     
+    // Full-text search chỉ phân trang trong chừng này kết quả đầu tiên
+    private static final int MAX_SEARCH_RESULTS = 10_000;
+    
     /**
      * Tạo restaurant mới (chỉ RESTAURANT_OWNER có thể tạo)
      */
     public Restaurant createRestaurant(User owner, Restaurant restaurant) {
         validateRestaurantOwner(owner);
         
+        validateTimezone(restaurant.getTimezone());
+        
         restaurant.setOwner(owner);
         restaurant.setApprovalStatus(ApprovalStatus.PENDING);
         restaurant.setCreatedAt(LocalDateTime.now());
         
-        return restaurantRepository.save(restaurant);
+        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        refreshIndexes(savedRestaurant);
+        return savedRestaurant;
     }
     
     /**
-     * Lấy tất cả restaurant của một owner
+     * Lấy tất cả restaurant của một owner (bản tách rời, chỉ dùng để đọc)
      */
     public List<Restaurant> getRestaurantsByOwner(Long ownerId) {
-        return restaurantRepository.findByOwnerIdAndIsActiveTrue(ownerId);
+        return restaurantListQueryService.findActiveByOwner(ownerId);
     }
     
     /**
-     * Lấy tất cả restaurant đã được duyệt của một owner
+     * Lấy tất cả restaurant đã được duyệt của một owner (bản tách rời, chỉ dùng để đọc)
      */
     public List<Restaurant> getApprovedRestaurantsByOwner(Long ownerId) {
-        return restaurantRepository.findApprovedRestaurantsByOwnerId(ownerId);
+        return restaurantListQueryService.findApprovedByOwner(ownerId);
     }
     
     /**
@@ -78,7 +127,9 @@ public class RestaurantService {
             .orElseThrow(() -> new RuntimeException("Restaurant not found"));
         
         restaurant.approve(admin);
-        return restaurantRepository.save(restaurant);
+        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        refreshIndexes(savedRestaurant);
+        return savedRestaurant;
     }
     
     /**
@@ -91,25 +142,128 @@ public class RestaurantService {
             .orElseThrow(() -> new RuntimeException("Restaurant not found"));
         
         restaurant.reject(admin, reason);
-        return restaurantRepository.save(restaurant);
+        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        refreshIndexes(savedRestaurant);
+        return savedRestaurant;
     }
 
+    /**
+     * Danh sách restaurant đã duyệt (bản tách rời, chỉ dùng để đọc)
+     */
     public List<Restaurant> getApprovedRestaurants() {
-        return restaurantRepository.findByApprovalStatus(ApprovalStatus.APPROVED);
+        return restaurantListQueryService.findApproved();
+    }
+
+    /**
+     * Tìm restaurant đã duyệt theo tên, category, mô tả (full-text, không phân biệt dấu, khớp tiền tố),
+     * quán khớp nhất trước
+     */
+    public List<Restaurant> searchApprovedRestaurants(String query, int page, Integer size) {
+        String tsquery = SearchUtils.toPrefixTsQuery(query);
+        if (tsquery.isEmpty()) {
+            return List.of();
+        }
+        int pageSize = RestaurantListQueryService.capPageSize(size);
+        // Tính bằng long để page lớn không tràn số; quá MAX_SEARCH_RESULTS kết quả thì không còn trang nào
+        long offset = (long) Math.max(page, 0) * pageSize;
+        if (offset >= MAX_SEARCH_RESULTS) {
+            return List.of();
+        }
+        List<Long> restaurantIds = restaurantRepository.searchApprovedRestaurantIds(tsquery, pageSize, (int) offset);
+        return restaurantListQueryService.findByIdsInOrder(restaurantIds);
     }
 
     public Optional<Restaurant> getApprovedRestaurantById(Long id) {
+        // Snapshot đã cache cho biết quán chưa được duyệt thì trả về ngay, còn lại chỉ load entity một lần
+        boolean knownUnapproved = restaurantReadModelCache.getIfPresent(id)
+            .map(snapshot -> !snapshot.isApproved())
+            .orElse(false);
+        if (knownUnapproved) {
+            return Optional.empty();
+        }
         return restaurantRepository.findByIdAndApprovalStatus(id, ApprovalStatus.APPROVED);
     }
 
     public List<Restaurant> getAllRestaurants(User admin) {
         validateAdmin(admin);
-        return restaurantRepository.findAll();
+        return restaurantListQueryService.findAll();
     }
 
     public List<Restaurant> getPendingApprovalRestaurants(User admin) {
         validateAdmin(admin);
-        return restaurantRepository.findPendingApprovalRestaurants();
+        return restaurantListQueryService.findPendingApproval();
+    }
+    
+    /**
+     * Phân trang keyset các restaurant đã duyệt (mới nhất trước)
+     */
+    public CursorPageResponse<Restaurant> getApprovedRestaurantsPage(String cursor, Integer size) {
+        return restaurantListQueryService.findApprovedPage(cursor, RestaurantListQueryService.capPageSize(size));
+    }
+    
+    /**
+     * Phân trang keyset các restaurant đã duyệt theo category (mới nhất trước)
+     */
+    public CursorPageResponse<Restaurant> getApprovedRestaurantsByCategoryPage(String category, String cursor, Integer size) {
+        return restaurantListQueryService.findApprovedByCategoryPage(
+            category, cursor, RestaurantListQueryService.capPageSize(size));
+    }
+    
+    /**
+     * Lọc restaurant đã duyệt theo nhiều category, sắp theo rating giảm dần
+     * @param anyOf Có ít nhất một trong các category (OR), rỗng thì không lọc
+     * @param allOf Có đủ tất cả các category (AND), rỗng thì không lọc
+     * @param openNow Chỉ lấy quán đang mở cửa
+     * @param limit Số quán tối đa
+     */
+    @Transactional(readOnly = true)
+    public List<Restaurant> findRestaurantsByCategories(List<String> anyOf, List<String> allOf, boolean openNow, int limit) {
+        if (!restaurantCategoryIndex.isReady() || !restaurantSpatialIndex.isReady()
+                || (openNow && !openRestaurantIndex.isReady())) {
+            return restaurantListQueryService.findApproved().stream()
+                .filter(restaurant -> Boolean.TRUE.equals(restaurant.getIsActive()))
+                .filter(restaurant -> anyOf == null || anyOf.isEmpty()
+                    || restaurant.getCategories().stream().anyMatch(anyOf::contains))
+                .filter(restaurant -> allOf == null || restaurant.getCategories().containsAll(allOf))
+                .filter(restaurant -> !openNow || restaurant.isOpen())
+                .sorted(Comparator.comparing(
+                    (Restaurant restaurant) -> restaurant.getRating() != null ? restaurant.getRating() : 0.0).reversed())
+                .limit(limit)
+                .toList();
+        }
+        
+        // Lọc hoàn toàn trên bitset, chỉ load các quán nằm trong trang kết quả
+        Set<Long> openIds = openNow ? openRestaurantIndex.getOpenRestaurantIds() : null;
+        Instant now = Instant.now();
+        List<RestaurantSpatialIndex.Entry> entries = new ArrayList<>();
+        for (Long id : restaurantCategoryIndex.findRestaurantIds(anyOf, allOf, openIds)) {
+            // Tập đang mở cửa có thể trễ tới lượt advance kế tiếp nên kiểm tra lại giờ mở cửa trước khi cắt trang
+            restaurantSpatialIndex.get(id)
+                .filter(entry -> !openNow || entry.isOpenAt(now))
+                .ifPresent(entries::add);
+        }
+        List<Long> restaurantIds = entries.stream()
+            .sorted(Comparator.comparingDouble(RestaurantSpatialIndex.Entry::getRating).reversed())
+            .limit(limit)
+            .map(RestaurantSpatialIndex.Entry::getId)
+            .toList();
+        return restaurantListQueryService.findByIdsInOrder(restaurantIds);
+    }
+    
+    /**
+     * Phân trang keyset tất cả restaurant cho admin (mới nhất trước)
+     */
+    public CursorPageResponse<Restaurant> getAllRestaurantsPage(User admin, String cursor, Integer size) {
+        validateAdmin(admin);
+        return restaurantListQueryService.findAllPage(cursor, RestaurantListQueryService.capPageSize(size));
+    }
+    
+    /**
+     * Phân trang keyset các restaurant chờ duyệt (cũ nhất trước)
+     */
+    public CursorPageResponse<Restaurant> getPendingApprovalRestaurantsPage(User admin, String cursor, Integer size) {
+        validateAdmin(admin);
+        return restaurantListQueryService.findPendingApprovalPage(cursor, RestaurantListQueryService.capPageSize(size));
     }
     
     /**
@@ -120,6 +274,7 @@ public class RestaurantService {
             .orElseThrow(() -> new RuntimeException("Restaurant not found"));
         
         validateRestaurantAccess(user, restaurant);
+        validateTimezone(updatedRestaurant.getTimezone());
         
         // Update fields
         restaurant.setName(updatedRestaurant.getName());
@@ -130,6 +285,9 @@ public class RestaurantService {
         restaurant.setImageUrl(updatedRestaurant.getImageUrl());
         restaurant.setOpeningTime(updatedRestaurant.getOpeningTime());
         restaurant.setClosingTime(updatedRestaurant.getClosingTime());
+        restaurant.setTimezone(updatedRestaurant.getTimezone());
+        restaurant.setWeeklyHours(updatedRestaurant.getWeeklyHours());
+        restaurant.setHolidayOverrides(updatedRestaurant.getHolidayOverrides());
         restaurant.setCategories(updatedRestaurant.getCategories());
         
         // Location update
@@ -137,9 +295,16 @@ public class RestaurantService {
             restaurant.setLocation(updatedRestaurant.getLocation());
         }
         
+        // Delivery area update
+        if (updatedRestaurant.getDeliveryArea() != null) {
+            restaurant.setDeliveryArea(updatedRestaurant.getDeliveryArea());
+        }
+        
         restaurant.setUpdatedAt(LocalDateTime.now());
         
-        return restaurantRepository.save(restaurant);
+        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        refreshIndexes(savedRestaurant);
+        return savedRestaurant;
     }
     
     /**
@@ -189,14 +354,13 @@ public class RestaurantService {
             return true;
         }
         
-        Restaurant restaurant = restaurantRepository.findById(restaurantId).orElse(null);
+        RestaurantReadModelCache.Snapshot restaurant = restaurantReadModelCache.get(restaurantId).orElse(null);
         if (restaurant == null) {
             return false;
         }
         
         // Owner có quyền truy cập tất cả restaurants của mình
-        if (user.getRole() == Role.RESTAURANT_OWNER && 
-            restaurant.getOwner().getId().equals(user.getId())) {
+        if (user.getRole() == Role.RESTAURANT_OWNER && restaurant.isOwnedBy(user.getId())) {
             return true;
         }
         
@@ -227,7 +391,41 @@ public class RestaurantService {
         return point;
     }
     
+    /**
+     * Cập nhật các index trong bộ nhớ sau khi transaction commit, để reader không thấy dữ liệu chưa commit
+     * và index không giữ thay đổi của transaction bị rollback.
+     * Mọi nơi sửa restaurant (kể cả rating từ review) phải đi qua đây thay vì gọi thẳng từng index.
+     */
+    public void refreshIndexes(Restaurant restaurant) {
+        // Nạp sẵn các collection lazy mà index cần khi session còn mở
+        Hibernate.initialize(restaurant.getCategories());
+        restaurant.getOpeningSchedule();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyIndexes(restaurant);
+                }
+            });
+        } else {
+            applyIndexes(restaurant);
+        }
+        autocompleteIndex.refreshRestaurant(restaurant);
+        // Đăng ký sau index nên cache dựng từ index chỉ bị xóa/dựng lại khi index đã cập nhật
+        restaurantReadModelCache.invalidate(restaurant.getId());
+        publicCatalogSnapshotService.invalidate();
+    }
+    
     // Private helper methods
+    private void applyIndexes(Restaurant restaurant) {
+        RestaurantSpatialIndex.Entry previous = restaurantSpatialIndex.get(restaurant.getId()).orElse(null);
+        restaurantSpatialIndex.refresh(restaurant);
+        deliveryCoverageIndex.refresh(restaurant);
+        openRestaurantIndex.refresh(restaurant);
+        restaurantCategoryIndex.refresh(restaurant);
+        restaurantTileService.invalidate(previous, restaurantSpatialIndex.get(restaurant.getId()).orElse(null));
+    }
+    
     private void validateAdmin(User user) {
         if (user.getRole() != Role.ADMIN) {
             throw new AccessDeniedException("Only admin can perform this action");
@@ -246,6 +444,17 @@ public class RestaurantService {
         }
     }
     
+    private void validateTimezone(String timezone) {
+        if (timezone == null) {
+            return;
+        }
+        try {
+            ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            throw new BusinessException("Invalid timezone: " + timezone);
+        }
+    }
+    
     /**
      * Get restaurant status (open/closed)
      */
@@ -265,21 +474,40 @@ public class RestaurantService {
      * Get all open restaurants
      */
     public List<Restaurant> getOpenRestaurants() {
-        return restaurantRepository.findAllActiveAndApproved().stream()
+        if (!openRestaurantIndex.isReady()) {
+            return restaurantRepository.findAllActiveAndApproved().stream()
+                .filter(Restaurant::isOpen)
+                .toList();
+        }
+        
+        // Chỉ load các restaurant đang mở theo open index
+        return restaurantRepository.findAllById(openRestaurantIndex.getOpenRestaurantIds()).stream()
             .filter(Restaurant::isOpen)
+            .sorted(Comparator.comparing(Restaurant::getName, String.CASE_INSENSITIVE_ORDER))
             .toList();
     }
     
+    /**
+     * ID các restaurant đang mở cửa (tăng dần), đi kèm catalog công khai vốn không chứa trạng thái mở cửa
+     */
+    public List<Long> getOpenRestaurantIds() {
+        if (!openRestaurantIndex.isReady()) {
+            return restaurantRepository.findAllActiveAndApproved().stream()
+                .filter(Restaurant::isOpen)
+                .map(Restaurant::getId)
+                .sorted()
+                .toList();
+        }
+        return openRestaurantIndex.getOpenRestaurantIds().stream().sorted().toList();
+    }
+    
     /**
      * Get nearby open restaurants
      */
     public List<Restaurant> getNearbyOpenRestaurants(double latitude, double longitude, double radiusKm) {
         // Convert kilometers to meters for the repository method
         double radiusMeters = radiusKm * 1000;
-        List<Restaurant> nearbyRestaurants = restaurantRepository.findRestaurantsWithinRadius(latitude, longitude, radiusMeters);
-        return nearbyRestaurants.stream()
-            .filter(Restaurant::isOpen)
-            .toList();
+        return locationService.findOpenRestaurantsNearby(latitude, longitude, radiusMeters);
     }
     
     /**
@@ -0,0 +1,556 @@
+package org.example.service;
+
+import org.example.entity.OpeningSchedule;
+import org.example.entity.Restaurant;
+import org.example.repository.RestaurantRepository;
+import org.example.util.GeoUtils;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.index.quadtree.Quadtree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Spatial index trong bộ nhớ cho các restaurant đang active và đã được duyệt.
+ * Trả lời các truy vấn bán kính, k-nearest và bounding box mà không cần truy cập Postgres.
+ */
+@Service
+public class RestaurantSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantSpatialIndex.class);
+
+    // Bán kính khởi đầu khi tìm k-nearest, nhân đôi cho đến khi đủ kết quả
+    private static final double INITIAL_KNN_RADIUS_METERS = 1_000d;
+
+    // Nửa chu vi Trái Đất - vượt quá bán kính này thì đã quét toàn bộ index
+    private static final double MAX_SEARCH_RADIUS_METERS = Math.PI * GeoUtils.EARTH_RADIUS_METERS;
+
+    // Độ dài tối đa của mỗi đoạn tuyến đường khi dò index
+    private static final double MAX_ROUTE_PIECE_METERS = 1_000d;
+
+    /**
+     * Tổng chiều dài tối đa của tuyến đường khi tìm quán dọc đường (meters)
+     */
+    public static final double MAX_ROUTE_LENGTH_METERS = 1_000_000d;
+
+    /**
+     * Số đoạn con tối đa được dò trong index cho một tuyến đường
+     */
+    public static final int MAX_ROUTE_PIECES = 10_000;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Quadtree tree = new Quadtree();
+
+    private Map<Long, Entry> entries = new HashMap<>();
+
+    private volatile boolean ready = false;
+
+    // Thay đổi (đã commit) xảy ra trong lúc rebuild đọc DB, áp lại lên index mới trước khi thay;
+    // giá trị null nghĩa là restaurant bị loại khỏi index. Chỉ truy cập khi giữ write lock.
+    private Map<Long, Entry> changedDuringRebuild;
+
+    // Tăng mỗi khi nội dung index thay đổi, dùng để nhận biết cache đã cũ
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Nạp lại toàn bộ index từ database khi ứng dụng khởi động
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Restaurant> restaurants = restaurantRepository.findAllActiveAndApprovedWithCategories();
+
+        Quadtree newTree = new Quadtree();
+        Map<Long, Entry> newEntries = new HashMap<>();
+        for (Restaurant restaurant : restaurants) {
+            Entry entry = Entry.from(restaurant);
+            if (entry != null) {
+                newTree.insert(entry.envelope(), entry);
+                newEntries.put(entry.getId(), entry);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Bản đọc từ DB có thể cũ hơn các refresh sau commit trong lúc rebuild
+            changedDuringRebuild.forEach((id, entry) -> {
+                Entry stale = newEntries.remove(id);
+                if (stale != null) {
+                    newTree.remove(stale.envelope(), stale);
+                }
+                if (entry != null) {
+                    newTree.insert(entry.envelope(), entry);
+                    newEntries.put(id, entry);
+                }
+            });
+            changedDuringRebuild = null;
+            tree = newTree;
+            entries = newEntries;
+            ready = true;
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Restaurant spatial index rebuilt with {} restaurants", newEntries.size());
+    }
+
+    /**
+     * Cập nhật một restaurant trong index sau khi nó được tạo/sửa/duyệt/từ chối.
+     * Restaurant không còn active hoặc chưa được duyệt sẽ bị loại khỏi index.
+     */
+    public void refresh(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getId() == null) {
+            return;
+        }
+
+        Entry entry = Boolean.TRUE.equals(restaurant.getIsActive()) && restaurant.isApproved()
+            ? Entry.from(restaurant)
+            : null;
+
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(restaurant.getId());
+            if (previous != null) {
+                tree.remove(previous.envelope(), previous);
+            }
+            if (entry != null) {
+                tree.insert(entry.envelope(), entry);
+                entries.put(entry.getId(), entry);
+            }
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(restaurant.getId(), entry);
+            }
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Xóa một restaurant khỏi index
+     */
+    public void remove(Long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(restaurantId);
+            if (previous != null) {
+                tree.remove(previous.envelope(), previous);
+                version.incrementAndGet();
+            }
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(restaurantId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index đã được nạp từ database hay chưa
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Phiên bản hiện tại của index, thay đổi sau mỗi lần cập nhật
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Entry> get(Long restaurantId) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(entries.get(restaurantId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tìm restaurant trong bán kính (meters), sắp xếp theo khoảng cách tăng dần
+     */
+    public List<Neighbor> findWithinRadius(double latitude, double longitude, double radiusMeters) {
+        List<Neighbor> result = new ArrayList<>();
+        for (Entry entry : queryEnvelope(radiusEnvelope(latitude, longitude, radiusMeters))) {
+            double distance = GeoUtils.haversineMeters(latitude, longitude, entry.getLatitude(), entry.getLongitude());
+            if (distance <= radiusMeters) {
+                result.add(new Neighbor(entry, distance));
+            }
+        }
+        result.sort(Comparator.comparingDouble(Neighbor::getDistanceMeters));
+        return result;
+    }
+
+    /**
+     * Tìm k restaurant gần nhất, sắp xếp theo khoảng cách tăng dần
+     */
+    public List<Neighbor> findNearest(double latitude, double longitude, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        int total = size();
+        double radius = INITIAL_KNN_RADIUS_METERS;
+        while (true) {
+            List<Neighbor> candidates = findWithinRadius(latitude, longitude, radius);
+            // Đủ k ứng viên trong bán kính thì k gần nhất chắc chắn nằm trong đó
+            if (candidates.size() >= k || candidates.size() >= total || radius >= MAX_SEARCH_RADIUS_METERS) {
+                return candidates.size() > k ? new ArrayList<>(candidates.subList(0, k)) : candidates;
+            }
+            radius *= 2;
+        }
+    }
+
+    /**
+     * Tìm restaurant nằm trong bounding box
+     */
+    public List<Entry> findWithinBoundingBox(double minLat, double minLng, double maxLat, double maxLng) {
+        Envelope box = new Envelope(minLng, maxLng, minLat, maxLat);
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : queryEnvelope(box)) {
+            if (box.contains(entry.getLongitude(), entry.getLatitude())) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tìm restaurant nằm trong hành lang quanh tuyến đường (nhiều điểm).
+     * Mỗi đoạn của tuyến được dò riêng trong index với bán kính lệch tối đa;
+     * kết quả được gộp, loại trùng và sắp xếp theo vị trí dọc tuyến đường.
+     * @param route Các điểm của tuyến đường (x = longitude, y = latitude)
+     * @param maxDetourMeters Khoảng cách tối đa lệch khỏi tuyến đường (meters)
+     * @param categories Chỉ lấy restaurant thuộc ít nhất một category (null/rỗng = không lọc)
+     * @return Danh sách kèm khoảng cách đến tuyến đường, theo thứ tự dọc tuyến
+     */
+    public List<Neighbor> findAlongRoute(List<Coordinate> route, double maxDetourMeters, Collection<String> categories) {
+        if (route == null || route.isEmpty()) {
+            return List.of();
+        }
+        if (route.size() == 1) {
+            Coordinate point = route.get(0);
+            return findWithinRadius(point.getY(), point.getX(), maxDetourMeters).stream()
+                .filter(neighbor -> matchesAnyCategory(neighbor.getEntry(), categories))
+                .toList();
+        }
+
+        validateRoute(route);
+        Map<Long, RouteCandidate> best = new HashMap<>();
+        double routeOffset = 0;
+        for (int i = 0; i < route.size() - 1; i++) {
+            Coordinate start = route.get(i);
+            Coordinate end = route.get(i + 1);
+            double segmentLength = GeoUtils.haversineMeters(start.getY(), start.getX(), end.getY(), end.getX());
+
+            // Chia đoạn dài thành các đoạn con để bounding box khi dò index không quá rộng
+            int pieces = Math.max(1, (int) Math.ceil(segmentLength / MAX_ROUTE_PIECE_METERS));
+            for (int piece = 0; piece < pieces; piece++) {
+                Coordinate pieceStart = interpolate(start, end, (double) piece / pieces);
+                Coordinate pieceEnd = interpolate(start, end, (double) (piece + 1) / pieces);
+                double pieceOffset = routeOffset + segmentLength * piece / pieces;
+                probeRoutePiece(pieceStart, pieceEnd, pieceOffset, maxDetourMeters, categories, best);
+            }
+            routeOffset += segmentLength;
+        }
+
+        return best.values().stream()
+            .sorted(Comparator.comparingDouble(RouteCandidate::routePosition))
+            .map(candidate -> new Neighbor(candidate.entry(), candidate.detourMeters(), candidate.routePosition()))
+            .toList();
+    }
+
+    /**
+     * Kiểm tra tuyến đường không vượt quá chiều dài và số đoạn con tối đa khi dò index
+     * @throws IllegalArgumentException nếu vượt giới hạn
+     */
+    public static void validateRoute(List<Coordinate> route) {
+        double totalLength = 0;
+        long totalPieces = 0;
+        for (int i = 0; i < route.size() - 1; i++) {
+            Coordinate start = route.get(i);
+            Coordinate end = route.get(i + 1);
+            double segmentLength = GeoUtils.haversineMeters(start.getY(), start.getX(), end.getY(), end.getX());
+            totalLength += segmentLength;
+            totalPieces += Math.max(1, (long) Math.ceil(segmentLength / MAX_ROUTE_PIECE_METERS));
+        }
+        if (totalLength > MAX_ROUTE_LENGTH_METERS) {
+            throw new IllegalArgumentException("Route must not be longer than " + (long) (MAX_ROUTE_LENGTH_METERS / 1000) + " km");
+        }
+        if (totalPieces > MAX_ROUTE_PIECES) {
+            throw new IllegalArgumentException("Route has too many points");
+        }
+    }
+
+    private void probeRoutePiece(Coordinate start, Coordinate end, double pieceOffset, double maxDetourMeters,
+                                 Collection<String> categories, Map<Long, RouteCandidate> best) {
+        double maxAbsLat = Math.max(Math.abs(start.getY()), Math.abs(end.getY()));
+        double latDelta = GeoUtils.metersToLatDegrees(maxDetourMeters);
+        double lngDelta = GeoUtils.metersToLngDegrees(maxDetourMeters, maxAbsLat);
+        Envelope envelope = new Envelope(start, end);
+        envelope.expandBy(lngDelta, latDelta);
+
+        for (Entry entry : queryEnvelope(envelope)) {
+            if (!matchesAnyCategory(entry, categories)) {
+                continue;
+            }
+
+            double[] projection = projectOntoSegment(entry, start, end);
+            double detour = projection[0];
+            if (detour > maxDetourMeters) {
+                continue;
+            }
+
+            double routePosition = pieceOffset + projection[1];
+            RouteCandidate current = best.get(entry.getId());
+            if (current == null || detour < current.detourMeters()) {
+                best.put(entry.getId(), new RouteCandidate(entry, detour, routePosition));
+            }
+        }
+    }
+
+    /**
+     * Độ lệch và vị trí dọc tuyến của một restaurant đã có sẵn (ví dụ lấy từ database khi index chưa sẵn sàng),
+     * tính như findAlongRoute nhưng không lọc theo độ lệch tối đa
+     */
+    public static Neighbor projectOntoRoute(Entry entry, List<Coordinate> route) {
+        if (route.size() == 1) {
+            Coordinate point = route.get(0);
+            return new Neighbor(entry,
+                GeoUtils.haversineMeters(point.getY(), point.getX(), entry.getLatitude(), entry.getLongitude()), 0);
+        }
+        double bestDetour = Double.MAX_VALUE;
+        double bestPosition = 0;
+        double routeOffset = 0;
+        for (int i = 0; i < route.size() - 1; i++) {
+            Coordinate start = route.get(i);
+            Coordinate end = route.get(i + 1);
+            double[] projection = projectOntoSegment(entry, start, end);
+            if (projection[0] < bestDetour) {
+                bestDetour = projection[0];
+                bestPosition = routeOffset + projection[1];
+            }
+            routeOffset += GeoUtils.haversineMeters(start.getY(), start.getX(), end.getY(), end.getX());
+        }
+        return new Neighbor(entry, bestDetour, bestPosition);
+    }
+
+    // Chiếu phẳng cục bộ (equirectangular) quanh đoạn: {khoảng cách điểm - đoạn thẳng, vị trí hình chiếu tính từ start}
+    private static double[] projectOntoSegment(Entry entry, Coordinate start, Coordinate end) {
+        double metersPerDegreeLng = GeoUtils.METERS_PER_DEGREE_LAT
+            * Math.cos(Math.toRadians((start.getY() + end.getY()) / 2));
+        double segmentX = (end.getX() - start.getX()) * metersPerDegreeLng;
+        double segmentY = (end.getY() - start.getY()) * GeoUtils.METERS_PER_DEGREE_LAT;
+        double segmentLengthSquared = segmentX * segmentX + segmentY * segmentY;
+
+        double pointX = (entry.getLongitude() - start.getX()) * metersPerDegreeLng;
+        double pointY = (entry.getLatitude() - start.getY()) * GeoUtils.METERS_PER_DEGREE_LAT;
+        double t = segmentLengthSquared == 0 ? 0
+            : Math.max(0, Math.min(1, (pointX * segmentX + pointY * segmentY) / segmentLengthSquared));
+        return new double[]{
+            Math.hypot(pointX - t * segmentX, pointY - t * segmentY),
+            t * Math.sqrt(segmentLengthSquared)
+        };
+    }
+
+    private static Coordinate interpolate(Coordinate start, Coordinate end, double fraction) {
+        return new Coordinate(
+            start.getX() + (end.getX() - start.getX()) * fraction,
+            start.getY() + (end.getY() - start.getY()) * fraction);
+    }
+
+    private static boolean matchesAnyCategory(Entry entry, Collection<String> categories) {
+        if (categories == null || categories.isEmpty()) {
+            return true;
+        }
+        for (String category : entry.getCategories()) {
+            if (categories.contains(category)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record RouteCandidate(Entry entry, double detourMeters, double routePosition) {
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry> queryEnvelope(Envelope envelope) {
+        lock.readLock().lock();
+        try {
+            return (List<Entry>) tree.query(envelope);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Envelope radiusEnvelope(double latitude, double longitude, double radiusMeters) {
+        double latDelta = GeoUtils.metersToLatDegrees(radiusMeters);
+        double lngDelta = GeoUtils.metersToLngDegrees(radiusMeters, latitude);
+        return new Envelope(longitude - lngDelta, longitude + lngDelta, latitude - latDelta, latitude + latDelta);
+    }
+
+    /**
+     * Snapshot bất biến của restaurant được lưu trong index
+     */
+    public static final class Entry {
+
+        private final Long id;
+        private final String name;
+        private final double latitude;
+        private final double longitude;
+        private final double rating;
+        private final int totalReviews;
+        private final List<String> categories;
+        private final OpeningSchedule openingSchedule;
+
+        private Entry(Long id, String name, double latitude, double longitude, double rating, int totalReviews,
+                      List<String> categories, OpeningSchedule openingSchedule) {
+            this.id = id;
+            this.name = name;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.rating = rating;
+            this.totalReviews = totalReviews;
+            this.categories = categories;
+            this.openingSchedule = openingSchedule;
+        }
+
+        static Entry from(Restaurant restaurant) {
+            Point location = restaurant.getLocation();
+            if (location == null) {
+                return null;
+            }
+            return new Entry(
+                restaurant.getId(),
+                restaurant.getName(),
+                location.getY(), // Y = Latitude
+                location.getX(), // X = Longitude
+                restaurant.getRating() != null ? restaurant.getRating() : 0.0,
+                restaurant.getTotalReviews() != null ? restaurant.getTotalReviews() : 0,
+                restaurant.getCategories() != null ? List.copyOf(restaurant.getCategories()) : List.of(),
+                restaurant.hasOpeningHours() ? restaurant.getOpeningSchedule() : null
+            );
+        }
+
+        Envelope envelope() {
+            return new Envelope(longitude, longitude, latitude, latitude);
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public double getRating() {
+            return rating;
+        }
+
+        public int getTotalReviews() {
+            return totalReviews;
+        }
+
+        public List<String> getCategories() {
+            return categories;
+        }
+
+        public OpeningSchedule getOpeningSchedule() {
+            return openingSchedule;
+        }
+
+        /**
+         * Kiểm tra giờ mở cửa tại thời điểm cho trước (cùng lịch với Restaurant.isOpenAt)
+         */
+        public boolean isOpenAt(Instant instant) {
+            return openingSchedule != null && openingSchedule.isOpenAt(instant);
+        }
+    }
+
+    /**
+     * Kết quả truy vấn kèm khoảng cách (meters) đến điểm gốc
+     */
+    public static final class Neighbor {
+
+        private final Entry entry;
+        private final double distanceMeters;
+        // Vị trí hình chiếu trên tuyến đường tính từ điểm đầu (chỉ có ý nghĩa với findAlongRoute)
+        private final double routePositionMeters;
+
+        public Neighbor(Entry entry, double distanceMeters) {
+            this(entry, distanceMeters, 0);
+        }
+
+        public Neighbor(Entry entry, double distanceMeters, double routePositionMeters) {
+            this.entry = entry;
+            this.distanceMeters = distanceMeters;
+            this.routePositionMeters = routePositionMeters;
+        }
+
+        public Entry getEntry() {
+            return entry;
+        }
+
+        public Long getRestaurantId() {
+            return entry.getId();
+        }
+
+        public double getDistanceMeters() {
+            return distanceMeters;
+        }
+
+        public double getRoutePositionMeters() {
+            return routePositionMeters;
+        }
+    }
+}
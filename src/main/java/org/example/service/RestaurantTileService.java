@@ -0,0 +1,177 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.example.repository.RestaurantRepository;
+import org.example.util.GeoUtils;
+import org.example.util.VectorTileEncoder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Sinh vector tile (Mapbox Vector Tile) cho lớp marker restaurant trên bản đồ.
+ * Tile được mã hóa từ spatial index trong bộ nhớ và cache theo z/x/y, giới hạn theo tổng số byte;
+ * khi index chưa sẵn sàng thì mã hóa từ các dòng đọc trực tiếp trong Postgres với cùng thuộc tính.
+ * Khi vị trí hoặc trạng thái duyệt của một restaurant thay đổi, các tile chứa vị trí cũ/mới
+ * ở mọi mức zoom bị xóa khỏi cache; thuộc tính rating/open được làm mới theo TTL.
+ */
+@Service
+public class RestaurantTileService {
+
+    public static final String LAYER_NAME = "restaurants";
+
+    public static final int MAX_ZOOM = 22;
+
+    // Vùng đệm quanh tile (đơn vị tile) để marker sát mép không bị cắt
+    private static final int BUFFER = 64;
+
+    private static final long MAX_CACHE_BYTES = 64L * 1024 * 1024;
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private RestaurantSpatialIndex restaurantSpatialIndex;
+
+    @Autowired
+    private OpenRestaurantIndex openRestaurantIndex;
+
+    private final Cache<String, byte[]> cache = Caffeine.newBuilder()
+        .maximumWeight(MAX_CACHE_BYTES)
+        .weigher((String key, byte[] tile) -> tile.length)
+        .expireAfterWrite(TTL)
+        .recordStats()
+        .build();
+
+    /**
+     * Lấy tile z/x/y đã mã hóa MVT
+     */
+    public byte[] getTile(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM || x < 0 || y < 0 || x >= (1 << zoom) || y >= (1 << zoom)) {
+            throw new IllegalArgumentException("Invalid tile coordinates");
+        }
+
+        if (!restaurantSpatialIndex.isReady()) {
+            // Index chưa sẵn sàng: đọc marker từ DB, không cache
+            return encodeTile(zoom, x, y, false);
+        }
+        return cache.get(key(zoom, x, y), key -> encodeTile(zoom, x, y, true));
+    }
+
+    /**
+     * Xóa các tile bị ảnh hưởng khi restaurant được thêm/bỏ khỏi index hoặc đổi vị trí/tên
+     * @param previous Entry trước khi cập nhật (null nếu trước đó không có trong index)
+     * @param current Entry sau khi cập nhật (null nếu đã bị bỏ khỏi index)
+     */
+    public void invalidate(RestaurantSpatialIndex.Entry previous, RestaurantSpatialIndex.Entry current) {
+        if (previous == null && current == null) {
+            return;
+        }
+        if (previous != null && current != null
+                && previous.getLatitude() == current.getLatitude()
+                && previous.getLongitude() == current.getLongitude()
+                && Objects.equals(previous.getName(), current.getName())) {
+            return;
+        }
+        if (previous != null) {
+            invalidateTilesContaining(previous.getLatitude(), previous.getLongitude());
+        }
+        if (current != null) {
+            invalidateTilesContaining(current.getLatitude(), current.getLongitude());
+        }
+    }
+
+    /**
+     * Thống kê hit/miss/eviction của cache
+     */
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+
+    private byte[] encodeTile(int zoom, int x, int y, boolean fromIndex) {
+        VectorTileEncoder encoder = new VectorTileEncoder(LAYER_NAME);
+        int extent = encoder.getExtent();
+
+        double[] bounds = GeoUtils.tileBounds(zoom, x, y);
+        double bufferRatio = (double) BUFFER / extent;
+        double latBuffer = (bounds[2] - bounds[0]) * bufferRatio;
+        double lngBuffer = (bounds[3] - bounds[1]) * bufferRatio;
+        double minLat = bounds[0] - latBuffer;
+        double minLng = bounds[1] - lngBuffer;
+        double maxLat = bounds[2] + latBuffer;
+        double maxLng = bounds[3] + lngBuffer;
+
+        Set<Long> openIds = openRestaurantIndex.isReady() ? openRestaurantIndex.getOpenRestaurantIds() : Set.of();
+        if (fromIndex) {
+            for (RestaurantSpatialIndex.Entry entry : restaurantSpatialIndex.findWithinBoundingBox(minLat, minLng, maxLat, maxLng)) {
+                addMarker(encoder, zoom, x, y, entry.getId(), entry.getName(), entry.getRating(),
+                    entry.getLatitude(), entry.getLongitude(), openIds);
+            }
+        } else {
+            for (RestaurantRepository.RestaurantMarker marker
+                    : restaurantRepository.findMarkersInBoundingBox(minLat, minLng, maxLat, maxLng)) {
+                addMarker(encoder, zoom, x, y, marker.getId(), marker.getName(), marker.getRating(),
+                    marker.getLatitude(), marker.getLongitude(), openIds);
+            }
+        }
+        return encoder.encode();
+    }
+
+    private static void addMarker(VectorTileEncoder encoder, int zoom, int x, int y, Long id, String name,
+                                  double rating, double latitude, double longitude, Set<Long> openIds) {
+        int extent = encoder.getExtent();
+        double tileX = (GeoUtils.lngToTileX(longitude, zoom) - x) * extent;
+        double tileY = (GeoUtils.latToTileY(latitude, zoom) - y) * extent;
+        if (!(tileX >= -BUFFER && tileX <= extent + BUFFER && tileY >= -BUFFER && tileY <= extent + BUFFER)) {
+            return;
+        }
+
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("name", name);
+        attributes.put("rating", rating);
+        attributes.put("open", openIds.contains(id));
+        encoder.addPoint(id, (int) Math.round(tileX), (int) Math.round(tileY), attributes);
+    }
+
+    private void invalidateTilesContaining(double latitude, double longitude) {
+        double bufferRatio = (double) BUFFER / VectorTileEncoder.DEFAULT_EXTENT;
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            int tiles = 1 << zoom;
+            double tileX = GeoUtils.lngToTileX(longitude, zoom);
+            double tileY = GeoUtils.latToTileY(latitude, zoom);
+            if (!Double.isFinite(tileY)) {
+                continue;
+            }
+            // Điểm nằm trong vùng đệm của tile bên cạnh cũng phải xóa tile đó
+            int minX = Math.max(0, (int) Math.floor(tileX - bufferRatio));
+            int maxX = Math.min(tiles - 1, (int) Math.floor(tileX + bufferRatio));
+            int minY = Math.max(0, (int) Math.floor(tileY - bufferRatio));
+            int maxY = Math.min(tiles - 1, (int) Math.floor(tileY + bufferRatio));
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    cache.invalidate(key(zoom, x, y));
+                }
+            }
+        }
+    }
+
+    private static String key(int zoom, int x, int y) {
+        return zoom + "/" + x + "/" + y;
+    }
+}
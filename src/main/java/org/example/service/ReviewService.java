@@ -52,6 +52,9 @@ public class ReviewService {
     @Autowired
     private MenuItemRepository menuItemRepository;
     
+    @Autowired
+    private RestaurantService restaurantService;
+    
     // Create Restaurant Review
     public ReviewResponse createRestaurantReview(Long restaurantId, CreateRestaurantReviewRequest request) {
         User customer = getCurrentUser();
@@ -472,6 +475,7 @@ public class ReviewService {
                 restaurant.setRating(averageRating);
                 restaurant.setTotalReviews(reviews.size());
                 restaurantRepository.save(restaurant);
+                restaurantService.refreshIndexes(restaurant);
             }
         }
     }
@@ -0,0 +1,211 @@
+package org.example.service;
+
+import org.example.entity.OpeningSchedule;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Xếp hạng quán ăn dọc tuyến đường theo điểm tổng hợp: độ lệch khỏi tuyến, rating (có làm mượt theo
+ * số review), mở cửa tại thời điểm đến nơi và danh mục ưa thích.
+ * Chỉ giữ K kết quả tốt nhất trong một min-heap trên mảng nguyên thủy, duyệt ứng viên một lượt.
+ */
+public final class RouteRecommendationRanker {
+
+    public static final double DETOUR_WEIGHT = 0.35;
+    public static final double RATING_WEIGHT = 0.35;
+    public static final double OPEN_WEIGHT = 0.2;
+    public static final double CATEGORY_WEIGHT = 0.1;
+
+    // Rating ít review được kéo về giá trị trung bình (Bayesian average)
+    private static final double PRIOR_RATING = 3.5;
+    private static final int PRIOR_REVIEWS = 10;
+    private static final double MAX_RATING = 5.0;
+
+    // Quán chưa khai báo giờ mở cửa: không rõ trạng thái, tính một nửa điểm
+    private static final double UNKNOWN_HOURS_SCORE = 0.5;
+
+    private final int limit;
+    private final double maxDetourMeters;
+    private final Instant departure;
+    private final double averageSpeedKmh;
+    private final Predicate<RestaurantSpatialIndex.Entry> preferredCategory;
+
+    /**
+     * @param limit Số kết quả tối đa (K)
+     * @param maxDetourMeters Khoảng cách lệch tối đa dùng để chuẩn hóa điểm độ lệch
+     * @param departure Thời điểm xuất phát từ đầu tuyến
+     * @param averageSpeedKmh Tốc độ di chuyển trung bình để ước tính thời điểm đến quán
+     * @param preferredCategories Danh mục món ăn ưa thích, có thể null
+     */
+    public RouteRecommendationRanker(int limit, double maxDetourMeters, Instant departure,
+                                     double averageSpeedKmh, Collection<String> preferredCategories) {
+        this(limit, maxDetourMeters, departure, averageSpeedKmh, categoryPredicate(preferredCategories));
+    }
+
+    /**
+     * Dùng kết quả lọc sẵn của category index thay cho việc so từng category của ứng viên
+     * @param preferredCategories Bộ kiểm tra danh mục ưa thích từ {@link RestaurantCategoryIndex#matcher}
+     */
+    public RouteRecommendationRanker(int limit, double maxDetourMeters, Instant departure,
+                                     double averageSpeedKmh, RestaurantCategoryIndex.Matcher preferredCategories) {
+        this(limit, maxDetourMeters, departure, averageSpeedKmh,
+            (Predicate<RestaurantSpatialIndex.Entry>) entry -> preferredCategories.matches(entry.getId()));
+    }
+
+    private RouteRecommendationRanker(int limit, double maxDetourMeters, Instant departure,
+                                      double averageSpeedKmh, Predicate<RestaurantSpatialIndex.Entry> preferredCategory) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        this.limit = limit;
+        this.maxDetourMeters = maxDetourMeters;
+        this.departure = departure;
+        this.averageSpeedKmh = averageSpeedKmh;
+        this.preferredCategory = preferredCategory;
+    }
+
+    /**
+     * Chọn K ứng viên điểm cao nhất
+     * @return Danh sách ứng viên theo điểm giảm dần (cùng điểm thì giữ thứ tự đầu vào)
+     */
+    public List<RestaurantSpatialIndex.Neighbor> rank(List<RestaurantSpatialIndex.Neighbor> candidates) {
+        int capacity = Math.min(limit, candidates.size());
+        if (capacity == 0) {
+            return List.of();
+        }
+
+        int[] heapIndexes = new int[capacity];
+        double[] heapScores = new double[capacity];
+        int size = 0;
+
+        for (int i = 0; i < candidates.size(); i++) {
+            RestaurantSpatialIndex.Neighbor candidate = candidates.get(i);
+            double score = baseScore(candidate);
+            // Kể cả khi mở cửa cũng không vượt được phần tử kém nhất thì bỏ qua, khỏi tính giờ mở cửa
+            if (size == capacity && score + OPEN_WEIGHT <= heapScores[0]) {
+                continue;
+            }
+            score += OPEN_WEIGHT * openScore(candidate);
+
+            if (size < capacity) {
+                heapIndexes[size] = i;
+                heapScores[size] = score;
+                siftUp(heapIndexes, heapScores, size++);
+            } else if (score > heapScores[0]) {
+                heapIndexes[0] = i;
+                heapScores[0] = score;
+                siftDown(heapIndexes, heapScores, 0, size);
+            }
+        }
+
+        // Lấy dần phần tử kém nhất ra khỏi heap, ghi từ cuối mảng kết quả lên
+        RestaurantSpatialIndex.Neighbor[] ranked = new RestaurantSpatialIndex.Neighbor[size];
+        while (size > 0) {
+            ranked[size - 1] = candidates.get(heapIndexes[0]);
+            size--;
+            heapIndexes[0] = heapIndexes[size];
+            heapScores[0] = heapScores[size];
+            siftDown(heapIndexes, heapScores, 0, size);
+        }
+        return List.of(ranked);
+    }
+
+    /**
+     * Điểm tổng hợp của một ứng viên, trong khoảng [0, 1]
+     */
+    public double score(RestaurantSpatialIndex.Neighbor candidate) {
+        return baseScore(candidate) + OPEN_WEIGHT * openScore(candidate);
+    }
+
+    // Phần điểm không phụ thuộc giờ mở cửa
+    private double baseScore(RestaurantSpatialIndex.Neighbor candidate) {
+        RestaurantSpatialIndex.Entry entry = candidate.getEntry();
+
+        double detourScore = maxDetourMeters > 0
+            ? 1 - Math.min(1, candidate.getDistanceMeters() / maxDetourMeters)
+            : 1;
+
+        int reviews = Math.max(0, entry.getTotalReviews());
+        double smoothedRating = (entry.getRating() * reviews + PRIOR_RATING * PRIOR_REVIEWS) / (reviews + PRIOR_REVIEWS);
+        double ratingScore = Math.max(0, Math.min(1, smoothedRating / MAX_RATING));
+
+        double categoryScore = preferredCategory.test(entry) ? 1 : 0;
+
+        return DETOUR_WEIGHT * detourScore + RATING_WEIGHT * ratingScore + CATEGORY_WEIGHT * categoryScore;
+    }
+
+    private double openScore(RestaurantSpatialIndex.Neighbor candidate) {
+        OpeningSchedule schedule = candidate.getEntry().getOpeningSchedule();
+        if (schedule == null) {
+            return UNKNOWN_HOURS_SCORE;
+        }
+        // Đi theo tuyến đến điểm chiếu rồi rẽ vào quán
+        double travelMeters = candidate.getRoutePositionMeters() + candidate.getDistanceMeters();
+        int minutes = LocationService.estimatePickupMinutes(travelMeters, averageSpeedKmh);
+        return schedule.isOpenAt(departure.plusSeconds(minutes * 60L)) ? 1 : 0;
+    }
+
+    private static Predicate<RestaurantSpatialIndex.Entry> categoryPredicate(Collection<String> preferredCategories) {
+        if (preferredCategories == null || preferredCategories.isEmpty()) {
+            return entry -> false;
+        }
+        Set<String> preferred = Set.copyOf(preferredCategories);
+        return entry -> {
+            List<String> categories = entry.getCategories();
+            for (int i = 0; i < categories.size(); i++) {
+                if (preferred.contains(categories.get(i))) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    // Phần tử "kém hơn" nằm gần gốc: điểm thấp hơn, cùng điểm thì đến sau trong đầu vào
+    private static boolean isWorse(int[] indexes, double[] scores, int a, int b) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && indexes[a] > indexes[b]);
+    }
+
+    private static void siftUp(int[] indexes, double[] scores, int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!isWorse(indexes, scores, position, parent)) {
+                return;
+            }
+            swap(indexes, scores, position, parent);
+            position = parent;
+        }
+    }
+
+    private static void siftDown(int[] indexes, double[] scores, int position, int size) {
+        while (true) {
+            int left = 2 * position + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && isWorse(indexes, scores, right, left)) {
+                worst = right;
+            }
+            if (!isWorse(indexes, scores, worst, position)) {
+                return;
+            }
+            swap(indexes, scores, position, worst);
+            position = worst;
+        }
+    }
+
+    private static void swap(int[] indexes, double[] scores, int a, int b) {
+        int index = indexes[a];
+        indexes[a] = indexes[b];
+        indexes[b] = index;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
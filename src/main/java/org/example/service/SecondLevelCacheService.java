@@ -0,0 +1,104 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.SecondLevelCacheConfig;
+import org.example.entity.MenuItem;
+import org.example.entity.MenuItemAddOn;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Xóa dữ liệu khỏi Hibernate second-level cache khi bảng bị ghi ngoài Hibernate (JDBC batch)
+ * và thống kê hit/miss theo region cho admin.
+ * Ghi qua entity hoặc JPQL thì Hibernate tự cập nhật cache, không cần gọi service này.
+ */
+@Service
+public class SecondLevelCacheService {
+
+    private static final String MENU_ITEM_TAGS = MenuItem.class.getName() + ".tags";
+    private static final String MENU_ITEM_ADD_ONS = MenuItem.class.getName() + ".availableAddOns";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Xóa các menu item (kèm tags, add-ons) và danh sách category đã cache; nếu đang trong transaction thì
+     * xóa thêm lần nữa sau commit để request đọc xen giữa không đưa lại dữ liệu cũ vào cache
+     */
+    public void evictMenuItems(Collection<Long> menuItemIds) {
+        List<Long> ids = List.copyOf(menuItemIds);
+        evictMenuItemsNow(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictMenuItemsNow(ids);
+                }
+            });
+        }
+    }
+
+    private void evictMenuItemsNow(List<Long> menuItemIds) {
+        Cache cache = sessionFactory().getCache();
+        for (Long menuItemId : menuItemIds) {
+            cache.evictEntityData(MenuItem.class, menuItemId);
+            cache.evictCollectionData(MENU_ITEM_TAGS, menuItemId);
+            cache.evictCollectionData(MENU_ITEM_ADD_ONS, menuItemId);
+        }
+        // Add-on bị thay bằng JDBC không biết trước ID
+        cache.evictEntityData(MenuItemAddOn.class);
+        cache.evictQueryRegion(SecondLevelCacheConfig.MENU_CATEGORIES_REGION);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        // Khi tắt thống kê các bộ đếm luôn bằng 0, trả về chúng sẽ gây hiểu nhầm hit rate
+        if (!statistics.isStatisticsEnabled()) {
+            return result;
+        }
+        result.put("hitCount", statistics.getSecondLevelCacheHitCount());
+        result.put("missCount", statistics.getSecondLevelCacheMissCount());
+        result.put("putCount", statistics.getSecondLevelCachePutCount());
+        result.put("hitRate", hitRate(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()));
+        result.put("queryCacheHitCount", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMissCount", statistics.getQueryCacheMissCount());
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted().forEach(region -> {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                Map<String, Object> counters = new LinkedHashMap<>();
+                counters.put("hitCount", regionStatistics.getHitCount());
+                counters.put("missCount", regionStatistics.getMissCount());
+                counters.put("putCount", regionStatistics.getPutCount());
+                counters.put("hitRate", hitRate(regionStatistics.getHitCount(), regionStatistics.getMissCount()));
+                regions.put(region, counters);
+            }
+        });
+        result.put("regions", regions);
+        return result;
+    }
+
+    private static double hitRate(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,302 @@
+package org.example.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Radix trie (trie nén: mỗi cạnh là một chuỗi) ánh xạ key -> các value có trọng số, hỗ trợ thêm/xóa từng key.
+ * Mỗi node lưu trọng số lớn nhất trong cây con và các value của nó theo thứ tự trọng số, nên top-N theo prefix
+ * duyệt best-first và dừng ngay khi đủ N kết quả, không phải quét toàn bộ cây con.
+ * Không thread-safe: caller tự đồng bộ (đọc song song được nếu không có ghi).
+ */
+public class AutocompleteTrie<T> {
+
+    /**
+     * Value khớp prefix kèm trọng số của nó
+     */
+    public record Completion<T>(T value, long weight) {
+    }
+
+    private static final class Node<T> {
+        private String label;
+        // Sắp xếp theo ký tự đầu của label (các con không trùng ký tự đầu)
+        private List<Node<T>> children = new ArrayList<>(0);
+        // Value đặt đúng tại key của node: tra theo value và duyệt theo trọng số giảm dần
+        private Map<T, Slot<T>> entries;
+        private TreeSet<Slot<T>> ranked;
+        private long maxWeight = Long.MIN_VALUE;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private int childIndex(char c) {
+            int low = 0;
+            int high = children.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = children.get(mid).label.charAt(0);
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private boolean hasEntries() {
+            return ranked != null && !ranked.isEmpty();
+        }
+
+        private void updateMaxWeight() {
+            long max = hasEntries() ? ranked.first().weight : Long.MIN_VALUE;
+            for (Node<T> child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+
+    private static final class Slot<T> {
+        private final T value;
+        private final long sequence;
+        private long weight;
+
+        private Slot(T value, long weight, long sequence) {
+            this.value = value;
+            this.weight = weight;
+            this.sequence = sequence;
+        }
+    }
+
+    // Trọng số giảm dần, cùng trọng số thì value thêm trước đứng trước
+    private static final Comparator<Slot<?>> SLOT_ORDER = Comparator
+        .<Slot<?>>comparingLong(slot -> -slot.weight)
+        .thenComparingLong(slot -> slot.sequence);
+
+    // Phần tử trong hàng đợi best-first: một node (theo maxWeight) hoặc value tiếp theo của một node (theo weight)
+    private record Candidate<T>(long weight, Node<T> node, Slot<T> slot, Iterator<Slot<T>> rest, long order) {
+    }
+
+    // Trọng số giảm dần; cùng trọng số thì value trước node, rồi tới thứ tự vào hàng đợi (key ngắn hơn trước)
+    private static final Comparator<Candidate<?>> CANDIDATE_ORDER = Comparator
+        .<Candidate<?>>comparingLong(candidate -> -candidate.weight())
+        .thenComparing(candidate -> candidate.node() != null)
+        .thenComparingLong(Candidate::order);
+
+    private final Node<T> root = new Node<>("");
+
+    private int size = 0;
+
+    private long sequence = 0;
+
+    /**
+     * Thêm value dưới key; nếu value đã có dưới key này thì chỉ cập nhật trọng số
+     */
+    public void put(String key, T value, long weight) {
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.childIndex(key.charAt(i));
+            if (index < 0) {
+                Node<T> leaf = new Node<>(key.substring(i));
+                node.children.add(-index - 1, leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node<T> child = node.children.get(index);
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // Tách cạnh: node trung gian giữ phần chung, child giữ phần còn lại
+                Node<T> middle = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.add(child);
+                middle.maxWeight = child.maxWeight;
+                node.children.set(index, middle);
+                child = middle;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+
+        if (node.entries == null) {
+            node.entries = new HashMap<>(2);
+            node.ranked = new TreeSet<>(SLOT_ORDER);
+        }
+        Slot<T> slot = node.entries.get(value);
+        if (slot == null) {
+            slot = new Slot<>(value, weight, sequence++);
+            node.entries.put(value, slot);
+            size++;
+        } else {
+            node.ranked.remove(slot);
+            slot.weight = weight;
+        }
+        node.ranked.add(slot);
+        for (int p = path.size() - 1; p >= 0; p--) {
+            path.get(p).updateMaxWeight();
+        }
+    }
+
+    /**
+     * Xóa value khỏi key; node rỗng được bỏ đi và node chỉ còn một con được gộp lại để cây luôn nén
+     * @return false nếu value không có dưới key
+     */
+    public boolean remove(String key, T value) {
+        if (key == null || key.isEmpty()) {
+            return false;
+        }
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.childIndex(key.charAt(i));
+            if (index < 0) {
+                return false;
+            }
+            Node<T> child = node.children.get(index);
+            if (!key.startsWith(child.label, i)) {
+                return false;
+            }
+            node = child;
+            path.add(node);
+            i += child.label.length();
+        }
+        Slot<T> slot = node.entries == null ? null : node.entries.remove(value);
+        if (slot == null) {
+            return false;
+        }
+        node.ranked.remove(slot);
+        size--;
+
+        for (int p = path.size() - 1; p > 0; p--) {
+            Node<T> current = path.get(p);
+            Node<T> parent = path.get(p - 1);
+            if (!current.hasEntries() && current.children.isEmpty()) {
+                parent.children.remove(parent.childIndex(current.label.charAt(0)));
+            } else if (!current.hasEntries() && current.children.size() == 1) {
+                Node<T> only = current.children.get(0);
+                current.label = current.label + only.label;
+                current.children = only.children;
+                current.entries = only.entries;
+                current.ranked = only.ranked;
+                current.maxWeight = only.maxWeight;
+            } else {
+                current.updateMaxWeight();
+            }
+        }
+        root.updateMaxWeight();
+        return true;
+    }
+
+    /**
+     * Tối đa limit value có key bắt đầu bằng prefix, trọng số giảm dần;
+     * value được thêm dưới nhiều key chỉ xuất hiện một lần
+     */
+    public List<Completion<T>> top(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return List.of();
+        }
+        Node<T> locus = findLocus(prefix);
+        if (locus == null || locus.maxWeight == Long.MIN_VALUE) {
+            return List.of();
+        }
+
+        List<Completion<T>> result = new ArrayList<>(limit);
+        Set<T> seen = new HashSet<>();
+        PriorityQueue<Candidate<T>> queue = new PriorityQueue<>(CANDIDATE_ORDER);
+        long order = 0;
+        queue.add(new Candidate<>(locus.maxWeight, locus, null, null, order++));
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate<T> candidate = queue.poll();
+            if (candidate.node() == null) {
+                Slot<T> slot = candidate.slot();
+                if (seen.add(slot.value)) {
+                    result.add(new Completion<>(slot.value, slot.weight));
+                }
+                // Value tiếp theo của cùng node chỉ vào hàng đợi khi value trước đã được lấy ra
+                if (candidate.rest().hasNext()) {
+                    Slot<T> next = candidate.rest().next();
+                    queue.add(new Candidate<>(next.weight, null, next, candidate.rest(), order++));
+                }
+                continue;
+            }
+            Node<T> node = candidate.node();
+            if (node.hasEntries()) {
+                Iterator<Slot<T>> rest = node.ranked.iterator();
+                Slot<T> first = rest.next();
+                queue.add(new Candidate<>(first.weight, null, first, rest, order++));
+            }
+            for (Node<T> child : node.children) {
+                queue.add(new Candidate<>(child.maxWeight, child, null, null, order++));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Số cặp (key, value) đang lưu
+     */
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        root.children = new ArrayList<>(0);
+        root.entries = null;
+        root.ranked = null;
+        root.maxWeight = Long.MIN_VALUE;
+        size = 0;
+    }
+
+    // Node đầu tiên mà mọi key trong cây con của nó đều bắt đầu bằng prefix
+    private Node<T> findLocus(String prefix) {
+        Node<T> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = node.childIndex(prefix.charAt(i));
+            if (index < 0) {
+                return null;
+            }
+            Node<T> child = node.children.get(index);
+            int common = commonPrefixLength(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+}
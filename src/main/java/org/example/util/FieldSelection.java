@@ -0,0 +1,186 @@
+package org.example.util;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tập field được yêu cầu qua tham số {@code ?fields=} (sparse fieldset), ví dụ
+ * {@code fields=id,name,rating} hoặc {@code fields=id,status,orderItems.menuItemName}.
+ * Mapper dùng để bỏ qua các field không được yêu cầu (tránh lazy load), Jackson dùng để chỉ ghi các field đó.
+ */
+public final class FieldSelection {
+
+    /**
+     * ID của Jackson filter gắn trên các response DTO hỗ trợ sparse fieldset
+     */
+    public static final String FILTER_ID = "fieldSelection";
+
+    public static final String PARAMETER = "fields";
+
+    /**
+     * Không giới hạn: trả về mọi field như trước
+     */
+    public static final FieldSelection ALL = new FieldSelection(null);
+
+    // null = tất cả field; ngược lại là field được chọn -> lựa chọn cho object lồng bên trong
+    private final Map<String, FieldSelection> fields;
+
+    private FieldSelection(Map<String, FieldSelection> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parse tham số fields; rỗng hoặc null nghĩa là tất cả field
+     */
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Map<String, Object> tree = new LinkedHashMap<>();
+        for (String path : fields.split(",")) {
+            String trimmed = path.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            addPath(tree, trimmed.split("\\."));
+        }
+        return tree.isEmpty() ? ALL : fromTree(tree);
+    }
+
+    /**
+     * Parse và kiểm tra các field cấp cao nhất có tồn tại trên response DTO
+     * @throws IllegalArgumentException nếu có field không tồn tại
+     */
+    public static FieldSelection parse(String fields, Class<?> responseType) {
+        FieldSelection selection = parse(fields);
+        selection.validate(responseType);
+        return selection;
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.containsKey(field);
+    }
+
+    /**
+     * Lựa chọn cho object lồng trong field; chỉ ghi tên field (không có ".") nghĩa là lấy toàn bộ object đó
+     */
+    public FieldSelection nested(String field) {
+        if (fields == null) {
+            return ALL;
+        }
+        FieldSelection nested = fields.get(field);
+        return nested != null ? nested : ALL;
+    }
+
+    public void validate(Class<?> responseType) {
+        if (fields == null) {
+            return;
+        }
+        for (String field : fields.keySet()) {
+            if (!hasField(responseType, field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+    }
+
+    /**
+     * Jackson filter chỉ ghi các field được chọn, xét theo đường dẫn từ response gốc đến object đang ghi
+     */
+    public SimpleBeanPropertyFilter toFilter() {
+        return new Filter(this);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addPath(Map<String, Object> tree, String[] segments) {
+        Map<String, Object> node = tree;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i].trim();
+            if (segment.isEmpty()) {
+                throw new IllegalArgumentException("Invalid fields parameter");
+            }
+            Object child = node.get(segment);
+            if (i == segments.length - 1) {
+                // "restaurant" ghi đè "restaurant.name": lấy toàn bộ object
+                node.put(segment, null);
+                return;
+            }
+            if (node.containsKey(segment) && child == null) {
+                return;
+            }
+            if (child == null) {
+                child = new LinkedHashMap<String, Object>();
+                node.put(segment, child);
+            }
+            node = (Map<String, Object>) child;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FieldSelection fromTree(Map<String, Object> tree) {
+        Map<String, FieldSelection> fields = new LinkedHashMap<>();
+        tree.forEach((name, child) -> fields.put(name, child == null ? ALL : fromTree((Map<String, Object>) child)));
+        return new FieldSelection(Collections.unmodifiableMap(fields));
+    }
+
+    private static boolean hasField(Class<?> type, String name) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class Filter extends SimpleBeanPropertyFilter {
+
+        private final FieldSelection root;
+
+        private Filter(FieldSelection root) {
+            this.root = root;
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            if (selectionFor(gen.getOutputContext()).includes(writer.getName())) {
+                writer.serializeAsField(pojo, gen, provider);
+            } else if (!gen.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, gen, provider);
+            }
+        }
+
+        // Chỉ tên field của các DTO có filter mới tính vào đường dẫn; wrapper như Page hay CursorPageResponse bị bỏ qua
+        private FieldSelection selectionFor(JsonStreamContext context) {
+            Deque<String> path = new ArrayDeque<>();
+            for (JsonStreamContext parent = context.getParent(); parent != null; parent = parent.getParent()) {
+                Object value = parent.getCurrentValue();
+                if (parent.inObject() && parent.getCurrentName() != null && value != null
+                        && value.getClass().isAnnotationPresent(JsonFilter.class)) {
+                    path.push(parent.getCurrentName());
+                }
+            }
+            FieldSelection selection = root;
+            for (String segment : path) {
+                selection = selection.nested(segment);
+            }
+            return selection;
+        }
+    }
+}
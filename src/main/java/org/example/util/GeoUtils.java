@@ -0,0 +1,244 @@
+package org.example.util;
+
+import org.locationtech.jts.geom.Coordinate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Các hàm tính toán địa lý dùng chung (haversine, bounding box theo độ)
+ */
+public final class GeoUtils {
+
+    /**
+     * Bán kính trung bình của Trái Đất (meters)
+     */
+    public static final double EARTH_RADIUS_METERS = 6_371_000d;
+
+    /**
+     * Số meters trên một độ vĩ
+     */
+    public static final double METERS_PER_DEGREE_LAT = 111_320d;
+
+    // Giá trị 32 bit có dấu cần tối đa 6 nhóm 5 bit trong encoded polyline
+    private static final int POLYLINE_MAX_CHUNKS = 6;
+
+    private static final String GEOHASH_BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private GeoUtils() {
+    }
+
+    /**
+     * Tính khoảng cách Haversine giữa 2 điểm (meters)
+     */
+    public static double haversineMeters(double lat1, double lng1, double lat2, double lng2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lngDistance = Math.toRadians(lng2 - lng1);
+
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lngDistance / 2) * Math.sin(lngDistance / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS_METERS * c;
+    }
+
+    /**
+     * Tính khoảng cách Haversine từ một điểm gốc đến nhiều điểm (meters).
+     * Dùng mảng nguyên thủy để tránh tạo object cho từng điểm khi tính hàng loạt.
+     * @param lats vĩ độ các điểm đích
+     * @param lngs kinh độ các điểm đích
+     * @param out mảng kết quả, phải có độ dài tối thiểu bằng count
+     * @param count số điểm cần tính
+     */
+    public static void haversineMeters(double originLat, double originLng,
+                                       double[] lats, double[] lngs, double[] out, int count) {
+        double originLatRad = Math.toRadians(originLat);
+        double originLngRad = Math.toRadians(originLng);
+        double cosOriginLat = Math.cos(originLatRad);
+
+        for (int i = 0; i < count; i++) {
+            double latRad = Math.toRadians(lats[i]);
+            double sinHalfLat = Math.sin((latRad - originLatRad) / 2);
+            double sinHalfLng = Math.sin((Math.toRadians(lngs[i]) - originLngRad) / 2);
+
+            double a = sinHalfLat * sinHalfLat + cosOriginLat * Math.cos(latRad) * sinHalfLng * sinHalfLng;
+            out[i] = 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1d, Math.sqrt(a)));
+        }
+    }
+
+    /**
+     * Đổi bán kính (meters) sang độ vĩ
+     */
+    public static double metersToLatDegrees(double meters) {
+        return meters / METERS_PER_DEGREE_LAT;
+    }
+
+    /**
+     * Đổi bán kính (meters) sang độ kinh tại vĩ độ cho trước
+     */
+    public static double metersToLngDegrees(double meters, double latitude) {
+        // Tránh chia cho 0 ở gần hai cực
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        return Math.min(meters / (METERS_PER_DEGREE_LAT * cosLat), 180d);
+    }
+
+    /**
+     * Giải mã encoded polyline (định dạng Google, precision 5)
+     * @return Danh sách tọa độ với x = longitude, y = latitude
+     * @throws IllegalArgumentException nếu chuỗi sai định dạng hoặc tọa độ nằm ngoài phạm vi hợp lệ
+     */
+    public static List<Coordinate> decodePolyline(String encoded) {
+        List<Coordinate> coordinates = new ArrayList<>();
+        int index = 0;
+        int lat = 0;
+        int lng = 0;
+
+        while (index < encoded.length()) {
+            int[] result = decodePolylineValue(encoded, index);
+            lat += result[0];
+            index = result[1];
+
+            result = decodePolylineValue(encoded, index);
+            lng += result[0];
+            index = result[1];
+
+            double latitude = lat / 1e5;
+            double longitude = lng / 1e5;
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                throw new IllegalArgumentException("Encoded polyline contains coordinates out of range");
+            }
+            coordinates.add(new Coordinate(longitude, latitude));
+        }
+        return coordinates;
+    }
+
+    // Trả về {giá trị đã giải mã, vị trí tiếp theo trong chuỗi}
+    private static int[] decodePolylineValue(String encoded, int index) {
+        int shift = 0;
+        int result = 0;
+        int chunk;
+        do {
+            // Mỗi giá trị tối đa 6 nhóm 5 bit (30 bit), ký tự hợp lệ trong khoảng '?'..'~'
+            if (index >= encoded.length() || shift >= POLYLINE_MAX_CHUNKS * 5) {
+                throw new IllegalArgumentException("Invalid encoded polyline");
+            }
+            char c = encoded.charAt(index++);
+            if (c < 63 || c > 126) {
+                throw new IllegalArgumentException("Invalid encoded polyline");
+            }
+            chunk = c - 63;
+            result |= (chunk & 0x1f) << shift;
+            shift += 5;
+        } while (chunk >= 0x20);
+
+        int value = (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+        return new int[]{value, index};
+    }
+
+    /**
+     * Mã hóa tọa độ thành geohash với độ dài cho trước
+     */
+    public static String geohash(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int charIndex = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    charIndex = (charIndex << 1) | 1;
+                    minLng = mid;
+                } else {
+                    charIndex <<= 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    charIndex = (charIndex << 1) | 1;
+                    minLat = mid;
+                } else {
+                    charIndex <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(GEOHASH_BASE32.charAt(charIndex));
+                bit = 0;
+                charIndex = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Giải mã geohash thành ô {minLat, minLng, maxLat, maxLng}
+     */
+    public static double[] geohashBounds(String geohash) {
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        boolean evenBit = true;
+
+        for (int i = 0; i < geohash.length(); i++) {
+            int charIndex = GEOHASH_BASE32.indexOf(geohash.charAt(i));
+            if (charIndex < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + geohash);
+            }
+            for (int bit = 4; bit >= 0; bit--) {
+                boolean set = ((charIndex >> bit) & 1) == 1;
+                if (evenBit) {
+                    double mid = (minLng + maxLng) / 2;
+                    if (set) {
+                        minLng = mid;
+                    } else {
+                        maxLng = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) {
+                        minLat = mid;
+                    } else {
+                        maxLat = mid;
+                    }
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new double[]{minLat, minLng, maxLat, maxLng};
+    }
+
+    /**
+     * Tọa độ X (theo đơn vị tile, có phần lẻ) của kinh độ trong lưới tile Web Mercator tại mức zoom
+     */
+    public static double lngToTileX(double longitude, int zoom) {
+        return (longitude + 180d) / 360d * (1L << zoom);
+    }
+
+    /**
+     * Tọa độ Y (theo đơn vị tile, có phần lẻ) của vĩ độ trong lưới tile Web Mercator tại mức zoom
+     */
+    public static double latToTileY(double latitude, int zoom) {
+        double latRad = Math.toRadians(latitude);
+        return (1d - Math.log(Math.tan(latRad) + 1d / Math.cos(latRad)) / Math.PI) / 2d * (1L << zoom);
+    }
+
+    /**
+     * Phạm vi của tile z/x/y dạng {minLat, minLng, maxLat, maxLng}
+     */
+    public static double[] tileBounds(int zoom, int x, int y) {
+        double tiles = 1L << zoom;
+        double minLng = x / tiles * 360d - 180d;
+        double maxLng = (x + 1) / tiles * 360d - 180d;
+        double maxLat = Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y / tiles))));
+        double minLat = Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * (y + 1) / tiles))));
+        return new double[]{minLat, minLng, maxLat, maxLng};
+    }
+}
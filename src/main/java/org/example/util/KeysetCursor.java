@@ -0,0 +1,72 @@
+package org.example.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Con trỏ phân trang keyset theo cặp (created_at, id).
+ * Được mã hóa base64url để client chỉ chuyển tiếp nguyên vẹn, không tự dựng.
+ */
+public final class KeysetCursor {
+
+    private static final String VERSION = "v1";
+
+    // Giá trị biên dùng cho trang đầu, nằm ngoài mọi giá trị created_at thực tế
+    private static final LocalDateTime MAX_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final LocalDateTime MIN_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    private KeysetCursor(LocalDateTime createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static KeysetCursor of(LocalDateTime createdAt, Long id) {
+        return new KeysetCursor(createdAt, id);
+    }
+
+    /**
+     * Con trỏ trước phần tử đầu tiên của danh sách
+     * @param descending true nếu danh sách sắp xếp giảm dần theo (created_at, id)
+     */
+    public static KeysetCursor first(boolean descending) {
+        return descending
+            ? new KeysetCursor(MAX_CREATED_AT, Long.MAX_VALUE)
+            : new KeysetCursor(MIN_CREATED_AT, Long.MIN_VALUE);
+    }
+
+    /**
+     * Giải mã con trỏ từ request; null hoặc rỗng nghĩa là trang đầu
+     */
+    public static KeysetCursor decode(String cursor, boolean descending) {
+        if (cursor == null || cursor.isBlank()) {
+            return first(descending);
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,261 @@
+package org.example.util;
+
+import org.example.dto.request.BulkMenuItemRequest;
+import org.example.dto.request.CreateMenuItemAddOnRequest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Đọc file CSV menu theo luồng (không nạp cả file vào bộ nhớ) thành các dòng BulkMenuItemRequest.
+ * Dòng đầu là header, thứ tự cột tùy ý: name, price (bắt buộc), description, category, imageUrl,
+ * isAvailable, preparationTimeMinutes, tags, addOns.
+ * Hỗ trợ giá trị trong dấu ngoặc kép (chứa dấu phẩy, xuống dòng, "" là một dấu ngoặc kép).
+ * tags: {@code Spicy|Vegetarian}; addOns: {@code Size lớn:10000:Size|Thêm trứng:5000} (tên:giá[:category]).
+ */
+public final class MenuCsvReader {
+
+    private static final String LIST_SEPARATOR = "\\|";
+
+    private static final List<String> COLUMNS = List.of(
+        "name", "description", "price", "category", "imageurl", "isavailable",
+        "preparationtimeminutes", "tags", "addons");
+
+    private MenuCsvReader() {
+    }
+
+    /**
+     * @param maxRows Số dòng dữ liệu tối đa
+     * @throws IllegalArgumentException nếu header không hợp lệ hoặc file có quá nhiều dòng
+     */
+    public static Result read(Reader reader, int maxRows) throws IOException {
+        Tokenizer tokenizer = new Tokenizer(reader);
+        List<String> header = tokenizer.nextRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> columns = parseHeader(header);
+
+        Result result = new Result();
+        List<String> record;
+        while ((record = tokenizer.nextRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            if (result.rows.size() == maxRows) {
+                throw new IllegalArgumentException("CSV file has more than " + maxRows + " rows");
+            }
+            List<String> errors = new ArrayList<>();
+            result.rows.add(toRequest(record, columns, errors));
+            if (!errors.isEmpty()) {
+                result.errors.put(result.rows.size(), errors);
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, Integer> parseHeader(List<String> header) {
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim();
+            // Bỏ BOM do Excel thêm vào đầu file UTF-8
+            if (i == 0 && column.startsWith("\uFEFF")) {
+                column = column.substring(1);
+            }
+            String key = column.toLowerCase(Locale.ROOT);
+            if (!COLUMNS.contains(key)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + column);
+            }
+            if (columns.put(key, i) != null) {
+                throw new IllegalArgumentException("Duplicate CSV column: " + column);
+            }
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new IllegalArgumentException("CSV header must contain name and price columns");
+        }
+        return columns;
+    }
+
+    private static BulkMenuItemRequest toRequest(List<String> record, Map<String, Integer> columns, List<String> errors) {
+        BulkMenuItemRequest request = new BulkMenuItemRequest();
+        request.setName(value(record, columns, "name"));
+        request.setDescription(value(record, columns, "description"));
+        request.setCategory(value(record, columns, "category"));
+        request.setImageUrl(value(record, columns, "imageurl"));
+
+        String price = value(record, columns, "price");
+        if (price != null) {
+            try {
+                request.setPrice(new BigDecimal(price));
+            } catch (NumberFormatException e) {
+                errors.add("Invalid price: " + price);
+            }
+        }
+
+        String available = value(record, columns, "isavailable");
+        if (available != null) {
+            switch (available.toLowerCase(Locale.ROOT)) {
+                case "true", "yes", "1" -> request.setIsAvailable(true);
+                case "false", "no", "0" -> request.setIsAvailable(false);
+                default -> errors.add("Invalid isAvailable: " + available);
+            }
+        }
+
+        String preparationTime = value(record, columns, "preparationtimeminutes");
+        if (preparationTime != null) {
+            try {
+                request.setPreparationTimeMinutes(Integer.valueOf(preparationTime));
+            } catch (NumberFormatException e) {
+                errors.add("Invalid preparationTimeMinutes: " + preparationTime);
+            }
+        }
+
+        String tags = value(record, columns, "tags");
+        if (tags != null) {
+            request.setTags(Arrays.stream(tags.split(LIST_SEPARATOR))
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .toList());
+        }
+
+        String addOns = value(record, columns, "addons");
+        if (addOns != null) {
+            List<CreateMenuItemAddOnRequest> addOnRequests = new ArrayList<>();
+            for (String entry : addOns.split(LIST_SEPARATOR)) {
+                if (!entry.isBlank()) {
+                    addOnRequests.add(toAddOn(entry.trim(), addOnRequests.size(), errors));
+                }
+            }
+            request.setAddOns(addOnRequests);
+        }
+        return request;
+    }
+
+    // tên:giá[:category]
+    private static CreateMenuItemAddOnRequest toAddOn(String entry, int position, List<String> errors) {
+        String[] parts = entry.split(":", 3);
+        CreateMenuItemAddOnRequest addOn = new CreateMenuItemAddOnRequest();
+        addOn.setName(parts[0].trim());
+        addOn.setDisplayOrder(position);
+        if (parts.length < 2) {
+            errors.add("Add-on must be written as name:price[:category]: " + entry);
+            return addOn;
+        }
+        try {
+            addOn.setPrice(new BigDecimal(parts[1].trim()));
+        } catch (NumberFormatException e) {
+            errors.add("Invalid add-on price: " + entry);
+        }
+        if (parts.length == 3 && !parts[2].isBlank()) {
+            addOn.setCategory(parts[2].trim());
+        }
+        return addOn;
+    }
+
+    // Ô trống hoặc thiếu cột -> null
+    private static String value(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Các dòng đã đọc và lỗi chuyển đổi theo số dòng (đánh số từ 1, không tính header)
+     */
+    public static final class Result {
+
+        private final List<BulkMenuItemRequest> rows = new ArrayList<>();
+        private final Map<Integer, List<String>> errors = new LinkedHashMap<>();
+
+        public List<BulkMenuItemRequest> getRows() {
+            return rows;
+        }
+
+        public Map<Integer, List<String>> getErrors() {
+            return errors;
+        }
+    }
+
+    /**
+     * Tách record theo RFC 4180, đọc từng ký tự từ Reader
+     */
+    private static final class Tokenizer {
+
+        private final Reader reader;
+        private int lookahead = -2;
+
+        private Tokenizer(Reader reader) {
+            this.reader = reader;
+        }
+
+        List<String> nextRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted value in CSV");
+                    }
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    if (peek() == '\n') {
+                        read();
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private int read() throws IOException {
+            if (lookahead != -2) {
+                int c = lookahead;
+                lookahead = -2;
+                return c;
+            }
+            return reader.read();
+        }
+
+        private int peek() throws IOException {
+            if (lookahead == -2) {
+                lookahead = reader.read();
+            }
+            return lookahead;
+        }
+    }
+}
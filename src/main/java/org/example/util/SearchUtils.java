@@ -0,0 +1,73 @@
+package org.example.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Chuẩn hóa từ khóa tìm kiếm cho full-text search PostgreSQL và autocomplete trong bộ nhớ.
+ * Với full-text search, bỏ dấu được làm trong SQL bằng f_unaccent (create_search_vectors.sql) để giống hệt lúc tạo search_vector.
+ */
+public final class SearchUtils {
+
+    /**
+     * Số từ tối đa được dùng trong một tsquery
+     */
+    public static final int MAX_TERMS = 8;
+
+    private SearchUtils() {
+    }
+
+    /**
+     * Chuyển từ khóa người dùng nhập thành tsquery dạng prefix ("phở bò" -> "phở:* & bò:*"),
+     * chỉ giữ chữ và số để tránh lỗi cú pháp tsquery; chuỗi rỗng nếu không có từ nào
+     */
+    public static String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        // Dạng NFC để dấu tổ hợp (bàn phím gõ dấu rời) không tách một từ thành nhiều phần
+        String normalized = Normalizer.normalize(query, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        return Arrays.stream(normalized.split("[^\\p{L}\\p{M}\\p{N}]+"))
+            .filter(word -> !word.isEmpty())
+            .distinct()
+            .limit(MAX_TERMS)
+            .map(word -> word + ":*")
+            .collect(Collectors.joining(" & "));
+    }
+
+    /**
+     * Bỏ dấu, chữ thường, thay ký tự không phải chữ/số bằng một khoảng trắng ("Phở  Bò-Tái" -> "pho bo tai");
+     * chuỗi rỗng nếu null
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder result = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            int type = Character.getType(c);
+            if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK || type == Character.ENCLOSING_MARK) {
+                continue;
+            }
+            // đ/Đ không tách được thành d + dấu
+            if (c == 'đ' || c == 'Đ') {
+                c = 'd';
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && result.length() > 0) {
+                    result.append(' ');
+                }
+                pendingSpace = false;
+                result.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return result.toString();
+    }
+}
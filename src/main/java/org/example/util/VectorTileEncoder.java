@@ -0,0 +1,166 @@
+package org.example.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mã hóa một layer điểm theo định dạng Mapbox Vector Tile 2.1 (protobuf).
+ * Chỉ hỗ trợ geometry POINT và thuộc tính kiểu String, số và Boolean,
+ * đủ cho lớp marker restaurant trên bản đồ mà không cần thêm thư viện protobuf.
+ */
+public final class VectorTileEncoder {
+
+    public static final int DEFAULT_EXTENT = 4096;
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private static final int GEOM_TYPE_POINT = 1;
+    private static final int COMMAND_MOVE_TO_ONE = (1 & 0x7) | (1 << 3);
+
+    private final String layerName;
+    private final int extent;
+
+    private final List<String> keys = new ArrayList<>();
+    private final Map<String, Integer> keyIndexes = new HashMap<>();
+    private final List<Object> values = new ArrayList<>();
+    private final Map<Object, Integer> valueIndexes = new HashMap<>();
+    private final List<byte[]> features = new ArrayList<>();
+
+    public VectorTileEncoder(String layerName) {
+        this(layerName, DEFAULT_EXTENT);
+    }
+
+    public VectorTileEncoder(String layerName, int extent) {
+        this.layerName = layerName;
+        this.extent = extent;
+    }
+
+    public int getExtent() {
+        return extent;
+    }
+
+    /**
+     * Thêm một điểm
+     * @param id ID của feature
+     * @param x tọa độ trong tile (0..extent, có thể lệch ra ngoài trong vùng buffer)
+     * @param y tọa độ trong tile, trục Y hướng xuống
+     * @param attributes thuộc tính; giá trị null bị bỏ qua
+     */
+    public void addPoint(long id, int x, int y, Map<String, ?> attributes) {
+        ByteArrayOutputStream tags = new ByteArrayOutputStream();
+        for (Map.Entry<String, ?> attribute : attributes.entrySet()) {
+            if (attribute.getValue() == null) {
+                continue;
+            }
+            writeVarint(tags, keyIndexes.computeIfAbsent(attribute.getKey(), key -> {
+                keys.add(key);
+                return keys.size() - 1;
+            }));
+            writeVarint(tags, valueIndexes.computeIfAbsent(normalize(attribute.getValue()), value -> {
+                values.add(value);
+                return values.size() - 1;
+            }));
+        }
+
+        ByteArrayOutputStream geometry = new ByteArrayOutputStream();
+        writeVarint(geometry, COMMAND_MOVE_TO_ONE);
+        writeVarint(geometry, zigZag(x));
+        writeVarint(geometry, zigZag(y));
+
+        ByteArrayOutputStream feature = new ByteArrayOutputStream();
+        writeTag(feature, 1, WIRE_VARINT);
+        writeVarint(feature, id);
+        writeBytes(feature, 2, tags.toByteArray());
+        writeTag(feature, 3, WIRE_VARINT);
+        writeVarint(feature, GEOM_TYPE_POINT);
+        writeBytes(feature, 4, geometry.toByteArray());
+        features.add(feature.toByteArray());
+    }
+
+    /**
+     * Kết quả tile gồm một layer
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream layer = new ByteArrayOutputStream();
+        writeTag(layer, 15, WIRE_VARINT);
+        writeVarint(layer, 2);
+        writeBytes(layer, 1, layerName.getBytes(StandardCharsets.UTF_8));
+        for (byte[] feature : features) {
+            writeBytes(layer, 2, feature);
+        }
+        for (String key : keys) {
+            writeBytes(layer, 3, key.getBytes(StandardCharsets.UTF_8));
+        }
+        for (Object value : values) {
+            writeBytes(layer, 4, encodeValue(value));
+        }
+        writeTag(layer, 5, WIRE_VARINT);
+        writeVarint(layer, extent);
+
+        ByteArrayOutputStream tile = new ByteArrayOutputStream();
+        writeBytes(tile, 3, layer.toByteArray());
+        return tile.toByteArray();
+    }
+
+    // Số nguyên gom về Long, số thực về Double để trùng giá trị dùng chung một index
+    private static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Float) {
+            return ((Float) value).doubleValue();
+        }
+        if (value instanceof String || value instanceof Long || value instanceof Double || value instanceof Boolean) {
+            return value;
+        }
+        return value.toString();
+    }
+
+    private static byte[] encodeValue(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (value instanceof String) {
+            writeBytes(out, 1, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Double) {
+            writeTag(out, 3, WIRE_FIXED64);
+            long bits = Double.doubleToLongBits((Double) value);
+            for (int i = 0; i < 8; i++) {
+                out.write((int) (bits >>> (8 * i)) & 0xff);
+            }
+        } else if (value instanceof Long) {
+            writeTag(out, 6, WIRE_VARINT);
+            writeVarint(out, zigZag((Long) value));
+        } else {
+            writeTag(out, 7, WIRE_VARINT);
+            writeVarint(out, Boolean.TRUE.equals(value) ? 1 : 0);
+        }
+        return out.toByteArray();
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static void writeTag(ByteArrayOutputStream out, int field, int wireType) {
+        writeVarint(out, ((long) field << 3) | wireType);
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, int field, byte[] bytes) {
+        writeTag(out, field, WIRE_LENGTH_DELIMITED);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.benchmark;
+
+import org.example.entity.ApprovalStatus;
+import org.example.entity.Restaurant;
+import org.example.service.AutocompleteIndex;
+import org.example.util.SearchUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh top-8 gợi ý bằng quét toàn bộ tên đã bỏ dấu (startsWith + sort)
+ * với radix trie của AutocompleteIndex, trên 20k restaurant và 400k món.
+ *
+ * Chạy: mvn test-compile exec:java -Dexec.mainClass=org.example.benchmark.AutocompleteBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutocompleteBenchmark {
+
+    private static final String[] WORDS = {
+        "Phở", "Bún", "Cơm", "Bánh", "Mì", "Gà", "Bò", "Heo", "Chả", "Nướng", "Chiên", "Xào", "Tái", "Sườn",
+        "Trứng", "Rau", "Cá", "Tôm", "Mực", "Lẩu", "Trà", "Sữa", "Đá", "Nóng", "Chay", "Cuốn", "Xôi", "Chè"
+    };
+
+    private static final String[] CATEGORIES = {
+        "Phở", "Cơm", "Bún", "Bánh Mì", "Cafe", "Trà Sữa", "Lẩu", "Nướng", "Chay", "Hải Sản"
+    };
+
+    @Param({"p", "pho", "ga nu"})
+    private String query;
+
+    @Param({"20000"})
+    private int restaurantCount;
+
+    private List<String> names;
+    private List<Long> weights;
+    private AutocompleteIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Restaurant> restaurants = new ArrayList<>(restaurantCount);
+        List<AutocompleteIndex.Dish> dishes = new ArrayList<>();
+        Map<Long, Long> orderCounts = new HashMap<>();
+        Map<Long, Long> soldCounts = new HashMap<>();
+        names = new ArrayList<>();
+        weights = new ArrayList<>();
+        long menuItemId = 1;
+        for (int i = 0; i < restaurantCount; i++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId((long) i + 1);
+            restaurant.setName(name(random, 2 + random.nextInt(3)) + " " + i);
+            restaurant.setIsActive(true);
+            restaurant.setApprovalStatus(ApprovalStatus.APPROVED);
+            restaurant.setCategories(new ArrayList<>(List.of(CATEGORIES[random.nextInt(CATEGORIES.length)])));
+            restaurants.add(restaurant);
+            orderCounts.put(restaurant.getId(), (long) random.nextInt(5_000));
+            names.add(SearchUtils.normalize(restaurant.getName()));
+            weights.add(orderCounts.get(restaurant.getId()));
+            // Mỗi quán 20 món, tên ghép từ 2-4 từ nên nhiều món trùng tên giữa các quán
+            for (int j = 0; j < 20; j++) {
+                String dishName = name(random, 2 + random.nextInt(3));
+                dishes.add(new AutocompleteIndex.Dish(menuItemId, restaurant.getId(), dishName));
+                soldCounts.put(menuItemId, (long) random.nextInt(1_000));
+                names.add(SearchUtils.normalize(dishName));
+                weights.add(soldCounts.get(menuItemId));
+                menuItemId++;
+            }
+        }
+        index = new AutocompleteIndex();
+        index.load(restaurants, orderCounts, dishes, soldCounts);
+    }
+
+    @Benchmark
+    public void scanStartsWith(Blackhole blackhole) {
+        String prefix = SearchUtils.normalize(query);
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).startsWith(prefix) || names.get(i).contains(" " + prefix)) {
+                matches.add(i);
+            }
+        }
+        matches.sort(Comparator.comparing(weights::get, Comparator.reverseOrder()));
+        blackhole.consume(matches.subList(0, Math.min(AutocompleteIndex.DEFAULT_LIMIT, matches.size())));
+    }
+
+    @Benchmark
+    public void trieTopN(Blackhole blackhole) {
+        blackhole.consume(index.complete(query, AutocompleteIndex.DEFAULT_LIMIT));
+    }
+
+    private static String name(Random random, int words) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                name.append(' ');
+            }
+            name.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return name.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(AutocompleteBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.benchmark;
+
+import org.example.entity.ApprovalStatus;
+import org.example.entity.Restaurant;
+import org.example.service.RestaurantCategoryIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh lọc nhiều category bằng stream().anyMatch / containsAll trên từng restaurant
+ * với phép toán bitset của RestaurantCategoryIndex, trên 100k restaurant.
+ *
+ * Chạy: mvn test-compile exec:java -Dexec.mainClass=org.example.benchmark.CategoryIndexBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CategoryIndexBenchmark {
+
+    private static final String[] CATEGORIES = {
+        "Pho", "Com", "Bun", "Banh Mi", "Cafe", "Tra Sua", "Lau", "Nuong", "Chay", "Hai San",
+        "Pizza", "Burger", "Sushi", "Ga Ran", "Banh Ngot", "Kem", "Xoi", "Chao", "Mi", "Oc"
+    };
+
+    // Năm category dùng cho cả phép OR và AND
+    private static final List<String> FILTER = List.of("Pho", "Com", "Bun", "Cafe", "Tra Sua");
+
+    @Param({"100000"})
+    private int restaurantCount;
+
+    private List<Restaurant> restaurants;
+    private Set<Long> openIds;
+    private RestaurantCategoryIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        restaurants = new ArrayList<>(restaurantCount);
+        openIds = new HashSet<>();
+        for (int i = 0; i < restaurantCount; i++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId((long) i + 1);
+            restaurant.setIsActive(true);
+            restaurant.setApprovalStatus(ApprovalStatus.APPROVED);
+            // Mỗi quán 1-8 category; FILTER chiếm 5/20 nên vẫn có quán khớp đủ cả năm
+            Set<String> categories = new HashSet<>();
+            int count = 1 + random.nextInt(8);
+            while (categories.size() < count) {
+                categories.add(random.nextInt(3) == 0
+                    ? FILTER.get(random.nextInt(FILTER.size()))
+                    : CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            }
+            restaurant.setCategories(new ArrayList<>(categories));
+            restaurants.add(restaurant);
+            if (random.nextInt(10) < 6) {
+                openIds.add(restaurant.getId());
+            }
+        }
+        openIds = Set.copyOf(openIds);
+
+        index = new RestaurantCategoryIndex();
+        index.load(restaurants);
+    }
+
+    @Benchmark
+    public void streamAnyOfFive(Blackhole blackhole) {
+        blackhole.consume(restaurants.stream()
+            .filter(restaurant -> restaurant.getCategories().stream().anyMatch(FILTER::contains))
+            .map(Restaurant::getId)
+            .toList());
+    }
+
+    @Benchmark
+    public void bitsetAnyOfFive(Blackhole blackhole) {
+        blackhole.consume(index.findRestaurantIds(FILTER, null, null));
+    }
+
+    @Benchmark
+    public void streamAllOfFive(Blackhole blackhole) {
+        blackhole.consume(restaurants.stream()
+            .filter(restaurant -> restaurant.getCategories().containsAll(FILTER))
+            .map(Restaurant::getId)
+            .toList());
+    }
+
+    @Benchmark
+    public void bitsetAllOfFive(Blackhole blackhole) {
+        blackhole.consume(index.findRestaurantIds(null, FILTER, null));
+    }
+
+    @Benchmark
+    public void streamAnyOfFiveOpenNow(Blackhole blackhole) {
+        blackhole.consume(restaurants.stream()
+            .filter(restaurant -> openIds.contains(restaurant.getId()))
+            .filter(restaurant -> restaurant.getCategories().stream().anyMatch(FILTER::contains))
+            .map(Restaurant::getId)
+            .toList());
+    }
+
+    @Benchmark
+    public void bitsetAnyOfFiveOpenNow(Blackhole blackhole) {
+        blackhole.consume(index.findRestaurantIds(FILTER, null, openIds));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(CategoryIndexBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
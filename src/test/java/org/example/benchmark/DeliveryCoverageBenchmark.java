@@ -0,0 +1,109 @@
+package org.example.benchmark;
+
+import org.example.entity.ApprovalStatus;
+import org.example.entity.Restaurant;
+import org.example.service.DeliveryCoverageIndex;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.util.GeometricShapeFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh tra cứu "quán nào giao đến điểm này" bằng DeliveryCoverageIndex
+ * (STRtree + PreparedGeometry) với quét tuần tự Polygon.contains trên mọi polygon.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeliveryCoverageBenchmark {
+
+    private static final int QUERY_POINTS = 1024;
+
+    @Param({"1000", "5000"})
+    private int polygonCount;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private DeliveryCoverageIndex index;
+    private List<Polygon> polygons;
+    private double[] queryLats;
+    private double[] queryLngs;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        polygons = new ArrayList<>(polygonCount);
+        List<Restaurant> restaurants = new ArrayList<>(polygonCount);
+        for (int i = 0; i < polygonCount; i++) {
+            // Khu vực giao hàng 1-5 km quanh các điểm ngẫu nhiên trong nội thành TP.HCM
+            GeometricShapeFactory shapeFactory = new GeometricShapeFactory(geometryFactory);
+            shapeFactory.setCentre(new Coordinate(
+                106.60 + random.nextDouble() * 0.2,
+                10.70 + random.nextDouble() * 0.2));
+            shapeFactory.setSize(0.02 + random.nextDouble() * 0.08);
+            shapeFactory.setNumPoints(48);
+            Polygon polygon = shapeFactory.createCircle();
+            polygons.add(polygon);
+
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId((long) i);
+            restaurant.setIsActive(true);
+            restaurant.setApprovalStatus(ApprovalStatus.APPROVED);
+            restaurant.setDeliveryArea(polygon);
+            restaurants.add(restaurant);
+        }
+
+        index = new DeliveryCoverageIndex();
+        index.load(restaurants);
+
+        queryLats = new double[QUERY_POINTS];
+        queryLngs = new double[QUERY_POINTS];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queryLats[i] = 10.70 + random.nextDouble() * 0.2;
+            queryLngs[i] = 106.60 + random.nextDouble() * 0.2;
+        }
+    }
+
+    @Benchmark
+    public void preparedIndex(Blackhole blackhole) {
+        int i = cursor++ & (QUERY_POINTS - 1);
+        blackhole.consume(index.findRestaurantIdsDeliveringTo(queryLats[i], queryLngs[i]));
+    }
+
+    @Benchmark
+    public void sequentialScan(Blackhole blackhole) {
+        int i = cursor++ & (QUERY_POINTS - 1);
+        Point point = geometryFactory.createPoint(new Coordinate(queryLngs[i], queryLats[i]));
+        List<Long> result = new ArrayList<>();
+        for (int id = 0; id < polygons.size(); id++) {
+            if (polygons.get(id).contains(point)) {
+                result.add((long) id);
+            }
+        }
+        blackhole.consume(result);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(DeliveryCoverageBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
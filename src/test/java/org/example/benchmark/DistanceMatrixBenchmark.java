@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import org.example.util.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh tính khoảng cách theo từng restaurant (như calculateDistanceToRestaurant
+ * được gọi cho mỗi card) với kernel haversine trên mảng nguyên thủy.
+ *
+ * Chạy: mvn test-compile exec:java -Dexec.mainClass=org.example.benchmark.DistanceMatrixBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceMatrixBenchmark {
+
+    @Param({"40", "200"})
+    private int restaurantCount;
+
+    private double originLat;
+    private double originLng;
+    private double[] lats;
+    private double[] lngs;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        originLat = 10.7769;
+        originLng = 106.7009;
+        lats = new double[restaurantCount];
+        lngs = new double[restaurantCount];
+        out = new double[restaurantCount];
+        for (int i = 0; i < restaurantCount; i++) {
+            lats[i] = originLat + (random.nextDouble() - 0.5) * 0.2;
+            lngs[i] = originLng + (random.nextDouble() - 0.5) * 0.2;
+        }
+    }
+
+    @Benchmark
+    public void perRestaurant(Blackhole blackhole) {
+        List<Double> distances = new ArrayList<>(restaurantCount);
+        for (int i = 0; i < restaurantCount; i++) {
+            distances.add(GeoUtils.haversineMeters(lats[i], lngs[i], originLat, originLng));
+        }
+        blackhole.consume(distances);
+    }
+
+    @Benchmark
+    public void batchKernel(Blackhole blackhole) {
+        GeoUtils.haversineMeters(originLat, originLng, lats, lngs, out, restaurantCount);
+        blackhole.consume(out);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(DistanceMatrixBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.benchmark;
+
+import org.example.entity.ApprovalStatus;
+import org.example.entity.Restaurant;
+import org.example.service.RestaurantSpatialIndex;
+import org.example.service.RouteRecommendationRanker;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh xếp hạng gợi ý dọc tuyến đường bằng cách sắp xếp toàn bộ ứng viên theo điểm
+ * với min-heap giới hạn K phần tử duyệt một lượt (RouteRecommendationRanker).
+ *
+ * Chạy: mvn test-compile exec:java -Dexec.mainClass=org.example.benchmark.RouteRankingBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteRankingBenchmark {
+
+    private static final String[] CATEGORIES = {"Pho", "Com", "Bun", "Banh Mi", "Cafe", "Tra Sua"};
+
+    @Param({"50000"})
+    private int candidateCount;
+
+    @Param({"20"})
+    private int limit;
+
+    private List<RestaurantSpatialIndex.Neighbor> candidates;
+    private RouteRecommendationRanker ranker;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+        RestaurantSpatialIndex index = new RestaurantSpatialIndex();
+        double maxDetourMeters = 500;
+
+        candidates = new ArrayList<>(candidateCount);
+        for (int i = 0; i < candidateCount; i++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId((long) i + 1);
+            restaurant.setName("Restaurant " + i);
+            restaurant.setIsActive(true);
+            restaurant.setApprovalStatus(ApprovalStatus.APPROVED);
+            restaurant.setLocation(geometryFactory.createPoint(new Coordinate(
+                106.60 + random.nextDouble() * 0.2, 10.70 + random.nextDouble() * 0.2)));
+            restaurant.setRating(1 + random.nextDouble() * 4);
+            restaurant.setTotalReviews(random.nextInt(500));
+            restaurant.setCategories(List.of(CATEGORIES[random.nextInt(CATEGORIES.length)]));
+            // Khoảng 2/3 quán có giờ mở cửa, số còn lại chưa khai báo
+            if (i % 3 != 0) {
+                int openHour = 6 + random.nextInt(6);
+                restaurant.setOpeningTime(LocalTime.of(openHour, 0));
+                restaurant.setClosingTime(LocalTime.of(openHour + 8 + random.nextInt(4), 0));
+            }
+            index.refresh(restaurant);
+
+            RestaurantSpatialIndex.Entry entry = index.get(restaurant.getId()).orElseThrow();
+            candidates.add(new RestaurantSpatialIndex.Neighbor(
+                entry, random.nextDouble() * maxDetourMeters, random.nextDouble() * 15_000));
+        }
+
+        ranker = new RouteRecommendationRanker(
+            limit, maxDetourMeters, Instant.now(), 25.0, List.of("Pho", "Bun"));
+    }
+
+    @Benchmark
+    public void sortAll(Blackhole blackhole) {
+        List<RestaurantSpatialIndex.Neighbor> ranked = candidates.stream()
+            .sorted(Comparator.comparingDouble(ranker::score).reversed())
+            .limit(limit)
+            .toList();
+        blackhole.consume(ranked);
+    }
+
+    @Benchmark
+    public void boundedHeap(Blackhole blackhole) {
+        blackhole.consume(ranker.rank(candidates));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(RouteRankingBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
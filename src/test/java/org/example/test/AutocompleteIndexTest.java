@@ -0,0 +1,160 @@
+package org.example.test;
+
+import org.example.entity.ApprovalStatus;
+import org.example.entity.Restaurant;
+import org.example.repository.MenuItemRepository;
+import org.example.service.AutocompleteIndex;
+import org.example.util.AutocompleteTrie;
+import org.example.util.SearchUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the in-memory autocomplete trie and its incremental updates
+ */
+public class AutocompleteIndexTest {
+
+    private AutocompleteIndex index;
+
+    // Món đang bán trả về bởi repository stub khi index nạp lại menu
+    private final List<MenuItemRepository.MenuItemNameRow> menuRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        index = new AutocompleteIndex();
+        ReflectionTestUtils.setField(index, "menuItemRepository", menuItemRepository());
+        index.load(
+            List.of(
+                restaurant(1L, "Phở Thìn", "Phở", "Bún"),
+                restaurant(2L, "Bún Chả Hương Liên", "Bún"),
+                restaurant(3L, "Cơm Gà Xối Mỡ", "Cơm")),
+            Map.of(1L, 50L, 2L, 9L),
+            List.of(
+                new AutocompleteIndex.Dish(10L, 1L, "Phở Bò Tái"),
+                new AutocompleteIndex.Dish(11L, 1L, "Phở Gà"),
+                new AutocompleteIndex.Dish(20L, 2L, "Bún chả"),
+                new AutocompleteIndex.Dish(30L, 3L, "Phở bò tái")),
+            Map.of(10L, 100L, 30L, 5L, 20L, 40L));
+    }
+
+    @Test
+    void testTrieReturnsTopWeightedCompletionsAndStaysCompressed() {
+        AutocompleteTrie<String> trie = new AutocompleteTrie<>();
+        trie.put("pho bo", "pho bo", 5);
+        trie.put("pho ga", "pho ga", 9);
+        trie.put("pho", "pho", 1);
+        trie.put("phuc long", "phuc long", 7);
+        trie.put("bo", "pho bo", 5);
+
+        assertEquals(List.of("pho ga", "phuc long", "pho bo"), values(trie.top("ph", 3)));
+        assertEquals(List.of("pho ga", "pho bo", "pho"), values(trie.top("pho", 10)));
+        assertEquals(List.of("pho bo"), values(trie.top("b", 10)));
+        assertTrue(trie.top("pha", 10).isEmpty());
+
+        // Cập nhật trọng số thay vì thêm bản ghi mới
+        trie.put("pho", "pho", 20);
+        assertEquals(5, trie.size());
+        assertEquals(new AutocompleteTrie.Completion<>("pho", 20L), trie.top("p", 1).get(0));
+
+        assertTrue(trie.remove("pho ga", "pho ga"));
+        assertFalse(trie.remove("pho ga", "pho ga"));
+        assertTrue(trie.remove("pho", "pho"));
+        assertEquals(List.of("phuc long", "pho bo"), values(trie.top("ph", 10)));
+        assertEquals(List.of("pho bo"), values(trie.top("pho b", 10)));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    void testMatchesAccentStrippedWordPrefixesByPopularity() {
+        assertEquals("pho bo tai", SearchUtils.normalize("  Phở BÒ-tái "));
+        assertEquals("dac biet", SearchUtils.normalize("Đặc biệt"));
+
+        // Món cùng tên ở hai quán được gộp: (1 + 100) + (1 + 5)
+        List<AutocompleteIndex.Match> matches = index.complete("pho", 10);
+        assertEquals("Phở Bò Tái", matches.get(0).getSuggestion().getText());
+        assertEquals(AutocompleteIndex.Type.DISH, matches.get(0).getSuggestion().getType());
+        assertEquals(107L, matches.get(0).getScore());
+        // Cùng trọng số thì key ngắn hơn (category "Phở") đứng trước
+        assertEquals(List.of("Phở Bò Tái", "Phở", "Phở Thìn", "Phở Gà"), texts(matches));
+
+        // Khớp từ đầu của từ bất kỳ, không phân biệt dấu
+        assertEquals(List.of("Phở Bò Tái"), texts(index.complete("BÒ T", 10)));
+        AutocompleteIndex.Match restaurant = index.complete("huong lien", 10).get(0);
+        assertEquals(AutocompleteIndex.Type.RESTAURANT, restaurant.getSuggestion().getType());
+        assertEquals(2L, restaurant.getSuggestion().getRestaurantId());
+        // Category "Bún" của quán 1 và 2: (1 + 50) + (1 + 9)
+        assertEquals(61L, index.complete("bun", 1).get(0).getScore());
+
+        assertEquals(2, index.complete("b", 2).size());
+        assertTrue(index.complete(" - ", 10).isEmpty());
+    }
+
+    @Test
+    void testIncrementalMenuAndRestaurantUpdates() {
+        // Quán 3 ngừng bán "Phở bò tái" và thêm món mới
+        menuRows.add(row(31L, 3L, "Gà Nướng Muối Ớt"));
+        index.refreshMenu(3L);
+        assertEquals(101L, index.complete("pho bo", 1).get(0).getScore());
+        assertEquals(List.of("Gà Nướng Muối Ớt"), texts(index.complete("muoi", 10)));
+
+        // Quán 1 bị ngừng hoạt động: tên, category và món của quán biến mất
+        Restaurant inactive = restaurant(1L, "Phở Thìn", "Phở", "Bún");
+        inactive.setIsActive(false);
+        index.refreshRestaurant(inactive);
+        assertTrue(index.complete("pho", 10).isEmpty());
+        assertEquals(List.of("Bún chả", "Bún", "Bún Chả Hương Liên"), texts(index.complete("bun", 10)));
+        assertEquals(10L, index.complete("bun", 10).get(1).getScore());
+
+        // Quán mới được duyệt: thêm tên và nạp menu của nó
+        menuRows.clear();
+        menuRows.add(row(40L, 4L, "Phở Cuốn"));
+        index.refreshRestaurant(restaurant(4L, "Ngũ Xã", "Phở"));
+        assertEquals(List.of("Ngũ Xã"), texts(index.complete("ngu", 10)));
+        assertEquals(List.of("Phở", "Phở Cuốn"), texts(index.complete("pho", 10)));
+    }
+
+    private static List<String> values(List<AutocompleteTrie.Completion<String>> completions) {
+        return completions.stream().map(AutocompleteTrie.Completion::value).toList();
+    }
+
+    private static List<String> texts(List<AutocompleteIndex.Match> matches) {
+        return matches.stream().map(match -> match.getSuggestion().getText()).toList();
+    }
+
+    private MenuItemRepository menuItemRepository() {
+        return (MenuItemRepository) Proxy.newProxyInstance(MenuItemRepository.class.getClassLoader(),
+            new Class<?>[]{MenuItemRepository.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("findAvailableNamesByRestaurantId")) {
+                    return menuRows.stream().filter(row -> row.getRestaurantId().equals(args[0])).toList();
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    private static MenuItemRepository.MenuItemNameRow row(Long menuItemId, Long restaurantId, String name) {
+        Map<String, Object> values = Map.of("getMenuItemId", menuItemId, "getRestaurantId", restaurantId, "getName", name);
+        return (MenuItemRepository.MenuItemNameRow) Proxy.newProxyInstance(
+            MenuItemRepository.MenuItemNameRow.class.getClassLoader(),
+            new Class<?>[]{MenuItemRepository.MenuItemNameRow.class},
+            (proxy, method, args) -> values.get(method.getName()));
+    }
+
+    private static Restaurant restaurant(Long id, String name, String... categories) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName(name);
+        restaurant.setIsActive(true);
+        restaurant.setApprovalStatus(ApprovalStatus.APPROVED);
+        restaurant.setCategories(new ArrayList<>(List.of(categories)));
+        return restaurant;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.dto.mapper.OrderMapper;
+import org.example.dto.mapper.RestaurantMapper;
+import org.example.dto.response.CursorPageResponse;
+import org.example.dto.response.OrderResponse;
+import org.example.dto.response.RestaurantResponse;
+import org.example.entity.ApprovalStatus;
+import org.example.entity.Order;
+import org.example.entity.OrderItem;
+import org.example.entity.Restaurant;
+import org.example.entity.User;
+import org.example.util.FieldSelection;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ?fields= sparse fieldsets: mapper skips unrequested (lazy) relations
+ * and Jackson writes only the requested properties
+ */
+public class FieldSelectionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void testMapperDoesNotTouchUnrequestedRelations() {
+        Restaurant restaurant = new LazyRestaurant();
+        restaurant.setId(1L);
+        restaurant.setName("Pho 24");
+        restaurant.setRating(4.5);
+        restaurant.setApprovalStatus(ApprovalStatus.APPROVED);
+
+        RestaurantResponse response = new RestaurantMapper().toResponse(
+            restaurant, FieldSelection.parse("id,name,rating", RestaurantResponse.class));
+
+        assertEquals("Pho 24", response.getName());
+        assertEquals(4.5, response.getRating());
+        assertNull(response.getCategories());
+        assertNull(response.getOwnerName());
+    }
+
+    @Test
+    void testJacksonWritesOnlySelectedFieldsIncludingNested() throws Exception {
+        Order order = new Order();
+        order.setId(7L);
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        order.setTotalAmount(new BigDecimal("55000"));
+        OrderItem item = new OrderItem();
+        item.setId(70L);
+        item.setMenuItemName("Bun bo");
+        item.setQuantity(2);
+        order.setOrderItems(List.of(item));
+
+        FieldSelection selection = FieldSelection.parse("id,status,orderItems.menuItemName", OrderResponse.class);
+        OrderResponse response = new OrderMapper().toResponse(order, selection);
+        CursorPageResponse<OrderResponse> page = new CursorPageResponse<>(List.of(response), "next");
+
+        JsonNode json = objectMapper.readTree(objectMapper
+            .writer(new SimpleFilterProvider().addFilter(FieldSelection.FILTER_ID, selection.toFilter()))
+            .writeValueAsString(page));
+
+        // Wrapper không có filter nên giữ nguyên
+        assertEquals("next", json.get("nextCursor").asText());
+        JsonNode written = json.get("items").get(0);
+        assertEquals(List.of("id", "status", "orderItems"), fieldNames(written));
+        assertEquals(List.of("menuItemName"), fieldNames(written.get("orderItems").get(0)));
+    }
+
+    @Test
+    void testDefaultFilterWritesEverythingAndUnknownFieldsAreRejected() throws Exception {
+        RestaurantResponse response = new RestaurantResponse();
+        response.setId(1L);
+        response.setName("Pho 24");
+
+        JsonNode json = objectMapper.readTree(objectMapper
+            .writer(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()))
+            .writeValueAsString(response));
+        assertTrue(json.has("rejectionReason"));
+
+        assertTrue(FieldSelection.parse(" ").isAll());
+        assertTrue(FieldSelection.parse("restaurant.name,restaurant").nested("restaurant").isAll());
+        assertThrows(IllegalArgumentException.class,
+            () -> FieldSelection.parse("id,passwordHash", RestaurantResponse.class));
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    /**
+     * Restaurant có các quan hệ lazy báo lỗi nếu bị đọc
+     */
+    private static final class LazyRestaurant extends Restaurant {
+
+        @Override
+        public User getOwner() {
+            throw new AssertionError("owner should not be loaded");
+        }
+
+        @Override
+        public User getApprovedBy() {
+            throw new AssertionError("approvedBy should not be loaded");
+        }
+
+        @Override
+        public List<String> getCategories() {
+            throw new AssertionError("categories should not be loaded");
+        }
+    }
+}
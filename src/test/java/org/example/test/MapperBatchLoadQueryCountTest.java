@@ -0,0 +1,233 @@
+package org.example.test;
+
+import org.example.dto.mapper.CartMapper;
+import org.example.dto.mapper.MenuItemMapper;
+import org.example.dto.mapper.OrderMapper;
+import org.example.dto.response.CartResponse;
+import org.example.dto.response.MenuItemSummaryResponse;
+import org.example.dto.response.OrderResponse;
+import org.example.entity.Cart;
+import org.example.entity.CartItem;
+import org.example.entity.CartItemAddOn;
+import org.example.entity.MenuItem;
+import org.example.entity.Order;
+import org.example.entity.OrderAddOn;
+import org.example.entity.OrderItem;
+import org.example.repository.CartRepository;
+import org.example.repository.MenuItemRepository;
+import org.example.repository.OrderItemRepository;
+import org.example.service.CollectionBatchLoader;
+import org.example.util.FieldSelection;
+import org.hibernate.collection.spi.PersistentBag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for batch-loaded collections behind the mappers: the number of queries for a menu,
+ * cart or order page must not grow with the number of items. Collections of the test entities are
+ * uninitialized Hibernate bags without a session, so any lazy walk by a mapper fails the test.
+ */
+public class MapperBatchLoadQueryCountTest {
+
+    private int statements;
+
+    private MenuItemMapper menuItemMapper;
+    private CartMapper cartMapper;
+    private OrderMapper orderMapper;
+
+    @BeforeEach
+    void setUp() {
+        CollectionBatchLoader loader = new CollectionBatchLoader();
+        ReflectionTestUtils.setField(loader, "menuItemRepository", stub(MenuItemRepository.class));
+        ReflectionTestUtils.setField(loader, "cartRepository", stub(CartRepository.class));
+        ReflectionTestUtils.setField(loader, "orderItemRepository", stub(OrderItemRepository.class));
+
+        menuItemMapper = new MenuItemMapper();
+        cartMapper = new CartMapper();
+        orderMapper = new OrderMapper();
+        ReflectionTestUtils.setField(menuItemMapper, "collectionBatchLoader", loader);
+        ReflectionTestUtils.setField(cartMapper, "collectionBatchLoader", loader);
+        ReflectionTestUtils.setField(orderMapper, "collectionBatchLoader", loader);
+    }
+
+    @Test
+    void testMenuTagsLoadInOneQuery() {
+        assertEquals(1, countMenuStatements(1, FieldSelection.ALL));
+        assertEquals(1, countMenuStatements(60, FieldSelection.ALL));
+        // Không chọn tags thì không truy vấn
+        assertEquals(0, countMenuStatements(60, FieldSelection.parse("id,name")));
+
+        // Tags đã được khởi tạo (fetch join) thì dùng lại
+        MenuItem loaded = new MenuItem();
+        loaded.setId(1L);
+        loaded.setTags(new ArrayList<>(List.of("Spicy")));
+        statements = 0;
+        assertEquals(List.of("Spicy"), menuItemMapper.toSummaryResponseList(List.of(loaded)).get(0).getTags());
+        assertEquals(0, statements);
+    }
+
+    @Test
+    void testOrderPageLoadsItemsAndAddOnsWithTwoQueries() {
+        assertEquals(2, countOrderStatements(1, FieldSelection.parse("id,orderItems")));
+        assertEquals(2, countOrderStatements(50, FieldSelection.parse("id,orderItems")));
+        // Bản rút gọn chỉ cần order items để tính totalItems
+        assertEquals(1, countOrderStatements(50, FieldSelection.ALL));
+        assertEquals(0, countOrderStatements(50, FieldSelection.parse("id,status")));
+
+        statements = 0;
+        Page<OrderResponse> page = orderMapper.toSummaryResponsePage(
+            new PageImpl<>(orders(3), PageRequest.of(0, 3), 10), FieldSelection.parse("id,totalItems,orderItems.addOns"));
+        OrderResponse first = page.getContent().get(0);
+        assertEquals(10, page.getTotalElements());
+        assertEquals(6, first.getTotalItems());
+        assertEquals(3, first.getOrderItems().size());
+        assertEquals(2, first.getOrderItems().get(0).getAddOns().size());
+        assertEquals(2, statements);
+    }
+
+    @Test
+    void testCartListLoadsItemsAndAddOnsWithTwoQueries() {
+        assertEquals(2, countCartStatements(1));
+        assertEquals(2, countCartStatements(20));
+
+        statements = 0;
+        CartResponse response = cartMapper.toResponse(carts(1).get(0));
+        assertEquals(3, response.getCartItems().size());
+        assertEquals("Extra 1", response.getCartItems().get(0).getAddOns().get(0).getName());
+        assertEquals(2, statements);
+    }
+
+    private int countMenuStatements(int itemCount, FieldSelection fields) {
+        List<MenuItem> menuItems = new ArrayList<>();
+        for (long id = 1; id <= itemCount; id++) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setId(id);
+            menuItem.setName("Item " + id);
+            menuItem.setTags(new PersistentBag<>());
+            menuItems.add(menuItem);
+        }
+        statements = 0;
+        List<MenuItemSummaryResponse> responses = menuItemMapper.toSummaryResponseList(menuItems, fields);
+        assertEquals(itemCount, responses.size());
+        if (fields.includes("tags")) {
+            assertEquals(List.of("Tag " + itemCount), responses.get(itemCount - 1).getTags());
+        }
+        return statements;
+    }
+
+    private int countOrderStatements(int orderCount, FieldSelection fields) {
+        List<Order> orders = orders(orderCount);
+        statements = 0;
+        assertEquals(orderCount, orderMapper.toSummaryResponseList(orders, fields).size());
+        return statements;
+    }
+
+    private int countCartStatements(int cartCount) {
+        List<Cart> carts = carts(cartCount);
+        statements = 0;
+        assertEquals(cartCount, cartMapper.toResponseList(carts).size());
+        return statements;
+    }
+
+    private List<Order> orders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Order order = new Order();
+            order.setId(id);
+            order.setOrderItems(new PersistentBag<>());
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private List<Cart> carts(int count) {
+        List<Cart> carts = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Cart cart = new Cart();
+            cart.setId(id);
+            cart.setCartItems(new PersistentBag<>());
+            carts.add(cart);
+        }
+        return carts;
+    }
+
+    /**
+     * Repository giả: mỗi lời gọi là một câu SQL; mỗi cha có 3 item, mỗi item có 2 add-on,
+     * collection con của item trả về vẫn chưa được khởi tạo
+     */
+    private <T> T stub(Class<T> repositoryType) {
+        return repositoryType.cast(Proxy.newProxyInstance(repositoryType.getClassLoader(),
+            new Class<?>[]{repositoryType},
+            (proxy, method, args) -> {
+                statements++;
+                Collection<?> ids = (Collection<?>) args[0];
+                List<Object> rows = new ArrayList<>();
+                for (Object rawId : ids) {
+                    Long id = (Long) rawId;
+                    switch (method.getName()) {
+                        case "findTagsByMenuItemIdIn" -> rows.add(tagRow(id, "Tag " + id));
+                        case "findByOrderIdIn" -> {
+                            Order order = new Order();
+                            order.setId(id);
+                            for (int i = 1; i <= 3; i++) {
+                                OrderItem orderItem = new OrderItem();
+                                orderItem.setId(id * 10 + i);
+                                orderItem.setOrder(order);
+                                orderItem.setQuantity(i);
+                                orderItem.setAddOns(new PersistentBag<>());
+                                rows.add(orderItem);
+                            }
+                        }
+                        case "findAddOnsByOrderItemIdIn" -> {
+                            OrderItem orderItem = new OrderItem();
+                            orderItem.setId(id);
+                            for (int i = 1; i <= 2; i++) {
+                                rows.add(new OrderAddOn(orderItem, "Extra " + i, null, BigDecimal.ONE));
+                            }
+                        }
+                        case "findCartItemsByCartIdIn" -> {
+                            Cart cart = new Cart();
+                            cart.setId(id);
+                            for (int i = 1; i <= 3; i++) {
+                                CartItem cartItem = new CartItem();
+                                cartItem.setId(id * 10 + i);
+                                cartItem.setCart(cart);
+                                cartItem.setAddOns(new PersistentBag<>());
+                                rows.add(cartItem);
+                            }
+                        }
+                        case "findCartItemAddOnsByCartItemIdIn" -> {
+                            CartItem cartItem = new CartItem();
+                            cartItem.setId(id);
+                            for (int i = 1; i <= 2; i++) {
+                                rows.add(new CartItemAddOn(cartItem, "Extra " + i, null, BigDecimal.ONE));
+                            }
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+                }
+                return rows;
+            }));
+    }
+
+    private static MenuItemRepository.MenuItemTagRow tagRow(Long menuItemId, String tag) {
+        Map<String, Object> values = Map.of("getMenuItemId", menuItemId, "getTag", tag);
+        return (MenuItemRepository.MenuItemTagRow) Proxy.newProxyInstance(
+            MenuItemRepository.MenuItemTagRow.class.getClassLoader(),
+            new Class<?>[]{MenuItemRepository.MenuItemTagRow.class},
+            (proxy, method, args) -> values.get(method.getName()));
+    }
+}
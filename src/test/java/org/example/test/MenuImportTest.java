@@ -0,0 +1,136 @@
+package org.example.test;
+
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.example.dto.request.BulkMenuItemRequest;
+import org.example.dto.request.CreateMenuItemAddOnRequest;
+import org.example.dto.response.BulkMenuImportResponse;
+import org.example.service.MenuImportService;
+import org.example.util.MenuCsvReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for bulk menu import: CSV parsing and up-front validation with per-row errors
+ */
+public class MenuImportTest {
+
+    private ValidatorFactory validatorFactory;
+    private MenuImportService menuImportService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        menuImportService = new MenuImportService();
+        ReflectionTestUtils.setField(menuImportService, "validator", validatorFactory.getValidator());
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void testCsvReaderParsesQuotedValuesTagsAndAddOns() throws Exception {
+        String csv = "\uFEFFPrice,Name,description,tags,addOns,isAvailable\r\n" +
+                     "45000,Pho bo,\"Nuoc dung, \"\"dac biet\"\"\nham 12 tieng\",Hot|Beef,Them trung:5000|Size lon:10000:Size,no\r\n" +
+                     "\r\n" +
+                     "30000,Tra da,,,,\n";
+
+        MenuCsvReader.Result result = MenuCsvReader.read(new StringReader(csv), 10);
+
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(2, result.getRows().size());
+        BulkMenuItemRequest pho = result.getRows().get(0);
+        assertEquals("Pho bo", pho.getName());
+        assertEquals(new BigDecimal("45000"), pho.getPrice());
+        assertEquals("Nuoc dung, \"dac biet\"\nham 12 tieng", pho.getDescription());
+        assertEquals(List.of("Hot", "Beef"), pho.getTags());
+        assertFalse(pho.getIsAvailable());
+        assertEquals(2, pho.getAddOns().size());
+        assertEquals("Size", pho.getAddOns().get(1).getCategory());
+        assertEquals(1, pho.getAddOns().get(1).getDisplayOrder());
+
+        // Cột trống: giữ nguyên giá trị cũ khi cập nhật
+        BulkMenuItemRequest tea = result.getRows().get(1);
+        assertNull(tea.getDescription());
+        assertNull(tea.getTags());
+        assertNull(tea.getAddOns());
+        assertNull(tea.getIsAvailable());
+    }
+
+    @Test
+    void testCsvReaderRejectsBadHeaderAndTooManyRows() {
+        assertThrows(IllegalArgumentException.class,
+            () -> MenuCsvReader.read(new StringReader("name,price,colour\nPho,1,red\n"), 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> MenuCsvReader.read(new StringReader("name,description\nPho,x\n"), 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> MenuCsvReader.read(new StringReader("name,price\nA,1\nB,2\nC,3\n"), 2));
+        assertThrows(IllegalArgumentException.class,
+            () -> MenuCsvReader.read(new StringReader("name,price\n\"Pho,1\n"), 10));
+    }
+
+    @Test
+    void testValidationReportsEveryInvalidRow() throws Exception {
+        String csv = "name,price,preparationTimeMinutes,addOns\n" +
+                     "Pho bo,45000,10,\n" +
+                     "Bun cha,abc,15,\n" +
+                     ",30000,,\n" +
+                     " pho BO ,50000,,\n" +
+                     "Com tam,40000,soon,Them suon\n";
+        MenuCsvReader.Result result = MenuCsvReader.read(new StringReader(csv), 10);
+
+        BulkMenuImportResponse report = menuImportService.validate(result.getRows(), result.getErrors());
+
+        assertTrue(report.hasErrors());
+        assertEquals(5, report.getTotalRows());
+        assertEquals(4, report.getFailed());
+        assertEquals(List.of(2, 3, 4, 5), report.getErrors().stream().map(BulkMenuImportResponse.RowError::getRow).toList());
+        assertTrue(report.getErrors().get(0).getMessages().contains("Invalid price: abc"));
+        assertTrue(report.getErrors().get(0).getMessages().contains("price: Price is required"));
+        assertTrue(report.getErrors().get(1).getMessages().contains("name: Item name is required"));
+        assertEquals(List.of("name: duplicates row 1"), report.getErrors().get(2).getMessages());
+        assertEquals(3, report.getErrors().get(3).getMessages().size());
+    }
+
+    @Test
+    void testValidationChecksAddOnsAndLengths() {
+        BulkMenuItemRequest valid = row("Pho bo");
+        CreateMenuItemAddOnRequest addOn = new CreateMenuItemAddOnRequest();
+        addOn.setName("Them trung");
+        addOn.setPrice(new BigDecimal("5000"));
+        valid.setAddOns(List.of(addOn));
+
+        BulkMenuItemRequest invalid = row("x".repeat(256));
+        CreateMenuItemAddOnRequest negative = new CreateMenuItemAddOnRequest();
+        negative.setName("Giam gia");
+        negative.setPrice(new BigDecimal("-1"));
+        invalid.setAddOns(List.of(negative));
+        invalid.setTags(List.of(" "));
+
+        BulkMenuImportResponse report = menuImportService.validate(List.of(valid, invalid), Map.of());
+
+        assertEquals(1, report.getFailed());
+        List<String> messages = report.getErrors().get(0).getMessages();
+        assertTrue(messages.contains("addOns[0].price: Add-on price must be non-negative"));
+        assertTrue(messages.contains("name: must be at most 255 characters"));
+        assertTrue(messages.contains("tags: tag must not be blank"));
+    }
+
+    private BulkMenuItemRequest row(String name) {
+        BulkMenuItemRequest request = new BulkMenuItemRequest();
+        request.setName(name);
+        request.setPrice(new BigDecimal("45000"));
+        return request;
+    }
+}
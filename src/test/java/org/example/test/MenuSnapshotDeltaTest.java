@@ -0,0 +1,97 @@
+package org.example.test;
+
+import org.example.dto.mapper.MenuItemMapper;
+import org.example.dto.response.MenuDeltaResponse;
+import org.example.dto.response.MenuItemSummaryResponse;
+import org.example.entity.MenuItem;
+import org.example.entity.MenuItemAddOn;
+import org.example.service.MenuSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the versioned menu snapshot and ?sinceVersion= delta computation
+ */
+public class MenuSnapshotDeltaTest {
+
+    private MenuSnapshotService.Snapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        MenuItem pho = menuItem(1L, "Pho bo", "Pho", true, 2L);
+        MenuItem bun = menuItem(2L, "Bun cha", "Bun", true, 5L);
+        MenuItem soldOut = menuItem(3L, "Pho ga", "Pho", false, 6L);
+        MenuItem legacy = menuItem(4L, "Tra da", "Do uong", true, null);
+
+        List<MenuItemAddOn> addOns = List.of(
+            addOn(bun, "Them cha", "Topping"),
+            addOn(bun, "Size lon", "Size"),
+            addOn(pho, "Them trung", null),
+            addOn(soldOut, "Them thit", "Topping")
+        );
+
+        snapshot = MenuSnapshotService.Snapshot.build(9L, 6L, List.of(pho, bun, soldOut, legacy), addOns,
+            new MenuItemMapper());
+    }
+
+    @Test
+    void testSnapshotGroupsAvailableItemsCategoriesAndAddOns() {
+        assertEquals(List.of(1L, 2L, 4L), snapshot.getItems().stream().map(MenuItemSummaryResponse::getId).toList());
+        assertEquals(List.of("Bun", "Do uong", "Pho"), snapshot.getCategories());
+        assertEquals(List.of(1L), snapshot.getItemsByCategory("Pho").stream().map(MenuItemSummaryResponse::getId).toList());
+        assertEquals(List.of("Topping", "Size"), new ArrayList<>(snapshot.getAddOns().get(2L).keySet()));
+        assertTrue(snapshot.getAddOns().get(1L).containsKey("Other"));
+        assertFalse(snapshot.getAddOns().containsKey(3L));
+
+        assertEquals("\"menu-9-6\"", snapshot.getEtag());
+        assertTrue(snapshot.matches("W/\"menu-9-6\", \"other\""));
+        assertFalse(snapshot.matches("\"menu-9-5\""));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getItems().clear());
+    }
+
+    @Test
+    void testDeltaReturnsChangedAndRemovedItems() {
+        MenuDeltaResponse delta = snapshot.toDelta(2L, List.of(7L, 1L));
+
+        assertFalse(delta.getFullResync());
+        assertEquals(6L, delta.getVersion());
+        assertEquals(List.of(2L), delta.getItems().stream().map(MenuItemSummaryResponse::getId).toList());
+        assertEquals(List.of(2L), new ArrayList<>(delta.getAddOns().keySet()));
+        // Món ngừng bán và món bị xóa; món còn bán không bao giờ nằm trong danh sách bị xóa
+        assertEquals(List.of(3L, 7L), delta.getRemovedItemIds());
+
+        MenuDeltaResponse upToDate = snapshot.toDelta(6L, List.of());
+        assertTrue(upToDate.getItems().isEmpty());
+        assertTrue(upToDate.getRemovedItemIds().isEmpty());
+
+        // Item chưa từng có version (dữ liệu cũ) được coi là version 0, đã nằm trong snapshot version 0
+        assertEquals(List.of(1L, 2L), snapshot.toDelta(0L, List.of()).getItems().stream()
+            .map(MenuItemSummaryResponse::getId).toList());
+
+        MenuDeltaResponse resync = snapshot.toDelta(42L, List.of());
+        assertTrue(resync.getFullResync());
+        assertEquals(3, resync.getItems().size());
+    }
+
+    private MenuItem menuItem(Long id, String name, String category, boolean available, Long menuVersion) {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setId(id);
+        menuItem.setName(name);
+        menuItem.setCategory(category);
+        menuItem.setPrice(new BigDecimal("45000"));
+        menuItem.setIsAvailable(available);
+        menuItem.setMenuVersion(menuVersion);
+        menuItem.setTags(new ArrayList<>(List.of("Hot")));
+        return menuItem;
+    }
+
+    private MenuItemAddOn addOn(MenuItem menuItem, String name, String category) {
+        return new MenuItemAddOn(menuItem, name, new BigDecimal("5000"), category);
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.test;
+
+import org.example.entity.ApprovalStatus;
+import org.example.entity.Restaurant;
+import org.example.service.OpenRestaurantIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the open-now index driven by scheduled open/close transitions
+ */
+public class OpenRestaurantIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 10, 1, 0, 0);
+
+    private OpenRestaurantIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new OpenRestaurantIndex();
+        index.load(List.of(
+            restaurant(1L, LocalTime.of(8, 0), LocalTime.of(22, 0)),
+            restaurant(2L, LocalTime.of(22, 0), LocalTime.of(4, 0)),
+            restaurant(3L, LocalTime.of(0, 0), LocalTime.of(0, 0))
+        ), at(DAY.withHour(21).withMinute(59)));
+    }
+
+    @Test
+    void testInitialStatus() {
+        assertEquals(Set.of(1L, 3L), index.getOpenRestaurantIdsAt(at(DAY.withHour(21).withMinute(59))));
+    }
+
+    @Test
+    void testTransitionsAtOpeningAndClosingTime() {
+        // 22:00 - normal restaurant still open at exactly closing time, overnight one opens
+        assertEquals(Set.of(1L, 2L, 3L), index.getOpenRestaurantIdsAt(at(DAY.withHour(22))));
+
+        // 22:01 - normal restaurant closed
+        assertEquals(Set.of(2L, 3L), index.getOpenRestaurantIdsAt(at(DAY.withHour(22).withMinute(1))));
+
+        // Next day 04:01 - overnight restaurant closed
+        assertEquals(Set.of(3L), index.getOpenRestaurantIdsAt(at(DAY.plusDays(1).withHour(4).withMinute(1))));
+
+        // Next day 08:00 - normal restaurant open again
+        assertEquals(Set.of(1L, 3L), index.getOpenRestaurantIdsAt(at(DAY.plusDays(1).withHour(8))));
+    }
+
+    @Test
+    void testRefreshReplacesScheduleAndRemovesRestaurants() {
+        Instant now = at(DAY.withHour(21).withMinute(59));
+
+        // New hours: closes at 21:00, so closed right away; old 22:00 transition must be ignored
+        index.refresh(restaurant(1L, LocalTime.of(7, 0), LocalTime.of(21, 0)), now);
+        assertEquals(Set.of(3L), index.getOpenRestaurantIdsAt(now));
+        assertEquals(Set.of(2L, 3L), index.getOpenRestaurantIdsAt(at(DAY.withHour(22).withMinute(30))));
+
+        // Deactivated restaurant leaves the index
+        Restaurant inactive = restaurant(3L, LocalTime.of(0, 0), LocalTime.of(0, 0));
+        inactive.setIsActive(false);
+        index.refresh(inactive, now);
+        assertFalse(index.getOpenRestaurantIdsAt(at(DAY.withHour(23))).contains(3L));
+    }
+
+    private Instant at(LocalDateTime localDateTime) {
+        return localDateTime.atZone(Restaurant.DEFAULT_ZONE_ID).toInstant();
+    }
+
+    private Restaurant restaurant(Long id, LocalTime openingTime, LocalTime closingTime) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setIsActive(true);
+        restaurant.setApprovalStatus(ApprovalStatus.APPROVED);
+        restaurant.setOpeningTime(openingTime);
+        restaurant.setClosingTime(closingTime);
+        return restaurant;
+    }
+}
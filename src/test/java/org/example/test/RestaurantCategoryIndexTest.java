@@ -0,0 +1,89 @@
+package org.example.test;
+
+import org.example.entity.ApprovalStatus;
+import org.example.entity.Restaurant;
+import org.example.service.RestaurantCategoryIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the category bitset index used by multi-category and open-now filters
+ */
+public class RestaurantCategoryIndexTest {
+
+    private RestaurantCategoryIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RestaurantCategoryIndex();
+        index.load(List.of(
+            restaurant(1L, "Pho", "Bun"),
+            restaurant(2L, "Pho"),
+            restaurant(3L, "Cafe", "Banh Mi"),
+            restaurant(4L, "Bun", "Cafe")
+        ));
+    }
+
+    @Test
+    void testAnyAllAndOpenNowFilters() {
+        assertEquals(List.of(1L, 2L, 4L), index.findRestaurantIds(List.of("Pho", "Bun"), null, null));
+        assertEquals(List.of(1L), index.findRestaurantIds(null, List.of("Pho", "Bun"), null));
+        assertEquals(List.of(3L, 4L), index.findRestaurantIds(List.of("Bun", "Banh Mi"), List.of("Cafe"), null));
+        assertEquals(List.of(4L), index.findRestaurantIds(List.of("Bun"), List.of("Cafe"), null));
+        assertEquals(List.of(2L, 3L), index.findRestaurantIds(List.of("Pho", "Cafe"), null, Set.of(2L, 3L, 99L)));
+        assertTrue(index.findRestaurantIds(null, List.of("Pho", "Unknown"), null).isEmpty());
+        assertEquals(4, index.findRestaurantIds(null, null, null).size());
+    }
+
+    @Test
+    void testRefreshUpdatesCategoriesAndReusesOrdinals() {
+        Set<Long> openIds = Set.of(1L, 2L);
+        assertEquals(List.of(1L, 2L), index.findRestaurantIds(List.of("Pho"), null, openIds));
+
+        // Restaurant 2 đổi category, restaurant 1 bị ngừng hoạt động
+        index.refresh(restaurant(2L, "Cafe"));
+        Restaurant inactive = restaurant(1L, "Pho", "Bun");
+        inactive.setIsActive(false);
+        index.refresh(inactive);
+
+        assertTrue(index.findRestaurantIds(List.of("Pho"), null, null).isEmpty());
+        assertEquals(List.of(2L), index.findRestaurantIds(List.of("Cafe"), null, openIds));
+        assertTrue(index.matcher(List.of("Cafe")).matches(2L));
+        assertFalse(index.matcher(List.of("Cafe")).matches(1L));
+
+        // Restaurant mới nhận lại ordinal đã giải phóng, kết quả vẫn đúng theo ID
+        index.refresh(restaurant(5L, "Pho"));
+        assertEquals(List.of(5L), index.findRestaurantIds(List.of("Pho"), null, null));
+        assertEquals(List.of(2L), index.findRestaurantIds(null, null, openIds));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void testMatcherIsNotAffectedByOrdinalReuse() {
+        RestaurantCategoryIndex.Matcher cafe = index.matcher(List.of("Cafe"));
+
+        // Restaurant 3 bị gỡ, restaurant 6 nhận lại ordinal của nó với category khác
+        index.remove(3L);
+        index.refresh(restaurant(6L, "Pho"));
+
+        assertTrue(cafe.matches(3L));
+        assertTrue(cafe.matches(4L));
+        assertFalse(cafe.matches(6L));
+        assertFalse(index.matcher(List.of("Cafe")).matches(6L));
+    }
+
+    private Restaurant restaurant(Long id, String... categories) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setIsActive(true);
+        restaurant.setApprovalStatus(ApprovalStatus.APPROVED);
+        restaurant.setCategories(new ArrayList<>(List.of(categories)));
+        return restaurant;
+    }
+}
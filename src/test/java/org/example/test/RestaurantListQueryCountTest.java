@@ -0,0 +1,176 @@
+package org.example.test;
+
+import org.example.dto.response.CursorPageResponse;
+import org.example.entity.ApprovalStatus;
+import org.example.entity.Restaurant;
+import org.example.repository.RestaurantRepository;
+import org.example.service.RestaurantListQueryService;
+import org.example.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the restaurant list projection: the number of repository queries
+ * (one SQL statement each) must not grow with the size of the list
+ */
+public class RestaurantListQueryCountTest {
+
+    @Test
+    void testStatementCountIsConstantRegardlessOfListSize() {
+        assertEquals(4, countStatements(1));
+        assertEquals(4, countStatements(200));
+        assertEquals(1, countStatements(0));
+    }
+
+    @Test
+    void testRowsAreAssembledWithCollectionsAndUsers() {
+        StubRepository stub = new StubRepository(2);
+        RestaurantListQueryService service = serviceWith(stub);
+
+        List<Restaurant> restaurants = service.findApproved();
+
+        assertEquals(2, restaurants.size());
+        Restaurant first = restaurants.get(0);
+        assertEquals("Owner 1", first.getOwner().getFullName());
+        assertEquals("Admin", first.getApprovedBy().getFullName());
+        assertEquals(List.of("Pho", "Bun"), first.getCategories());
+        assertEquals(1, first.getWeeklyHours().size());
+        assertTrue(first.getHolidayOverrides().get(0).isClosedAllDay());
+    }
+
+    @Test
+    void testKeysetPageReturnsOpaqueCursorForNextPage() {
+        StubRepository stub = new StubRepository(30);
+        CursorPageResponse<Restaurant> page = serviceWith(stub).findApprovedPage(null, 20);
+
+        assertEquals(20, page.getItems().size());
+        assertTrue(page.getHasMore());
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor(), true);
+        assertEquals(20L, cursor.getId());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 11, 40), cursor.getCreatedAt());
+
+        page = serviceWith(new StubRepository(5)).findApprovedPage(page.getNextCursor(), 20);
+        assertFalse(page.getHasMore());
+        assertNull(page.getNextCursor());
+
+        assertEquals(RestaurantListQueryService.MAX_PAGE_SIZE, RestaurantListQueryService.capPageSize(10_000));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor", true));
+    }
+
+    @Test
+    void testLookupByIdsKeepsRequestedOrderWithConstantStatements() {
+        StubRepository stub = new StubRepository(50);
+        List<Restaurant> restaurants = serviceWith(stub).findByIdsInOrder(List.of(7L, 3L, 99L, 42L));
+
+        assertEquals(List.of(7L, 3L, 42L), restaurants.stream().map(Restaurant::getId).toList());
+        assertEquals(List.of("Pho", "Bun"), restaurants.get(0).getCategories());
+        assertEquals(4, stub.statements);
+        assertTrue(serviceWith(stub).findByIdsInOrder(List.of()).isEmpty());
+    }
+
+    private int countStatements(int restaurantCount) {
+        StubRepository stub = new StubRepository(restaurantCount);
+        List<Restaurant> restaurants = serviceWith(stub).findApproved();
+        assertEquals(restaurantCount, restaurants.size());
+        return stub.statements;
+    }
+
+    private RestaurantListQueryService serviceWith(StubRepository stub) {
+        RestaurantListQueryService service = new RestaurantListQueryService();
+        ReflectionTestUtils.setField(service, "restaurantRepository", stub.proxy());
+        return service;
+    }
+
+    /**
+     * Repository giả trả về dữ liệu cố định và đếm số truy vấn được gọi
+     */
+    private static final class StubRepository {
+
+        private final int restaurantCount;
+        private int statements;
+
+        StubRepository(int restaurantCount) {
+            this.restaurantCount = restaurantCount;
+        }
+
+        RestaurantRepository proxy() {
+            return (RestaurantRepository) Proxy.newProxyInstance(
+                RestaurantRepository.class.getClassLoader(),
+                new Class<?>[]{RestaurantRepository.class},
+                (proxy, method, args) -> {
+                    statements++;
+                    switch (method.getName()) {
+                        case "findListRowsByApprovalStatus":
+                            return listRows();
+                        case "findListRowsByApprovalStatusBefore":
+                            int limit = ((Pageable) args[3]).getPageSize();
+                            return listRows().subList(0, Math.min(limit, restaurantCount));
+                        case "findListRowsByIdIn":
+                            Collection<?> ids = (Collection<?>) args[0];
+                            return listRows().stream().filter(row -> ids.contains(row.getId())).toList();
+                        case "findCategoriesByRestaurantIdIn":
+                            return rowsFor((Collection<?>) args[0], id -> List.of(
+                                Map.of("restaurantId", id, "category", "Pho"),
+                                Map.of("restaurantId", id, "category", "Bun")), RestaurantRepository.RestaurantCategoryRow.class);
+                        case "findWeeklyHoursByRestaurantIdIn":
+                            return rowsFor((Collection<?>) args[0], id -> List.of(Map.of(
+                                "restaurantId", id, "dayOfWeek", DayOfWeek.MONDAY,
+                                "openingTime", LocalTime.of(8, 0), "closingTime", LocalTime.of(22, 0))),
+                                RestaurantRepository.OpeningHoursRow.class);
+                        case "findHolidayOverridesByRestaurantIdIn":
+                            return rowsFor((Collection<?>) args[0], id -> List.of(Map.of(
+                                "restaurantId", id, "date", LocalDate.of(2025, 1, 1), "closed", true)),
+                                RestaurantRepository.HolidayOverrideRow.class);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        }
+
+        private List<RestaurantRepository.RestaurantListRow> listRows() {
+            List<RestaurantRepository.RestaurantListRow> rows = new ArrayList<>();
+            for (long id = 1; id <= restaurantCount; id++) {
+                rows.add(row(RestaurantRepository.RestaurantListRow.class, Map.of(
+                    "id", id, "name", "Restaurant " + id, "isActive", true,
+                    "ownerId", 100 + id, "ownerName", "Owner " + id,
+                    "approvalStatus", ApprovalStatus.APPROVED, "approvedById", 1L, "approvedByName", "Admin",
+                    "createdAt", LocalDateTime.of(2025, 1, 1, 12, 0).minusMinutes(id))));
+            }
+            return rows;
+        }
+
+        private static <T> List<T> rowsFor(Collection<?> ids, Function<Long, List<Map<String, Object>>> values,
+                                           Class<T> type) {
+            List<T> rows = new ArrayList<>();
+            for (Object id : ids) {
+                for (Map<String, Object> value : values.apply((Long) id)) {
+                    rows.add(row(type, value));
+                }
+            }
+            return rows;
+        }
+
+        // Projection giả: getter đọc giá trị theo tên thuộc tính, thiếu thì trả về null
+        private static <T> T row(Class<T> type, Map<String, Object> values) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName().substring(3);
+                    return values.get(Character.toLowerCase(name.charAt(0)) + name.substring(1));
+                }));
+        }
+    }
+}
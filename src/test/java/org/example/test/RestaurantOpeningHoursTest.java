@@ -1,16 +1,29 @@
 package org.example.test;
 
+import org.example.entity.HolidayOverride;
+import org.example.entity.OpeningHours;
+import org.example.entity.OpeningSchedule;
 import org.example.entity.Restaurant;
 import org.example.entity.ApprovalStatus;
+import org.example.service.OrderService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+import org.springframework.test.util.ReflectionTestUtils;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
 
 /**
  * Test cases for Restaurant opening hours validation
- * Especially for overnight operations (e.g., 22:00 - 04:00)
+ * Especially for overnight operations (e.g., 22:00 - 04:00),
+ * weekly schedules, holiday overrides and restaurant timezones
  */
 public class RestaurantOpeningHoursTest {
     
@@ -111,4 +124,122 @@ public class RestaurantOpeningHoursTest {
         assertTrue(restaurant.isOpenAt(LocalTime.of(23, 0)), 
                   "Restaurant with hours 22:00-04:00 should be open at 23:00");
     }
-}
\ No newline at end of file
+    
+    // Monday 2025-10-06 .. Sunday 2025-10-12
+    private static final LocalDate MONDAY = LocalDate.of(2025, 10, 6);
+    
+    @Test
+    void testWeeklySchedule() {
+        // Mon-Fri 08:00 - 22:00, Saturday 10:00 - 02:00 (overnight), Sunday closed
+        List<OpeningHours> weeklyHours = new ArrayList<>();
+        for (DayOfWeek day : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY)) {
+            weeklyHours.add(new OpeningHours(day, LocalTime.of(8, 0), LocalTime.of(22, 0)));
+        }
+        weeklyHours.add(new OpeningHours(DayOfWeek.SATURDAY, LocalTime.of(10, 0), LocalTime.of(2, 0)));
+        restaurant.setWeeklyHours(weeklyHours);
+        
+        assertTrue(restaurant.isOpenAt(MONDAY.atTime(8, 0)));
+        assertTrue(restaurant.isOpenAt(MONDAY.plusDays(4).atTime(22, 0)));   // Friday, exactly closing time
+        assertTrue(restaurant.isOpenAt(MONDAY.plusDays(5).atTime(23, 0)));   // Saturday night
+        assertTrue(restaurant.isOpenAt(MONDAY.plusDays(6).atTime(1, 30)));   // Saturday's shift runs into Sunday
+        
+        assertFalse(restaurant.isOpenAt(MONDAY.atTime(7, 59)));
+        assertFalse(restaurant.isOpenAt(MONDAY.plusDays(5).atTime(9, 0)));   // Saturday opens later
+        assertFalse(restaurant.isOpenAt(MONDAY.plusDays(6).atTime(2, 1)));   // Sunday after Saturday's shift
+        assertFalse(restaurant.isOpenAt(MONDAY.plusDays(6).atTime(12, 0)));  // Sunday closed
+        
+        // Weekly hours take precedence over the single opening/closing pair
+        restaurant.setOpeningTime(LocalTime.of(0, 0));
+        restaurant.setClosingTime(LocalTime.of(0, 0));
+        assertFalse(restaurant.isOpenAt(MONDAY.plusDays(6).atTime(12, 0)));
+    }
+    
+    @Test
+    void testHolidayOverrides() {
+        // Overnight hours every day, closed on Wednesday, short hours on Thursday
+        restaurant.setOpeningTime(LocalTime.of(22, 0));
+        restaurant.setClosingTime(LocalTime.of(4, 0));
+        restaurant.setHolidayOverrides(List.of(
+            HolidayOverride.closedOn(MONDAY.plusDays(2)),
+            new HolidayOverride(MONDAY.plusDays(3), LocalTime.of(10, 0), LocalTime.of(14, 0))
+        ));
+        
+        assertTrue(restaurant.isOpenAt(MONDAY.plusDays(2).atTime(2, 0)));   // Tuesday's shift is not affected
+        assertFalse(restaurant.isOpenAt(MONDAY.plusDays(2).atTime(23, 0))); // Wednesday closed
+        assertFalse(restaurant.isOpenAt(MONDAY.plusDays(3).atTime(2, 0)));  // No Wednesday shift spilling over
+        assertTrue(restaurant.isOpenAt(MONDAY.plusDays(3).atTime(14, 0)));  // Thursday special hours
+        assertFalse(restaurant.isOpenAt(MONDAY.plusDays(3).atTime(23, 0)));
+        assertTrue(restaurant.isOpenAt(MONDAY.plusDays(4).atTime(23, 0)));  // Friday back to normal
+    }
+    
+    @Test
+    void testNextTransition() {
+        restaurant.setOpeningTime(LocalTime.of(8, 0));
+        restaurant.setClosingTime(LocalTime.of(22, 0));
+        OpeningSchedule schedule = restaurant.getOpeningSchedule();
+        
+        // Closing time itself is still open, so the restaurant closes right after it
+        assertEquals(MONDAY.atTime(22, 0).plusNanos(1), schedule.nextTransition(MONDAY.atTime(12, 0)));
+        assertEquals(MONDAY.plusDays(1).atTime(8, 0), schedule.nextTransition(MONDAY.atTime(23, 0)));
+        // Sunday night -> Monday morning wraps around the week
+        assertEquals(MONDAY.plusDays(7).atTime(8, 0), schedule.nextTransition(MONDAY.plusDays(6).atTime(23, 0)));
+        
+        // Closed on Tuesday: next opening skips to Wednesday
+        restaurant.setHolidayOverrides(List.of(HolidayOverride.closedOn(MONDAY.plusDays(1))));
+        schedule = restaurant.getOpeningSchedule();
+        assertEquals(MONDAY.plusDays(2).atTime(8, 0), schedule.nextTransition(MONDAY.atTime(23, 0)));
+        
+        // Always open: no transition at all, until a holiday closes it
+        restaurant.setOpeningTime(LocalTime.of(0, 0));
+        restaurant.setClosingTime(LocalTime.of(0, 0));
+        restaurant.setHolidayOverrides(List.of());
+        assertNull(restaurant.getOpeningSchedule().nextTransition(MONDAY.atTime(12, 0)));
+        
+        restaurant.setHolidayOverrides(List.of(HolidayOverride.closedOn(MONDAY.plusDays(1))));
+        LocalDateTime closesAt = restaurant.getOpeningSchedule().nextTransition(MONDAY.atTime(12, 0));
+        assertEquals(MONDAY.plusDays(1).atStartOfDay().plusNanos(1), closesAt);
+    }
+    
+    @Test
+    void testRestaurantTimezone() {
+        restaurant.setOpeningTime(LocalTime.of(8, 0));
+        restaurant.setClosingTime(LocalTime.of(22, 0));
+        
+        // 23:30 UTC is 06:30 in Ho Chi Minh City (default) but 08:30 in Tokyo
+        Instant instant = Instant.parse("2025-10-06T23:30:00Z");
+        assertFalse(restaurant.isOpenAt(instant));
+        
+        restaurant.setTimezone("Asia/Tokyo");
+        assertTrue(restaurant.isOpenAt(instant));
+    }
+    
+    @Test
+    void testPickupTimeLimitsUseRestaurantTimezone() {
+        // JVM chạy UTC, restaurant ở UTC+14: giờ địa phương của quán đi trước JVM 14 tiếng
+        TimeZone defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        try {
+            restaurant.setTimezone("Pacific/Kiritimati");
+            OrderService orderService = new OrderService();
+            LocalDateTime localNow = LocalDateTime.now(restaurant.getZoneId());
+            
+            // Hợp lệ theo giờ quán nhưng quá 7 ngày nếu tính theo giờ JVM
+            assertDoesNotThrow(() -> validatePickupTime(orderService, localNow.plusDays(7).minusHours(1)));
+            assertDoesNotThrow(() -> validatePickupTime(orderService, localNow.plusMinutes(45)));
+            
+            // Đã qua theo giờ quán nhưng vẫn "tương lai" nếu tính theo giờ JVM
+            assertThrows(IllegalArgumentException.class,
+                () -> validatePickupTime(orderService, localNow.minusHours(1)));
+            assertThrows(IllegalArgumentException.class,
+                () -> validatePickupTime(orderService, localNow.plusMinutes(10)));
+            assertThrows(IllegalArgumentException.class,
+                () -> validatePickupTime(orderService, localNow.plusDays(7).plusHours(1)));
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+    
+    private void validatePickupTime(OrderService orderService, LocalDateTime pickupTime) {
+        ReflectionTestUtils.invokeMethod(orderService, "validatePickupTime", pickupTime, restaurant);
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.test;
+
+import org.example.entity.ApprovalStatus;
+import org.example.dto.response.RestaurantClusterResponse;
+import org.example.entity.Restaurant;
+import org.example.repository.RestaurantRepository;
+import org.example.service.LocationService;
+import org.example.service.RestaurantSpatialIndex;
+import org.example.service.RouteRecommendationRanker;
+import org.example.util.GeoUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the in-memory restaurant spatial index
+ */
+public class RestaurantSpatialIndexTest {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private RestaurantSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RestaurantSpatialIndex();
+        // Ben Thanh market area, Ho Chi Minh City
+        index.refresh(restaurant(1L, 10.7725, 106.6980, ApprovalStatus.APPROVED));
+        index.refresh(restaurant(2L, 10.7769, 106.7009, ApprovalStatus.APPROVED));
+        index.refresh(restaurant(3L, 10.8231, 106.6297, ApprovalStatus.APPROVED));
+        index.refresh(restaurant(4L, 10.7730, 106.6985, ApprovalStatus.PENDING));
+    }
+
+    @Test
+    void testRadiusQueryReturnsOnlyApprovedWithinRadiusSortedByDistance() {
+        List<RestaurantSpatialIndex.Neighbor> result = index.findWithinRadius(10.7726, 106.6981, 1000);
+
+        assertEquals(List.of(1L, 2L), result.stream().map(RestaurantSpatialIndex.Neighbor::getRestaurantId).toList());
+        assertTrue(result.get(0).getDistanceMeters() <= result.get(1).getDistanceMeters());
+    }
+
+    @Test
+    void testNearestExpandsUntilEnoughResults() {
+        List<RestaurantSpatialIndex.Neighbor> result = index.findNearest(10.7726, 106.6981, 3);
+
+        assertEquals(List.of(1L, 2L, 3L), result.stream().map(RestaurantSpatialIndex.Neighbor::getRestaurantId).toList());
+        assertEquals(1, index.findNearest(10.7726, 106.6981, 1).size());
+    }
+
+    @Test
+    void testBoundingBoxQuery() {
+        List<RestaurantSpatialIndex.Entry> result = index.findWithinBoundingBox(10.80, 106.60, 10.85, 106.65);
+
+        assertEquals(1, result.size());
+        assertEquals(3L, result.get(0).getId());
+    }
+
+    @Test
+    void testRefreshMovesAndRemovesEntries() {
+        // Move restaurant 3 next to the market
+        index.refresh(restaurant(3L, 10.7727, 106.6982, ApprovalStatus.APPROVED));
+        assertEquals(3, index.findWithinRadius(10.7726, 106.6981, 1000).size());
+
+        // Rejecting a restaurant drops it from the index
+        index.refresh(restaurant(1L, 10.7725, 106.6980, ApprovalStatus.REJECTED));
+        assertFalse(index.get(1L).isPresent());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testRouteCorridorOrderedAlongRouteAndFilteredByCategory() {
+        // Route from restaurant 3 (north-west) to the market, via a bend
+        List<Coordinate> route = List.of(
+            new Coordinate(106.6297, 10.8231),
+            new Coordinate(106.6700, 10.8000),
+            new Coordinate(106.7009, 10.7769)
+        );
+
+        List<RestaurantSpatialIndex.Neighbor> result = index.findAlongRoute(route, 300, null);
+        assertEquals(List.of(3L, 2L), result.stream().map(RestaurantSpatialIndex.Neighbor::getRestaurantId).toList());
+
+        Restaurant pho = restaurant(2L, 10.7769, 106.7009, ApprovalStatus.APPROVED);
+        pho.setCategories(List.of("Pho"));
+        index.refresh(pho);
+        result = index.findAlongRoute(route, 300, List.of("Pho"));
+        assertEquals(List.of(2L), result.stream().map(RestaurantSpatialIndex.Neighbor::getRestaurantId).toList());
+    }
+
+    @Test
+    void testRouteRankingKeepsBestCandidatesByScore() {
+        Restaurant popular = restaurant(1L, 10.7725, 106.6980, ApprovalStatus.APPROVED);
+        popular.setRating(4.8);
+        popular.setTotalReviews(300);
+        index.refresh(popular);
+        Restaurant pho = restaurant(2L, 10.7769, 106.7009, ApprovalStatus.APPROVED);
+        pho.setCategories(List.of("Pho"));
+        index.refresh(pho);
+
+        List<RestaurantSpatialIndex.Neighbor> candidates = List.of(
+            new RestaurantSpatialIndex.Neighbor(index.get(3L).orElseThrow(), 400, 0),
+            new RestaurantSpatialIndex.Neighbor(index.get(2L).orElseThrow(), 200, 1000),
+            new RestaurantSpatialIndex.Neighbor(index.get(1L).orElseThrow(), 200, 2000)
+        );
+        RouteRecommendationRanker ranker = new RouteRecommendationRanker(2, 500, Instant.now(), 25, List.of("Pho"));
+
+        List<RestaurantSpatialIndex.Neighbor> ranked = ranker.rank(candidates);
+        assertEquals(List.of(2L, 1L), ranked.stream().map(RestaurantSpatialIndex.Neighbor::getRestaurantId).toList());
+        assertTrue(ranker.score(ranked.get(0)) >= ranker.score(ranked.get(1)));
+    }
+
+    @Test
+    void testDecodePolyline() {
+        List<Coordinate> coordinates = GeoUtils.decodePolyline("_p~iF~ps|U_ulLnnqC_mqNvxq`@");
+
+        assertEquals(3, coordinates.size());
+        assertEquals(38.5, coordinates.get(0).getY(), 1e-9);
+        assertEquals(-120.2, coordinates.get(0).getX(), 1e-9);
+        assertEquals(43.252, coordinates.get(2).getY(), 1e-9);
+        assertEquals(-126.453, coordinates.get(2).getX(), 1e-9);
+    }
+
+    @Test
+    void testRejectsMalformedPolylinesAndOversizedRoutes() {
+        // Ký tự ngoài '?'..'~', giá trị dài hơn 6 nhóm, tọa độ ngoài phạm vi
+        assertThrows(IllegalArgumentException.class, () -> GeoUtils.decodePolyline("_p~iF ps|U"));
+        assertThrows(IllegalArgumentException.class, () -> GeoUtils.decodePolyline("~~~~~~~?"));
+        assertThrows(IllegalArgumentException.class, () -> GeoUtils.decodePolyline("_mljP?"));
+
+        // Hà Nội -> TP.HCM khoảng 1.140 km
+        List<Coordinate> longRoute = List.of(new Coordinate(105.85, 21.03), new Coordinate(106.70, 10.78));
+        assertThrows(IllegalArgumentException.class, () -> index.findAlongRoute(longRoute, 500, null));
+        List<Coordinate> shortRoute = List.of(new Coordinate(105.85, 21.03), new Coordinate(105.86, 21.04));
+        assertDoesNotThrow(() -> index.findAlongRoute(shortRoute, 500, null));
+    }
+
+    @Test
+    void testGeohashRoundTrip() {
+        assertEquals("u4pruydqqvj", GeoUtils.geohash(57.64911, 10.40744, 11));
+
+        double[] bounds = GeoUtils.geohashBounds("w3gv");
+        double latitude = (bounds[0] + bounds[2]) / 2;
+        double longitude = (bounds[1] + bounds[3]) / 2;
+        assertEquals("w3gv", GeoUtils.geohash(latitude, longitude, 4));
+    }
+
+    @Test
+    void testRebuildKeepsChangesCommittedWhileReadingDatabase() {
+        // Rebuild đọc bản cũ của quán 1 và 2; trong lúc đó quán 1 bị từ chối và quán 2 được dời chỗ
+        List<Restaurant> staleRows = List.of(
+            restaurant(1L, 10.7725, 106.6980, ApprovalStatus.APPROVED),
+            restaurant(2L, 10.7769, 106.7009, ApprovalStatus.APPROVED));
+        RestaurantRepository repository = (RestaurantRepository) Proxy.newProxyInstance(
+            RestaurantRepository.class.getClassLoader(),
+            new Class<?>[]{RestaurantRepository.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("findAllActiveAndApprovedWithCategories")) {
+                    index.refresh(restaurant(1L, 10.7725, 106.6980, ApprovalStatus.REJECTED));
+                    index.refresh(restaurant(2L, 10.8231, 106.6297, ApprovalStatus.APPROVED));
+                    return staleRows;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        ReflectionTestUtils.setField(index, "restaurantRepository", repository);
+
+        index.rebuild();
+
+        assertFalse(index.get(1L).isPresent());
+        assertEquals(10.8231, index.get(2L).orElseThrow().getLatitude(), 1e-9);
+        assertEquals(List.of(2L), index.findWithinBoundingBox(10.80, 106.60, 10.85, 106.65).stream()
+            .map(RestaurantSpatialIndex.Entry::getId).toList());
+
+        // Sau rebuild không còn ghi nhận thay đổi
+        index.refresh(restaurant(5L, 10.7725, 106.6980, ApprovalStatus.APPROVED));
+        assertNull(ReflectionTestUtils.getField(index, "changedDuringRebuild"));
+    }
+
+    @Test
+    void testHighZoomWithWideBoundingBoxIsStillClustered() {
+        LocationService locationService = new LocationService();
+        ReflectionTestUtils.setField(index, "ready", true);
+        ReflectionTestUtils.setField(locationService, "restaurantSpatialIndex", index);
+
+        // Viewport nhỏ quanh chợ Bến Thành: từng quán riêng lẻ
+        List<RestaurantClusterResponse> street = locationService.findRestaurantClusters(10.770, 106.695, 10.780, 106.705, 16);
+        assertEquals(2, street.size());
+        assertTrue(street.stream().allMatch(cluster -> cluster.getCount() == 1));
+
+        // Cả nước ở zoom 16: hạ zoom nên hai quán gần chợ gộp thành một cluster
+        List<RestaurantClusterResponse> country = locationService.findRestaurantClusters(8.0, 102.0, 23.5, 110.0, 16);
+        assertEquals(3, country.stream().mapToLong(RestaurantClusterResponse::getCount).sum());
+        assertEquals(2, country.get(0).getCount());
+    }
+
+    private Restaurant restaurant(Long id, double latitude, double longitude, ApprovalStatus status) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName("Restaurant " + id);
+        restaurant.setIsActive(true);
+        restaurant.setApprovalStatus(status);
+        restaurant.setLocation(geometryFactory.createPoint(new Coordinate(longitude, latitude)));
+        return restaurant;
+    }
+}
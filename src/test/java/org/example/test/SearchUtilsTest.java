@@ -0,0 +1,36 @@
+package org.example.test;
+
+import org.example.util.SearchUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for building prefix tsqueries from user input
+ */
+public class SearchUtilsTest {
+
+    @Test
+    void testBuildsPrefixQueryFromWords() {
+        assertEquals("phở:* & bò:*", SearchUtils.toPrefixTsQuery("  Phở   BÒ "));
+        assertEquals("bun:* & cha:* & 2:*", SearchUtils.toPrefixTsQuery("bun-cha (2)"));
+        // Ký tự đặc biệt của tsquery bị bỏ
+        assertEquals("com:* & ga:*", SearchUtils.toPrefixTsQuery("com & ga | !:*'"));
+        assertEquals("", SearchUtils.toPrefixTsQuery(" &|! "));
+        assertEquals("", SearchUtils.toPrefixTsQuery(null));
+    }
+
+    @Test
+    void testKeepsDecomposedDiacriticsInOneWord() {
+        // "phở bò" gõ bằng dấu tổ hợp (o + dấu móc + dấu hỏi)
+        String decomposed = "pho\u031B\u0309 bo\u0300";
+        assertEquals("phở:* & bò:*", SearchUtils.toPrefixTsQuery(decomposed));
+    }
+
+    @Test
+    void testLimitsAndDeduplicatesTerms() {
+        assertEquals("pho:*", SearchUtils.toPrefixTsQuery("pho PHO pho"));
+        String query = SearchUtils.toPrefixTsQuery("a b c d e f g h i j k");
+        assertEquals(SearchUtils.MAX_TERMS, query.split(" & ").length);
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.test;
+
+import org.example.entity.ApprovalStatus;
+import org.example.entity.Restaurant;
+import org.example.repository.RestaurantRepository;
+import org.example.service.OpenRestaurantIndex;
+import org.example.service.RestaurantSpatialIndex;
+import org.example.service.RestaurantTileService;
+import org.example.util.GeoUtils;
+import org.example.util.VectorTileEncoder;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for Mapbox Vector Tile encoding and tile coordinate math
+ */
+public class VectorTileEncoderTest {
+
+    @Test
+    void testEncodeSinglePointLayer() {
+        VectorTileEncoder encoder = new VectorTileEncoder("r");
+        encoder.addPoint(1, 10, 20, Map.of("open", true));
+
+        byte[] expected = bytes(
+            0x1A, 0x21,                                     // Tile.layers, 33 bytes
+            0x78, 0x02,                                     // Layer.version = 2
+            0x0A, 0x01, 'r',                                // Layer.name
+            0x12, 0x0D,                                     // Layer.features, 13 bytes
+            0x08, 0x01,                                     //   Feature.id = 1
+            0x12, 0x02, 0x00, 0x00,                         //   Feature.tags = [key 0, value 0]
+            0x18, 0x01,                                     //   Feature.type = POINT
+            0x22, 0x03, 0x09, 0x14, 0x28,                   //   Feature.geometry = MoveTo(10, 20)
+            0x1A, 0x04, 'o', 'p', 'e', 'n',                 // Layer.keys
+            0x22, 0x02, 0x38, 0x01,                         // Layer.values = bool true
+            0x28, 0x80, 0x20                                // Layer.extent = 4096
+        );
+        assertArrayEquals(expected, encoder.encode());
+    }
+
+    @Test
+    void testTileMath() {
+        double[] world = GeoUtils.tileBounds(0, 0, 0);
+        assertEquals(-180, world[1], 1e-9);
+        assertEquals(180, world[3], 1e-9);
+        assertEquals(85.0511, world[2], 1e-4);
+
+        // Ben Thanh market at zoom 15
+        int x = (int) Math.floor(GeoUtils.lngToTileX(106.6980, 15));
+        int y = (int) Math.floor(GeoUtils.latToTileY(10.7725, 15));
+        double[] bounds = GeoUtils.tileBounds(15, x, y);
+        assertTrue(bounds[0] <= 10.7725 && 10.7725 <= bounds[2]);
+        assertTrue(bounds[1] <= 106.6980 && 106.6980 <= bounds[3]);
+    }
+
+    @Test
+    void testDatabaseFallbackTileMatchesIndexTile() {
+        Restaurant open = restaurant(1L, "Pho 24", 10.7725, 106.6980, 4.5, LocalTime.MIN, LocalTime.of(23, 59));
+        Restaurant closed = restaurant(2L, "Bun Cha", 10.7730, 106.6985, null, LocalTime.of(3, 0), LocalTime.of(3, 1));
+        Instant now = Instant.parse("2025-01-06T05:00:00Z");
+        OpenRestaurantIndex openRestaurantIndex = new OpenRestaurantIndex();
+        openRestaurantIndex.load(List.of(open, closed), now);
+
+        RestaurantSpatialIndex index = new RestaurantSpatialIndex();
+        index.refresh(open);
+        index.refresh(closed);
+        ReflectionTestUtils.setField(index, "ready", true);
+        RestaurantTileService fromIndex = tileService(index, openRestaurantIndex, null);
+
+        List<RestaurantRepository.RestaurantMarker> rows = List.of(
+            marker(1L, "Pho 24", 4.5, 10.7725, 106.6980),
+            marker(2L, "Bun Cha", 0.0, 10.7730, 106.6985));
+        RestaurantTileService fromDatabase = tileService(new RestaurantSpatialIndex(), openRestaurantIndex, rows);
+
+        int x = (int) Math.floor(GeoUtils.lngToTileX(106.6980, 15));
+        int y = (int) Math.floor(GeoUtils.latToTileY(10.7725, 15));
+        byte[] tile = fromIndex.getTile(15, x, y);
+        assertTrue(tile.length > 0);
+        assertArrayEquals(tile, fromDatabase.getTile(15, x, y));
+    }
+
+    private static RestaurantTileService tileService(RestaurantSpatialIndex index, OpenRestaurantIndex openRestaurantIndex,
+                                                     List<RestaurantRepository.RestaurantMarker> rows) {
+        RestaurantTileService service = new RestaurantTileService();
+        ReflectionTestUtils.setField(service, "restaurantSpatialIndex", index);
+        ReflectionTestUtils.setField(service, "openRestaurantIndex", openRestaurantIndex);
+        ReflectionTestUtils.setField(service, "restaurantRepository", Proxy.newProxyInstance(
+            RestaurantRepository.class.getClassLoader(),
+            new Class<?>[]{RestaurantRepository.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("findMarkersInBoundingBox")) {
+                    return rows;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }));
+        return service;
+    }
+
+    private static Restaurant restaurant(Long id, String name, double latitude, double longitude, Double rating,
+                                         LocalTime openingTime, LocalTime closingTime) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName(name);
+        restaurant.setIsActive(true);
+        restaurant.setApprovalStatus(ApprovalStatus.APPROVED);
+        restaurant.setRating(rating);
+        restaurant.setOpeningTime(openingTime);
+        restaurant.setClosingTime(closingTime);
+        restaurant.setLocation(new GeometryFactory(new PrecisionModel(), 4326)
+            .createPoint(new Coordinate(longitude, latitude)));
+        return restaurant;
+    }
+
+    private static RestaurantRepository.RestaurantMarker marker(Long id, String name, double rating,
+                                                                double latitude, double longitude) {
+        Map<String, Object> values = Map.of("getId", id, "getName", name, "getRating", rating,
+            "getLatitude", latitude, "getLongitude", longitude);
+        return (RestaurantRepository.RestaurantMarker) Proxy.newProxyInstance(
+            RestaurantRepository.RestaurantMarker.class.getClassLoader(),
+            new Class<?>[]{RestaurantRepository.RestaurantMarker.class},
+            (proxy, method, args) -> values.get(method.getName()));
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+}